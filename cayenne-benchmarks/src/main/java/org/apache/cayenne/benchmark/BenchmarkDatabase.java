@@ -0,0 +1,48 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+/**
+ * Embedded databases that benchmarks can run against. Each benchmark trial gets its own in-memory database, so
+ * the data created by one trial is never seen by another.
+ *
+ * @since 4.2
+ */
+public enum BenchmarkDatabase {
+
+    HSQLDB("org.hsqldb.jdbc.JDBCDriver", "jdbc:hsqldb:mem:%s"),
+    H2("org.h2.Driver", "jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1"),
+    DERBY("org.apache.derby.jdbc.EmbeddedDriver", "jdbc:derby:memory:%s;create=true");
+
+    private final String driver;
+    private final String urlPattern;
+
+    BenchmarkDatabase(String driver, String urlPattern) {
+        this.driver = driver;
+        this.urlPattern = urlPattern;
+    }
+
+    public String getDriver() {
+        return driver;
+    }
+
+    public String getUrl(String databaseName) {
+        return String.format(urlPattern, databaseName);
+    }
+}
@@ -0,0 +1,104 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.access.dbsync.CreateIfNoSchemaStrategy;
+import org.apache.cayenne.access.dbsync.SchemaUpdateStrategyFactory;
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.benchmark.persistent.Gallery;
+import org.apache.cayenne.benchmark.persistent.Painting;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.datasource.DataSourceBuilder;
+import org.apache.cayenne.query.ObjectSelect;
+
+/**
+ * Creates {@link ServerRuntime} instances for benchmarks, each backed by a fresh in-memory database with the
+ * benchmark schema, and fills them with test data.
+ *
+ * @since 4.2
+ */
+public class BenchmarkRuntime {
+
+    static final String CONFIG = "cayenne-benchmark.xml";
+
+    private static final AtomicInteger DATABASE_COUNTER = new AtomicInteger();
+
+    private BenchmarkRuntime() {
+    }
+
+    /**
+     * Creates a runtime connected to a new empty database of the given type. Schema is generated on the first
+     * connection.
+     */
+    public static ServerRuntime create(BenchmarkDatabase database, int maxConnections) {
+
+        String databaseName = "cayenne_benchmark_" + DATABASE_COUNTER.incrementAndGet();
+
+        ServerRuntime runtime = ServerRuntime.builder()
+                .addConfig(CONFIG)
+                .dataSource(DataSourceBuilder
+                        .url(database.getUrl(databaseName))
+                        .driver(database.getDriver())
+                        .pool(1, maxConnections)
+                        .build())
+                .addModule(binder -> binder
+                        .bind(SchemaUpdateStrategyFactory.class)
+                        .toInstance(descriptor -> new CreateIfNoSchemaStrategy()))
+                .build();
+
+        // trigger schema generation outside of the measured code
+        ObjectSelect.query(Artist.class).selectCount(runtime.newContext());
+        return runtime;
+    }
+
+    /**
+     * Inserts the given number of artists, each with a fixed number of paintings, spread over a few galleries.
+     */
+    public static void populate(ServerRuntime runtime, int artists, int paintingsPerArtist) {
+
+        ObjectContext context = runtime.newContext();
+
+        Gallery[] galleries = new Gallery[5];
+        for (int i = 0; i < galleries.length; i++) {
+            galleries[i] = context.newObject(Gallery.class);
+            galleries[i].setGalleryName("gallery" + i);
+        }
+
+        for (int i = 0; i < artists; i++) {
+            Artist artist = context.newObject(Artist.class);
+            artist.setArtistName("artist" + i);
+            artist.setDateOfBirth(LocalDate.of(1900 + i % 100, 1 + i % 12, 1 + i % 28));
+
+            for (int j = 0; j < paintingsPerArtist; j++) {
+                Painting painting = context.newObject(Painting.class);
+                painting.setPaintingTitle("painting" + i + "_" + j);
+                painting.setEstimatedPrice(BigDecimal.valueOf(1000 + (i * 31 + j * 17) % 10000));
+                painting.setToArtist(artist);
+                painting.setToGallery(galleries[(i + j) % galleries.length]);
+            }
+        }
+
+        context.commitChanges();
+    }
+}
@@ -0,0 +1,163 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.benchmark.persistent.Painting;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.ObjectSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ObjectContext#commitChanges()} for batches of inserted, updated and deleted objects. Changes
+ * are prepared in per-invocation setup methods, so only the flush and the commit itself are measured.
+ *
+ * @since 4.2
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommitBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class RuntimeState {
+
+        @Param({"HSQLDB", "H2", "DERBY"})
+        public BenchmarkDatabase database;
+
+        @Param({"10", "100"})
+        public int batchSize;
+
+        ServerRuntime runtime;
+
+        @Setup
+        public void setUp() {
+            runtime = BenchmarkRuntime.create(database, 1);
+            BenchmarkRuntime.populate(runtime, 10, 1);
+        }
+
+        @TearDown
+        public void tearDown() {
+            runtime.shutdown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class InsertState {
+
+        ObjectContext context;
+
+        @Setup(Level.Invocation)
+        public void setUp(RuntimeState state) {
+            context = state.runtime.newContext();
+            Artist artist = ObjectSelect.query(Artist.class).selectFirst(context);
+
+            for (int i = 0; i < state.batchSize; i++) {
+                Painting painting = context.newObject(Painting.class);
+                painting.setPaintingTitle("inserted" + i);
+                painting.setEstimatedPrice(BigDecimal.valueOf(i));
+                painting.setToArtist(artist);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class UpdateState {
+
+        ObjectContext context;
+        int counter;
+
+        @Setup(Level.Invocation)
+        public void setUp(RuntimeState state) {
+            context = state.runtime.newContext();
+            List<Painting> paintings = paintingsBatch(context, state);
+
+            counter++;
+            for (Painting painting : paintings) {
+                painting.setEstimatedPrice(BigDecimal.valueOf(counter));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DeleteState {
+
+        ObjectContext context;
+
+        @Setup(Level.Invocation)
+        public void setUp(RuntimeState state) {
+            context = state.runtime.newContext();
+            List<Painting> paintings = paintingsBatch(context, state);
+            context.deleteObjects(paintings);
+        }
+    }
+
+    /**
+     * Returns "batchSize" paintings, inserting the missing ones first, so that update and delete benchmarks
+     * always have enough rows to work with.
+     */
+    static List<Painting> paintingsBatch(ObjectContext context, RuntimeState state) {
+        List<Painting> paintings = ObjectSelect.query(Painting.class).limit(state.batchSize).select(context);
+        if (paintings.size() < state.batchSize) {
+            Artist artist = ObjectSelect.query(Artist.class).selectFirst(context);
+            for (int i = paintings.size(); i < state.batchSize; i++) {
+                Painting painting = context.newObject(Painting.class);
+                painting.setPaintingTitle("prepared" + i);
+                painting.setToArtist(artist);
+            }
+            context.commitChanges();
+            paintings = ObjectSelect.query(Painting.class).limit(state.batchSize).select(context);
+        }
+        return paintings;
+    }
+
+    @Benchmark
+    public void insert(InsertState state) {
+        state.context.commitChanges();
+    }
+
+    @Benchmark
+    public void update(UpdateState state) {
+        state.context.commitChanges();
+    }
+
+    @Benchmark
+    public void delete(DeleteState state) {
+        state.context.commitChanges();
+    }
+}
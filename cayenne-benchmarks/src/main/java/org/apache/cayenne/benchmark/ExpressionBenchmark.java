@@ -0,0 +1,122 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.benchmark.persistent.Painting;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.query.Ordering;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures in-memory evaluation of {@link Expression#match(Object)} and {@link Ordering#orderList(List)}, and
+ * parsing of expression strings with {@link ExpressionFactory#exp(String, Object...)}. Objects are not registered
+ * in any context, so no database is involved.
+ *
+ * @since 4.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpressionBenchmark {
+
+    static final String EXPRESSION_STRING =
+            "paintingTitle like 'painting1%' and estimatedPrice > 5000 and toArtist.artistName in ('artist1', 'artist2', 'artist3')";
+
+    @Param({"1000"})
+    public int paintings;
+
+    private List<Painting> objects;
+    private Expression attributeQualifier;
+    private Expression pathQualifier;
+    private List<Ordering> orderings;
+
+    @Setup
+    public void setUp() {
+        objects = new ArrayList<>(paintings);
+        for (int i = 0; i < paintings; i++) {
+            Artist artist = new Artist();
+            artist.writePropertyDirectly(Artist.ARTIST_NAME.getName(), "artist" + (i % 50));
+
+            Painting painting = new Painting();
+            painting.writePropertyDirectly(Painting.PAINTING_TITLE.getName(), "painting" + i);
+            painting.writePropertyDirectly(Painting.ESTIMATED_PRICE.getName(), BigDecimal.valueOf((i * 31) % 10000));
+            painting.writePropertyDirectly(Painting.TO_ARTIST.getName(), artist);
+            objects.add(painting);
+        }
+
+        attributeQualifier = Painting.PAINTING_TITLE.like("painting1%")
+                .andExp(Painting.ESTIMATED_PRICE.gt(new BigDecimal(5000)));
+        pathQualifier = Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).in("artist1", "artist2", "artist3");
+        orderings = new ArrayList<>();
+        orderings.add(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).asc());
+        orderings.add(Painting.ESTIMATED_PRICE.desc());
+    }
+
+    @Benchmark
+    public void matchAttributes(Blackhole blackhole) {
+        for (Painting painting : objects) {
+            blackhole.consume(attributeQualifier.match(painting));
+        }
+    }
+
+    @Benchmark
+    public void matchPath(Blackhole blackhole) {
+        for (Painting painting : objects) {
+            blackhole.consume(pathQualifier.match(painting));
+        }
+    }
+
+    @Benchmark
+    public List<Painting> filterObjects() {
+        return pathQualifier.filterObjects(objects);
+    }
+
+    @Benchmark
+    public List<Painting> orderList() {
+        List<Painting> copy = new ArrayList<>(objects);
+        Ordering.orderList(copy, orderings);
+        return copy;
+    }
+
+    @Benchmark
+    public Expression parse() {
+        return ExpressionFactory.exp(EXPRESSION_STRING);
+    }
+}
@@ -0,0 +1,111 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.benchmark.persistent.Painting;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.ObjectSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the fetch path of {@link ObjectSelect#select(org.apache.cayenne.ObjectContext)}: SQL generation,
+ * row reading and object resolution, with and without prefetching. Each invocation uses a new context, so
+ * objects are always resolved from scratch.
+ *
+ * @since 4.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectSelectBenchmark {
+
+    @Param({"HSQLDB", "H2", "DERBY"})
+    public BenchmarkDatabase database;
+
+    @Param({"500"})
+    public int artists;
+
+    @Param({"4"})
+    public int paintingsPerArtist;
+
+    private ServerRuntime runtime;
+
+    @Setup
+    public void setUp() {
+        runtime = BenchmarkRuntime.create(database, 1);
+        BenchmarkRuntime.populate(runtime, artists, paintingsPerArtist);
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.shutdown();
+    }
+
+    @Benchmark
+    public List<Artist> select() {
+        return ObjectSelect.query(Artist.class).select(runtime.newContext());
+    }
+
+    @Benchmark
+    public List<Painting> selectWithQualifier() {
+        return ObjectSelect.query(Painting.class)
+                .where(Painting.PAINTING_TITLE.like("painting1%"))
+                .and(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).like("artist1%"))
+                .select(runtime.newContext());
+    }
+
+    @Benchmark
+    public List<Painting> selectJointPrefetch() {
+        return ObjectSelect.query(Painting.class)
+                .prefetch(Painting.TO_ARTIST.joint())
+                .select(runtime.newContext());
+    }
+
+    @Benchmark
+    public List<Artist> selectDisjointPrefetch() {
+        return ObjectSelect.query(Artist.class)
+                .prefetch(Artist.PAINTING_ARRAY.disjoint())
+                .select(runtime.newContext());
+    }
+
+    @Benchmark
+    public List<Artist> selectDisjointByIdPrefetch() {
+        return ObjectSelect.query(Artist.class)
+                .prefetch(Artist.PAINTING_ARRAY.disjointById())
+                .select(runtime.newContext());
+    }
+}
@@ -0,0 +1,114 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.access.ObjectStore;
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.ObjectSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ObjectStore} object registration, object lookups and snapshot lookups that go through the
+ * shared {@link org.apache.cayenne.access.DataRowStore}. These do not touch the database, so only HSQLDB is used
+ * to populate the store.
+ *
+ * @since 4.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectStoreBenchmark {
+
+    @Param({"1000"})
+    public int artists;
+
+    private ServerRuntime runtime;
+    private ObjectStore objectStore;
+    private Artist[] objects;
+    private ObjectId[] ids;
+
+    @Setup
+    public void setUp() {
+        runtime = BenchmarkRuntime.create(BenchmarkDatabase.HSQLDB, 1);
+        BenchmarkRuntime.populate(runtime, artists, 0);
+
+        DataContext context = (DataContext) runtime.newContext();
+        List<Artist> fetched = ObjectSelect.query(Artist.class).select(context);
+
+        objectStore = context.getObjectStore();
+        objects = fetched.toArray(new Artist[0]);
+        ids = new ObjectId[objects.length];
+        for (int i = 0; i < objects.length; i++) {
+            ids[i] = objects[i].getObjectId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.shutdown();
+    }
+
+    @Benchmark
+    public ObjectStore registerNodes() {
+        ObjectStore store = new ObjectStore(objectStore.getDataRowCache(), new HashMap<Object, Persistent>());
+        for (Artist object : objects) {
+            store.registerNode(object.getObjectId(), object);
+        }
+        return store;
+    }
+
+    @Benchmark
+    public Object getNode() {
+        return objectStore.getNode(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public DataRow getSnapshot() {
+        return objectStore.getSnapshot(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public DataRow getCachedSnapshot() {
+        return objectStore.getCachedSnapshot(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
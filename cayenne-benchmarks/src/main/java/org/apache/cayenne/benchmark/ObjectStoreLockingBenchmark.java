@@ -0,0 +1,124 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.access.ObjectStore;
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.ObjectSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures contended {@link ObjectStore} access: several threads looking up objects, while another thread keeps
+ * registering objects. "lock" mode uses the ObjectStore as is, with lock-free optimistic lookups. "monitor" mode
+ * emulates ObjectStore synchronization prior to 4.2, where every call was guarded by the ObjectStore monitor.
+ *
+ * @since 4.2
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectStoreLockingBenchmark {
+
+    @Param({"lock", "monitor"})
+    public String mode;
+
+    @Param({"1000"})
+    public int artists;
+
+    private ServerRuntime runtime;
+    private ObjectStore objectStore;
+    private Artist[] objects;
+    private ObjectId[] ids;
+    private boolean monitor;
+
+    @Setup
+    public void setUp() {
+        runtime = BenchmarkRuntime.create(BenchmarkDatabase.HSQLDB, 1);
+        BenchmarkRuntime.populate(runtime, artists, 0);
+
+        DataContext context = (DataContext) runtime.newContext();
+        List<Artist> fetched = ObjectSelect.query(Artist.class).select(context);
+
+        objectStore = context.getObjectStore();
+        objects = fetched.toArray(new Artist[0]);
+        ids = new ObjectId[objects.length];
+        for (int i = 0; i < objects.length; i++) {
+            ids[i] = objects[i].getObjectId();
+        }
+
+        monitor = "monitor".equals(mode);
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.shutdown();
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(3)
+    public Object getNode() {
+        ObjectId id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        if (monitor) {
+            synchronized (objectStore) {
+                return objectStore.getNode(id);
+            }
+        }
+
+        return objectStore.getNode(id);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public void registerNode() {
+        Artist object = objects[ThreadLocalRandom.current().nextInt(objects.length)];
+        if (monitor) {
+            synchronized (objectStore) {
+                objectStore.registerNode(object.getObjectId(), object);
+            }
+            return;
+        }
+
+        objectStore.registerNode(object.getObjectId(), object);
+    }
+}
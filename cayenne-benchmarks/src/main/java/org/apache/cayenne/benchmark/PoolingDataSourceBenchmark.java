@@ -0,0 +1,97 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.datasource.DataSourceBuilder;
+import org.apache.cayenne.datasource.PoolingDataSource;
+import org.apache.cayenne.datasource.PoolingDataSourceEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares connection pool engines under contention: many threads check out a connection, hold it for a short
+ * time and return it to a pool that is smaller than the number of threads. Run with "-t" option to change the
+ * number of threads.
+ *
+ * @since 4.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class PoolingDataSourceBenchmark {
+
+    private static int databaseCounter;
+
+    @Param({"BLOCKING_QUEUE", "CONCURRENT"})
+    public PoolingDataSourceEngine engine;
+
+    @Param({"10"})
+    public int maxConnections;
+
+    /**
+     * Amount of CPU work done while holding a connection, in JMH "tokens".
+     */
+    @Param({"100"})
+    public int work;
+
+    private PoolingDataSource dataSource;
+
+    @Setup
+    public void setUp() {
+        dataSource = DataSourceBuilder
+                .url(BenchmarkDatabase.HSQLDB.getUrl("cayenne_pool_benchmark_" + (++databaseCounter)))
+                .driver(BenchmarkDatabase.HSQLDB.getDriver())
+                .pool(maxConnections, maxConnections)
+                .maxQueueWaitTime(60000)
+                .engine(engine)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void checkoutAndReturn() throws SQLException {
+        try (Connection c = dataSource.getConnection()) {
+            Blackhole.consumeCPU(work);
+        }
+    }
+}
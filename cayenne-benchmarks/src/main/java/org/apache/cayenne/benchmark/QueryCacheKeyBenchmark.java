@@ -0,0 +1,138 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.query.ObjectSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares hashed query cache keys generated by {@link ObjectSelect} with plain string keys that contain the whole
+ * qualifier, for queries with "IN" lists of different sizes. Measures both creation of the key and lookup of a cache
+ * entry by a key that is equal, but not identical to the one stored in the cache. No database is involved.
+ *
+ * @since 4.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryCacheKeyBenchmark {
+
+    static final int CACHED_QUERIES = 100;
+
+    @Param({"10", "1000"})
+    public int inListSize;
+
+    private ServerRuntime runtime;
+    private EntityResolver resolver;
+    private List<String> names;
+
+    private Map<String, Object> hashedKeyCache;
+    private Map<String, Object> stringKeyCache;
+    private String hashedKey;
+    private String stringKey;
+
+    @Setup
+    public void setUp() {
+        runtime = BenchmarkRuntime.create(BenchmarkDatabase.HSQLDB, 1);
+        resolver = runtime.getDataDomain().getEntityResolver();
+
+        names = new ArrayList<>(inListSize);
+        for (int i = 0; i < inListSize; i++) {
+            names.add("artist" + i);
+        }
+
+        hashedKeyCache = new HashMap<>();
+        stringKeyCache = new HashMap<>();
+        for (int i = 0; i < CACHED_QUERIES; i++) {
+            hashedKeyCache.put(hashedKey(i), i);
+            stringKeyCache.put(stringKey(i), i);
+        }
+
+        // copies are equal to the cached keys, but are not the same instances
+        hashedKey = new String(hashedKey(CACHED_QUERIES / 2));
+        stringKey = new String(stringKey(CACHED_QUERIES / 2));
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.shutdown();
+    }
+
+    @Benchmark
+    public String createHashedKey() {
+        return hashedKey(0);
+    }
+
+    @Benchmark
+    public String createStringKey() {
+        return stringKey(0);
+    }
+
+    @Benchmark
+    public Object lookupHashedKey() {
+        return hashedKeyCache.get(hashedKey);
+    }
+
+    @Benchmark
+    public Object lookupStringKey() {
+        return stringKeyCache.get(stringKey);
+    }
+
+    private ObjectSelect<Artist> query(int offset) {
+        return ObjectSelect.query(Artist.class)
+                .where(Artist.ARTIST_NAME.in(names))
+                .offset(offset)
+                .sharedCache();
+    }
+
+    private String hashedKey(int offset) {
+        return query(offset).getMetaData(resolver).getCacheKey();
+    }
+
+    // the same information as in the hashed key, but appended as a string
+    private String stringKey(int offset) {
+        Expression where = query(offset).getWhere();
+        return new StringBuilder("Artist/").append(where).append("/o").append(offset).toString();
+    }
+}
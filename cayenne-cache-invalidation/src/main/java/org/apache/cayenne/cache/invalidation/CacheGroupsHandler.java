@@ -23,6 +23,7 @@ import org.apache.cayenne.Persistent;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.function.Function;
 
 /**
@@ -40,17 +41,32 @@ public class CacheGroupsHandler implements InvalidationHandler {
     @Override
     public Function<Persistent, Collection<CacheGroupDescriptor>> canHandle(Class<? extends Persistent> type) {
 
+        final Collection<CacheGroupDescriptor> groupsList = groupsForType(type);
+        if (groupsList.isEmpty()) {
+            return null;
+        }
+
+        return p -> groupsList;
+    }
+
+    /**
+     * Returns values of {@link CacheGroups} and {@link CacheGroup} annotations for the given type.
+     *
+     * @since 4.2
+     */
+    @Override
+    public Collection<CacheGroupDescriptor> groupsForType(Class<? extends Persistent> type) {
+
         CacheGroup multipleCacheGroups = type.getAnnotation(CacheGroup.class);
         CacheGroups cacheGroups = type.getAnnotation(CacheGroups.class);
         if (cacheGroups == null && multipleCacheGroups == null) {
-            return null;
+            return Collections.emptyList();
         }
 
-        final Collection<CacheGroupDescriptor> groupsList = new ArrayList<>();
+        Collection<CacheGroupDescriptor> groupsList = new ArrayList<>();
         extractCacheGroups(cacheGroups, groupsList);
         extractCacheGroups(multipleCacheGroups, groupsList);
-
-        return p -> groupsList;
+        return groupsList;
     }
 
     private void extractCacheGroups(CacheGroup cacheGroup, Collection<CacheGroupDescriptor> groupsList) {
@@ -0,0 +1,36 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache.invalidation;
+
+/**
+ * @since 4.2
+ */
+public interface CacheInvalidationConstants {
+
+    /**
+     * A boolean property that enables row-level invalidation of the query cache. When enabled, an entry of a cache
+     * group affected by a commit is removed only if it may contain the committed objects, instead of removing the
+     * whole group. Set by {@link CacheInvalidationModuleExtender#rowLevelInvalidation()}, that also installs the
+     * {@link DependencyTrackingQueryCache}. Without it, the property has no effect.
+     *
+     * @see QueryCacheDependencyIndex
+     */
+    String ROW_LEVEL_INVALIDATION_PROPERTY = "cayenne.cache.invalidation.row_level";
+}
@@ -19,21 +19,33 @@
 
 package org.apache.cayenne.cache.invalidation;
 
+import org.apache.cayenne.DataChannelQueryFilter;
+import org.apache.cayenne.DataChannelQueryFilterChain;
 import org.apache.cayenne.DataChannelSyncFilter;
 import org.apache.cayenne.DataChannelSyncFilterChain;
 import org.apache.cayenne.ObjectContext;
 import org.apache.cayenne.Persistent;
+import org.apache.cayenne.QueryResponse;
 import org.apache.cayenne.annotation.PrePersist;
 import org.apache.cayenne.annotation.PreRemove;
 import org.apache.cayenne.annotation.PreUpdate;
 import org.apache.cayenne.cache.QueryCache;
+import org.apache.cayenne.cache.invalidation.QueryCacheDependencyIndex.ObjectChange;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.di.Provider;
 import org.apache.cayenne.graph.GraphDiff;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.map.ObjEntity;
+import org.apache.cayenne.query.BulkQuery;
+import org.apache.cayenne.query.Query;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,6 +61,14 @@ import java.util.function.Function;
  * Default rule is based on entities' {@link CacheGroups} annotation.
  * </p>
  * <p>
+ * The filter is also a {@link DataChannelQueryFilter}, that invalidates all cache groups of the entities affected by
+ * {@link BulkQuery bulk} UPDATE and DELETE queries, as these modify rows bypassing the object graph.
+ * </p>
+ * <p>
+ * If row-level invalidation is enabled, only the entries of the invalidated groups that may depend on the
+ * committed objects are removed. See {@link QueryCacheDependencyIndex} for details.
+ * </p>
+ * <p>
  * To add default filter: <pre>
  *         ServerRuntime.builder("cayenne-project.xml")
  *              .addModule(CacheInvalidationModuleBuilder.builder().build());
@@ -59,20 +79,35 @@ import java.util.function.Function;
  * @see InvalidationHandler
  * @since 4.0 enhanced to support custom handlers.
  */
-public class CacheInvalidationFilter implements DataChannelSyncFilter {
+public class CacheInvalidationFilter implements DataChannelSyncFilter, DataChannelQueryFilter {
 
     private final Provider<QueryCache> cacheProvider;
     private final List<InvalidationHandler> handlers;
     private final Map<Class<? extends Persistent>, Function<Persistent, Collection<CacheGroupDescriptor>>> mappedHandlers;
+    private final Map<Class<? extends Persistent>, Collection<CacheGroupDescriptor>> typeGroups;
     private final Function<Persistent, Collection<CacheGroupDescriptor>> skipHandler;
     private final ThreadLocal<Set<CacheGroupDescriptor>> groups;
+    private final QueryCacheDependencyIndex dependencyIndex;
+    private final ThreadLocal<Map<CacheGroupDescriptor, Collection<ObjectChange>>> objectChanges;
 
     public CacheInvalidationFilter(@Inject Provider<QueryCache> cacheProvider, @Inject List<InvalidationHandler> handlers) {
+        this(cacheProvider, handlers, new QueryCacheDependencyIndex(false));
+    }
+
+    /**
+     * @since 4.2
+     */
+    public CacheInvalidationFilter(@Inject Provider<QueryCache> cacheProvider,
+                                   @Inject List<InvalidationHandler> handlers,
+                                   @Inject QueryCacheDependencyIndex dependencyIndex) {
         this.mappedHandlers = new ConcurrentHashMap<>();
+        this.typeGroups = new ConcurrentHashMap<>();
         this.skipHandler = p -> Collections.emptyList();
         this.groups = new ThreadLocal<>();
+        this.objectChanges = new ThreadLocal<>();
         this.cacheProvider = cacheProvider;
         this.handlers = handlers;
+        this.dependencyIndex = dependencyIndex;
     }
 
     @Override
@@ -85,28 +120,127 @@ public class CacheInvalidationFilter implements DataChannelSyncFilter {
             if (groupSet != null && !groupSet.isEmpty()) {
                 QueryCache cache = cacheProvider.get();
                 for (CacheGroupDescriptor group : groupSet) {
-                    if (group.getKeyType() != Void.class) {
-                        cache.removeGroup(group.getCacheGroupName(), group.getKeyType(), group.getValueType());
-                    } else {
-                        cache.removeGroup(group.getCacheGroupName());
+                    if (!removeAffectedEntries(cache, group)) {
+                        removeGroup(cache, group);
                     }
                 }
             }
             return result;
         } finally {
             groups.set(null);
+            objectChanges.set(null);
+        }
+    }
+
+    /**
+     * Invalidates cache groups of the entities modified by a {@link BulkQuery}. As the modified rows are not known,
+     * the groups are removed as a whole, even if row-level invalidation is enabled.
+     *
+     * @since 4.2
+     */
+    @Override
+    public QueryResponse onQuery(ObjectContext originatingContext, Query query, DataChannelQueryFilterChain filterChain) {
+        QueryResponse response = filterChain.onQuery(originatingContext, query);
+        if (query instanceof BulkQuery && originatingContext != null) {
+            Collection<CacheGroupDescriptor> bulkGroups = bulkQueryGroups(originatingContext.getEntityResolver(), query);
+            if (!bulkGroups.isEmpty()) {
+                QueryCache cache = cacheProvider.get();
+                for (CacheGroupDescriptor group : bulkGroups) {
+                    removeGroup(cache, group);
+                }
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Returns cache groups of all the entities mapped to the same table as the root of the bulk query.
+     */
+    private Collection<CacheGroupDescriptor> bulkQueryGroups(EntityResolver resolver, Query query) {
+        DbEntity dbEntity = query.getMetaData(resolver).getDbEntity();
+        if (dbEntity == null) {
+            return Collections.emptyList();
+        }
+
+        Collection<CacheGroupDescriptor> result = new LinkedHashSet<>();
+        for (ObjEntity entity : resolver.getObjEntities()) {
+            if (entity.getDbEntity() != dbEntity) {
+                continue;
+            }
+
+            Class<?> objectClass = resolver.getClassDescriptor(entity.getName()).getObjectClass();
+            if (Persistent.class.isAssignableFrom(objectClass)) {
+                result.addAll(typeGroups.computeIfAbsent(objectClass.asSubclass(Persistent.class), this::groupsForType));
+            }
+        }
+        return result;
+    }
+
+    private Collection<CacheGroupDescriptor> groupsForType(Class<? extends Persistent> type) {
+        Collection<CacheGroupDescriptor> result = new ArrayList<>();
+        for (InvalidationHandler handler : handlers) {
+            result.addAll(handler.groupsForType(type));
+        }
+        return result;
+    }
+
+    private void removeGroup(QueryCache cache, CacheGroupDescriptor group) {
+        if (group.getKeyType() != Void.class) {
+            cache.removeGroup(group.getCacheGroupName(), group.getKeyType(), group.getValueType());
+        } else {
+            cache.removeGroup(group.getCacheGroupName());
         }
     }
 
+    /**
+     * Removes entries of the group that may depend on the objects committed in this transaction. Returns false if
+     * the whole group should be removed instead.
+     */
+    private boolean removeAffectedEntries(QueryCache cache, CacheGroupDescriptor group) {
+        Map<CacheGroupDescriptor, Collection<ObjectChange>> txChanges = objectChanges.get();
+
+        // typed groups can only be cleared as a whole
+        if (txChanges == null || group.getKeyType() != Void.class) {
+            return false;
+        }
+
+        Collection<ObjectChange> groupChanges = txChanges.get(group);
+        if (groupChanges == null) {
+            return false;
+        }
+
+        Collection<String> keys = dependencyIndex.getAffectedKeys(group.getCacheGroupName(), groupChanges);
+        if (keys == null) {
+            return false;
+        }
+
+        for (String key : keys) {
+            cache.remove(key);
+        }
+        return true;
+    }
+
     /**
      * A callback method that records cache group to flush at the end of the commit.
      */
     @PrePersist
-    @PreRemove
     @PreUpdate
     protected void preCommit(Object object) {
         // TODO: for some reason we can't use Persistent as the argument type... (is it fixed in Cayenne 4.0.M4?)
-        Persistent p = (Persistent) object;
+        recordChange((Persistent) object, false);
+    }
+
+    /**
+     * A callback method that records cache group of a deleted object to flush at the end of the commit.
+     *
+     * @since 4.2
+     */
+    @PreRemove
+    protected void preRemove(Object object) {
+        recordChange((Persistent) object, true);
+    }
+
+    private void recordChange(Persistent p, boolean deleted) {
 
         Function<Persistent, Collection<CacheGroupDescriptor>> invalidationFunction = mappedHandlers
                 .computeIfAbsent(p.getClass(), cl -> {
@@ -122,6 +256,19 @@ public class CacheInvalidationFilter implements DataChannelSyncFilter {
         Collection<CacheGroupDescriptor> objectGroups = invalidationFunction.apply(p);
         if (!objectGroups.isEmpty()) {
             getOrCreateTxGroups().addAll(objectGroups);
+
+            if (dependencyIndex.isEnabled()) {
+                ObjectChange change = QueryCacheDependencyIndex.change(p, deleted);
+                Map<CacheGroupDescriptor, Collection<ObjectChange>> txChanges = objectChanges.get();
+                if (txChanges == null) {
+                    txChanges = new HashMap<>();
+                    objectChanges.set(txChanges);
+                }
+
+                for (CacheGroupDescriptor group : objectGroups) {
+                    txChanges.computeIfAbsent(group, g -> new ArrayList<>()).add(change);
+                }
+            }
         }
     }
 
@@ -49,10 +49,13 @@ public class CacheInvalidationModule implements Module {
     public void configure(Binder binder) {
 
         binder.bind(CacheGroupsHandler.class).to(CacheGroupsHandler.class);
+        binder.bind(QueryCacheDependencyIndex.class).to(QueryCacheDependencyIndex.class);
         contributeInvalidationHandler(binder).add(CacheGroupsHandler.class);
 
         // want the filter to be INSIDE transaction by default
         ServerModule.contributeDomainSyncFilters(binder)
                 .insertBefore(CacheInvalidationFilter.class, TransactionFilter.class);
+        // same filter also tracks bulk queries that modify rows bypassing the object graph
+        ServerModule.contributeDomainQueryFilters(binder).add(CacheInvalidationFilter.class);
     }
 }
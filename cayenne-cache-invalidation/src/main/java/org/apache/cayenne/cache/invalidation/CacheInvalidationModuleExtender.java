@@ -20,11 +20,14 @@
 package org.apache.cayenne.cache.invalidation;
 
 import org.apache.cayenne.Persistent;
+import org.apache.cayenne.cache.QueryCache;
+import org.apache.cayenne.configuration.server.ServerModule;
 import org.apache.cayenne.di.Binder;
 import org.apache.cayenne.di.ListBuilder;
 import org.apache.cayenne.di.Module;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.function.Function;
 
@@ -36,6 +39,7 @@ public class CacheInvalidationModuleExtender {
     private Collection<Class<? extends InvalidationHandler>> handlerTypes;
     private Collection<InvalidationHandler> handlerInstances;
     private boolean noCacheGroupsHandler;
+    private boolean rowLevelInvalidation;
 
     CacheInvalidationModuleExtender() {
         this.handlerTypes = new HashSet<>();
@@ -51,6 +55,18 @@ public class CacheInvalidationModuleExtender {
         return this;
     }
 
+    /**
+     * Enables row-level invalidation, that removes only the entries of the invalidated cache groups that may depend
+     * on the committed objects.
+     *
+     * @see QueryCacheDependencyIndex
+     * @since 4.2
+     */
+    public CacheInvalidationModuleExtender rowLevelInvalidation() {
+        rowLevelInvalidation = true;
+        return this;
+    }
+
     public CacheInvalidationModuleExtender addHandler(Class<? extends InvalidationHandler> handlerType) {
         handlerTypes.add(handlerType);
         return this;
@@ -71,9 +87,20 @@ public class CacheInvalidationModuleExtender {
                     public Function<Persistent, Collection<CacheGroupDescriptor>> canHandle(Class<? extends Persistent> type) {
                         return null;
                     }
+
+                    @Override
+                    public Collection<CacheGroupDescriptor> groupsForType(Class<? extends Persistent> type) {
+                        return Collections.emptyList();
+                    }
                 });
             }
 
+            if (rowLevelInvalidation) {
+                ServerModule.contributeProperties(binder)
+                        .put(CacheInvalidationConstants.ROW_LEVEL_INVALIDATION_PROPERTY, "true");
+                binder.decorate(QueryCache.class).before(DependencyTrackingQueryCache.class);
+            }
+
             ListBuilder<InvalidationHandler> handlers = CacheInvalidationModule.contributeInvalidationHandler(binder);
 
             handlers.addAll(handlerInstances);
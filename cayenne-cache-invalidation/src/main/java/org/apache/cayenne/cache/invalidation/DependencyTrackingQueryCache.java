@@ -0,0 +1,113 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache.invalidation;
+
+import java.util.List;
+
+import org.apache.cayenne.cache.QueryCache;
+import org.apache.cayenne.cache.QueryCacheEntryFactory;
+import org.apache.cayenne.di.BeforeScopeEnd;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.QueryMetadata;
+import org.apache.cayenne.util.Util;
+
+/**
+ * A {@link QueryCache} decorator that records dependencies of the cached results in the
+ * {@link QueryCacheDependencyIndex}. Installed by {@link CacheInvalidationModuleExtender#rowLevelInvalidation()}.
+ *
+ * @since 4.2
+ */
+public class DependencyTrackingQueryCache implements QueryCache {
+
+    protected final QueryCache delegate;
+    protected final QueryCacheDependencyIndex index;
+
+    public DependencyTrackingQueryCache(@Inject QueryCache delegate, @Inject QueryCacheDependencyIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+        index.startTracking();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public List get(QueryMetadata metadata) {
+        List result = delegate.get(metadata);
+        if (result == null && metadata.getCacheGroup() != null) {
+            // the entry is missing or was evicted, drop its dependencies
+            index.remove(metadata.getCacheGroup(), metadata.getCacheKey());
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public List get(QueryMetadata metadata, QueryCacheEntryFactory factory) {
+        if (!index.isEnabled()) {
+            return delegate.get(metadata, factory);
+        }
+
+        return delegate.get(metadata, () -> {
+            List result = factory.createObject();
+            index.record(metadata, result);
+            return result;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void put(QueryMetadata metadata, List results) {
+        // record first, so that an entry is never cached without its dependencies
+        index.record(metadata, results);
+        delegate.put(metadata, results);
+    }
+
+    @Override
+    public void remove(String key) {
+        delegate.remove(key);
+        index.remove(key);
+    }
+
+    @Override
+    public void removeGroup(String groupKey) {
+        delegate.removeGroup(groupKey);
+        index.removeGroup(groupKey);
+    }
+
+    @Override
+    public void removeGroup(String groupKey, Class<?> keyType, Class<?> valueType) {
+        delegate.removeGroup(groupKey, keyType, valueType);
+        index.removeGroup(groupKey);
+    }
+
+    @Deprecated
+    @Override
+    public void clear() {
+        delegate.clear();
+        index.clear();
+    }
+
+    /**
+     * Passes the scope end event to the delegate, as DI delivers it to the outermost decorator only.
+     */
+    @BeforeScopeEnd
+    public void shutdown() {
+        Util.invokeBeforeScopeEnd(delegate);
+    }
+}
@@ -20,6 +20,7 @@
 package org.apache.cayenne.cache.invalidation;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.function.Function;
 
 import org.apache.cayenne.Persistent;
@@ -35,4 +36,15 @@ public interface InvalidationHandler {
      */
     Function<Persistent, Collection<CacheGroupDescriptor>> canHandle(Class<? extends Persistent> type);
 
+    /**
+     * Returns cache groups that may depend on any object of the given type. Used to invalidate cache on changes
+     * made bypassing the object graph, such as bulk UPDATE and DELETE queries. Default implementation returns an
+     * empty collection, i.e. such changes are ignored by the handler.
+     *
+     * @since 4.2
+     */
+    default Collection<CacheGroupDescriptor> groupsForType(Class<? extends Persistent> type) {
+        return Collections.emptyList();
+    }
+
 }
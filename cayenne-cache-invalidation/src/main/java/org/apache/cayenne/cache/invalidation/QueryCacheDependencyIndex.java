@@ -0,0 +1,328 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache.invalidation;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.map.ObjEntity;
+import org.apache.cayenne.query.QueryMetadata;
+
+/**
+ * <p>
+ * Keeps track of the rows each cached query result depends on, to support row-level invalidation of the query cache.
+ * Dependencies are recorded by {@link DependencyTrackingQueryCache} when a result is stored in the cache, and are
+ * used by {@link CacheInvalidationFilter} to remove only the affected entries of the invalidated cache groups.
+ * </p>
+ * <p>
+ * A result depends on its root entity and on the ids of its rows, if all of them are objects or data rows of the
+ * root entity. Such entry is removed when an object with one of the recorded ids is deleted, or when an object of
+ * the root entity is inserted or updated, as the query qualifier is not evaluated and the changed object may start
+ * matching the query. Changes of any other entity, as well as any changes of the root entity for a query with fetch
+ * limit or offset, remove the entry. Results that don't consist of the root entity rows (e.g. scalars, or paginated
+ * results) are removed on any change, same as without row-level invalidation.
+ * </p>
+ * <p>
+ * Entries evicted from the cache are dropped from the index when they are looked up again. The number of entries
+ * tracked per group is limited, so entries that are never looked up after the eviction don't accumulate.
+ * </p>
+ *
+ * @see CacheInvalidationConstants#ROW_LEVEL_INVALIDATION_PROPERTY
+ * @since 4.2
+ */
+public class QueryCacheDependencyIndex {
+
+    /**
+     * Max number of entries tracked per cache group. If exceeded, tracking of the group is stopped, and the group is
+     * removed as a whole on the next invalidation.
+     */
+    static final int MAX_GROUP_ENTRIES = 10000;
+
+    private final boolean enabled;
+    private final ConcurrentMap<String, GroupIndex> groups;
+    private volatile boolean tracking;
+
+    public QueryCacheDependencyIndex(@Inject RuntimeProperties properties) {
+        this(properties.getBoolean(CacheInvalidationConstants.ROW_LEVEL_INVALIDATION_PROPERTY, false));
+    }
+
+    public QueryCacheDependencyIndex(boolean enabled) {
+        this.enabled = enabled;
+        this.groups = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns true if row-level invalidation is enabled and the dependencies of the cached results are recorded by
+     * {@link DependencyTrackingQueryCache}.
+     */
+    public boolean isEnabled() {
+        return enabled && tracking;
+    }
+
+    /**
+     * Called by {@link DependencyTrackingQueryCache} that records dependencies in this index.
+     */
+    void startTracking() {
+        tracking = true;
+    }
+
+    /**
+     * Records dependencies of a query result stored in the cache. Results of the queries without an explicit cache
+     * group are not tracked, as such entries are never invalidated.
+     */
+    void record(QueryMetadata metadata, List<?> result) {
+        String group = metadata.getCacheGroup();
+        String key = metadata.getCacheKey();
+        if (!enabled || group == null || key == null) {
+            return;
+        }
+
+        groups.computeIfAbsent(group, g -> new GroupIndex()).put(key, dependencies(metadata, result));
+    }
+
+    void remove(String group, String key) {
+        GroupIndex index = groups.get(group);
+        if (index != null) {
+            index.entries.remove(key);
+        }
+    }
+
+    void remove(String key) {
+        for (GroupIndex index : groups.values()) {
+            index.entries.remove(key);
+        }
+    }
+
+    void removeGroup(String group) {
+        groups.remove(group);
+    }
+
+    void clear() {
+        groups.clear();
+    }
+
+    /**
+     * Returns keys of the group entries that may depend on the changed objects, or null if the whole group should be
+     * removed.
+     */
+    Collection<String> getAffectedKeys(String group, Collection<ObjectChange> changes) {
+        GroupIndex index = groups.get(group);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+
+        if (index.overflow) {
+            return null;
+        }
+
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, EntryDependencies> entry : index.entries.entrySet()) {
+            for (ObjectChange change : changes) {
+                if (entry.getValue().isAffectedBy(change)) {
+                    keys.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return keys;
+    }
+
+    static ObjectChange change(Persistent object, boolean deleted) {
+        ObjectContext context = object.getObjectContext();
+        ObjEntity entity = context != null ? context.getEntityResolver().getObjEntity(object) : null;
+        if (entity == null) {
+            return new ObjectChange(null, null, deleted);
+        }
+
+        // new objects have temporary ids, they can't be a part of any cached result
+        ObjectId id = object.getObjectId();
+        Object rowKey = id != null && !id.isTemporary() ? rowKey(id.getIdSnapshot()) : null;
+        return new ObjectChange(entity.getDbEntityName(), rowKey, deleted);
+    }
+
+    static EntryDependencies dependencies(QueryMetadata metadata, List<?> result) {
+        DbEntity root = metadata.getDbEntity();
+        if (root == null || result == null || metadata.getPageSize() > 0) {
+            return EntryDependencies.UNKNOWN;
+        }
+
+        Collection<DbAttribute> pks = root.getPrimaryKeys();
+        if (pks.isEmpty()) {
+            return EntryDependencies.UNKNOWN;
+        }
+
+        Set<Object> rows = new HashSet<>();
+        Class<?> lastType = null;
+        for (Object object : result) {
+            Object rowKey;
+            if (object instanceof Persistent) {
+                Persistent persistent = (Persistent) object;
+                ObjectId id = persistent.getObjectId();
+                if (id == null || id.isTemporary() || persistent.getObjectContext() == null) {
+                    return EntryDependencies.UNKNOWN;
+                }
+
+                // all objects of the same class are mapped to the same entity, so it is enough to check it once
+                if (lastType != persistent.getClass()) {
+                    ObjEntity entity = persistent.getObjectContext().getEntityResolver().getObjEntity(persistent);
+                    if (entity == null || !root.getName().equals(entity.getDbEntityName())) {
+                        return EntryDependencies.UNKNOWN;
+                    }
+                    lastType = persistent.getClass();
+                }
+
+                rowKey = rowKey(id.getIdSnapshot());
+            } else if (object instanceof DataRow) {
+                rowKey = rowKey((DataRow) object, pks);
+            } else {
+                return EntryDependencies.UNKNOWN;
+            }
+
+            if (rowKey == null) {
+                return EntryDependencies.UNKNOWN;
+            }
+            rows.add(rowKey);
+        }
+
+        // with limit or offset, any change may shift the fetched range
+        boolean anyChange = metadata.getFetchLimit() > 0 || metadata.getFetchOffset() > 0;
+        return new EntryDependencies(root.getName(), rows, anyChange);
+    }
+
+    private static Object rowKey(Map<String, Object> idSnapshot) {
+        if (idSnapshot.isEmpty()) {
+            return null;
+        }
+
+        if (idSnapshot.size() == 1) {
+            return normalize(idSnapshot.values().iterator().next());
+        }
+
+        Map<String, Object> key = new HashMap<>((int) (idSnapshot.size() / 0.75) + 1);
+        for (Map.Entry<String, Object> entry : idSnapshot.entrySet()) {
+            key.put(entry.getKey(), normalize(entry.getValue()));
+        }
+        return key;
+    }
+
+    private static Object rowKey(DataRow row, Collection<DbAttribute> pks) {
+        if (pks.size() == 1) {
+            return normalize(row.get(pks.iterator().next().getName()));
+        }
+
+        Map<String, Object> key = new HashMap<>((int) (pks.size() / 0.75) + 1);
+        for (DbAttribute pk : pks) {
+            Object value = normalize(row.get(pk.getName()));
+            if (value == null) {
+                return null;
+            }
+            key.put(pk.getName(), value);
+        }
+        return key;
+    }
+
+    // makes ids read with different Java types comparable
+    private static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+
+        if (value instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) value);
+        }
+
+        return value;
+    }
+
+    /**
+     * A committed change of an object. Row key is null for the new objects.
+     */
+    static final class ObjectChange {
+
+        final String dbEntityName;
+        final Object rowKey;
+        final boolean deleted;
+
+        ObjectChange(String dbEntityName, Object rowKey, boolean deleted) {
+            this.dbEntityName = dbEntityName;
+            this.rowKey = rowKey;
+            this.deleted = deleted;
+        }
+    }
+
+    static final class EntryDependencies {
+
+        static final EntryDependencies UNKNOWN = new EntryDependencies(null, Collections.emptySet(), true);
+
+        final String dbEntityName;
+        final Set<Object> rows;
+        final boolean anyChange;
+
+        EntryDependencies(String dbEntityName, Set<Object> rows, boolean anyChange) {
+            this.dbEntityName = dbEntityName;
+            this.rows = rows;
+            this.anyChange = anyChange;
+        }
+
+        boolean isAffectedBy(ObjectChange change) {
+            if (dbEntityName == null || !dbEntityName.equals(change.dbEntityName)) {
+                return true;
+            }
+
+            // inserted or updated object may match the query regardless of the rows it returned before
+            return anyChange || !change.deleted || rows.contains(change.rowKey);
+        }
+    }
+
+    private static final class GroupIndex {
+
+        final ConcurrentMap<String, EntryDependencies> entries = new ConcurrentHashMap<>();
+        volatile boolean overflow;
+
+        void put(String key, EntryDependencies dependencies) {
+            if (overflow) {
+                return;
+            }
+
+            entries.put(key, dependencies);
+            if (entries.size() > MAX_GROUP_ENTRIES) {
+                overflow = true;
+                entries.clear();
+            }
+        }
+    }
+}
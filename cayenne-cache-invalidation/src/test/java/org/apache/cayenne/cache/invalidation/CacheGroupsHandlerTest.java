@@ -67,4 +67,13 @@ public class CacheGroupsHandlerTest {
         assertArrayEquals(names, extractedNames.toArray());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void groupsForType() throws Exception {
+        CacheGroupsHandler handler = new CacheGroupsHandler();
+
+        assertEquals(2, handler.groupsForType(E1.class).size());
+        assertEquals(6, handler.groupsForType(E2.class).size());
+        assertTrue(handler.groupsForType(Persistent.class).isEmpty());
+    }
+
+}
@@ -25,6 +25,7 @@ import org.apache.cayenne.cache.QueryCache;
 import org.apache.cayenne.cache.invalidation.db.E1;
 import org.apache.cayenne.cache.invalidation.db.E2;
 import org.apache.cayenne.di.Module;
+import org.apache.cayenne.query.ObjectDelete;
 import org.apache.cayenne.query.ObjectSelect;
 import org.junit.Before;
 import org.junit.Test;
@@ -145,4 +146,25 @@ public class CacheInvalidationCacheGroupsHandlerIT extends CacheInvalidationCase
         assertEquals(3, g3.selectCount(context));
         assertEquals(3, g5.selectCount(context));
     }
+
+    @Test
+    public void invalidateE1_BulkDelete() throws Exception {
+        ObjectContext context = runtime.newContext();
+
+        e1.insert(1).insert(2);
+
+        ObjectSelect<E1> g0 = ObjectSelect.query(E1.class).localCache();
+        ObjectSelect<E1> g1 = ObjectSelect.query(E1.class).localCache("g1");
+
+        assertEquals(2, g0.selectCount(context));
+        assertEquals(2, g1.selectCount(context));
+
+        assertEquals(2, ObjectDelete.query(E1.class).delete(context));
+
+        assertEquals(2, removeGroupUntypedCounter.get());
+        assertEquals(0, removeGroupTypedCounter.get());
+        // deleted via bulk query... "g1" should get auto refreshed...
+        assertEquals(2, g0.selectCount(context));
+        assertEquals(0, g1.selectCount(context));
+    }
 }
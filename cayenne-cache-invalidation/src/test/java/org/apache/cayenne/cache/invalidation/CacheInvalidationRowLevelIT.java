@@ -0,0 +1,132 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache.invalidation;
+
+import org.apache.cayenne.Cayenne;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.cache.invalidation.db.E1;
+import org.apache.cayenne.di.Module;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.query.ObjectSelect;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @since 4.2
+ */
+public class CacheInvalidationRowLevelIT extends CacheInvalidationCase {
+
+    @Override
+    protected Module extendInvalidationModule() {
+        return CacheInvalidationModule.extend()
+                .rowLevelInvalidation()
+                .module();
+    }
+
+    @Test
+    public void testDelete_LocalCache() throws Exception {
+        ObjectContext context = runtime.newContext();
+
+        e1.insert(1).insert(2);
+
+        ObjectSelect<E1> q1 = ObjectSelect.query(E1.class, ExpressionFactory.matchDbExp("ID", 1L)).localCache("g1");
+        ObjectSelect<E1> q23 = ObjectSelect.query(E1.class, ExpressionFactory.inDbExp("ID", 2L, 3L)).localCache("g1");
+        ObjectSelect<E1> all = ObjectSelect.query(E1.class).localCache("g1");
+
+        assertEquals(1, q1.select(context).size());
+        assertEquals(1, q23.select(context).size());
+        assertEquals(2, all.select(context).size());
+
+        // inserted via SQL... query results are still cached...
+        e1.insert(3);
+
+        context.deleteObject(Cayenne.objectForPK(context, E1.class, 1L));
+        context.commitChanges();
+
+        // results that contained the deleted object are refreshed
+        assertEquals(0, q1.select(context).size());
+        assertEquals(2, all.select(context).size());
+
+        // results that didn't contain it are still cached
+        assertEquals(1, q23.select(context).size());
+    }
+
+    @Test
+    public void testDelete_SharedCache() throws Exception {
+        ObjectContext context = runtime.newContext();
+
+        e1.insert(1).insert(2);
+
+        ObjectSelect<E1> q1 = ObjectSelect.query(E1.class, ExpressionFactory.matchDbExp("ID", 1L)).sharedCache("g1");
+        ObjectSelect<E1> q23 = ObjectSelect.query(E1.class, ExpressionFactory.inDbExp("ID", 2L, 3L)).sharedCache("g1");
+
+        assertEquals(1, q1.select(context).size());
+        assertEquals(1, q23.select(context).size());
+
+        e1.insert(3);
+
+        context.deleteObject(Cayenne.objectForPK(context, E1.class, 1L));
+        context.commitChanges();
+
+        assertEquals(0, q1.select(context).size());
+        assertEquals(1, q23.select(context).size());
+    }
+
+    @Test
+    public void testInsert() throws Exception {
+        ObjectContext context = runtime.newContext();
+
+        e1.insert(1).insert(2);
+
+        ObjectSelect<E1> q23 = ObjectSelect.query(E1.class, ExpressionFactory.inDbExp("ID", 2L, 3L)).localCache("g1");
+        ObjectSelect<E1> all = ObjectSelect.query(E1.class).localCache("g1");
+
+        assertEquals(1, q23.select(context).size());
+        assertEquals(2, all.select(context).size());
+
+        e1.insert(3);
+
+        context.newObject(E1.class);
+        context.commitChanges();
+
+        // new object may match any query of its entity
+        assertEquals(2, q23.select(context).size());
+        assertEquals(4, all.select(context).size());
+    }
+
+    @Test
+    public void testScalarResult() throws Exception {
+        ObjectContext context = runtime.newContext();
+
+        e1.insert(1).insert(2);
+
+        ObjectSelect<E1> count = ObjectSelect.query(E1.class).localCache("g1");
+        assertEquals(2, count.selectCount(context));
+
+        e1.insert(3).insert(4);
+
+        context.deleteObject(Cayenne.objectForPK(context, E1.class, 1L));
+        context.commitChanges();
+
+        // rows of a scalar result are unknown, so it is refreshed on any change
+        assertEquals(3, count.selectCount(context));
+    }
+}
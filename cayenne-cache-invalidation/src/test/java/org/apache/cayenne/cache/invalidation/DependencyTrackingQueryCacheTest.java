@@ -0,0 +1,149 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.cache.invalidation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.cache.MapQueryCache;
+import org.apache.cayenne.cache.invalidation.QueryCacheDependencyIndex.ObjectChange;
+import org.apache.cayenne.di.BeforeScopeEnd;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.query.MockQueryMetadata;
+import org.apache.cayenne.query.QueryMetadata;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 4.2
+ */
+public class DependencyTrackingQueryCacheTest {
+
+    private static final DbEntity E1 = new DbEntity("E1");
+
+    static {
+        DbAttribute id = new DbAttribute("ID");
+        id.setPrimaryKey(true);
+        E1.addAttribute(id);
+    }
+
+    @Test
+    public void testGetAffectedKeys() {
+        QueryCacheDependencyIndex index = new QueryCacheDependencyIndex(true);
+        DependencyTrackingQueryCache cache = new DependencyTrackingQueryCache(new MapQueryCache(10), index);
+        assertTrue(index.isEnabled());
+
+        cache.put(metadata("k1"), rows(1L));
+
+        // deleted row that is not in the result doesn't affect it
+        assertEquals(Collections.emptyList(), affectedKeys(index, new ObjectChange("E1", 2L, true)));
+        assertEquals(Collections.singletonList("k1"), affectedKeys(index, new ObjectChange("E1", 1L, true)));
+
+        // inserted or updated object may match the query, whatever rows it returned
+        assertEquals(Collections.singletonList("k1"), affectedKeys(index, new ObjectChange("E1", 2L, false)));
+        assertEquals(Collections.singletonList("k1"), affectedKeys(index, new ObjectChange("E1", null, false)));
+
+        // changes of other entities affect the result
+        assertEquals(Collections.singletonList("k1"), affectedKeys(index, new ObjectChange("E2", 2L, true)));
+    }
+
+    @Test
+    public void testGet_PrunesEvictedEntries() {
+        QueryCacheDependencyIndex index = new QueryCacheDependencyIndex(true);
+        MapQueryCache delegate = new MapQueryCache(10);
+        DependencyTrackingQueryCache cache = new DependencyTrackingQueryCache(delegate, index);
+
+        cache.put(metadata("k1"), rows(1L));
+
+        // entry removed bypassing the decorator, like on expiration or eviction
+        delegate.remove("k1");
+        assertEquals(Collections.singletonList("k1"), affectedKeys(index, new ObjectChange("E1", 1L, true)));
+
+        assertNull(cache.get(metadata("k1")));
+        assertEquals(Collections.emptyList(), affectedKeys(index, new ObjectChange("E1", 1L, true)));
+    }
+
+    @Test
+    public void testIsEnabled_NotTracked() {
+        QueryCacheDependencyIndex index = new QueryCacheDependencyIndex(true);
+        assertFalse(index.isEnabled());
+    }
+
+    @Test
+    public void testShutdown_ForwardsToDelegate() {
+        ShutdownAwareQueryCache delegate = new ShutdownAwareQueryCache();
+        DependencyTrackingQueryCache cache =
+                new DependencyTrackingQueryCache(delegate, new QueryCacheDependencyIndex(true));
+
+        cache.shutdown();
+        assertTrue(delegate.shutdown);
+    }
+
+    private static Collection<String> affectedKeys(QueryCacheDependencyIndex index, ObjectChange change) {
+        return index.getAffectedKeys("g1", Collections.singletonList(change));
+    }
+
+    private static List<DataRow> rows(Object... ids) {
+        List<DataRow> rows = new ArrayList<>();
+        for (Object id : ids) {
+            DataRow row = new DataRow(1);
+            row.put("ID", id);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static QueryMetadata metadata(String key) {
+        return new MockQueryMetadata() {
+
+            @Override
+            public String getCacheKey() {
+                return key;
+            }
+
+            @Override
+            public String getCacheGroup() {
+                return "g1";
+            }
+
+            @Override
+            public DbEntity getDbEntity() {
+                return E1;
+            }
+        };
+    }
+
+    public static class ShutdownAwareQueryCache extends MapQueryCache {
+
+        boolean shutdown;
+
+        @BeforeScopeEnd
+        public void shutdown() {
+            shutdown = true;
+        }
+    }
+}
@@ -55,6 +55,7 @@ public class ClientModule implements Module {
 
         // Contribute always to create binding
         ServerModule.contributeProperties(binder);
+        ServerModule.contributeQueryCacheGroupPolicies(binder);
 
         binder.bind(ObjectContextFactory.class).to(CayenneContextFactory.class);
         binder.bind(ROPSerializationService.class).toProvider(ClientHessianSerializationServiceProvider.class);
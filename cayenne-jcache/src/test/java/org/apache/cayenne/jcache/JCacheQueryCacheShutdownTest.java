@@ -0,0 +1,64 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.jcache;
+
+import javax.cache.CacheManager;
+
+import org.apache.cayenne.cache.InstrumentedQueryCache;
+import org.apache.cayenne.cache.QueryCache;
+import org.apache.cayenne.configuration.server.ServerModule;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JCacheQueryCacheShutdownTest {
+
+    @Test
+    public void testShutdown() {
+        ServerRuntime runtime = ServerRuntime.builder()
+                .disableModulesAutoLoading()
+                .addModule(new JCacheModule())
+                .build();
+
+        CacheManager cacheManager = runtime.getInjector().getInstance(CacheManager.class);
+        assertTrue(runtime.getInjector().getInstance(QueryCache.class) instanceof JCacheQueryCache);
+        assertFalse(cacheManager.isClosed());
+
+        runtime.shutdown();
+        assertTrue(cacheManager.isClosed());
+    }
+
+    @Test
+    public void testShutdown_QueryCacheStatistics() {
+        ServerRuntime runtime = ServerRuntime.builder()
+                .disableModulesAutoLoading()
+                .addModule(new JCacheModule())
+                .addModule(ServerModule::useQueryCacheStatistics)
+                .build();
+
+        CacheManager cacheManager = runtime.getInjector().getInstance(CacheManager.class);
+        assertTrue(runtime.getInjector().getInstance(QueryCache.class) instanceof InstrumentedQueryCache);
+        assertFalse(cacheManager.isClosed());
+
+        runtime.shutdown();
+        assertTrue(cacheManager.isClosed());
+    }
+}
@@ -49,6 +49,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * A common base superclass for Cayenne ObjectContext implementors.
@@ -252,7 +253,7 @@ public abstract class BaseContext implements ObjectContext {
 		ObjectId id = objectFromAnotherContext.getObjectId();
 
 		// first look for the ID in the local GraphManager
-		synchronized (getGraphManager()) {
+		return withGraphLock(() -> {
 			@SuppressWarnings("unchecked")
 			T localObject = (T) getGraphManager().getNode(id);
 			if (localObject != null) {
@@ -274,6 +275,19 @@ public abstract class BaseContext implements ObjectContext {
 			getGraphManager().registerNode(id, persistent);
 
 			return persistent;
+		});
+	}
+
+	/**
+	 * Runs an operation on the context GraphManager, that should be atomic with respect to other threads accessing the
+	 * context. This implementation synchronizes on the GraphManager. Subclasses may override it to use a different
+	 * locking mechanism.
+	 *
+	 * @since 4.2
+	 */
+	protected <T> T withGraphLock(Supplier<T> operation) {
+		synchronized (getGraphManager()) {
+			return operation.get();
 		}
 	}
 
@@ -630,10 +644,11 @@ public abstract class BaseContext implements ObjectContext {
 		object.setPersistenceState(PersistenceState.NEW);
 
 		GraphManager graphManager = getGraphManager();
-		synchronized (graphManager) {
+		withGraphLock(() -> {
 			graphManager.registerNode(object.getObjectId(), object);
 			graphManager.nodeCreated(object.getObjectId());
-		}
+			return null;
+		});
 
 		ObjEntity entity;
 		try {
@@ -19,9 +19,20 @@
 
 package org.apache.cayenne;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 import org.apache.cayenne.map.DbRelationship;
 import org.apache.cayenne.util.ToStringBuilder;
@@ -31,10 +42,19 @@ import org.apache.cayenne.util.Util;
  * DataRow a map that holds values retrieved from the database for a given query row.
  * DataRows are used to cache raw database data and as a reference point for tracking
  * DataObject changes.
- * 
+ * <p>
+ * Since 4.2 DataRow is no longer a HashMap. It stores values in a plain array, with keys
+ * defined by a {@link DataRowLayout} that is normally shared by all rows of a given
+ * result set.
+ *
  * @since 1.1
  */
-public class DataRow extends HashMap<String, Object> {
+public class DataRow extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = -3270217453598457546L;
+
+    // marks a layout key not present in this row
+    private static final Object ABSENT = new Object();
 
     // make sure the starting value is different from DataObject default version value
     private static AtomicLong currentVersion = new AtomicLong(
@@ -48,12 +68,172 @@ public class DataRow extends HashMap<String, Object> {
      */
     protected String entityName;
 
+    private transient DataRowLayout layout;
+    private transient Object[] values;
+    private transient int size;
+    private transient Set<Map.Entry<String, Object>> entrySet;
+
+    // used by serialization frameworks that instantiate objects reflectively
+    @SuppressWarnings("unused")
+    private DataRow() {
+        this(4);
+    }
+
     public DataRow(Map<String, ?> map) {
-        super(map);
+        if (map instanceof DataRow) {
+            DataRow row = (DataRow) map;
+            this.layout = row.layout.share();
+            this.values = Arrays.copyOf(row.values, layout.size());
+            this.size = row.size;
+        } else {
+            init(new DataRowLayout(map.size()));
+            putAll(map);
+        }
     }
 
     public DataRow(int initialCapacity) {
-        super(initialCapacity);
+        init(new DataRowLayout(initialCapacity));
+    }
+
+    /**
+     * Creates an empty DataRow with keys defined by a shared layout.
+     *
+     * @since 4.2
+     */
+    public DataRow(DataRowLayout layout) {
+        init(layout.share());
+    }
+
+    /**
+     * Creates a DataRow with keys defined by a shared layout, taking ownership of the provided values array. The
+     * array must contain a value for each key of the layout, in the layout order. This is the fastest way to create
+     * a DataRow, as it involves no key lookups.
+     *
+     * @since 4.2
+     */
+    public DataRow(DataRowLayout layout, Object[] values) {
+        if (values.length != layout.size()) {
+            throw new IllegalArgumentException("Expected " + layout.size() + " values, got " + values.length);
+        }
+
+        this.layout = layout.share();
+        this.values = values;
+        this.size = values.length;
+    }
+
+    private void init(DataRowLayout layout) {
+        this.layout = layout;
+        this.values = new Object[Math.max(layout.size(), 1)];
+        Arrays.fill(values, ABSENT);
+    }
+
+    /**
+     * Returns the layout of this row.
+     *
+     * @since 4.2
+     */
+    public DataRowLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int i = layout.indexOf(key);
+        return i >= 0 && values[i] != ABSENT;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int i = layout.indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+
+        Object value = values[i];
+        return value != ABSENT ? value : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int i = layout.indexOf(key);
+        if (i < 0) {
+            i = addKey(key);
+        }
+
+        Object old = values[i];
+        values[i] = value;
+
+        if (old == ABSENT) {
+            size++;
+            return null;
+        }
+
+        return old;
+    }
+
+    private int addKey(String key) {
+        if (layout.isShared()) {
+            layout = layout.copy();
+        }
+
+        int i = layout.add(key);
+        if (i >= values.length) {
+            int oldLength = values.length;
+            values = Arrays.copyOf(values, oldLength + Math.max(4, oldLength >> 1));
+            Arrays.fill(values, oldLength, values.length, ABSENT);
+        }
+
+        return i;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int i = layout.indexOf(key);
+        return i >= 0 ? removeAt(i) : null;
+    }
+
+    private Object removeAt(int i) {
+        Object old = values[i];
+        if (old == ABSENT) {
+            return null;
+        }
+
+        values[i] = ABSENT;
+        size--;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, ABSENT);
+        size = 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        int width = layout.size();
+        for (int i = 0; i < width; i++) {
+            Object value = values[i];
+            if (value != ABSENT) {
+                action.accept(layout.getKey(i), value);
+            }
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        Set<Map.Entry<String, Object>> entrySet = this.entrySet;
+        return entrySet != null ? entrySet : (this.entrySet = new EntrySet());
     }
 
     public long getVersion() {
@@ -129,6 +309,29 @@ public class DataRow extends HashMap<String, Object> {
         return (target != null) ? ObjectId.of(entityName, target) : null;
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        forEach((key, value) -> {
+            try {
+                out.writeObject(key);
+                out.writeObject(value);
+            } catch (IOException e) {
+                throw new CayenneRuntimeException("Error serializing DataRow", e);
+            }
+        });
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+
+        int size = in.readInt();
+        init(new DataRowLayout(size));
+        for (int i = 0; i < size; i++) {
+            put((String) in.readObject(), in.readObject());
+        }
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this).append("values", super.toString()).append(
@@ -149,4 +352,122 @@ public class DataRow extends HashMap<String, Object> {
     public void setEntityName(String entityName) {
         this.entityName = entityName;
     }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            DataRow.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private int next;
+        private int current;
+
+        EntryIterator() {
+            this.current = -1;
+            this.next = advance(0);
+        }
+
+        private int advance(int from) {
+            int width = layout.size();
+            for (int i = from; i < width; i++) {
+                if (values[i] != ABSENT) {
+                    return i;
+                }
+            }
+            return width;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < layout.size();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            current = next;
+            next = advance(next + 1);
+            return new Entry(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+
+            removeAt(current);
+            current = -1;
+        }
+    }
+
+    private final class Entry implements Map.Entry<String, Object> {
+
+        private final int i;
+
+        Entry(int i) {
+            this.i = i;
+        }
+
+        @Override
+        public String getKey() {
+            return layout.getKey(i);
+        }
+
+        @Override
+        public Object getValue() {
+            Object value = values[i];
+            return value != ABSENT ? value : null;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = values[i];
+            values[i] = value;
+
+            if (old == ABSENT) {
+                size++;
+                return null;
+            }
+
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
 }
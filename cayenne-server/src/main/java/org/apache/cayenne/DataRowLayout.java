@@ -0,0 +1,164 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An ordered set of {@link DataRow} keys, mapping each key to a position in the row values array. A layout is built
+ * once per result set and shared by all rows read from it, so that rows only need to store an array of values.
+ * A layout becomes immutable once it is shared. A row that needs to add a key missing from a shared layout switches
+ * to its own private copy of the layout.
+ *
+ * @since 4.2
+ */
+public final class DataRowLayout {
+
+    // below this size, a linear scan is faster than a hash lookup
+    private static final int INDEX_THRESHOLD = 8;
+
+    private String[] keys;
+    private int size;
+    private Map<String, Integer> index;
+    private volatile boolean shared;
+
+    /**
+     * Creates a shared layout with the given keys. Duplicate keys are ignored.
+     */
+    public static DataRowLayout of(String... keys) {
+        DataRowLayout layout = new DataRowLayout(keys.length);
+        for (String key : keys) {
+            if (layout.indexOf(key) < 0) {
+                layout.add(key);
+            }
+        }
+
+        layout.shared = true;
+        return layout;
+    }
+
+    DataRowLayout(int capacity) {
+        this.keys = new String[Math.max(capacity, 1)];
+    }
+
+    private DataRowLayout(DataRowLayout source, int capacity) {
+        this.keys = Arrays.copyOf(source.keys, Math.max(capacity, source.size));
+        this.size = source.size;
+        if (source.index != null) {
+            this.index = new HashMap<>(source.index);
+        }
+    }
+
+    /**
+     * Returns the number of keys in the layout.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a key at a given position.
+     */
+    public String getKey(int i) {
+        if (i >= size) {
+            throw new ArrayIndexOutOfBoundsException(i);
+        }
+
+        return keys[i];
+    }
+
+    /**
+     * Returns a position of the key in the layout, or -1 if the key is not a part of the layout.
+     */
+    public int indexOf(Object key) {
+
+        if (index != null) {
+            Integer i = index.get(key);
+            return i != null ? i : -1;
+        }
+
+        // checking identity first, as the same key instances are normally used to read and write rows
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+
+        if (key != null) {
+            for (int i = 0; i < size; i++) {
+                if (key.equals(keys[i])) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Marks this layout as shared between multiple rows, making it immutable.
+     */
+    DataRowLayout share() {
+        if (!shared) {
+            shared = true;
+        }
+        return this;
+    }
+
+    /**
+     * Creates a private mutable copy of this layout with extra capacity for new keys.
+     */
+    DataRowLayout copy() {
+        return new DataRowLayout(this, size + Math.max(4, size >> 1));
+    }
+
+    /**
+     * Appends a new key to the layout, returning its position. Must only be called on a layout that is not shared.
+     */
+    int add(String key) {
+        if (shared) {
+            throw new IllegalStateException("Can't modify a shared layout");
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size + Math.max(4, size >> 1));
+        }
+
+        int i = size++;
+        keys[i] = key;
+
+        if (index != null) {
+            index.put(key, i);
+        } else if (size > INDEX_THRESHOLD) {
+            index = new HashMap<>((int) Math.ceil(size / 0.5));
+            for (int j = 0; j < size; j++) {
+                index.put(keys[j], j);
+            }
+        }
+
+        return i;
+    }
+}
@@ -0,0 +1,76 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne;
+
+/**
+ * A non-blocking source of query results that emits rows to a subscriber according to its demand. The API mirrors
+ * {@code java.util.concurrent.Flow} of JDK 9+ (and the Reactive Streams specification) method for method, so that
+ * it can be adapted to either of them with a trivial wrapper, while still compiling on Java 8.
+ * <p>
+ * Each call to {@link #subscribe(Subscriber)} runs the query anew and reads its results from an open JDBC cursor, so
+ * database resources are held until the subscriber either receives a terminal signal or cancels its subscription.
+ *
+ * @since 4.2
+ */
+@FunctionalInterface
+public interface ResultPublisher<T> {
+
+    /**
+     * Starts a new query execution that will emit results to the subscriber. Subscriber's
+     * {@link Subscriber#onSubscribe(Subscription)} method is invoked before any other signals.
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+
+    /**
+     * A receiver of query results.
+     *
+     * @since 4.2
+     */
+    interface Subscriber<T> {
+
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * A link between a {@link ResultPublisher} and a {@link Subscriber}, that allows the subscriber to request more
+     * rows or to stop receiving them.
+     *
+     * @since 4.2
+     */
+    interface Subscription {
+
+        /**
+         * Adds a given number of rows to the unfulfilled demand of this subscription. Requesting a non-positive
+         * number of rows results in an error being signalled to the subscriber.
+         */
+        void request(long n);
+
+        /**
+         * Stops emitting rows to the subscriber and releases the underlying database resources. Some rows may still
+         * be emitted after this call if they were already in flight.
+         */
+        void cancel();
+    }
+}
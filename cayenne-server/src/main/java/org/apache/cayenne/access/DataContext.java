@@ -28,12 +28,15 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
 
 import org.apache.cayenne.BaseContext;
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.DataChannel;
 import org.apache.cayenne.DataObject;
 import org.apache.cayenne.DataRow;
+import org.apache.cayenne.DeleteDenyException;
 import org.apache.cayenne.Fault;
 import org.apache.cayenne.ObjectContext;
 import org.apache.cayenne.ObjectId;
@@ -49,6 +52,8 @@ import org.apache.cayenne.graph.ChildDiffLoader;
 import org.apache.cayenne.graph.CompoundDiff;
 import org.apache.cayenne.graph.GraphDiff;
 import org.apache.cayenne.graph.GraphManager;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.map.DbJoin;
 import org.apache.cayenne.map.DbRelationship;
 import org.apache.cayenne.map.ObjAttribute;
@@ -605,6 +610,50 @@ public class DataContext extends BaseContext {
         });
     }
 
+    /**
+     * Marks a new object registered in this context to be saved as "insert or update" on commit. If a row
+     * with the same values of the key columns already exists, it is updated with the values of the object,
+     * otherwise a new row is inserted. If no key columns are specified, the primary key is used, so it has
+     * to be set explicitly for the object. If the object is matched by other columns, it gets the PK of the
+     * existing row on commit, and the commit fails if that row was inserted concurrently with a different PK.
+     * Upserts of the same entity are flushed as a single batch statement in the dialect of the DbAdapter
+     * ("MERGE", "ON CONFLICT" or "ON DUPLICATE KEY UPDATE").
+     *
+     * @param object     a NEW object registered in this context.
+     * @param keyColumns names of the DbAttributes identifying an existing row. Must be covered by a primary
+     *                   key or a unique constraint in the DB.
+     * @since 4.2
+     */
+    public void registerUpsert(Persistent object, String... keyColumns) {
+        if (object.getObjectContext() != this || object.getPersistenceState() != PersistenceState.NEW) {
+            throw new CayenneRuntimeException("Only NEW objects registered in this context can be saved as upserts: %s",
+                    object);
+        }
+
+        DbEntity dbEntity = getEntityResolver().getObjEntity(object).getDbEntity();
+
+        List<DbAttribute> key;
+        if (keyColumns == null || keyColumns.length == 0) {
+            key = new ArrayList<>(dbEntity.getPrimaryKeys());
+        } else {
+            key = new ArrayList<>(keyColumns.length);
+            for (String column : keyColumns) {
+                DbAttribute attribute = dbEntity.getAttribute(column);
+                if (attribute == null) {
+                    throw new CayenneRuntimeException("Unknown upsert key column '%s' in entity '%s'",
+                            column, dbEntity.getName());
+                }
+                key.add(attribute);
+            }
+        }
+
+        if (key.isEmpty()) {
+            throw new CayenneRuntimeException("No upsert key columns for entity '%s'", dbEntity.getName());
+        }
+
+        getObjectStore().registerUpsert(object.getObjectId(), key);
+    }
+
     /**
      * Unregisters a Collection of DataObjects from the DataContext and the
      * underlying ObjectStore. This operation also unsets DataContext for
@@ -686,6 +735,33 @@ public class DataContext extends BaseContext {
         flushToParent(true);
     }
 
+    /**
+     * @since 4.2
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void deleteObjects(T... objects) throws DeleteDenyException {
+        checkNotReadOnly();
+        super.deleteObjects(objects);
+    }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public void deleteObjects(Collection<?> objects) throws DeleteDenyException {
+        checkNotReadOnly();
+        super.deleteObjects(objects);
+    }
+
+    // fail before the delete action changes object state. ReadOnlyObjectStore rejects the delete
+    // itself as well, but only after callbacks and delete rules have already modified the objects
+    private void checkNotReadOnly() {
+        if (getObjectStore().isReadOnly()) {
+            throw new CayenneRuntimeException("Can't delete objects from a read-only context");
+        }
+    }
+
     @Override
     protected GraphDiff onContextFlush(ObjectContext originatingContext, GraphDiff changes, boolean cascade) {
 
@@ -723,8 +799,9 @@ public class DataContext extends BaseContext {
         GraphDiff parentChanges = null;
 
         // prevent multiple commits occurring simultaneously
-        synchronized (objectStore) {
-
+        Lock lock = objectStore.getLock();
+        lock.lock();
+        try {
             ObjectStoreGraphDiff changes = objectStore.getChanges();
             boolean noop = isValidatingObjectsOnCommit() ? changes.validateAndCheckNoop() : changes.isNoop();
 
@@ -789,6 +866,8 @@ public class DataContext extends BaseContext {
             }
 
             return diff;
+        } finally {
+            lock.unlock();
         }
 
     }
@@ -1056,8 +1135,12 @@ public class DataContext extends BaseContext {
 
     private void writeObject(ObjectOutputStream out) throws IOException {
         // See CAY-2382
-        synchronized (getObjectStore()) {
+        Lock lock = getObjectStore().getLock();
+        lock.lock();
+        try {
             out.defaultWriteObject();
+        } finally {
+            lock.unlock();
         }
         // Serialize local snapshots cache
         if (!isUsingSharedSnapshotCache()) {
@@ -1089,12 +1172,16 @@ public class DataContext extends BaseContext {
         // one
         // If deserialized "otherwise", it will not have a DataContext.
 
-        synchronized (getObjectStore()) {
+        Lock lock = getObjectStore().getLock();
+        lock.lock();
+        try {
             Iterator<?> it = objectStore.getObjectIterator();
             while (it.hasNext()) {
                 Persistent object = (Persistent) it.next();
                 object.setObjectContext(this);
             }
+        } finally {
+            lock.unlock();
         }
 
         // ... deferring initialization of transient properties of this context
@@ -1114,6 +1201,22 @@ public class DataContext extends BaseContext {
         return objectStore;
     }
 
+    /**
+     * Runs the operation holding the ObjectStore lock.
+     *
+     * @since 4.2
+     */
+    @Override
+    protected <T> T withGraphLock(Supplier<T> operation) {
+        Lock lock = getObjectStore().getLock();
+        lock.lock();
+        try {
+            return operation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * An internal version of {@link #localObject(Persistent)} that operates on
      * ObjectId instead of Persistent, and wouldn't attempt to look up an object
@@ -1134,7 +1237,9 @@ public class DataContext extends BaseContext {
         // synchronized, but we had to expand the lock scope to ensure
         // consistent
         // behavior.
-        synchronized (getGraphManager()) {
+        Lock lock = getObjectStore().getLock();
+        lock.lock();
+        try {
             Persistent cachedObject = (Persistent) getGraphManager().getNode(id);
 
             // return an existing object
@@ -1165,6 +1270,8 @@ public class DataContext extends BaseContext {
             localObject.setPersistenceState(PersistenceState.HOLLOW);
 
             return localObject;
+        } finally {
+            lock.unlock();
         }
 
     }
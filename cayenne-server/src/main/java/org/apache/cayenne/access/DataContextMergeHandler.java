@@ -19,6 +19,8 @@
 
 package org.apache.cayenne.access;
 
+import java.util.concurrent.locks.Lock;
+
 import org.apache.cayenne.DataChannelListener;
 import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.PersistenceState;
@@ -98,8 +100,12 @@ class DataContextMergeHandler implements GraphChangeHandler, DataChannelListener
                 SnapshotEvent decoratedEvent = ((SnapshotEventDecorator) diff).getEvent();
                 context.getObjectStore().processSnapshotEvent(decoratedEvent);
             } else {
-                synchronized (context.getObjectStore()) {
+                Lock lock = context.getObjectStore().getLock();
+                lock.lock();
+                try {
                     diff.apply(this);
+                } finally {
+                    lock.unlock();
                 }
             }
 
@@ -123,8 +129,12 @@ class DataContextMergeHandler implements GraphChangeHandler, DataChannelListener
             // already applied in the commit thread) .. figure out an alt
             // filtering mechanism to avoid the duplicate object processing
 
-            synchronized (context.getObjectStore()) {
+            Lock lock = context.getObjectStore().getLock();
+            lock.lock();
+            try {
                 event.getDiff().apply(this);
+            } finally {
+                lock.unlock();
             }
 
             // repost as change event for our own children
@@ -157,8 +167,12 @@ class DataContextMergeHandler implements GraphChangeHandler, DataChannelListener
     @Override
     public void nodeRemoved(Object nodeId) {
         ObjectStore os = context.getObjectStore();
-        synchronized (os) {
+        Lock lock = os.getLock();
+        lock.lock();
+        try {
             os.processDeletedID((ObjectId)nodeId);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.cayenne.ObjectContext;
 import org.apache.cayenne.PersistenceState;
@@ -147,13 +148,16 @@ class DataContextQueryAction extends ObjectContextQueryAction {
 
             // 1. refresh all
             if (refreshQuery.isRefreshAll()) {
-                synchronized (context.getObjectStore()) {
-
+                Lock lock = context.getObjectStore().getLock();
+                lock.lock();
+                try {
                     invalidateLocally(context.getObjectStore(), context
                             .getObjectStore()
                             .getObjectIterator());
 
                     context.getQueryCache().clear();
+                } finally {
+                    lock.unlock();
                 }
 
                 // cascade
@@ -164,8 +168,12 @@ class DataContextQueryAction extends ObjectContextQueryAction {
             Collection objects = refreshQuery.getObjects();
             if (objects != null && !objects.isEmpty()) {
 
-                synchronized (context.getObjectStore()) {
+                Lock lock = context.getObjectStore().getLock();
+                lock.lock();
+                try {
                     invalidateLocally(context.getObjectStore(), objects.iterator());
+                } finally {
+                    lock.unlock();
                 }
 
                 // cascade
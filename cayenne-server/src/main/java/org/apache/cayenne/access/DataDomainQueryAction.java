@@ -713,15 +713,21 @@ class DataDomainQueryAction implements QueryRouter, OperationObserver {
         }
     }
 
-    class SingleEmbeddableConversionStrategy extends ObjectConversionStrategy<DataRow> {
+    class SingleEmbeddableConversionStrategy extends ObjectConversionStrategy<Object> {
 
         @Override
-        void convert(List<DataRow> mainRows) {
+        void convert(List<Object> mainRows) {
+            if (!(mainRows.get(0) instanceof DataRow)) {
+                // already read as embeddable objects
+                return;
+            }
+
             EmbeddableResultSegment resultSegment = (EmbeddableResultSegment)metadata.getResultSetMapping().get(0);
             Embeddable embeddable = resultSegment.getEmbeddable();
             Class<?> embeddableClass = objectFactory.getJavaClass(embeddable.getClassName());
             List<EmbeddableObject> result = new ArrayList<>(mainRows.size());
-            mainRows.forEach(dataRow -> {
+            mainRows.forEach(row -> {
+                DataRow dataRow = (DataRow) row;
                 EmbeddableObject eo;
                 try {
                     eo = (EmbeddableObject)embeddableClass.newInstance();
@@ -802,6 +808,10 @@ class DataDomainQueryAction implements QueryRouter, OperationObserver {
                     Class<?> embeddableClass = objectFactory.getJavaClass(embeddable.getClassName());
                     try {
                         for(Object[] row : mainRows) {
+                            if (!(row[i] instanceof DataRow)) {
+                                // already read as an embeddable object
+                                continue;
+                            }
                             DataRow dataRow = (DataRow)row[i];
                             EmbeddableObject eo = (EmbeddableObject)embeddableClass.newInstance();
                             dataRow.forEach(eo::writePropertyDirectly);
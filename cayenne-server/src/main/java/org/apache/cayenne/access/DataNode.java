@@ -33,6 +33,7 @@ import org.apache.cayenne.access.translator.select.SelectTranslatorFactory;
 import org.apache.cayenne.dba.DbAdapter;
 import org.apache.cayenne.dba.JdbcAdapter;
 import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.log.JdbcInstrumentation;
 import org.apache.cayenne.log.NoopJdbcEventLogger;
 import org.apache.cayenne.map.DataMap;
 import org.apache.cayenne.map.EntityResolver;
@@ -73,10 +74,13 @@ public class DataNode implements QueryEngine {
 	protected Map<String, DataMap> dataMaps;
 
 	private JdbcEventLogger jdbcEventLogger;
+	private JdbcInstrumentation jdbcInstrumentation;
 	private RowReaderFactory rowReaderFactory;
 	private BatchTranslatorFactory batchTranslatorFactory;
 	private SelectTranslatorFactory selectTranslatorFactory;
 	private SQLTemplateProcessor sqlTemplateProcessor;
+	private int maxBatchSize;
+	private boolean multiRowInsert;
 
 	TransactionDataSource readThroughDataSource;
 
@@ -98,6 +102,7 @@ public class DataNode implements QueryEngine {
 
 		// make sure logger is not null
 		this.jdbcEventLogger = NoopJdbcEventLogger.getInstance();
+		this.jdbcInstrumentation = JdbcInstrumentation.NOOP;
 	}
 
 	/**
@@ -132,6 +137,20 @@ public class DataNode implements QueryEngine {
 		this.jdbcEventLogger = logger;
 	}
 
+	/**
+	 * @since 4.2
+	 */
+	public JdbcInstrumentation getJdbcInstrumentation() {
+		return jdbcInstrumentation;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public void setJdbcInstrumentation(JdbcInstrumentation jdbcInstrumentation) {
+		this.jdbcInstrumentation = jdbcInstrumentation;
+	}
+
 	/**
 	 * Returns node name. Name is used to uniquely identify DataNode within a
 	 * DataDomain.
@@ -250,7 +269,9 @@ public class DataNode implements QueryEngine {
 		Connection connection = null;
 
 		try {
+			long t0 = System.nanoTime();
 			connection = this.getDataSource().getConnection();
+			jdbcInstrumentation.connectionAcquired(this, System.nanoTime() - t0);
 		} catch (Exception globalEx) {
 			getJdbcEventLogger().logQueryError(globalEx);
 
@@ -408,6 +429,40 @@ public class DataNode implements QueryEngine {
 		this.selectTranslatorFactory = selectTranslatorFactory;
 	}
 
+	/**
+	 * Returns a maximum number of rows sent to the database in a single batch. Zero or
+	 * negative value means no limit.
+	 *
+	 * @since 4.2
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Returns whether batch inserts should be executed as multi-row INSERT statements, if
+	 * supported by the adapter.
+	 *
+	 * @since 4.2
+	 */
+	public boolean isMultiRowInsert() {
+		return multiRowInsert;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public void setMultiRowInsert(boolean multiRowInsert) {
+		this.multiRowInsert = multiRowInsert;
+	}
+
     // a read-through DataSource that ensures returning the same connection
     // within
     // transaction.
@@ -38,6 +38,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -276,6 +277,22 @@ public class DataRowStore implements Serializable {
         snapshots.clear();
     }
 
+    /**
+     * Returns ids of all currently cached snapshots of the given entities. This implementation scans the entire
+     * cache, {@link ShardedDataRowStore} only scans the snapshots of the given entities.
+     *
+     * @since 4.2
+     */
+    public Collection<ObjectId> cachedSnapshotIds(Collection<String> entityNames) {
+        List<ObjectId> ids = new ArrayList<>();
+        for (ObjectId id : snapshots.keySet()) {
+            if (entityNames.contains(id.getEntityName())) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
     /**
      * Evicts a snapshot from cache without generating any SnapshotEvents.
      */
@@ -51,11 +51,20 @@ public class DefaultDataRowStoreFactory implements DataRowStoreFactory {
 
     @Override
     public DataRowStore createDataRowStore(String name) throws DIRuntimeException {
-        DataRowStore store = new DataRowStore(name, properties, eventManager);
+        DataRowStore store = newDataRowStore(name);
         setUpEventBridge(store);
         return store;
     }
 
+    /**
+     * Instantiates a DataRowStore. Subclasses may override it to provide a custom store implementation.
+     *
+     * @since 4.2
+     */
+    protected DataRowStore newDataRowStore(String name) {
+        return new DataRowStore(name, properties, eventManager);
+    }
+
     private void setUpEventBridge(DataRowStore store) {
         try {
             EventBridge eventBridge = eventBridgeProvider.get();
@@ -20,12 +20,15 @@ package org.apache.cayenne.access;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.Persistent;
 import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.RuntimeProperties;
 import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.util.ConcurrentSoftValueMap;
+import org.apache.cayenne.util.ConcurrentWeakValueMap;
 import org.apache.cayenne.util.SoftValueMap;
 import org.apache.cayenne.util.WeakValueMap;
 
@@ -59,4 +62,22 @@ public class DefaultObjectMapRetainStrategy implements ObjectMapRetainStrategy {
             throw new CayenneRuntimeException("Unsupported retain strategy %s", strategy);
         }
     }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public Map<Object, Persistent> createConcurrentObjectMap() {
+        String strategy = runtimeProperties.get(Constants.SERVER_OBJECT_RETAIN_STRATEGY_PROPERTY);
+
+        if (strategy == null || WEAK_RETAIN_STRATEGY.equals(strategy)) {
+            return new ConcurrentWeakValueMap<>();
+        } else if (SOFT_RETAIN_STRATEGY.equals(strategy)) {
+            return new ConcurrentSoftValueMap<>();
+        } else if (HARD_RETAIN_STRATEGY.equals(strategy)) {
+            return new ConcurrentHashMap<>();
+        } else {
+            throw new CayenneRuntimeException("Unsupported retain strategy %s", strategy);
+        }
+    }
 }
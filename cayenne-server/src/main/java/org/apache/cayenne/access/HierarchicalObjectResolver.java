@@ -38,6 +38,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Processes a number of DataRow sets corresponding to a given prefetch tree, resolving
@@ -79,13 +80,17 @@ class HierarchicalObjectResolver {
         decoratedTree.traverse(new DisjointByIdProcessor());
 
         // resolve objects under global lock to keep object graph consistent
-        synchronized (context.getObjectStore()) {
+        Lock lock = context.getObjectStore().getLock();
+        lock.lock();
+        try {
             // do a single path for disjoint prefetches, joint subtrees will be processed at
             // each disjoint node that is a parent of joint prefetches.
             decoratedTree.traverse(new DisjointProcessor());
 
             // connect related objects
             decoratedTree.traverse(new PostProcessor());
+        } finally {
+            lock.unlock();
         }
 
         return decoratedTree;
@@ -19,6 +19,7 @@
 package org.apache.cayenne.access;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.cayenne.Persistent;
 
@@ -31,4 +32,14 @@ import org.apache.cayenne.Persistent;
 public interface ObjectMapRetainStrategy {
 
     Map<Object, Persistent> createObjectMap();
+
+    /**
+     * Creates a thread-safe object map that can be read without locking, for ObjectStores shared between threads.
+     * Default implementation returns a {@link ConcurrentHashMap} that holds hard references.
+     *
+     * @since 4.2
+     */
+    default Map<Object, Persistent> createConcurrentObjectMap() {
+        return new ConcurrentHashMap<>();
+    }
 }
@@ -39,6 +39,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
 /**
  * DataRows-to-objects converter for a specific ObjEntity.
@@ -95,8 +96,12 @@ class ObjectResolver {
 	 * Properly synchronized version of 'objectsFromDataRows'.
 	 */
 	List<Persistent> synchronizedObjectsFromDataRows(List<? extends DataRow> rows) {
-		synchronized (context.getObjectStore()) {
+		Lock lock = context.getObjectStore().getLock();
+		lock.lock();
+		try {
 			return objectsFromDataRows(rows);
+		} finally {
+			lock.unlock();
 		}
 	}
 
@@ -38,29 +38,39 @@ import org.apache.cayenne.graph.NodeCreateOperation;
 import org.apache.cayenne.graph.NodeDeleteOperation;
 import org.apache.cayenne.graph.NodeDiff;
 import org.apache.cayenne.graph.NodePropertyChangeOperation;
+import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.query.ObjectIdQuery;
 import org.apache.cayenne.reflect.AttributeProperty;
 import org.apache.cayenne.reflect.ClassDescriptor;
 import org.apache.cayenne.reflect.PropertyVisitor;
 import org.apache.cayenne.reflect.ToManyProperty;
 import org.apache.cayenne.reflect.ToOneProperty;
+import org.apache.cayenne.util.SoftValueMap;
+import org.apache.cayenne.util.WeakValueMap;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 /**
  * ObjectStore stores objects using their ObjectId as a key. It works as a dedicated
  * object cache for a DataContext. Users rarely need to access ObjectStore directly, as
  * DataContext serves as a facade, providing cover methods for most ObjectStore
  * operations.
+ * <p>
+ * Since 4.2 ObjectStore is guarded by a {@link #getLock() lock} instead of its own monitor,
+ * so that a virtual thread blocked on I/O while holding it doesn't pin its carrier thread. Code that
+ * used to synchronize on the ObjectStore to perform atomic compound operations must
+ * acquire the lock instead.
  * 
  * @since 1.0
  */
@@ -76,6 +86,12 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      */
     protected Map<Object, Map<String, ObjectId>> trackedFlattenedPaths;
 
+    /**
+     * Key attributes of the NEW objects that should be saved with an "insert or update" statement.
+     * @since 4.2
+     */
+    protected Map<Object, List<DbAttribute>> upsertKeys;
+
     // a sequential id used to tag GraphDiffs so that they can later be sorted in the
     // original creation order
     int currentDiffId;
@@ -100,10 +116,12 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      */
     protected DataContext context;
 
+    private final ObjectStoreLock lock = new ObjectStoreLock();
+
     /**
      * Creates an ObjectStore with {@link DataRowStore} and a map to use for storing
      * registered objects. Passed map doesn't require any special synchronization
-     * behavior, as ObjectStore is synchronized itself.
+     * behavior, as ObjectStore guards it with its own lock.
      * 
      * @since 3.0
      */
@@ -116,6 +134,7 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
             throw new CayenneRuntimeException("Object map is null.");
         }
         this.changes = new HashMap<>();
+        this.upsertKeys = new HashMap<>();
     }
 
     /**
@@ -156,61 +175,65 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      * 
      * @since 1.2
      */
-    synchronized ObjectDiff registerDiff(Object nodeId, NodeDiff diff) {
-
-        if (diff != null) {
-            diff.setDiffId(++currentDiffId);
-        }
-
-        ObjectDiff objectDiff = changes.get(nodeId);
-
-        if (objectDiff == null) {
-
-            Persistent object = objectMap.get(nodeId);
-            if (object == null) {
-                throw new CayenneRuntimeException("No object is registered in context with Id %s", nodeId);
+    ObjectDiff registerDiff(Object nodeId, NodeDiff diff) {
+        lock.lock();
+        try {
+            if (diff != null) {
+                diff.setDiffId(++currentDiffId);
             }
 
-            if (object.getPersistenceState() == PersistenceState.COMMITTED) {
-                object.setPersistenceState(PersistenceState.MODIFIED);
+            ObjectDiff objectDiff = changes.get(nodeId);
 
-                // TODO: andrus 3/23/2006 snapshot versions are obsolete, but there is no
-                // replacement yet, so we still need to handle them...
-                if (object instanceof DataObject) {
+            if (objectDiff == null) {
 
-                    DataObject dataObject = (DataObject) object;
-                    DataRow snapshot = getCachedSnapshot((ObjectId) nodeId);
+                Persistent object = objectMap.get(nodeId);
+                if (object == null) {
+                    throw new CayenneRuntimeException("No object is registered in context with Id %s", nodeId);
+                }
 
-                    if (snapshot != null
-                            && snapshot.getVersion() != dataObject.getSnapshotVersion()) {
-                        DataContextDelegate delegate = context.nonNullDelegate();
-                        if (delegate.shouldMergeChanges(dataObject, snapshot)) {
-                            ClassDescriptor descriptor = context
-                                    .getEntityResolver()
-                                    .getClassDescriptor(
-                                            ((ObjectId) nodeId).getEntityName());
-                            DataRowUtils.forceMergeWithSnapshot(
-                                    context,
-                                    descriptor,
-                                    dataObject,
-                                    snapshot);
-                            dataObject.setSnapshotVersion(snapshot.getVersion());
-                            delegate.finishedMergeChanges(dataObject);
+                if (object.getPersistenceState() == PersistenceState.COMMITTED) {
+                    object.setPersistenceState(PersistenceState.MODIFIED);
+
+                    // TODO: andrus 3/23/2006 snapshot versions are obsolete, but there is no
+                    // replacement yet, so we still need to handle them...
+                    if (object instanceof DataObject) {
+
+                        DataObject dataObject = (DataObject) object;
+                        DataRow snapshot = getCachedSnapshot((ObjectId) nodeId);
+
+                        if (snapshot != null
+                                && snapshot.getVersion() != dataObject.getSnapshotVersion()) {
+                            DataContextDelegate delegate = context.nonNullDelegate();
+                            if (delegate.shouldMergeChanges(dataObject, snapshot)) {
+                                ClassDescriptor descriptor = context
+                                        .getEntityResolver()
+                                        .getClassDescriptor(
+                                                ((ObjectId) nodeId).getEntityName());
+                                DataRowUtils.forceMergeWithSnapshot(
+                                        context,
+                                        descriptor,
+                                        dataObject,
+                                        snapshot);
+                                dataObject.setSnapshotVersion(snapshot.getVersion());
+                                delegate.finishedMergeChanges(dataObject);
+                            }
                         }
                     }
                 }
+
+                objectDiff = new ObjectDiff(object);
+                objectDiff.setDiffId(++currentDiffId);
+                changes.put(nodeId, objectDiff);
             }
 
-            objectDiff = new ObjectDiff(object);
-            objectDiff.setDiffId(++currentDiffId);
-            changes.put(nodeId, objectDiff);
-        }
+            if (diff != null) {
+                objectDiff.addDiff(diff, this);
+            }
 
-        if (diff != null) {
-            objectDiff.addDiff(diff, this);
+            return objectDiff;
+        } finally {
+            lock.unlock();
         }
-
-        return objectDiff;
     }
 
     /**
@@ -233,13 +256,16 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
         // that deserialized context won't receive any events... which maybe ok, since it
         // didn't while it was stored in serialized form.
         if (dataRowCache == null && context != null && dataRowCacheSet) {
-            synchronized (this) {
+            lock.lock();
+            try {
                 if (dataRowCache == null) {
                     DataDomain domain = context.getParentDataDomain();
                     if (domain != null) {
                         setDataRowCache(domain.getSharedSnapshotCache());
                     }
                 }
+            } finally {
+                lock.unlock();
             }
         }
 
@@ -288,41 +314,49 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      */
     // this method is exactly the same as "objectsInvalidated", only additionally it
     // throws out registered objects
-    public synchronized void objectsUnregistered(Collection objects) {
-        if (objects.isEmpty()) {
-            return;
-        }
+    public void objectsUnregistered(Collection objects) {
+        lock.lock();
+        try {
+            if (objects.isEmpty()) {
+                return;
+            }
 
-        Collection<ObjectId> ids = new ArrayList<>(objects.size());
+            Collection<ObjectId> ids = new ArrayList<>(objects.size());
 
-        for (Object object1 : objects) {
-            Persistent object = (Persistent) object1;
+            for (Object object1 : objects) {
+                Persistent object = (Persistent) object1;
 
-            ObjectId id = object.getObjectId();
+                ObjectId id = object.getObjectId();
 
-            // remove object but not snapshot
-            objectMap.remove(id);
-            changes.remove(id);
-            if(id != null && trackedFlattenedPaths != null) {
-                trackedFlattenedPaths.remove(id);
-            }
-            ids.add(id);
+                // remove object but not snapshot. Transient objects have no id, and the
+                // concurrent maps don't allow null keys
+                if (id != null) {
+                    objectMap.remove(id);
+                    changes.remove(id);
+                    if (trackedFlattenedPaths != null) {
+                        trackedFlattenedPaths.remove(id);
+                    }
+                }
+                ids.add(id);
 
-            object.setObjectContext(null);
-            object.setPersistenceState(PersistenceState.TRANSIENT);
-        }
+                object.setObjectContext(null);
+                object.setPersistenceState(PersistenceState.TRANSIENT);
+            }
 
-        // TODO, andrus 3/28/2006 - DRC is null in nested contexts... implement
-        // propagation of unregister operation through the stack ... or do the opposite
-        // and keep unregister local even for non-nested DC?
-        if (getDataRowCache() != null) {
-            // send an event for removed snapshots
-            getDataRowCache().processSnapshotChanges(
-                    this,
-                    Collections.<ObjectId, DataRow>emptyMap(),
-                    Collections.<ObjectId>emptyList(),
-                    ids,
-                    Collections.<ObjectId>emptyList());
+            // TODO, andrus 3/28/2006 - DRC is null in nested contexts... implement
+            // propagation of unregister operation through the stack ... or do the opposite
+            // and keep unregister local even for non-nested DC?
+            if (getDataRowCache() != null) {
+                // send an event for removed snapshots
+                getDataRowCache().processSnapshotChanges(
+                        this,
+                        Collections.<ObjectId, DataRow>emptyMap(),
+                        Collections.<ObjectId>emptyList(),
+                        ids,
+                        Collections.<ObjectId>emptyList());
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -331,39 +365,45 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      * 
      * @since 1.1
      */
-    public synchronized void objectsRolledBack() {
-        Iterator<Persistent> it = getObjectIterator();
-
-        // collect candidates
-        while (it.hasNext()) {
-            Persistent object = it.next();
-            int objectState = object.getPersistenceState();
-            switch (objectState) {
-                case PersistenceState.NEW:
-                    it.remove();
+    public void objectsRolledBack() {
+        lock.lock();
+        try {
+            Iterator<Persistent> it = getObjectIterator();
+
+            // collect candidates
+            while (it.hasNext()) {
+                Persistent object = it.next();
+                int objectState = object.getPersistenceState();
+                switch (objectState) {
+                    case PersistenceState.NEW:
+                        it.remove();
 
-                    object.setObjectContext(null);
-                    object.setObjectId(null);
-                    object.setPersistenceState(PersistenceState.TRANSIENT);
-                    break;
-                case PersistenceState.DELETED:
-                    // Do the same as for modified... deleted is only a persistence state,
-                    // so
-                    // rolling the object back will set the state to committed
-                case PersistenceState.MODIFIED:
-                    // this will clean any modifications and defer refresh from snapshot
-                    // till the next object accessor is called
-                    object.setPersistenceState(PersistenceState.HOLLOW);
-                    break;
-                default:
-                    // Transient, committed and hollow need no handling
-                    break;
+                        object.setObjectContext(null);
+                        object.setObjectId(null);
+                        object.setPersistenceState(PersistenceState.TRANSIENT);
+                        break;
+                    case PersistenceState.DELETED:
+                        // Do the same as for modified... deleted is only a persistence state,
+                        // so
+                        // rolling the object back will set the state to committed
+                    case PersistenceState.MODIFIED:
+                        // this will clean any modifications and defer refresh from snapshot
+                        // till the next object accessor is called
+                        object.setPersistenceState(PersistenceState.HOLLOW);
+                        break;
+                    default:
+                        // Transient, committed and hollow need no handling
+                        break;
+                }
             }
-        }
 
-        // reset changes ... using new HashMap to allow event listeners to analyze the
-        // original changes map after the rollback
-        this.changes = new HashMap<>();
+            // reset changes ... using new HashMap to allow event listeners to analyze the
+            // original changes map after the rollback
+            this.changes = new HashMap<>();
+            this.upsertKeys.clear();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -375,6 +415,36 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
         return new ObjectStoreGraphDiff(this);
     }
 
+    /**
+     * Marks a NEW object to be saved with an "insert or update" statement matching existing rows by
+     * the given key attributes.
+     *
+     * @since 4.2
+     */
+    void registerUpsert(ObjectId id, List<DbAttribute> keyAttributes) {
+        lock.lock();
+        try {
+            upsertKeys.put(id, keyAttributes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns key attributes of an object registered for an "insert or update" or null
+     * if the object should be saved as usual.
+     *
+     * @since 4.2
+     */
+    public List<DbAttribute> getUpsertKey(ObjectId id) {
+        lock.lock();
+        try {
+            return upsertKeys.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Returns internal changes map.
      * 
@@ -409,6 +479,8 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      */
     public void postprocessAfterCommit(GraphDiff parentChanges) {
 
+        upsertKeys.clear();
+
         // scan through changed objects, set persistence state to committed
         for (Object id : changes.keySet()) {
             Persistent object = objectMap.get(id);
@@ -492,23 +564,32 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      * 
      * @since 1.2
      */
-    public synchronized DataRow getSnapshot(ObjectId oid) {
-
-        if (context != null && context.getChannel() != null) {
-            ObjectIdQuery query = new ObjectIdQuery(oid, true, ObjectIdQuery.CACHE);
-            List<?> results = context.getChannel().onQuery(context, query).firstList();
-            return results.isEmpty() ? null : (DataRow) results.get(0);
-        }
-        else {
-            return null;
+    public DataRow getSnapshot(ObjectId oid) {
+        lock.lock();
+        try {
+            if (context != null && context.getChannel() != null) {
+                ObjectIdQuery query = new ObjectIdQuery(oid, true, ObjectIdQuery.CACHE);
+                List<?> results = context.getChannel().onQuery(context, query).firstList();
+                return results.isEmpty() ? null : (DataRow) results.get(0);
+            }
+            else {
+                return null;
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
     /**
      * Returns an iterator over the registered objects.
      */
-    public synchronized Iterator<Persistent> getObjectIterator() {
-        return objectMap.values().iterator();
+    public Iterator<Persistent> getObjectIterator() {
+        lock.lock();
+        try {
+            return objectMap.values().iterator();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -518,24 +599,72 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      * property to an equivalent value, this method will still think such object is
      * modified. Phantom modifications are only detected and discarded during commit.
      */
-    public synchronized boolean hasChanges() {
-        return !changes.isEmpty();
+    public boolean hasChanges() {
+        lock.lock();
+        try {
+            return !changes.isEmpty();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Return a subset of registered objects that are in a certain persistence state.
      * Collection is returned by copy.
      */
-    public synchronized List<Persistent> objectsInState(int state) {
-        List<Persistent> filteredObjects = new ArrayList<>();
+    public List<Persistent> objectsInState(int state) {
+        lock.lock();
+        try {
+            List<Persistent> filteredObjects = new ArrayList<>();
+
+            for (Persistent object : objectMap.values()) {
+                if (object.getPersistenceState() == state) {
+                    filteredObjects.add(object);
+                }
+            }
 
-        for (Persistent object : objectMap.values()) {
-            if (object.getPersistenceState() == state) {
-                filteredObjects.add(object);
+            return filteredObjects;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates all registered objects and cached snapshots of the given entities, notifying other contexts
+     * that share the snapshot cache. Used after the rows were modified bypassing the object graph, e.g. by a bulk
+     * UPDATE or DELETE query.
+     *
+     * @since 4.2
+     */
+    public void invalidateEntities(Collection<String> entityNames) {
+        Set<ObjectId> ids = new HashSet<>();
+
+        lock.lock();
+        try {
+            for (Persistent object : objectMap.values()) {
+                ObjectId id = object.getObjectId();
+                if (!id.isTemporary() && entityNames.contains(id.getEntityName())) {
+                    ids.add(id);
+                }
             }
+
+            processInvalidatedIDs(ids);
+        } finally {
+            lock.unlock();
         }
 
-        return filteredObjects;
+        DataRowStore cache = getDataRowCache();
+        if (cache != null) {
+            ids.addAll(cache.cachedSnapshotIds(entityNames));
+            if (!ids.isEmpty()) {
+                cache.processSnapshotChanges(
+                        this,
+                        Collections.emptyMap(),
+                        Collections.emptyList(),
+                        ids,
+                        Collections.emptyList());
+            }
+        }
     }
 
     /**
@@ -560,34 +689,38 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
     /**
      * @since 1.2
      */
-    synchronized void processSnapshotEvent(SnapshotEvent event) {
-
-        Map<ObjectId, DataRow> modifiedDiffs = event.getModifiedDiffs();
-        if (modifiedDiffs != null && !modifiedDiffs.isEmpty()) {
-            for (Map.Entry<ObjectId, DataRow> entry : modifiedDiffs.entrySet()) {
-                processUpdatedSnapshot(entry.getKey(), entry.getValue());
+    void processSnapshotEvent(SnapshotEvent event) {
+        lock.lock();
+        try {
+            Map<ObjectId, DataRow> modifiedDiffs = event.getModifiedDiffs();
+            if (modifiedDiffs != null && !modifiedDiffs.isEmpty()) {
+                for (Map.Entry<ObjectId, DataRow> entry : modifiedDiffs.entrySet()) {
+                    processUpdatedSnapshot(entry.getKey(), entry.getValue());
+                }
             }
-        }
 
-        Collection<ObjectId> deletedIDs = event.getDeletedIds();
-        if (deletedIDs != null && !deletedIDs.isEmpty()) {
-            for (ObjectId deletedID : deletedIDs) {
-                processDeletedID(deletedID);
+            Collection<ObjectId> deletedIDs = event.getDeletedIds();
+            if (deletedIDs != null && !deletedIDs.isEmpty()) {
+                for (ObjectId deletedID : deletedIDs) {
+                    processDeletedID(deletedID);
+                }
             }
-        }
 
-        processInvalidatedIDs(event.getInvalidatedIds());
-        processIndirectlyModifiedIDs(event.getIndirectlyModifiedIds());
+            processInvalidatedIDs(event.getInvalidatedIds());
+            processIndirectlyModifiedIDs(event.getIndirectlyModifiedIds());
 
-        // TODO: andrus, 3/28/2006 - 'SnapshotEventDecorator' serves as a bridge (or
-        // rather a noop wrapper) between old snapshot events and new GraphEvents. Once
-        // SnapshotEvents are replaced with GraphEvents (in 2.0) we won't need it
-        GraphDiff diff = new SnapshotEventDecorator(event);
+            // TODO: andrus, 3/28/2006 - 'SnapshotEventDecorator' serves as a bridge (or
+            // rather a noop wrapper) between old snapshot events and new GraphEvents. Once
+            // SnapshotEvents are replaced with GraphEvents (in 2.0) we won't need it
+            GraphDiff diff = new SnapshotEventDecorator(event);
 
-        ObjectContext originatingContext = (event.getPostedBy() instanceof ObjectContext)
-                ? (ObjectContext) event.getPostedBy()
-                : null;
-        context.fireDataChannelChanged(originatingContext, diff);
+            ObjectContext originatingContext = (event.getPostedBy() instanceof ObjectContext)
+                    ? (ObjectContext) event.getPostedBy()
+                    : null;
+            context.fireDataChannelChanged(originatingContext, diff);
+        } finally {
+            lock.unlock();
+        }
     }
 
     void processIdChange(Object nodeId, Object newId) {
@@ -618,7 +751,7 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      */
     void processDeletedID(ObjectId nodeId) {
 
-        // access object map directly - the method should be called in a synchronized context...
+        // access object map directly - the method should be called with the lock held...
         Persistent object = objectMap.get(nodeId);
 
         if (object != null) {
@@ -724,7 +857,7 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      */
     void processIndirectlyModifiedIDs(Collection<ObjectId> indirectlyModifiedIDs) {
         for (ObjectId oid : indirectlyModifiedIDs) {
-            // access object map directly - the method should be called in a synchronized context...
+            // access object map directly - the method should be called with the lock held...
             final DataObject object = (DataObject) objectMap.get(oid);
 
             if (object == null || object.getPersistenceState() != PersistenceState.COMMITTED) {
@@ -778,7 +911,7 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      */
     void processUpdatedSnapshot(ObjectId nodeId, DataRow diff) {
 
-        // access object map directly - the method should be called in a synchronized context...
+        // access object map directly - the method should be called with the lock held...
         DataObject object = (DataObject) objectMap.get(nodeId);
 
         // no object, or HOLLOW object require no processing
@@ -834,6 +967,28 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
         }
     }
 
+    /**
+     * Returns a lock that guards this ObjectStore. The lock is reentrant and is held by
+     * the ObjectStore for the duration of each of its own state-changing operations. The
+     * callers may acquire it to make a series of operations on the ObjectStore atomic.
+     *
+     * @since 4.2
+     */
+    public Lock getLock() {
+        return lock;
+    }
+
+    /**
+     * Returns true if this ObjectStore doesn't allow registered objects to be created,
+     * modified or deleted. The default implementation returns false.
+     *
+     * @see ReadOnlyObjectStore
+     * @since 4.2
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
     /**
      * @since 1.2
      */
@@ -857,11 +1012,52 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      * @since 1.2
      */
     @Override
-    public synchronized Object getNode(Object nodeId) {
+    public Object getNode(Object nodeId) {
+
+        // try an optimistic lock-free read first. It only succeeds if no other thread held
+        // the lock during the lookup, so the map was not modified concurrently
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L && hasSideEffectFreeReads()) {
+            try {
+                Object node = peekNode(nodeId);
+                if (lock.validate(stamp)) {
+                    return node;
+                }
+            } catch (RuntimeException e) {
+                // inconsistent map state caused by a concurrent modification, retry with the lock
+            }
+        }
+
+        lock.lock();
+        try {
+            return objectMap.get(nodeId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // whether the object map can be read without changing its internal state
+    private boolean hasSideEffectFreeReads() {
+        return objectMap instanceof WeakValueMap
+                || objectMap instanceof SoftValueMap
+                || objectMap instanceof ConcurrentHashMap
+                || objectMap.getClass() == HashMap.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object peekNode(Object nodeId) {
+        if (objectMap instanceof WeakValueMap) {
+            return ((WeakValueMap<Object, Persistent>) objectMap).peek(nodeId);
+        }
+
+        if (objectMap instanceof SoftValueMap) {
+            return ((SoftValueMap<Object, Persistent>) objectMap).peek(nodeId);
+        }
+
         return objectMap.get(nodeId);
     }
 
-    // non-synchronized version of getNode for private use
+    // version of getNode that doesn't acquire the lock, for private use
     final Object getNodeNoSync(Object nodeId) {
         return objectMap.get(nodeId);
     }
@@ -873,29 +1069,44 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      * @since 1.2
      */
     @Override
-    public synchronized Collection<Object> registeredNodes() {
-        return new ArrayList<Object>(objectMap.values());
+    public Collection<Object> registeredNodes() {
+        lock.lock();
+        try {
+            return new ArrayList<Object>(objectMap.values());
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * @since 1.2
      */
     @Override
-    public synchronized void registerNode(Object nodeId, Object nodeObject) {
-        objectMap.put(nodeId, (Persistent) nodeObject);
+    public void registerNode(Object nodeId, Object nodeObject) {
+        lock.lock();
+        try {
+            objectMap.put(nodeId, (Persistent) nodeObject);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * @since 1.2
      */
     @Override
-    public synchronized Object unregisterNode(Object nodeId) {
-        Object object = getNode(nodeId);
-        if (object != null) {
-            objectsUnregistered(Collections.singleton(object));
-        }
+    public Object unregisterNode(Object nodeId) {
+        lock.lock();
+        try {
+            Object object = getNode(nodeId);
+            if (object != null) {
+                objectsUnregistered(Collections.singleton(object));
+            }
 
-        return object;
+            return object;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -0,0 +1,128 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A reentrant lock guarding {@link ObjectStore} state, that also supports optimistic lock-free reads. Unlike an object
+ * monitor, it doesn't pin a virtual thread to its carrier while the thread is blocked on I/O with the lock held.
+ * <p>
+ * Mutual exclusion is provided by a {@link ReentrantLock}. In addition, the outermost acquisition of the lock by a
+ * thread takes a write lock of a {@link StampedLock}, so that readers validating an optimistic stamp can detect that
+ * the store might have been modified concurrently.
+ *
+ * @since 4.2
+ */
+class ObjectStoreLock implements Lock, Serializable {
+
+    private static final long serialVersionUID = 3536467389457349618L;
+
+    private final ReentrantLock lock;
+    private final StampedLock stampedLock;
+
+    // only accessed by the thread holding the lock
+    private transient long writeStamp;
+
+    ObjectStoreLock() {
+        this.lock = new ReentrantLock();
+        this.stampedLock = new StampedLock();
+    }
+
+    /**
+     * Returns a non-zero stamp that can be later validated with {@link #validate(long)}, or zero if the lock is
+     * currently held by some thread.
+     */
+    long tryOptimisticRead() {
+        return stampedLock.tryOptimisticRead();
+    }
+
+    /**
+     * Returns true if the lock has not been acquired by any thread since the stamp was issued.
+     */
+    boolean validate(long stamp) {
+        return stampedLock.validate(stamp);
+    }
+
+    boolean isHeldByCurrentThread() {
+        return lock.isHeldByCurrentThread();
+    }
+
+    @Override
+    public void lock() {
+        lock.lock();
+        lockAcquired();
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        lock.lockInterruptibly();
+        lockAcquired();
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (lock.tryLock()) {
+            lockAcquired();
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (lock.tryLock(time, unit)) {
+            lockAcquired();
+            return true;
+        }
+
+        return false;
+    }
+
+    private void lockAcquired() {
+        // the stamped lock is only ever write-locked by the ReentrantLock owner, so this never blocks
+        if (lock.getHoldCount() == 1) {
+            writeStamp = stampedLock.writeLock();
+        }
+    }
+
+    @Override
+    public void unlock() {
+        if (lock.isHeldByCurrentThread() && lock.getHoldCount() == 1) {
+            stampedLock.unlockWrite(writeStamp);
+        }
+
+        lock.unlock();
+    }
+
+    /**
+     * Conditions are not supported, as waiting on a condition would have to release the lock without releasing the
+     * write stamp.
+     */
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("Conditions are not supported by ObjectStore lock");
+    }
+}
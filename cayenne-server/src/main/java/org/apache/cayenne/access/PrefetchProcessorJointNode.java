@@ -21,6 +21,7 @@ package org.apache.cayenne.access;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.DataRow;
+import org.apache.cayenne.DataRowLayout;
 import org.apache.cayenne.Persistent;
 import org.apache.cayenne.access.jdbc.ColumnDescriptor;
 import org.apache.cayenne.exp.Expression;
@@ -57,7 +58,7 @@ class PrefetchProcessorJointNode extends PrefetchProcessorNode {
 
     ColumnDescriptor[] columns;
     int[] idIndices;
-    int rowCapacity;
+    DataRowLayout rowLayout;
     Map<Map, Persistent> resolved;
     List<DataRow> resolvedRows;
 
@@ -132,7 +133,7 @@ class PrefetchProcessorJointNode extends PrefetchProcessorNode {
      * Returns a DataRow from the flat row.
      */
     DataRow rowFromFlatRow(DataRow flatRow) {
-        DataRow row = new DataRow(rowCapacity);
+        DataRow row = new DataRow(rowLayout);
 
         // extract subset of flat row columns, recasting to the target keys
         for (ColumnDescriptor column : columns) {
@@ -234,9 +235,14 @@ class PrefetchProcessorJointNode extends PrefetchProcessorNode {
         }
 
         int size = targetSource.size();
-        this.rowCapacity = (int) Math.ceil(size / 0.75);
         this.columns = new ColumnDescriptor[size];
         targetSource.values().toArray(columns);
+
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = columns[i].getName();
+        }
+        this.rowLayout = DataRowLayout.of(keys);
     }
 
     private ColumnDescriptor appendColumn(
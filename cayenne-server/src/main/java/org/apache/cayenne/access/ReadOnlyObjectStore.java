@@ -0,0 +1,73 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.Map;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.graph.NodeDiff;
+
+/**
+ * An {@link ObjectStore} for read-only contexts that are shared between threads, e.g. to
+ * hold reference data. Objects can be fetched and refreshed, but any attempt to create,
+ * modify or delete them results in an exception. The object map must be thread-safe, e.g.
+ * created by {@link ObjectMapRetainStrategy#createConcurrentObjectMap()}, as lookups via
+ * {@link #getNode(Object)} read it directly, without acquiring the ObjectStore lock.
+ *
+ * @since 4.2
+ */
+public class ReadOnlyObjectStore extends ObjectStore {
+
+    public ReadOnlyObjectStore(DataRowStore dataRowCache, Map<Object, Persistent> objectMap) {
+        super(dataRowCache, objectMap);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Returns a registered object or null if no object exists for the id, including a null id,
+     * as concurrent maps don't allow null keys. Never acquires the ObjectStore lock.
+     */
+    @Override
+    public Object getNode(Object nodeId) {
+        return nodeId != null ? objectMap.get(nodeId) : null;
+    }
+
+    /**
+     * Registers a fetched object, throwing an exception if the object is NEW.
+     */
+    @Override
+    public void registerNode(Object nodeId, Object nodeObject) {
+        if (((Persistent) nodeObject).getPersistenceState() == PersistenceState.NEW) {
+            throw new CayenneRuntimeException("Can't register a new object %s in a read-only context", nodeId);
+        }
+
+        super.registerNode(nodeId, nodeObject);
+    }
+
+    @Override
+    ObjectDiff registerDiff(Object nodeId, NodeDiff diff) {
+        throw new CayenneRuntimeException("Can't modify object %s registered in a read-only context", nodeId);
+    }
+}
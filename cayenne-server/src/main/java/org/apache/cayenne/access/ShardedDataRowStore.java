@@ -0,0 +1,98 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.event.EventManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link DataRowStore} that keeps snapshots of each entity in a separate segment with its own capacity and
+ * expiration time, so that an entity with a large number of rows can't evict snapshots of other entities. Each
+ * segment is split into a number of stripes keyed by ObjectId hash, that are evicted independently in batches.
+ * <p>
+ * Per-entity values are configured via properties with entity name appended to the name of the global property,
+ * e.g. "cayenne.DataRowStore.snapshot.size.Artist" or "cayenne.DataRowStore.snapshot.expiration.Artist". Note that
+ * {@link Constants#SNAPSHOT_CACHE_SIZE_PROPERTY} defines the capacity of each entity segment, not of the entire
+ * store. To use this store, bind {@link ShardedDataRowStoreFactory} in the DI container.
+ *
+ * @see Constants#SNAPSHOT_EXPIRATION_PROPERTY
+ * @see Constants#SNAPSHOT_CACHE_STRIPES_PROPERTY
+ * @since 4.2
+ */
+public class ShardedDataRowStore extends DataRowStore {
+
+    private static final long serialVersionUID = -3208451936602871954L;
+
+    public static final int SNAPSHOT_CACHE_STRIPES_DEFAULT = 16;
+
+    public ShardedDataRowStore(String name, RuntimeProperties properties, EventManager eventManager) {
+        super(name, properties, eventManager);
+    }
+
+    @Override
+    protected void initWithProperties(RuntimeProperties properties) {
+        super.initWithProperties(properties);
+
+        long expiration = properties.getLong(Constants.SNAPSHOT_EXPIRATION_PROPERTY, 0);
+        int stripes = properties.getInt(Constants.SNAPSHOT_CACHE_STRIPES_PROPERTY, SNAPSHOT_CACHE_STRIPES_DEFAULT);
+
+        this.snapshots = new ShardedSnapshotMap(
+                properties,
+                Constants.SNAPSHOT_CACHE_SIZE_PROPERTY,
+                maximumSize(),
+                Constants.SNAPSHOT_EXPIRATION_PROPERTY,
+                TimeUnit.SECONDS.toMillis(expiration),
+                stripes);
+    }
+
+    /**
+     * Returns ids of all currently cached snapshots of the given entities, only scanning the segments of these
+     * entities.
+     */
+    @Override
+    public Collection<ObjectId> cachedSnapshotIds(Collection<String> entityNames) {
+        List<ObjectId> ids = new ArrayList<>();
+        for (String entityName : entityNames) {
+            ids.addAll(((ShardedSnapshotMap) snapshots).ids(entityName));
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the number of cached snapshots of a given entity.
+     */
+    public int size(String entityName) {
+        return ((ShardedSnapshotMap) snapshots).size(entityName);
+    }
+
+    /**
+     * Returns maximum allowed number of cached snapshots of a given entity.
+     */
+    public int maximumSize(String entityName) {
+        return ((ShardedSnapshotMap) snapshots).capacity(entityName);
+    }
+}
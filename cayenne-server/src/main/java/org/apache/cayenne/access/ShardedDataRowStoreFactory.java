@@ -0,0 +1,49 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.di.Provider;
+import org.apache.cayenne.event.EventBridge;
+import org.apache.cayenne.event.EventManager;
+
+/**
+ * A {@link DataRowStoreFactory} that creates {@link ShardedDataRowStore} instances. To enable it, override the
+ * default binding in a custom module:
+ * <pre>
+ * binder.bind(DataRowStoreFactory.class).to(ShardedDataRowStoreFactory.class);
+ * </pre>
+ *
+ * @since 4.2
+ */
+public class ShardedDataRowStoreFactory extends DefaultDataRowStoreFactory {
+
+    public ShardedDataRowStoreFactory(@Inject Provider<EventBridge> eventBridgeProvider,
+                                      @Inject EventManager eventManager,
+                                      @Inject RuntimeProperties properties) {
+        super(eventBridgeProvider, eventManager, properties);
+    }
+
+    @Override
+    protected DataRowStore newDataRowStore(String name) {
+        return new ShardedDataRowStore(name, properties, eventManager);
+    }
+}
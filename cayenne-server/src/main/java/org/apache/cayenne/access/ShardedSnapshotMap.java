@@ -0,0 +1,446 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.configuration.RuntimeProperties;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A map of snapshots partitioned into per-entity segments, each one split into a number of independently locked
+ * stripes. Each segment has its own capacity and expiration time, so entities with many rows do not evict snapshots
+ * of other entities. Instead of evicting a single entry on every insert, a stripe is allowed to grow slightly above
+ * its capacity, and then the least recently accessed entries are evicted in a batch.
+ *
+ * @since 4.2
+ */
+class ShardedSnapshotMap extends AbstractMap<ObjectId, DataRow> implements ConcurrentMap<ObjectId, DataRow>,
+        Serializable {
+
+    private static final long serialVersionUID = -2719519862315427421L;
+
+    private final ConcurrentMap<String, Segment> segments;
+
+    private final int defaultCapacity;
+    private final long defaultExpirationMillis;
+    private final int maxStripes;
+
+    // per-entity settings are resolved lazily; segments restored during deserialization keep their settings
+    private transient RuntimeProperties properties;
+    private final String capacityProperty;
+    private final String expirationProperty;
+
+    ShardedSnapshotMap(
+            RuntimeProperties properties,
+            String capacityProperty,
+            int defaultCapacity,
+            String expirationProperty,
+            long defaultExpirationMillis,
+            int maxStripes) {
+
+        this.segments = new ConcurrentHashMap<>();
+        this.properties = properties;
+        this.capacityProperty = capacityProperty;
+        this.defaultCapacity = defaultCapacity;
+        this.expirationProperty = expirationProperty;
+        this.defaultExpirationMillis = defaultExpirationMillis;
+        this.maxStripes = Math.max(1, maxStripes);
+    }
+
+    /**
+     * Returns maximum number of snapshots that can be stored for the entity.
+     */
+    int capacity(String entityName) {
+        Segment segment = segments.get(entityName);
+        return segment != null ? segment.capacity : entityCapacity(entityName);
+    }
+
+    /**
+     * Returns the number of snapshots stored for the entity.
+     */
+    int size(String entityName) {
+        Segment segment = segments.get(entityName);
+        return segment != null ? segment.size() : 0;
+    }
+
+    /**
+     * Returns ids of the unexpired snapshots stored for the entity. Only the segment of the entity is scanned.
+     */
+    Collection<ObjectId> ids(String entityName) {
+        Segment segment = segments.get(entityName);
+        if (segment == null) {
+            return Collections.emptyList();
+        }
+
+        List<ObjectId> ids = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : segment.stripes) {
+            for (Entry<ObjectId, SnapshotEntry> e : stripe.entries.entrySet()) {
+                if (!e.getValue().isExpired(now)) {
+                    ids.add(e.getKey());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private int entityCapacity(String entityName) {
+        String value = properties != null ? properties.get(capacityProperty + "." + entityName) : null;
+        return value != null ? Integer.parseInt(value) : defaultCapacity;
+    }
+
+    private long entityExpirationMillis(String entityName) {
+        String value = properties != null ? properties.get(expirationProperty + "." + entityName) : null;
+        return value != null ? TimeUnit.SECONDS.toMillis(Long.parseLong(value)) : defaultExpirationMillis;
+    }
+
+    private Segment createSegment(String entityName) {
+        return new Segment(entityCapacity(entityName), entityExpirationMillis(entityName), maxStripes);
+    }
+
+    private Stripe stripe(ObjectId id, boolean create) {
+        String entityName = id.getEntityName();
+        Segment segment = create
+                ? segments.computeIfAbsent(entityName, this::createSegment)
+                : segments.get(entityName);
+        return segment != null ? segment.stripe(id) : null;
+    }
+
+    @Override
+    public DataRow get(Object key) {
+        if (!(key instanceof ObjectId)) {
+            return null;
+        }
+
+        ObjectId id = (ObjectId) key;
+        Stripe stripe = stripe(id, false);
+        return stripe != null ? stripe.get(id) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public DataRow put(ObjectId key, DataRow value) {
+        return stripe(key, true).put(key, value);
+    }
+
+    @Override
+    public DataRow putIfAbsent(ObjectId key, DataRow value) {
+        return stripe(key, true).putIfAbsent(key, value);
+    }
+
+    @Override
+    public DataRow remove(Object key) {
+        if (!(key instanceof ObjectId)) {
+            return null;
+        }
+
+        ObjectId id = (ObjectId) key;
+        Stripe stripe = stripe(id, false);
+        return stripe != null ? stripe.remove(id) : null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (!(key instanceof ObjectId)) {
+            return false;
+        }
+
+        ObjectId id = (ObjectId) key;
+        Stripe stripe = stripe(id, false);
+        return stripe != null && stripe.remove(id, value);
+    }
+
+    @Override
+    public boolean replace(ObjectId key, DataRow oldValue, DataRow newValue) {
+        Stripe stripe = stripe(key, false);
+        return stripe != null && stripe.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public DataRow replace(ObjectId key, DataRow value) {
+        Stripe stripe = stripe(key, false);
+        return stripe != null ? stripe.replace(key, value) : null;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        segments.clear();
+    }
+
+    /**
+     * Returns an immutable copy of unexpired entries of this map.
+     */
+    @Override
+    public Set<Entry<ObjectId, DataRow>> entrySet() {
+        Map<ObjectId, DataRow> copy = new HashMap<>();
+        long now = System.currentTimeMillis();
+
+        for (Segment segment : segments.values()) {
+            for (Stripe stripe : segment.stripes) {
+                for (Entry<ObjectId, SnapshotEntry> e : stripe.entries.entrySet()) {
+                    if (!e.getValue().isExpired(now)) {
+                        copy.put(e.getKey(), e.getValue().snapshot);
+                    }
+                }
+            }
+        }
+
+        return Collections.unmodifiableMap(copy).entrySet();
+    }
+
+    static final class SnapshotEntry implements Serializable {
+
+        private static final long serialVersionUID = 6519446359428577233L;
+
+        final DataRow snapshot;
+        final long expiresAt;
+        volatile long accessedAt;
+
+        SnapshotEntry(DataRow snapshot, long expiresAt) {
+            this.snapshot = snapshot;
+            this.expiresAt = expiresAt;
+            this.accessedAt = System.nanoTime();
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt > 0 && now >= expiresAt;
+        }
+    }
+
+    static final class Segment implements Serializable {
+
+        private static final long serialVersionUID = -7461735326584012716L;
+
+        final int capacity;
+        final long expirationMillis;
+        final Stripe[] stripes;
+
+        Segment(int capacity, long expirationMillis, int maxStripes) {
+            this.capacity = capacity;
+            this.expirationMillis = expirationMillis;
+
+            // a power of 2 not bigger than capacity, so that each stripe holds at least one entry
+            int count = Integer.highestOneBit(Math.max(1, Math.min(maxStripes, capacity)));
+            int stripeCapacity = (capacity + count - 1) / count;
+
+            this.stripes = new Stripe[count];
+            for (int i = 0; i < count; i++) {
+                stripes[i] = new Stripe(stripeCapacity, expirationMillis);
+            }
+        }
+
+        Stripe stripe(ObjectId id) {
+            int h = id.hashCode();
+            h ^= (h >>> 16);
+            return stripes[h & (stripes.length - 1)];
+        }
+
+        int size() {
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                size += stripe.entries.size();
+            }
+            return size;
+        }
+    }
+
+    static final class Stripe implements Serializable {
+
+        private static final long serialVersionUID = 3409145186437880215L;
+
+        final ConcurrentHashMap<ObjectId, SnapshotEntry> entries;
+        final ReentrantLock evictionLock;
+        final int capacity;
+        final int evictionThreshold;
+        final long expirationMillis;
+
+        Stripe(int capacity, long expirationMillis) {
+            this.entries = new ConcurrentHashMap<>();
+            this.evictionLock = new ReentrantLock();
+            this.capacity = capacity;
+            this.expirationMillis = expirationMillis;
+
+            // allow the stripe to grow by ~6% before evicting entries in a batch
+            this.evictionThreshold = capacity + Math.max(1, capacity >> 4);
+        }
+
+        DataRow get(ObjectId id) {
+            SnapshotEntry e = entries.get(id);
+            if (e == null) {
+                return null;
+            }
+
+            if (e.isExpired(System.currentTimeMillis())) {
+                entries.remove(id, e);
+                return null;
+            }
+
+            e.accessedAt = System.nanoTime();
+            return e.snapshot;
+        }
+
+        DataRow put(ObjectId id, DataRow snapshot) {
+            SnapshotEntry old = entries.put(id, newEntry(snapshot));
+            if (old == null) {
+                evictIfNeeded();
+                return null;
+            }
+
+            return old.isExpired(System.currentTimeMillis()) ? null : old.snapshot;
+        }
+
+        DataRow putIfAbsent(ObjectId id, DataRow snapshot) {
+            SnapshotEntry e = newEntry(snapshot);
+            SnapshotEntry old = entries.putIfAbsent(id, e);
+
+            if (old == null) {
+                evictIfNeeded();
+                return null;
+            }
+
+            if (old.isExpired(System.currentTimeMillis())) {
+                if (entries.replace(id, old, e)) {
+                    return null;
+                }
+
+                return putIfAbsent(id, snapshot);
+            }
+
+            return old.snapshot;
+        }
+
+        DataRow remove(ObjectId id) {
+            SnapshotEntry old = entries.remove(id);
+            return old != null && !old.isExpired(System.currentTimeMillis()) ? old.snapshot : null;
+        }
+
+        boolean remove(ObjectId id, Object snapshot) {
+            SnapshotEntry e = entries.get(id);
+            return e != null && e.snapshot.equals(snapshot) && entries.remove(id, e);
+        }
+
+        boolean replace(ObjectId id, DataRow oldSnapshot, DataRow newSnapshot) {
+            SnapshotEntry e = entries.get(id);
+            return e != null
+                    && !e.isExpired(System.currentTimeMillis())
+                    && e.snapshot.equals(oldSnapshot)
+                    && entries.replace(id, e, newEntry(newSnapshot));
+        }
+
+        DataRow replace(ObjectId id, DataRow snapshot) {
+            SnapshotEntry e = entries.get(id);
+            if (e == null || e.isExpired(System.currentTimeMillis())) {
+                return null;
+            }
+
+            return entries.replace(id, e, newEntry(snapshot)) ? e.snapshot : replace(id, snapshot);
+        }
+
+        private SnapshotEntry newEntry(DataRow snapshot) {
+            long expiresAt = expirationMillis > 0 ? System.currentTimeMillis() + expirationMillis : 0;
+            return new SnapshotEntry(snapshot, expiresAt);
+        }
+
+        private void evictIfNeeded() {
+
+            if (entries.size() <= evictionThreshold) {
+                return;
+            }
+
+            // only one thread evicts entries; the others proceed without waiting
+            if (!evictionLock.tryLock()) {
+                return;
+            }
+
+            try {
+                evict();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+
+        private void evict() {
+
+            long now = System.currentTimeMillis();
+            List<Entry<ObjectId, SnapshotEntry>> candidates = new ArrayList<>(entries.size());
+
+            // expired entries go first
+            for (Entry<ObjectId, SnapshotEntry> e : entries.entrySet()) {
+                if (e.getValue().isExpired(now)) {
+                    entries.remove(e.getKey(), e.getValue());
+                } else {
+                    candidates.add(e);
+                }
+            }
+
+            int excess = candidates.size() - capacity;
+            if (excess <= 0) {
+                return;
+            }
+
+            // then the least recently accessed ones. Access times are captured upfront, as they may change
+            // concurrently
+            long[] accessTimes = new long[candidates.size()];
+            for (int i = 0; i < accessTimes.length; i++) {
+                accessTimes[i] = candidates.get(i).getValue().accessedAt;
+            }
+
+            long[] sorted = accessTimes.clone();
+            Arrays.sort(sorted);
+            long threshold = sorted[excess - 1];
+
+            for (int i = 0; i < accessTimes.length && excess > 0; i++) {
+                if (accessTimes[i] <= threshold) {
+                    Entry<ObjectId, SnapshotEntry> e = candidates.get(i);
+                    entries.remove(e.getKey(), e.getValue());
+                    excess--;
+                }
+            }
+        }
+    }
+}
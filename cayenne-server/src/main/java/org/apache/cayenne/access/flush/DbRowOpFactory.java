@@ -21,6 +21,7 @@ package org.apache.cayenne.access.flush;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -35,7 +36,9 @@ import org.apache.cayenne.access.flush.operation.DbRowOpType;
 import org.apache.cayenne.access.flush.operation.DeleteDbRowOp;
 import org.apache.cayenne.access.flush.operation.InsertDbRowOp;
 import org.apache.cayenne.access.flush.operation.UpdateDbRowOp;
+import org.apache.cayenne.access.flush.operation.UpsertDbRowOp;
 import org.apache.cayenne.exp.parser.ASTDbPath;
+import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.map.EntityResolver;
 import org.apache.cayenne.map.ObjEntity;
@@ -96,6 +99,11 @@ class DbRowOpFactory {
     private DbRowOp createRow(DbEntity entity, ObjectId id, DbRowOpType type) {
         switch (type) {
             case INSERT:
+                // only the root row of an object could be an upsert, flattened rows are never registered
+                List<DbAttribute> upsertKey = store.getUpsertKey(id);
+                if(upsertKey != null) {
+                    return new UpsertDbRowOp(object, entity, id, upsertKey);
+                }
                 return new InsertDbRowOp(object, entity, id);
             case UPDATE:
                 return new UpdateDbRowOp(object, entity, id);
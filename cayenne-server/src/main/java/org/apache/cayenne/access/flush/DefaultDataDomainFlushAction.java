@@ -19,20 +19,27 @@
 
 package org.apache.cayenne.access.flush;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.access.DataContext;
 import org.apache.cayenne.access.DataDomain;
+import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.ObjectDiff;
 import org.apache.cayenne.access.ObjectStore;
 import org.apache.cayenne.access.ObjectStoreGraphDiff;
@@ -40,13 +47,18 @@ import org.apache.cayenne.access.OperationObserver;
 import org.apache.cayenne.access.flush.operation.DbRowOpMerger;
 import org.apache.cayenne.access.flush.operation.DbRowOpSorter;
 import org.apache.cayenne.access.flush.operation.DbRowOp;
+import org.apache.cayenne.access.flush.operation.DbRowOpType;
 import org.apache.cayenne.access.flush.operation.DbRowOpVisitor;
+import org.apache.cayenne.access.flush.operation.DefaultDbRowOpSorter;
 import org.apache.cayenne.access.flush.operation.UpdateDbRowOp;
 import org.apache.cayenne.graph.CompoundDiff;
 import org.apache.cayenne.graph.GraphDiff;
 import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.map.EntityResolver;
 import org.apache.cayenne.query.Query;
+import org.apache.cayenne.tx.BaseTransaction;
+import org.apache.cayenne.tx.Transaction;
 
 /**
  * Default implementation of {@link DataDomainFlushAction}.
@@ -59,12 +71,34 @@ public class DefaultDataDomainFlushAction implements DataDomainFlushAction {
     protected final DbRowOpSorter dbRowOpSorter;
     protected final JdbcEventLogger jdbcEventLogger;
     protected final OperationObserver observer;
+    protected final Executor nodeExecutor;
+    protected final FlushListener flushListener;
 
     protected DefaultDataDomainFlushAction(DataDomain dataDomain, DbRowOpSorter dbRowOpSorter, JdbcEventLogger jdbcEventLogger) {
+        this(dataDomain, dbRowOpSorter, jdbcEventLogger, null);
+    }
+
+    /**
+     * Creates a flush action that executes queries of different DataNodes in parallel using provided executor.
+     * If the executor is null, nodes are processed one after another.
+     */
+    protected DefaultDataDomainFlushAction(DataDomain dataDomain, DbRowOpSorter dbRowOpSorter,
+                                           JdbcEventLogger jdbcEventLogger, Executor nodeExecutor) {
+        this(dataDomain, dbRowOpSorter, jdbcEventLogger, nodeExecutor, FlushListener.NOOP);
+    }
+
+    /**
+     * Creates a flush action that reports its stages, operations and executed queries to the listener.
+     */
+    protected DefaultDataDomainFlushAction(DataDomain dataDomain, DbRowOpSorter dbRowOpSorter,
+                                           JdbcEventLogger jdbcEventLogger, Executor nodeExecutor,
+                                           FlushListener flushListener) {
         this.dataDomain = dataDomain;
         this.dbRowOpSorter = dbRowOpSorter;
         this.jdbcEventLogger = jdbcEventLogger;
-        this.observer = new FlushObserver(jdbcEventLogger);
+        this.observer = new FlushObserver(jdbcEventLogger, flushListener);
+        this.nodeExecutor = nodeExecutor;
+        this.flushListener = flushListener;
     }
 
     @Override
@@ -80,19 +114,71 @@ public class DefaultDataDomainFlushAction implements DataDomainFlushAction {
         ObjectStore objectStore = context.getObjectStore();
         ObjectStoreGraphDiff objectStoreGraphDiff = (ObjectStoreGraphDiff) changes;
 
-        List<DbRowOp> dbRowOps = createDbRowOps(objectStore, objectStoreGraphDiff);
-        updateObjectIds(dbRowOps);
-        List<DbRowOp> deduplicatedOps = mergeSameObjectIds(dbRowOps);
-        List<DbRowOp> filteredOps = filterOps(deduplicatedOps);
-        List<DbRowOp> sortedOps = sort(filteredOps);
-        List<? extends Query> queries = createQueries(sortedOps);
-        executeQueries(queries);
-        createReplacementIds(objectStore, afterCommitDiff, sortedOps);
-        postprocess(context, objectStoreGraphDiff, afterCommitDiff, sortedOps);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            List<DbRowOp> dbRowOps = stage(FlushStage.CREATE_DB_ROW_OPS,
+                    () -> createDbRowOps(objectStore, objectStoreGraphDiff));
+            stage(FlushStage.UPDATE_OBJECT_IDS, () -> {
+                resolveUpsertIds(context, dbRowOps);
+                updateObjectIds(dbRowOps);
+            });
+            List<DbRowOp> deduplicatedOps = stage(FlushStage.MERGE_SAME_OBJECT_IDS, () -> mergeSameObjectIds(dbRowOps));
+            List<DbRowOp> filteredOps = stage(FlushStage.FILTER_OPS, () -> filterOps(deduplicatedOps));
+            List<DbRowOp> sortedOps = stage(FlushStage.SORT, () -> sort(filteredOps));
+            reportOperations(sortedOps);
+            List<? extends Query> queries = stage(FlushStage.CREATE_QUERIES, () -> createQueries(sortedOps));
+            stage(FlushStage.EXECUTE_QUERIES, () -> executeQueries(queries));
+            stage(FlushStage.CREATE_REPLACEMENT_IDS, () -> createReplacementIds(objectStore, afterCommitDiff, sortedOps));
+            stage(FlushStage.POSTPROCESS, () -> postprocess(context, objectStoreGraphDiff, afterCommitDiff, sortedOps));
+            success = true;
+        } finally {
+            flushListener.flushFinished(System.nanoTime() - start, success);
+        }
 
         return afterCommitDiff;
     }
 
+    private <T> T stage(FlushStage stage, Supplier<T> action) {
+        flushListener.stageStarted(stage);
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            flushListener.stageFinished(stage, System.nanoTime() - start);
+        }
+    }
+
+    private void stage(FlushStage stage, Runnable action) {
+        stage(stage, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Reports the number of sorted operations by type and entity to the flush listener.
+     */
+    protected void reportOperations(List<DbRowOp> sortedOps) {
+        if(flushListener == FlushListener.NOOP) {
+            return;
+        }
+
+        Map<DbEntity, int[]> counts = new LinkedHashMap<>();
+        DbRowOpType[] types = DbRowOpType.values();
+        sortedOps.forEach(row -> counts
+                .computeIfAbsent(row.getEntity(), e -> new int[types.length])
+                [row.accept(DefaultDbRowOpSorter.DbRowTypeVisitor.INSTANCE).ordinal()]++);
+
+        counts.forEach((entity, entityCounts) -> {
+            for(DbRowOpType type : types) {
+                if(entityCounts[type.ordinal()] > 0) {
+                    flushListener.operationsSorted(type, entity, entityCounts[type.ordinal()]);
+                }
+            }
+        });
+    }
+
     /**
      * Create ops based on incoming graph changes
      * @param objectStore originating object store
@@ -123,6 +209,17 @@ public class DefaultDataDomainFlushAction implements DataDomainFlushAction {
         dbRowOps.forEach(row -> row.accept(permIdVisitor));
     }
 
+    /**
+     * Assigns PKs of the existing rows to the objects saved as upserts matched by non-PK columns, so that
+     * the upsert doesn't leave the object with a generated PK that is not in the DB.
+     *
+     * @param context originating context
+     * @param dbRowOps collection of {@link DbRowOp}
+     */
+    protected void resolveUpsertIds(DataContext context, Collection<DbRowOp> dbRowOps) {
+        new UpsertIdResolver(context).resolveExistingIds(dbRowOps);
+    }
+
     /**
      * @param dbRowOps collection of {@link DbRowOp}
      * @return collection of ops with merged duplicates
@@ -170,11 +267,79 @@ public class DefaultDataDomainFlushAction implements DataDomainFlushAction {
      */
     protected void executeQueries(List<? extends Query> queries) {
         EntityResolver entityResolver = dataDomain.getEntityResolver();
-        queries.stream()
+        Map<DataNode, List<Query>> queriesByNode = queries.stream()
                 .collect(Collectors.groupingBy(query
-                        -> dataDomain.lookupDataNode(query.getMetaData(entityResolver).getDataMap())))
-                .forEach((node, nodeQueries)
-                        -> node.performQueries(nodeQueries, observer));
+                        -> dataDomain.lookupDataNode(query.getMetaData(entityResolver).getDataMap())));
+
+        if(nodeExecutor == null || queriesByNode.size() < 2) {
+            queriesByNode.forEach((node, nodeQueries) -> node.performQueries(nodeQueries, observer));
+        } else {
+            executeQueriesInParallel(queriesByNode);
+        }
+    }
+
+    /**
+     * Executes queries of each node in a separate thread, the first node is processed by the calling thread.
+     * Queries of a single node are executed in order, so the dependency order within a node is preserved.
+     */
+    protected void executeQueriesInParallel(Map<DataNode, List<Query>> queriesByNode) {
+        Transaction transaction = BaseTransaction.getThreadTransaction();
+
+        // Transaction is not thread-safe, so all connections are attached to it upfront by the calling thread.
+        // Worker threads only read them and never modify transaction state except for the "rollback only" flag.
+        if(transaction != null) {
+            queriesByNode.keySet().forEach(DefaultDataDomainFlushAction::attachConnection);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(queriesByNode.size() - 1);
+        Map.Entry<DataNode, List<Query>> first = null;
+        for(Map.Entry<DataNode, List<Query>> entry : queriesByNode.entrySet()) {
+            if(first == null) {
+                first = entry;
+                continue;
+            }
+            futures.add(CompletableFuture.runAsync(() -> {
+                BaseTransaction.bindThreadTransaction(transaction);
+                try {
+                    entry.getKey().performQueries(entry.getValue(), observer);
+                } finally {
+                    BaseTransaction.bindThreadTransaction(null);
+                }
+            }, nodeExecutor));
+        }
+
+        RuntimeException failure = null;
+        try {
+            first.getKey().performQueries(first.getValue(), observer);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        // wait for all the nodes even if some of them failed, so that rollback doesn't race with running queries
+        for(CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                if(failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause()
+                            : new CayenneRuntimeException("Error committing to DataNode", e.getCause());
+                }
+            }
+        }
+
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void attachConnection(DataNode node) {
+        try {
+            // connection is attached to the thread transaction, closing it is a noop
+            node.getDataSource().getConnection().close();
+        } catch (SQLException e) {
+            throw new CayenneRuntimeException("Error opening connection for DataNode '%s'", e, node.getName());
+        }
     }
 
     /**
@@ -19,9 +19,19 @@
 
 package org.apache.cayenne.access.flush;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.cayenne.access.DataDomain;
 import org.apache.cayenne.access.flush.operation.DbRowOpSorter;
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.BeforeScopeEnd;
+import org.apache.cayenne.di.DIRuntimeException;
 import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.di.Injector;
+import org.apache.cayenne.di.Provider;
 import org.apache.cayenne.log.JdbcEventLogger;
 
 /**
@@ -37,8 +47,73 @@ public class DefaultDataDomainFlushActionFactory implements DataDomainFlushActio
     @Inject
     private JdbcEventLogger jdbcEventLogger;
 
+    @Inject
+    private RuntimeProperties runtimeProperties;
+
+    @Inject
+    private Injector injector;
+
+    private volatile FlushInstrumentation flushInstrumentation;
+
+    private volatile ExecutorService nodeExecutor;
+
     @Override
     public DataDomainFlushAction createFlushAction(DataDomain dataDomain) {
-        return new DefaultDataDomainFlushAction(dataDomain, operationSorter, jdbcEventLogger);
+        // parallel execution only makes sense if there are multiple nodes to commit to
+        if(dataDomain.getDataNodes().size() > 1
+                && runtimeProperties.getBoolean(Constants.SERVER_PARALLEL_NODE_FLUSH_PROPERTY, false)) {
+            return new DefaultDataDomainFlushAction(dataDomain, operationSorter, jdbcEventLogger, getNodeExecutor(),
+                    getFlushInstrumentation().createListener(dataDomain));
+        }
+        return new DefaultDataDomainFlushAction(dataDomain, operationSorter, jdbcEventLogger, null,
+                getFlushInstrumentation().createListener(dataDomain));
+    }
+
+    /**
+     * Returns {@link FlushInstrumentation} bound in DI, or a no-op instrumentation if there's no such binding, so
+     * that modules assembling the flush services by hand don't have to bind it.
+     */
+    protected FlushInstrumentation getFlushInstrumentation() {
+        if(flushInstrumentation == null) {
+            Provider<FlushInstrumentation> provider;
+            try {
+                provider = injector.getProvider(FlushInstrumentation.class);
+            } catch (DIRuntimeException e) {
+                provider = NoopFlushInstrumentation::new;
+            }
+            flushInstrumentation = provider.get();
+        }
+        return flushInstrumentation;
+    }
+
+    protected ExecutorService getNodeExecutor() {
+        if(nodeExecutor == null) {
+            synchronized (this) {
+                if(nodeExecutor == null) {
+                    nodeExecutor = createNodeExecutor();
+                }
+            }
+        }
+        return nodeExecutor;
+    }
+
+    /**
+     * Creates an executor used to commit to multiple DataNodes in parallel.
+     */
+    protected ExecutorService createNodeExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "cayenne-node-flush-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @BeforeScopeEnd
+    public void shutdown() {
+        ExecutorService executor = nodeExecutor;
+        if(executor != null) {
+            executor.shutdown();
+        }
     }
 }
@@ -0,0 +1,62 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.flush;
+
+import org.apache.cayenne.access.flush.operation.DbRowOpType;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.query.Query;
+
+/**
+ * Listener of a single flush, created by the {@link FlushInstrumentation}. All the methods are called on the
+ * flushing thread, except for {@link #queryExecuted(Query, int, int)}, that may be called by the threads of
+ * the parallel DataNode flush.
+ *
+ * @since 4.2
+ */
+public interface FlushListener {
+
+    FlushListener NOOP = new FlushListener() {};
+
+    default void stageStarted(FlushStage stage) {
+    }
+
+    default void stageFinished(FlushStage stage, long durationNanos) {
+    }
+
+    /**
+     * Reports the number of the sorted operations of a given type on an entity.
+     */
+    default void operationsSorted(DbRowOpType type, DbEntity entity, int count) {
+    }
+
+    /**
+     * Reports execution of a commit statement. Batch queries that are split in chunks or executed row by row are
+     * reported once per executed statement.
+     *
+     * @param batchSize number of the rows in the executed statement
+     * @param rowsAffected number of the rows updated in the database, or a negative number if the driver didn't
+     *                     report it
+     */
+    default void queryExecuted(Query query, int batchSize, int rowsAffected) {
+    }
+
+    default void flushFinished(long durationNanos, boolean success) {
+    }
+}
@@ -39,9 +39,15 @@ import org.apache.cayenne.util.Util;
 class FlushObserver implements OperationObserver {
 
     private JdbcEventLogger logger;
+    private final FlushListener flushListener;
 
     FlushObserver(JdbcEventLogger logger) {
+        this(logger, FlushListener.NOOP);
+    }
+
+    FlushObserver(JdbcEventLogger logger, FlushListener flushListener) {
         this.logger = logger;
+        this.flushListener = flushListener;
     }
 
     @Override
@@ -130,10 +136,23 @@ class FlushObserver implements OperationObserver {
 
     @Override
     public void nextBatchCount(Query query, int[] resultCount) {
+        // a large batch can be split in chunks, each reported separately
+        int rowsAffected = 0;
+        for (int count : resultCount) {
+            if (count < 0) {
+                // e.g. Statement.SUCCESS_NO_INFO
+                rowsAffected = -1;
+                break;
+            }
+            rowsAffected += count;
+        }
+        flushListener.queryExecuted(query, resultCount.length, rowsAffected);
     }
 
     @Override
     public void nextCount(Query query, int resultCount) {
+        // a single row statement, or a multi-row INSERT that reports all the inserted rows
+        flushListener.queryExecuted(query, Math.max(1, resultCount), resultCount);
     }
 
     @Override
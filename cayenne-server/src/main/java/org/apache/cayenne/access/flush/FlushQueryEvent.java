@@ -0,0 +1,51 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.flush;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @since 4.2
+ */
+@Name("org.apache.cayenne.FlushQuery")
+@Label("Flush Query")
+@Category({"Cayenne", "Commit"})
+@Description("Commit query executed in the database")
+class FlushQueryEvent extends Event {
+
+    @Label("Data Domain")
+    String dataDomain;
+
+    @Label("Entity")
+    String entity;
+
+    @Label("Query Type")
+    String queryType;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Rows Affected")
+    int rowsAffected;
+}
@@ -0,0 +1,38 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.flush;
+
+import org.apache.cayenne.access.DataDomain;
+import org.apache.cayenne.util.JfrUtil;
+
+/**
+ * {@link FlushInstrumentation} that reports flush stages, operations and queries as JDK Flight Recorder events.
+ * Events are in the "Cayenne/Commit" category, and can be enabled with a custom JFR configuration. If JFR is not
+ * available in the runtime JVM, this instrumentation does nothing.
+ *
+ * @since 4.2
+ */
+public class JfrFlushInstrumentation implements FlushInstrumentation {
+
+    @Override
+    public FlushListener createListener(DataDomain dataDomain) {
+        return JfrUtil.isAvailable() ? new JfrFlushListener(dataDomain.getName()) : FlushListener.NOOP;
+    }
+}
@@ -0,0 +1,119 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.flush;
+
+import org.apache.cayenne.access.flush.operation.DbRowOpType;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.query.BatchQuery;
+import org.apache.cayenne.query.Query;
+
+/**
+ * Flush listener producing JFR events. Must only be loaded if JFR is available.
+ *
+ * @since 4.2
+ */
+class JfrFlushListener implements FlushListener {
+
+    private final String dataDomain;
+    private final FlushEvent flushEvent;
+    private FlushStageEvent stageEvent;
+
+    private int inserts;
+    private int updates;
+    private int deletes;
+
+    JfrFlushListener(String dataDomain) {
+        this.dataDomain = dataDomain;
+        this.flushEvent = new FlushEvent();
+        flushEvent.begin();
+    }
+
+    @Override
+    public void stageStarted(FlushStage stage) {
+        stageEvent = new FlushStageEvent();
+        stageEvent.begin();
+    }
+
+    @Override
+    public void stageFinished(FlushStage stage, long durationNanos) {
+        FlushStageEvent event = stageEvent;
+        stageEvent = null;
+        if(event == null) {
+            return;
+        }
+
+        event.end();
+        if(event.shouldCommit()) {
+            event.dataDomain = dataDomain;
+            event.stage = stage.name();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void operationsSorted(DbRowOpType type, DbEntity entity, int count) {
+        switch (type) {
+            case INSERT:
+                inserts += count;
+                break;
+            case UPDATE:
+                updates += count;
+                break;
+            case DELETE:
+                deletes += count;
+                break;
+        }
+
+        FlushOperationsEvent event = new FlushOperationsEvent();
+        if(event.shouldCommit()) {
+            event.dataDomain = dataDomain;
+            event.entity = entity.getName();
+            event.operation = type.name();
+            event.count = count;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void queryExecuted(Query query, int batchSize, int rowsAffected) {
+        FlushQueryEvent event = new FlushQueryEvent();
+        if(event.shouldCommit()) {
+            event.dataDomain = dataDomain;
+            event.entity = query instanceof BatchQuery ? ((BatchQuery) query).getDbEntity().getName() : null;
+            event.queryType = query.getClass().getSimpleName();
+            event.batchSize = batchSize;
+            event.rowsAffected = rowsAffected;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void flushFinished(long durationNanos, boolean success) {
+        flushEvent.end();
+        if(flushEvent.shouldCommit()) {
+            flushEvent.dataDomain = dataDomain;
+            flushEvent.inserts = inserts;
+            flushEvent.updates = updates;
+            flushEvent.deletes = deletes;
+            flushEvent.success = success;
+            flushEvent.commit();
+        }
+    }
+}
@@ -27,10 +27,12 @@ import org.apache.cayenne.access.flush.operation.DbRowOpVisitor;
 import org.apache.cayenne.access.flush.operation.DeleteDbRowOp;
 import org.apache.cayenne.access.flush.operation.InsertDbRowOp;
 import org.apache.cayenne.access.flush.operation.UpdateDbRowOp;
+import org.apache.cayenne.access.flush.operation.UpsertDbRowOp;
 import org.apache.cayenne.query.BatchQuery;
 import org.apache.cayenne.query.DeleteBatchQuery;
 import org.apache.cayenne.query.InsertBatchQuery;
 import org.apache.cayenne.query.UpdateBatchQuery;
+import org.apache.cayenne.query.UpsertBatchQuery;
 
 /**
  * Visitor that creates batch queries.
@@ -71,6 +73,21 @@ class QueryCreatorVisitor implements DbRowOpVisitor<Void> {
         return null;
     }
 
+    @Override
+    public Void visitUpsert(UpsertDbRowOp dbRow) {
+        UpsertBatchQuery query;
+        if(lastRow == null || !lastRow.isSameBatch(dbRow)) {
+            query = new UpsertBatchQuery(dbRow.getEntity(), dbRow.getKeyAttributes(), batchSize);
+            queryList.add(query);
+            lastBatch = query;
+        } else {
+            query = (UpsertBatchQuery)lastBatch;
+        }
+        query.add(dbRow.getValues().getSnapshot(), dbRow.getChangeId());
+        lastRow = dbRow;
+        return null;
+    }
+
     @Override
     public Void visitUpdate(UpdateDbRowOp dbRow) {
         // skip empty update..
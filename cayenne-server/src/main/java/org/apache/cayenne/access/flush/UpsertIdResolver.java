@@ -0,0 +1,215 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.flush;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.access.flush.operation.DbRowOp;
+import org.apache.cayenne.access.flush.operation.UpsertDbRowOp;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.query.ObjectSelect;
+
+/**
+ * Assigns PKs of the existing rows to the objects saved with an "insert or update" matched by non-PK columns. This
+ * is done before the PK generation, so that the object and the rows depending on it use the real PK instead of a
+ * newly generated one. Existing rows are fetched with a single query per entity and key columns, matching all the
+ * upserted keys at once (split into several queries only for very large batches).
+ * <p>
+ * Note that a row inserted by another transaction between this lookup and the flush is updated by the upsert, while
+ * the object keeps its generated PK. Applications upserting the same keys concurrently should use PK upsert keys.
+ *
+ * @since 4.2
+ */
+class UpsertIdResolver {
+
+    // max number of keys matched by a single query, keeps the number of the query parameters reasonable
+    static final int MAX_KEYS_PER_QUERY = 200;
+
+    private final ObjectContext context;
+
+    UpsertIdResolver(ObjectContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Assigns PKs of the existing rows to the upserted objects. Must be called before the PK generation.
+     */
+    void resolveExistingIds(Collection<DbRowOp> dbRowOps) {
+        Map<List<Object>, KeyGroup> groups = new LinkedHashMap<>();
+        for(DbRowOp row : dbRowOps) {
+            if(!isMatchedByNonPkKey(row)) {
+                continue;
+            }
+
+            UpsertDbRowOp upsert = (UpsertDbRowOp) row;
+            List<Object> key = keyValues(upsert);
+            if(key == null) {
+                // key depends on an object that is not saved yet, so there is no existing row
+                continue;
+            }
+
+            List<Object> groupKey = new ArrayList<>();
+            groupKey.add(row.getEntity().getName());
+            upsert.getKeyAttributes().forEach(a -> groupKey.add(a.getName()));
+            groups.computeIfAbsent(groupKey, k -> new KeyGroup(row.getEntity(), upsert.getKeyAttributes()))
+                    .add(key, upsert);
+        }
+
+        groups.values().forEach(this::resolveGroup);
+    }
+
+    private void resolveGroup(KeyGroup group) {
+        List<List<Object>> keys = new ArrayList<>(group.rows.keySet());
+        for(int start = 0; start < keys.size(); start += MAX_KEYS_PER_QUERY) {
+            List<List<Object>> chunk = keys.subList(start, Math.min(start + MAX_KEYS_PER_QUERY, keys.size()));
+
+            List<DataRow> existingRows = ObjectSelect.dbQuery(group.entity.getName())
+                    .where(group.qualifier(chunk))
+                    .select(context);
+
+            Map<List<Object>, DataRow> existingByKey = new HashMap<>();
+            for(DataRow existing : existingRows) {
+                List<Object> key = group.normalizedKey(existing);
+                if(existingByKey.put(key, existing) != null) {
+                    throw new CayenneRuntimeException("Upsert key %s of entity '%s' matches more than one row.",
+                            key, group.entity.getName());
+                }
+            }
+
+            for(List<Object> key : chunk) {
+                DataRow existing = existingByKey.get(normalize(key));
+                if(existing == null) {
+                    continue;
+                }
+
+                for(UpsertDbRowOp row : group.rows.get(key)) {
+                    Map<String, Object> idMap = row.getChangeId().getReplacementIdMap();
+                    for(DbAttribute pk : group.entity.getPrimaryKeys()) {
+                        idMap.put(pk.getName(), existing.get(pk.getName()));
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isMatchedByNonPkKey(DbRowOp row) {
+        if(!(row instanceof UpsertDbRowOp)) {
+            return false;
+        }
+        List<DbAttribute> keys = ((UpsertDbRowOp) row).getKeyAttributes();
+        return !new HashSet<>(keys).equals(new HashSet<>(row.getEntity().getPrimaryKeys()));
+    }
+
+    private List<Object> keyValues(UpsertDbRowOp row) {
+        Map<String, Object> snapshot = row.getValues().getSnapshot();
+        List<Object> key = new ArrayList<>(row.getKeyAttributes().size());
+        for(DbAttribute attribute : row.getKeyAttributes()) {
+            Object value = resolve(snapshot.get(attribute.getName()));
+            if(value == null || value instanceof IdGenerationMarker) {
+                return null;
+            }
+            key.add(value);
+        }
+        return key;
+    }
+
+    private static Object resolve(Object value) {
+        return value instanceof Supplier ? ((Supplier<?>) value).get() : value;
+    }
+
+    /**
+     * Converts key values to a form comparable between the object values and the fetched ones, that could be of
+     * different numeric types, or padded with spaces for CHAR columns.
+     */
+    static List<Object> normalize(List<Object> key) {
+        List<Object> normalized = new ArrayList<>(key.size());
+        for(Object value : key) {
+            if(value instanceof Number) {
+                value = new BigDecimal(value.toString()).stripTrailingZeros();
+            } else if(value instanceof String) {
+                String string = (String) value;
+                int end = string.length();
+                while(end > 0 && string.charAt(end - 1) == ' ') {
+                    end--;
+                }
+                value = string.substring(0, end);
+            }
+            normalized.add(value);
+        }
+        return normalized;
+    }
+
+    /**
+     * Upserted rows of a single entity with the same key columns.
+     */
+    private static class KeyGroup {
+
+        final DbEntity entity;
+        final List<DbAttribute> keyAttributes;
+        final Map<List<Object>, List<UpsertDbRowOp>> rows;
+
+        KeyGroup(DbEntity entity, List<DbAttribute> keyAttributes) {
+            this.entity = entity;
+            this.keyAttributes = keyAttributes;
+            this.rows = new LinkedHashMap<>();
+        }
+
+        void add(List<Object> key, UpsertDbRowOp row) {
+            rows.computeIfAbsent(key, k -> new ArrayList<>(1)).add(row);
+        }
+
+        Expression qualifier(List<List<Object>> keys) {
+            if(keyAttributes.size() == 1) {
+                List<Object> values = new ArrayList<>(keys.size());
+                keys.forEach(key -> values.add(key.get(0)));
+                return ExpressionFactory.inDbExp(keyAttributes.get(0).getName(), values);
+            }
+
+            List<Expression> matches = new ArrayList<>(keys.size());
+            for(List<Object> key : keys) {
+                Map<String, Object> values = new HashMap<>();
+                for(int i = 0; i < keyAttributes.size(); i++) {
+                    values.put(keyAttributes.get(i).getName(), key.get(i));
+                }
+                matches.add(ExpressionFactory.matchAllDbExp(values, Expression.EQUAL_TO));
+            }
+            return ExpressionFactory.or(matches);
+        }
+
+        List<Object> normalizedKey(DataRow row) {
+            List<Object> key = new ArrayList<>(keyAttributes.size());
+            keyAttributes.forEach(a -> key.add(row.get(a.getName())));
+            return normalize(key);
+        }
+    }
+}
@@ -35,4 +35,13 @@ public interface DbRowOpVisitor<T> {
     default T visitDelete(DeleteDbRowOp dbRow) {
         return null;
     }
+
+    /**
+     * Upsert is processed as a regular insert, unless the visitor needs to tell them apart.
+     *
+     * @since 4.2
+     */
+    default T visitUpsert(UpsertDbRowOp dbRow) {
+        return visitInsert(dbRow);
+    }
 }
@@ -19,8 +19,17 @@
 
 package org.apache.cayenne.access.flush.operation;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.cayenne.access.DataDomain;
 import org.apache.cayenne.di.Inject;
@@ -31,27 +40,121 @@ import org.apache.cayenne.map.EntitySorter;
 import org.apache.cayenne.map.ObjEntity;
 
 /**
+ * Default sorter of {@link DbRowOp} operations. Operations are grouped by operation type and entity, and the groups
+ * are ordered by a plan that only depends on the set of groups in a commit, so it is computed once and cached. Plans
+ * are keyed by entity names and are recomputed when the mapping changes. Only operations on the reflexive entities are
+ * sorted row by row. Sorting time is reported by the flush action as the
+ * {@link org.apache.cayenne.access.flush.FlushStage#SORT} stage.
+ *
  * @since 4.2
  */
 public class DefaultDbRowOpSorter implements DbRowOpSorter {
 
+    // limit of the cached plans, to protect from applications with too many possible entity combinations
+    static final int MAX_CACHED_PLANS = 1000;
+
     protected final Provider<DataDomain> dataDomainProvider;
     protected volatile Comparator<DbRowOp> comparator;
+    protected final ConcurrentMap<Set<SortGroup>, List<SortGroup>> plans;
+    // EntityResolver the cached plans were computed for
+    private volatile EntityResolver plansResolver;
 
     public DefaultDbRowOpSorter(@Inject Provider<DataDomain> dataDomainProvider) {
         this.dataDomainProvider = dataDomainProvider;
+        this.plans = new ConcurrentHashMap<>();
     }
 
     @Override
     public List<DbRowOp> sort(List<DbRowOp> dbRows) {
-        // sort by id, operation type and entity relations
-        dbRows.sort(getComparator());
+        // sort by operation type and entity relations
+        sortByPlan(dbRows);
         // sort reflexively dependent objects
         sortReflexive(dbRows);
-
         return dbRows;
     }
 
+    /**
+     * Groups operations by type and entity, and reorders the list according to the order of the groups.
+     * Relative order of the operations within a group is preserved.
+     */
+    protected void sortByPlan(List<DbRowOp> dbRows) {
+        if(dbRows.size() < 2) {
+            return;
+        }
+
+        Map<SortGroup, List<DbRowOp>> groups = new LinkedHashMap<>();
+        for(DbRowOp row : dbRows) {
+            SortGroup group = new SortGroup(row.accept(DbRowTypeVisitor.INSTANCE), row.getEntity());
+            groups.computeIfAbsent(group, g -> new ArrayList<>()).add(row);
+        }
+
+        if(groups.size() == 1) {
+            return;
+        }
+
+        ListIterator<DbRowOp> it = dbRows.listIterator();
+        for(SortGroup group : getPlan(groups)) {
+            for(DbRowOp row : groups.get(group)) {
+                it.next();
+                it.set(row);
+            }
+        }
+    }
+
+    /**
+     * Returns groups in the order they should be executed in.
+     *
+     * @param groups operations of the commit by group
+     */
+    protected List<SortGroup> getPlan(Map<SortGroup, List<DbRowOp>> groups) {
+        // drop all plans if the mapping was replaced
+        EntityResolver resolver = dataDomainProvider.get().getEntityResolver();
+        if(resolver != plansResolver) {
+            plans.clear();
+            plansResolver = resolver;
+        }
+
+        List<SortGroup> plan = plans.get(groups.keySet());
+        if(plan == null || !isCurrent(plan, groups)) {
+            plan = createPlan(groups.keySet());
+            if(plans.size() < MAX_CACHED_PLANS) {
+                plans.put(new HashSet<>(groups.keySet()), plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Checks that a cached plan was computed for the same DbEntity objects the operations refer to, as a DataMap
+     * reloaded under the same EntityResolver has new entities with the same names.
+     */
+    private boolean isCurrent(List<SortGroup> plan, Map<SortGroup, List<DbRowOp>> groups) {
+        for(SortGroup group : plan) {
+            List<DbRowOp> rows = groups.get(group);
+            if(rows == null || rows.get(0).getEntity() != group.entity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected List<SortGroup> createPlan(Set<SortGroup> groups) {
+        Comparator<DbEntity> entityComparator = dataDomainProvider.get().getEntitySorter().getDbEntityComparator();
+        List<SortGroup> plan = new ArrayList<>(groups);
+        plan.sort((left, right) -> {
+            // 1. sort by op type
+            int result = left.type.compareTo(right.type);
+            if(result != 0) {
+                return result;
+            }
+
+            // 2. sort by entity relations, inverted for delete
+            result = entityComparator.compare(left.entity, right.entity);
+            return left.type == DbRowOpType.DELETE ? -result : result;
+        });
+        return plan;
+    }
+
     protected void sortReflexive(List<DbRowOp> sortedDbRows) {
         DataDomain dataDomain = dataDomainProvider.get();
         EntitySorter sorter = dataDomain.getEntitySorter();
@@ -96,6 +199,38 @@ public class DefaultDbRowOpSorter implements DbRowOpSorter {
         return local;
     }
 
+    /**
+     * Operations of the same type on the same entity, that are always executed together. Entities are matched by
+     * name, so that groups stay valid as cache keys when entities are reloaded.
+     */
+    protected static final class SortGroup {
+
+        final DbRowOpType type;
+        final DbEntity entity;
+
+        SortGroup(DbRowOpType type, DbEntity entity) {
+            this.type = type;
+            this.entity = entity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof SortGroup)) {
+                return false;
+            }
+            SortGroup that = (SortGroup) o;
+            return type == that.type && entity.getName().equals(that.entity.getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, entity.getName());
+        }
+    }
+
     protected static class DbRowComparator implements Comparator<DbRowOp> {
 
         private final EntitySorter entitySorter;
@@ -128,9 +263,15 @@ public class DefaultDbRowOpSorter implements DbRowOpSorter {
         }
     }
 
-    protected static class DbRowTypeVisitor implements DbRowOpVisitor<DbRowOpType> {
+    /**
+     * Resolves {@link DbRowOpType} of an operation.
+     */
+    public static class DbRowTypeVisitor implements DbRowOpVisitor<DbRowOpType> {
 
-        private static final DbRowTypeVisitor INSTANCE = new DbRowTypeVisitor();
+        /**
+         * @since 4.2
+         */
+        public static final DbRowTypeVisitor INSTANCE = new DbRowTypeVisitor();
 
         @Override
         public DbRowOpType visitInsert(InsertDbRowOp diffSnapshot) {
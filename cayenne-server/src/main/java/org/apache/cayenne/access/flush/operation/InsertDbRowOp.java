@@ -58,7 +58,7 @@ public class InsertDbRowOp extends BaseDbRowOp implements DbRowOpWithValues {
 
     @Override
     public boolean isSameBatch(DbRowOp rowOp) {
-        if(!(rowOp instanceof InsertDbRowOp)) {
+        if(!(rowOp instanceof InsertDbRowOp) || rowOp instanceof UpsertDbRowOp) {
             return false;
         }
         return rowOp.getEntity().getName().equals(getEntity().getName());
@@ -27,6 +27,7 @@ import org.apache.cayenne.access.OptimisticLockException;
 import org.apache.cayenne.access.jdbc.reader.RowReader;
 import org.apache.cayenne.access.translator.DbAttributeBinding;
 import org.apache.cayenne.access.translator.batch.BatchTranslator;
+import org.apache.cayenne.access.translator.batch.InsertBatchTranslator;
 import org.apache.cayenne.dba.DbAdapter;
 import org.apache.cayenne.dba.TypesMapping;
 import org.apache.cayenne.log.JdbcEventLogger;
@@ -50,6 +51,14 @@ import java.util.List;
  */
 public class BatchAction extends BaseSQLAction {
 
+	/**
+	 * Max number of parameters in a single multi-row INSERT statement. Drivers start to
+	 * reject statements with more parameters than that (e.g. PostgreSQL).
+	 *
+	 * @since 4.2
+	 */
+	protected static final int MAX_MULTI_ROW_INSERT_PARAMETERS = 32767;
+
 	protected boolean runningAsBatch;
 	protected BatchQuery query;
 	protected RowDescriptor keyRowDescriptor;
@@ -84,10 +93,13 @@ public class BatchAction extends BaseSQLAction {
 	public void performAction(Connection connection, OperationObserver observer) throws Exception {
 		BatchTranslator translator = createTranslator();
 
-		boolean isBatch = canRunAsBatch();
+		boolean isMultiRow = canRunAsMultiRowInsert(translator);
+		boolean isBatch = isMultiRow || canRunAsBatch();
 		boolean generatesKeys = hasGeneratedKeys() && supportsGeneratedKeys(isBatch);
 
-		if (isBatch) {
+		if (isMultiRow) {
+			runAsMultiRowInserts(connection, (InsertBatchTranslator) translator, observer, generatesKeys);
+		} else if (isBatch) {
 			runAsBatch(connection, translator, observer, generatesKeys);
 		} else {
 			runAsIndividualQueries(connection, translator, observer, generatesKeys);
@@ -108,6 +120,28 @@ public class BatchAction extends BaseSQLAction {
 		return true;
 	}
 
+	/**
+	 * Returns whether this action is an insert, that can be executed as multi-row INSERT statements.
+	 *
+	 * @since 4.2
+	 */
+	protected boolean canRunAsMultiRowInsert(BatchTranslator translator) {
+		if (!(translator instanceof InsertBatchTranslator)
+				|| !dataNode.isMultiRowInsert()
+				|| !dataNode.getAdapter().supportsMultiRowInsert()
+				|| query.getRows().size() <= 1) {
+			return false;
+		}
+
+		if (hasGeneratedKeys()) {
+			// rows of a reflexive entity may refer to the keys generated for the preceding rows
+			return supportsGeneratedKeys(true) &&
+					!dataNode.getEntityResolver().getEntitySorter().isReflexive(query.getDbEntity());
+		}
+
+		return true;
+	}
+
 	protected BatchTranslator createTranslator() {
 		return dataNode.batchTranslator(query, null);
 	}
@@ -126,25 +160,32 @@ public class BatchAction extends BaseSQLAction {
 
 		DbAdapter adapter = dataNode.getAdapter();
 
+		List<BatchQueryRow> rows = query.getRows();
+		int chunkSize = dataNode.getMaxBatchSize() > 0 ? dataNode.getMaxBatchSize() : rows.size();
+
 		try (PreparedStatement statement = prepareStatement(con, sql, adapter, generatesKeys)) {
-			for (BatchQueryRow row : query.getRows()) {
+			for (int start = 0; start < rows.size(); start += chunkSize) {
+				List<BatchQueryRow> chunk = rows.subList(start, Math.min(start + chunkSize, rows.size()));
+				for (BatchQueryRow row : chunk) {
 
-				DbAttributeBinding[] bindings = translator.updateBindings(row);
-				logger.logQueryParameters("batch bind", bindings);
-				bind(adapter, statement, bindings);
+					DbAttributeBinding[] bindings = translator.updateBindings(row);
+					logger.logQueryParameters("batch bind", bindings);
+					bind(adapter, statement, bindings);
 
-				statement.addBatch();
-			}
+					statement.addBatch();
+				}
 
-			// execute the whole batch
-			int[] results = statement.executeBatch();
-			delegate.nextBatchCount(query, results);
+				// execute the whole chunk
+				Object instrumentedStatement = dataNode.getJdbcInstrumentation().statementStarted(dataNode, true);
+				long t0 = System.nanoTime();
+				int[] results = statement.executeBatch();
+				long executeNanos = System.nanoTime() - t0;
+				delegate.nextBatchCount(query, results);
+
+				if (generatesKeys) {
+					processGeneratedKeys(statement, delegate, chunk);
+				}
 
-			if (generatesKeys) {
-				processGeneratedKeys(statement, delegate, query.getRows());
-			}
-			
-			if (isLoggable) {
 				int totalUpdateCount = 0;
 				for (int result : results) {
 
@@ -158,11 +199,82 @@ public class BatchAction extends BaseSQLAction {
 					totalUpdateCount += result;
 				}
 
-				logger.logUpdateCount(totalUpdateCount);
+				dataNode.getJdbcInstrumentation().batchExecuted(dataNode, instrumentedStatement, sql, executeNanos,
+						chunk.size(), totalUpdateCount);
+
+				if (isLoggable) {
+					logger.logUpdateCount(totalUpdateCount);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Executes insert batch as a series of multi-row INSERT statements, each inserting up
+	 * to {@link DataNode#getMaxBatchSize()} rows.
+	 *
+	 * @since 4.2
+	 */
+	protected void runAsMultiRowInserts(Connection con, InsertBatchTranslator translator, OperationObserver delegate,
+			boolean generatesKeys) throws Exception {
+
+		JdbcEventLogger logger = dataNode.getJdbcEventLogger();
+		DbAdapter adapter = dataNode.getAdapter();
+		List<BatchQueryRow> rows = query.getRows();
+
+		int chunkSize = multiRowInsertSize(translator);
+		PreparedStatement statement = null;
+		String sql = null;
+		int statementRows = 0;
+
+		try {
+			for (int start = 0; start < rows.size(); start += chunkSize) {
+				List<BatchQueryRow> chunk = rows.subList(start, Math.min(start + chunkSize, rows.size()));
+
+				// full chunks reuse the same statement, only the last one may need a shorter one
+				if (statement == null || statementRows != chunk.size()) {
+					if (statement != null) {
+						statement.close();
+					}
+
+					sql = translator.getSql(chunk.size());
+					logger.log(sql);
+					statement = prepareStatement(con, sql, adapter, generatesKeys);
+					statementRows = chunk.size();
+				}
+
+				DbAttributeBinding[] bindings = translator.updateBindings(chunk);
+				logger.logQueryParameters("bind", bindings);
+				bind(adapter, statement, bindings);
+
+				Object instrumentedStatement = dataNode.getJdbcInstrumentation().statementStarted(dataNode, true);
+				long t0 = System.nanoTime();
+				int updated = statement.executeUpdate();
+				dataNode.getJdbcInstrumentation().batchExecuted(dataNode, instrumentedStatement, sql,
+						System.nanoTime() - t0, chunk.size(), updated);
+				delegate.nextCount(query, updated);
+
+				if (generatesKeys) {
+					processGeneratedKeys(statement, delegate, chunk);
+				}
+
+				logger.logUpdateCount(updated);
+			}
+		} finally {
+			if (statement != null) {
+				statement.close();
 			}
 		}
 	}
 
+	private int multiRowInsertSize(InsertBatchTranslator translator) {
+		// translate a single row to find out the number of parameters per row
+		translator.getSql(1);
+		int parametersPerRow = Math.max(1, translator.getBindings().length);
+		int maxRows = Math.max(1, MAX_MULTI_ROW_INSERT_PARAMETERS / parametersPerRow);
+		return dataNode.getMaxBatchSize() > 0 ? Math.min(dataNode.getMaxBatchSize(), maxRows) : maxRows;
+	}
+
 	/**
 	 * Executes batch as individual queries over the same prepared statement.
 	 */
@@ -193,7 +305,11 @@ public class BatchAction extends BaseSQLAction {
 
 				bind(adapter, statement, bindings);
 
+				Object instrumentedStatement = dataNode.getJdbcInstrumentation().statementStarted(dataNode, false);
+				long t0 = System.nanoTime();
 				int updated = statement.executeUpdate();
+				dataNode.getJdbcInstrumentation().updateExecuted(dataNode, instrumentedStatement, queryStr,
+						System.nanoTime() - t0, updated);
 				if (useOptimisticLock && updated != 1) {
 					throw new OptimisticLockException(row.getObjectId(), query.getDbEntity(), queryStr,
 							row.getQualifier());
@@ -0,0 +1,84 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.OperationObserver;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.access.translator.bulk.BulkQueryTranslator;
+import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.query.BulkQuery;
+
+/**
+ * A SQLAction that runs {@link org.apache.cayenne.query.ObjectUpdate} or
+ * {@link org.apache.cayenne.query.ObjectDelete} as a single UPDATE or DELETE statement.
+ *
+ * @since 4.2
+ */
+public class BulkAction extends BaseSQLAction {
+
+	protected BulkQuery<?> query;
+
+	public BulkAction(BulkQuery<?> query, DataNode dataNode) {
+		super(dataNode);
+		this.query = query;
+	}
+
+	@Override
+	public void performAction(Connection connection, OperationObserver observer) throws Exception {
+
+		JdbcEventLogger logger = dataNode.getJdbcEventLogger();
+		BulkQueryTranslator translator = createTranslator();
+		String sql = translator.getSql();
+		DbAttributeBinding[] bindings = translator.getBindings();
+
+		logger.logQuery(sql, bindings);
+
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			for (DbAttributeBinding binding : bindings) {
+				if (binding.isExcluded()) {
+					continue;
+				}
+
+				// qualifier parameters not mapped to any DbAttribute are bound as is, same as in SelectAction
+				if (binding.getAttribute() == null) {
+					statement.setObject(binding.getStatementPosition(), binding.getValue());
+				} else {
+					dataNode.getAdapter().bindParameter(statement, binding);
+				}
+			}
+
+			Object instrumentedStatement = dataNode.getJdbcInstrumentation().statementStarted(dataNode, false);
+			long t0 = System.nanoTime();
+			int updated = statement.executeUpdate();
+			dataNode.getJdbcInstrumentation()
+					.updateExecuted(dataNode, instrumentedStatement, sql, System.nanoTime() - t0, updated);
+			logger.logUpdateCount(updated);
+			observer.nextCount(query, updated);
+		}
+	}
+
+	protected BulkQueryTranslator createTranslator() {
+		return new BulkQueryTranslator(query, dataNode.getAdapter(), dataNode.getEntityResolver());
+	}
+}
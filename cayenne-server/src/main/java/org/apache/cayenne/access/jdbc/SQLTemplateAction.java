@@ -65,6 +65,11 @@ public class SQLTemplateAction implements SQLAction {
 	protected DataNode dataNode;
 	protected DbAdapter dbAdapter;
 
+	// timing of the last executed statement, reported to the JdbcInstrumentation
+	private Object instrumentedStatement;
+	private long executeNanos;
+	private long executedAt;
+
 	/**
 	 * @since 4.0
 	 */
@@ -193,7 +198,12 @@ public class SQLTemplateAction implements SQLAction {
 			bind(statement, compiled.getBindings());
 
 			// process a mix of results
+			instrumentedStatement = dataNode.getJdbcInstrumentation().statementStarted(dataNode, false);
+			long t0 = System.nanoTime();
 			boolean isResultSet = statement.execute();
+			executedAt = System.nanoTime();
+			executeNanos = executedAt - t0;
+			dataNode.getJdbcInstrumentation().statementExecuted(instrumentedStatement);
 
 			if(query.isReturnGeneratedKeys()) {
 				ResultSet generatedKeysResultSet = statement.getGeneratedKeys();
@@ -236,6 +246,8 @@ public class SQLTemplateAction implements SQLAction {
 
 					updateCounts.add(updateCount);
 					dataNode.getJdbcEventLogger().logUpdateCount(updateCount);
+					dataNode.getJdbcInstrumentation()
+							.updateExecuted(dataNode, instrumentedStatement, compiled.getSql(), executeNanos, updateCount);
 				}
 			}
 		} finally {
@@ -255,6 +267,9 @@ public class SQLTemplateAction implements SQLAction {
 		recreateQueryMetadata(resultSet);
 		RowReader<?> rowReader = dataNode.rowReader(builder.getDescriptor(types), queryMetadata);
 		ResultIterator<?> it = new JDBCResultIterator<>(statement, resultSet, rowReader);
+		Object instrumentedStatement = this.instrumentedStatement;
+		long executeNanos = this.executeNanos;
+		long executedAt = this.executedAt;
 
 		if (iteratedResult) {
 
@@ -262,6 +277,8 @@ public class SQLTemplateAction implements SQLAction {
 				@Override
 				protected void doClose() {
 					dataNode.getJdbcEventLogger().logSelectCount(rowCounter, System.currentTimeMillis() - startTime);
+					dataNode.getJdbcInstrumentation().selectExecuted(dataNode, instrumentedStatement, compiled.getSql(),
+							executeNanos, System.nanoTime() - executedAt, rowCounter);
 					super.doClose();
 				}
 			};
@@ -283,6 +300,8 @@ public class SQLTemplateAction implements SQLAction {
 			List<?> resultRows = it.allRows();
 
 			dataNode.getJdbcEventLogger().logSelectCount(resultRows.size(), System.currentTimeMillis() - startTime);
+			dataNode.getJdbcInstrumentation().selectExecuted(dataNode, instrumentedStatement, compiled.getSql(),
+					executeNanos, System.nanoTime() - executedAt, resultRows.size());
 
 			callback.nextRows(query, resultRows);
 		}
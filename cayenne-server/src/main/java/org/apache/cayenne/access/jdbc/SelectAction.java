@@ -32,6 +32,7 @@ import org.apache.cayenne.access.translator.DbAttributeBinding;
 import org.apache.cayenne.access.translator.select.SelectTranslator;
 import org.apache.cayenne.dba.DbAdapter;
 import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.log.JdbcInstrumentation;
 import org.apache.cayenne.query.PrefetchProcessor;
 import org.apache.cayenne.query.PrefetchTreeNode;
 import org.apache.cayenne.query.QueryMetadata;
@@ -106,19 +107,25 @@ public class SelectAction extends BaseSQLAction {
 
 		// need to run in try-catch block to close statement properly if
 		// exception happens
+		JdbcInstrumentation instrumentation = dataNode.getJdbcInstrumentation();
+		Object instrumentedStatement = instrumentation.statementStarted(dataNode, false);
+		long executeStarted = System.nanoTime();
 		try {
 			rs = statement.executeQuery();
 		} catch (Exception ex) {
 			statement.close();
 			throw ex;
 		}
+		long executed = System.nanoTime();
+		long executeNanos = executed - executeStarted;
+		instrumentation.statementExecuted(instrumentedStatement);
 		RowDescriptor descriptor = new RowDescriptorBuilder().setColumns(translator.getResultColumns()).getDescriptor(
 				dataNode.getAdapter().getExtendedTypes());
 
 		RowReader<?> rowReader = dataNode.rowReader(descriptor, queryMetadata, translator.getAttributeOverrides());
 
 		ResultIterator<?> it = new JDBCResultIterator<>(statement, rs, rowReader);
-		it = forIteratedResult(it, observer, connection, t1, sql);
+		it = forIteratedResult(it, observer, connection, t1, sql, instrumentedStatement, executeNanos, executed);
 		it = forSuppressedDistinct(it, translator);
 		it = forFetchLimit(it, translator);
 
@@ -142,13 +149,16 @@ public class SelectAction extends BaseSQLAction {
 			}
 
 			dataNode.getJdbcEventLogger().logSelectCount(resultRows.size(), System.currentTimeMillis() - t1, sql);
+			instrumentation.selectExecuted(dataNode, instrumentedStatement, sql, executeNanos,
+					System.nanoTime() - executed, resultRows.size());
 
 			observer.nextRows(query, resultRows);
 		}
 	}
 
 	private <T> ResultIterator<T> forIteratedResult(ResultIterator<T> iterator, OperationObserver observer,
-			Connection connection, final long queryStartedAt, final String sql) {
+			Connection connection, final long queryStartedAt, final String sql, final Object instrumentedStatement,
+			final long executeNanos, final long executed) {
 		if (!observer.isIteratedResult()) {
 			return iterator;
 		}
@@ -157,6 +167,8 @@ public class SelectAction extends BaseSQLAction {
 			@Override
 			protected void doClose() {
 				dataNode.getJdbcEventLogger().logSelectCount(rowCounter, System.currentTimeMillis() - queryStartedAt, sql);
+				dataNode.getJdbcInstrumentation().selectExecuted(dataNode, instrumentedStatement, sql, executeNanos,
+						System.nanoTime() - executed, rowCounter);
 				super.doClose();
 			}
 		};
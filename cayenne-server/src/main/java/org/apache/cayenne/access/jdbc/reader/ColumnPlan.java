@@ -0,0 +1,101 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.jdbc.reader;
+
+import java.sql.ResultSet;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.DataRowLayout;
+import org.apache.cayenne.EmbeddableObject;
+import org.apache.cayenne.access.jdbc.ColumnDescriptor;
+import org.apache.cayenne.access.types.ExtendedType;
+
+/**
+ * A precompiled plan for reading a range of ResultSet columns into DataRows. Resolves converters, JDBC types and
+ * positions of each column in a shared {@link DataRowLayout} once per query, so that reading a row involves no
+ * lookups and results in a single values array wrapped in a DataRow. Results that need no snapshot can skip the
+ * DataRow and have the values written straight into the target object.
+ *
+ * @since 4.2
+ */
+final class ColumnPlan {
+
+    private final ExtendedType<?>[] converters;
+    private final int[] types;
+    private final int[] jdbcIndexes;
+    private final int[] slots;
+    private final DataRowLayout layout;
+
+    /**
+     * Creates a plan for reading a contiguous range of columns.
+     *
+     * @param allConverters converters for all ResultSet columns
+     * @param allColumns    descriptors of all ResultSet columns
+     * @param startIndex    zero-based index of the first column to read
+     * @param labels        DataRow keys for each column in the range
+     */
+    ColumnPlan(ExtendedType<?>[] allConverters, ColumnDescriptor[] allColumns, int startIndex, String[] labels) {
+
+        int width = labels.length;
+
+        this.converters = new ExtendedType<?>[width];
+        this.types = new int[width];
+        this.jdbcIndexes = new int[width];
+        this.slots = new int[width];
+        this.layout = DataRowLayout.of(labels);
+
+        for (int i = 0; i < width; i++) {
+            converters[i] = allConverters[startIndex + i];
+            types[i] = allColumns[startIndex + i].getJdbcType();
+
+            // note: jdbc column indexes start from 1, not 0 as in arrays
+            jdbcIndexes[i] = startIndex + i + 1;
+
+            // duplicate labels share a slot, the last column wins, same as with Map.put(..)
+            slots[i] = layout.indexOf(labels[i]);
+        }
+    }
+
+    DataRowLayout getLayout() {
+        return layout;
+    }
+
+    DataRow readRow(ResultSet resultSet) throws Exception {
+        Object[] values = new Object[layout.size()];
+
+        int width = converters.length;
+        for (int i = 0; i < width; i++) {
+            values[slots[i]] = converters[i].materializeObject(resultSet, jdbcIndexes[i], types[i]);
+        }
+
+        return new DataRow(layout, values);
+    }
+
+    /**
+     * Reads column values straight into an embeddable object, without creating an intermediate DataRow.
+     */
+    void readInto(ResultSet resultSet, EmbeddableObject object) throws Exception {
+        int width = converters.length;
+        for (int i = 0; i < width; i++) {
+            object.writePropertyDirectly(
+                    layout.getKey(slots[i]),
+                    converters[i].materializeObject(resultSet, jdbcIndexes[i], types[i]));
+        }
+    }
+}
@@ -33,6 +33,8 @@ import org.apache.cayenne.access.types.ExtendedType;
 import org.apache.cayenne.access.types.ExtendedTypeMap;
 import org.apache.cayenne.dba.DbAdapter;
 import org.apache.cayenne.dba.TypesMapping;
+import org.apache.cayenne.di.AdhocObjectFactory;
+import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.map.Entity;
 import org.apache.cayenne.map.ObjAttribute;
 import org.apache.cayenne.query.EmbeddableResultSegment;
@@ -46,6 +48,15 @@ import org.apache.cayenne.reflect.ClassDescriptor;
  */
 public class DefaultRowReaderFactory implements RowReaderFactory {
 
+	/**
+	 * Resolves embeddable classes, so that embeddable results are read without intermediate DataRows. May be null,
+	 * in which case DataRows are read and converted by the query action.
+	 *
+	 * @since 4.2
+	 */
+	@Inject
+	protected AdhocObjectFactory objectFactory;
+
 	@Override
 	public RowReader<?> rowReader(RowDescriptor descriptor, QueryMetadata queryMetadata, DbAdapter adapter,
 			Map<ObjAttribute, ColumnDescriptor> attributeOverrides) {
@@ -98,7 +109,11 @@ public class DefaultRowReaderFactory implements RowReaderFactory {
 	}
 
 	private RowReader<?> createEmbeddableRowReader(RowDescriptor descriptor, QueryMetadata queryMetadata, EmbeddableResultSegment segment) {
-		return new EmbeddableRowReader(descriptor, queryMetadata, segment);
+		// embeddables have no snapshots, so unless DataRows are requested they can be read directly
+		Class<?> embeddableClass = objectFactory != null && !queryMetadata.isFetchingDataRows()
+				? objectFactory.getJavaClass(segment.getEmbeddable().getClassName())
+				: null;
+		return new EmbeddableRowReader(descriptor, queryMetadata, segment, embeddableClass);
 	}
 
 	protected RowReader<?> createScalarRowReader(RowDescriptor descriptor, QueryMetadata queryMetadata, ScalarResultSegment segment) {
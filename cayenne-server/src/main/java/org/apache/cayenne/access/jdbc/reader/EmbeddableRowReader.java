@@ -7,7 +7,7 @@
  *  "License"); you may not use this file except in compliance
  *  with the License.  You may obtain a copy of the License at
  *
- *    http://www.apache.org/licenses/LICENSE-2.0
+ *    https://www.apache.org/licenses/LICENSE-2.0
  *
  *  Unless required by applicable law or agreed to in writing,
  *  software distributed under the License is distributed on an
@@ -16,59 +16,60 @@
  *  specific language governing permissions and limitations
  *  under the License.
  ****************************************************************/
-
 package org.apache.cayenne.access.jdbc.reader;
 
+import java.lang.reflect.Constructor;
 import java.sql.ResultSet;
 
 import org.apache.cayenne.CayenneRuntimeException;
-import org.apache.cayenne.DataRow;
+import org.apache.cayenne.EmbeddableObject;
 import org.apache.cayenne.access.jdbc.ColumnDescriptor;
 import org.apache.cayenne.access.jdbc.RowDescriptor;
-import org.apache.cayenne.access.types.ExtendedType;
 import org.apache.cayenne.query.EmbeddableResultSegment;
 import org.apache.cayenne.query.QueryMetadata;
 import org.apache.cayenne.util.Util;
 
 /**
+ * Reads embeddable results. If the embeddable class is known, values are written straight into the new embeddable
+ * objects, otherwise DataRows are returned and converted to objects later by the query action.
+ *
  * @since 4.2
  */
-class EmbeddableRowReader implements RowReader<DataRow> {
+class EmbeddableRowReader implements RowReader<Object> {
+
+    private final ColumnPlan plan;
+    private final Constructor<?> embeddableConstructor;
 
-    private final int startIndex;
-    private final int mapCapacity;
-    private final ExtendedType[] converters;
-    private final String[] labels;
-    private final int[] types;
+    EmbeddableRowReader(RowDescriptor descriptor, QueryMetadata queryMetadata, EmbeddableResultSegment segment,
+                        Class<?> embeddableClass) {
+        try {
+            this.embeddableConstructor = embeddableClass != null ? embeddableClass.getDeclaredConstructor() : null;
+        } catch (NoSuchMethodException e) {
+            throw new CayenneRuntimeException("Unable to materialize embeddable '%s'", e,
+                    segment.getEmbeddable().getClassName());
+        }
 
-    EmbeddableRowReader(RowDescriptor descriptor, QueryMetadata queryMetadata, EmbeddableResultSegment segment) {
         int segmentWidth = segment.getFields().size();
-        this.startIndex = segment.getColumnOffset();
-        this.converters = new ExtendedType[segmentWidth];
-        this.types = new int[segmentWidth];
-        this.labels = new String[segmentWidth];
+        int startIndex = segment.getColumnOffset();
+        String[] labels = new String[segmentWidth];
 
-        ExtendedType[] converters = descriptor.getConverters();
         ColumnDescriptor[] columns = descriptor.getColumns();
         for (int i = 0; i < segmentWidth; i++) {
-            this.converters[i] = converters[startIndex + i];
-            types[i] = columns[startIndex + i].getJdbcType();
             labels[i] = segment.getFields().get(columns[startIndex +i].getName());
         }
-        this.mapCapacity = (int) Math.ceil(segmentWidth / 0.75);
+        this.plan = new ColumnPlan(descriptor.getConverters(), columns, startIndex, labels);
     }
 
     @Override
-    public DataRow readRow(ResultSet resultSet) {
+    public Object readRow(ResultSet resultSet) {
         try {
-            DataRow row = new DataRow(mapCapacity);
-            int len = converters.length;
-            for (int i = 0; i < len; i++) {
-                // note: jdbc column indexes start from 1, not 0 as in arrays
-                Object val = converters[i].materializeObject(resultSet, startIndex + i + 1, types[i]);
-                row.put(labels[i], val);
+            if (embeddableConstructor == null) {
+                return plan.readRow(resultSet);
             }
-            return row;
+
+            EmbeddableObject object = (EmbeddableObject) embeddableConstructor.newInstance();
+            plan.readInto(resultSet, object);
+            return object;
         } catch (CayenneRuntimeException cex) {
             // rethrow unmodified
             throw cex;
@@ -24,7 +24,6 @@ import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.DataRow;
 import org.apache.cayenne.access.jdbc.ColumnDescriptor;
 import org.apache.cayenne.access.jdbc.RowDescriptor;
-import org.apache.cayenne.access.types.ExtendedType;
 import org.apache.cayenne.query.EntityResultSegment;
 import org.apache.cayenne.reflect.ClassDescriptor;
 import org.apache.cayenne.util.Util;
@@ -34,13 +33,9 @@ import org.apache.cayenne.util.Util;
  */
 class EntityRowReader implements RowReader<DataRow> {
 
-    private ExtendedType[] converters;
-    private String[] labels;
-    private int[] types;
+    private ColumnPlan plan;
 
     String entityName;
-    private int mapCapacity;
-    private int startIndex;
 
     DataRowPostProcessor postProcessor;
 
@@ -55,17 +50,11 @@ class EntityRowReader implements RowReader<DataRow> {
         }
 
         int segmentWidth = segmentMetadata.getFields().size();
-        this.startIndex = segmentMetadata.getColumnOffset();
-        this.converters = new ExtendedType[segmentWidth];
-        this.types = new int[segmentWidth];
-        this.labels = new String[segmentWidth];
+        int startIndex = segmentMetadata.getColumnOffset();
+        String[] labels = new String[segmentWidth];
 
-        ExtendedType[] converters = descriptor.getConverters();
         ColumnDescriptor[] columns = descriptor.getColumns();
         for (int i = 0; i < segmentWidth; i++) {
-            this.converters[i] = converters[startIndex + i];
-            types[i] = columns[startIndex + i].getJdbcType();
-
             // query translator may change the order of fields compare to the entity
             // result, so figure out DataRow labels by doing reverse lookup of
             // RowDescriptor labels...
@@ -77,23 +66,14 @@ class EntityRowReader implements RowReader<DataRow> {
                 labels[i] = segmentMetadata.getColumnPath(columns[startIndex + i].getDataRowKey());
             }
         }
-        this.mapCapacity = (int) Math.ceil(segmentWidth / 0.75);
+        this.plan = new ColumnPlan(descriptor.getConverters(), columns, startIndex, labels);
     }
 
     @Override
     public DataRow readRow(ResultSet resultSet) {
 
         try {
-            DataRow row = new DataRow(mapCapacity);
-            int len = converters.length;
-
-            for (int i = 0; i < len; i++) {
-
-                // note: jdbc column indexes start from 1, not 0 as in arrays
-                Object val = converters[i].materializeObject(resultSet, startIndex + i + 1, types[i]);
-                row.put(labels[i], val);
-            }
-
+            DataRow row = plan.readRow(resultSet);
             postprocessRow(resultSet, row);
 
             return row;
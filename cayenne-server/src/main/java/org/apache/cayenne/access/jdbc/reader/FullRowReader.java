@@ -31,28 +31,17 @@ import org.apache.cayenne.util.Util;
  */
 class FullRowReader extends BaseRowReader<DataRow> {
 
-    int mapCapacity;
+    ColumnPlan plan;
 
     FullRowReader(RowDescriptor descriptor, QueryMetadata queryMetadata, DataRowPostProcessor postProcessor) {
         super(descriptor, queryMetadata, postProcessor);
-        this.mapCapacity = (int) Math.ceil((descriptor.getWidth()) / 0.75);
+        this.plan = new ColumnPlan(converters, descriptor.getColumns(), 0, labels);
     }
 
     @Override
     public DataRow readRow(ResultSet resultSet) {
         try {
-            DataRow dataRow = new DataRow(mapCapacity);
-
-            int resultWidth = labels.length;
-
-            // process result row columns,
-            for (int i = 0; i < resultWidth; i++) {
-                // note: jdbc column indexes start from 1, not 0 unlike
-                // everywhere else
-                Object val = converters[i].materializeObject(resultSet, i + 1, types[i]);
-                dataRow.put(labels[i], val);
-            }
-
+            DataRow dataRow = plan.readRow(resultSet);
             postprocessRow(resultSet, dataRow);
 
             return dataRow;
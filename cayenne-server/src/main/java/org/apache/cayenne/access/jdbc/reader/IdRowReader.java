@@ -22,6 +22,7 @@ import java.sql.ResultSet;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.DataRow;
+import org.apache.cayenne.DataRowLayout;
 import org.apache.cayenne.access.jdbc.ColumnDescriptor;
 import org.apache.cayenne.access.jdbc.RowDescriptor;
 import org.apache.cayenne.map.DbAttribute;
@@ -36,6 +37,8 @@ import org.apache.cayenne.util.Util;
 class IdRowReader<T> extends BaseRowReader<T> {
 
     protected int[] pkIndices;
+    private DataRowLayout idLayout;
+    private int[] idSlots;
 
     public IdRowReader(RowDescriptor descriptor, QueryMetadata queryMetadata, EntityResultSegment resultMetadata, DataRowPostProcessor postProcessor) {
         super(descriptor, queryMetadata, postProcessor);
@@ -68,6 +71,16 @@ class IdRowReader<T> extends BaseRowReader<T> {
         }
 
         this.pkIndices = pk;
+
+        String[] pkLabels = new String[len];
+        for (int i = 0; i < len; i++) {
+            pkLabels[i] = labels[pk[i]];
+        }
+        this.idLayout = DataRowLayout.of(pkLabels);
+        this.idSlots = new int[len];
+        for (int i = 0; i < len; i++) {
+            idSlots[i] = idLayout.indexOf(pkLabels[i]);
+        }
     }
 
     @Override
@@ -104,16 +117,19 @@ class IdRowReader<T> extends BaseRowReader<T> {
     @SuppressWarnings("unchecked")
     private T readIdMap(ResultSet resultSet) throws Exception {
 
-        DataRow idRow = new DataRow(2);
-        idRow.setEntityName(entityName);
+        int len = pkIndices.length;
+        Object[] values = new Object[idLayout.size()];
 
-        for (int index : pkIndices) {
+        for (int i = 0; i < len; i++) {
             // dereference column index
             // note: jdbc column indexes start from 1, not 0 as in arrays
-            Object val = converters[index].materializeObject(resultSet, index + 1, types[index]);
-            idRow.put(labels[index], val);
+            int index = pkIndices[i];
+            values[idSlots[i]] = converters[index].materializeObject(resultSet, index + 1, types[index]);
         }
 
+        DataRow idRow = new DataRow(idLayout, values);
+        idRow.setEntityName(entityName);
+
         if (postProcessor != null) {
             postProcessor.postprocessRow(resultSet, idRow);
         }
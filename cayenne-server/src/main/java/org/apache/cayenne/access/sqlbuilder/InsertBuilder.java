@@ -19,8 +19,13 @@
 
 package org.apache.cayenne.access.sqlbuilder;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.cayenne.access.sqlbuilder.sqltree.InsertColumnsNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.InsertNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.InsertValuesRowNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.Node;
 import org.apache.cayenne.access.sqlbuilder.sqltree.TableNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.InsertValuesNode;
 import org.apache.cayenne.map.DbEntity;
@@ -32,12 +37,16 @@ public class InsertBuilder extends BaseBuilder {
 
     /*
     INSERT INTO AUTO_PK_SUPPORT (TABLE_NAME, NEXT_ID) VALUES ('X_AUTHOR', 200)
+    INSERT INTO ARTIST (ARTIST_ID, ARTIST_NAME) VALUES (1, 'a1'), (2, 'a2')
     */
 
     private static final int TABLE_NODE   = 0;
     private static final int COLUMNS_NODE = 1;
     private static final int VALUES_NODE  = 2;
 
+    // rows of a multi-row insert, that follow the first row of values
+    private List<Node> extraRows;
+
     public InsertBuilder(String table) {
         super(new InsertNode(), VALUES_NODE + 1);
         node(TABLE_NODE, () -> new TableNode(table, null));
@@ -54,7 +63,37 @@ public class InsertBuilder extends BaseBuilder {
     }
 
     public InsertBuilder value(ValueNodeBuilder valueNode) {
-        node(VALUES_NODE, InsertValuesNode::new).addChild(valueNode.build());
+        Node row = extraRows == null
+                ? node(VALUES_NODE, InsertValuesNode::new)
+                : extraRows.get(extraRows.size() - 1);
+        row.addChild(valueNode.build());
+        return this;
+    }
+
+    /**
+     * Starts a new row of values, turning this builder into a multi-row INSERT. Values added
+     * after this call go to the new row. Calling it before any values are added is a noop.
+     */
+    public InsertBuilder row() {
+        if(nodes[VALUES_NODE] == null) {
+            return this;
+        }
+
+        if(extraRows == null) {
+            extraRows = new ArrayList<>();
+        }
+        extraRows.add(new InsertValuesRowNode());
         return this;
     }
+
+    @Override
+    public Node build() {
+        super.build();
+        if(extraRows != null) {
+            for(Node row : extraRows) {
+                root.addChild(row);
+            }
+        }
+        return root;
+    }
 }
@@ -26,6 +26,7 @@ import org.apache.cayenne.access.sqlbuilder.sqltree.Node;
 import org.apache.cayenne.access.sqlbuilder.sqltree.NodeType;
 import org.apache.cayenne.access.sqlbuilder.sqltree.SimpleNodeTreeVisitor;
 import org.apache.cayenne.access.sqlbuilder.sqltree.TextNode;
+import org.apache.cayenne.dba.UpsertSyntax;
 import org.apache.cayenne.map.DbEntity;
 
 /**
@@ -45,6 +46,10 @@ public final class SQLBuilder {
         return new InsertBuilder(table);
     }
 
+    public static UpsertBuilder upsert(DbEntity table, UpsertSyntax syntax) {
+        return new UpsertBuilder(table, syntax);
+    }
+
     public static UpdateBuilder update(String table) {
         return new UpdateBuilder(table);
     }
@@ -0,0 +1,171 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.sqlbuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.access.sqlbuilder.sqltree.ColumnNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.InsertColumnsNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.InsertNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.InsertValuesNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.InsertValuesRowNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.MergeActionNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.MergeKeyNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.MergeNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.MergeSourceNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.Node;
+import org.apache.cayenne.access.sqlbuilder.sqltree.OnConflictNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.OnDuplicateKeyNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.TableNode;
+import org.apache.cayenne.dba.UpsertSyntax;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+
+/**
+ * Builder of the "insert or update" statement, the tree of which depends on the {@link UpsertSyntax}.
+ *
+ * @since 4.2
+ */
+public class UpsertBuilder implements NodeBuilder {
+
+    /*
+    INSERT INTO ARTIST (ARTIST_ID, ARTIST_NAME) VALUES (1, 'a1') ON CONFLICT (ARTIST_ID) DO UPDATE SET ...
+    INSERT INTO ARTIST (ARTIST_ID, ARTIST_NAME) VALUES (1, 'a1') ON DUPLICATE KEY UPDATE ...
+    MERGE INTO ARTIST (ARTIST_ID, ARTIST_NAME) KEY (ARTIST_ID) VALUES (1, 'a1')
+    MERGE INTO ARTIST USING (VALUES (1, 'a1')) AS S (ARTIST_ID, ARTIST_NAME) ON (...) WHEN MATCHED THEN ...
+    */
+
+    private final DbEntity table;
+    private final UpsertSyntax syntax;
+    private final List<DbAttribute> columns;
+    private final List<DbAttribute> keys;
+    private final List<DbAttribute> updated;
+    private final List<Node> rows;
+    private DbAttribute generatedKey;
+
+    public UpsertBuilder(DbEntity table, UpsertSyntax syntax) {
+        this.table = table;
+        this.syntax = syntax;
+        this.columns = new ArrayList<>();
+        this.keys = new ArrayList<>();
+        this.updated = new ArrayList<>();
+        this.rows = new ArrayList<>();
+    }
+
+    /**
+     * Adds an inserted column.
+     */
+    public UpsertBuilder column(DbAttribute attribute) {
+        columns.add(attribute);
+        return this;
+    }
+
+    /**
+     * Adds a column that is used to match the existing row.
+     */
+    public UpsertBuilder key(DbAttribute attribute) {
+        keys.add(attribute);
+        return this;
+    }
+
+    /**
+     * Adds a column that is updated if the row already exists.
+     */
+    public UpsertBuilder update(DbAttribute attribute) {
+        updated.add(attribute);
+        return this;
+    }
+
+    /**
+     * Sets a DB generated PK column, that is not present in the inserted columns.
+     */
+    public UpsertBuilder generatedKey(DbAttribute attribute) {
+        generatedKey = attribute;
+        return this;
+    }
+
+    public UpsertBuilder value(NodeBuilder valueNode) {
+        if(rows.isEmpty()) {
+            rows.add(new InsertValuesNode());
+        }
+        rows.get(rows.size() - 1).addChild(valueNode.build());
+        return this;
+    }
+
+    /**
+     * Starts a new row of values. Calling it before any values are added is a noop.
+     */
+    public UpsertBuilder row() {
+        if(!rows.isEmpty()) {
+            rows.add(new InsertValuesRowNode());
+        }
+        return this;
+    }
+
+    @Override
+    public Node build() {
+        switch (syntax) {
+            case ON_CONFLICT:
+                return buildInsert(new OnConflictNode(keys, updated));
+            case ON_DUPLICATE_KEY:
+                return buildInsert(new OnDuplicateKeyNode(keys, updated, generatedKey));
+            case MERGE_KEY:
+                return buildMergeKey();
+            case MERGE:
+                return buildMerge();
+        }
+        throw new CayenneRuntimeException("Unsupported upsert syntax: %s", syntax);
+    }
+
+    private Node buildInsert(Node upsertNode) {
+        Node root = new InsertNode()
+                .addChild(new TableNode(table, null))
+                .addChild(columnsNode());
+        rows.forEach(root::addChild);
+        return root.addChild(upsertNode);
+    }
+
+    private Node buildMergeKey() {
+        Node root = new MergeNode()
+                .addChild(new TableNode(table, null))
+                .addChild(columnsNode())
+                .addChild(new MergeKeyNode(keys));
+        rows.forEach(root::addChild);
+        return root;
+    }
+
+    private Node buildMerge() {
+        Node source = new MergeSourceNode(columns);
+        rows.forEach(source::addChild);
+        return new MergeNode()
+                .addChild(new TableNode(table, null))
+                .addChild(source)
+                .addChild(new MergeActionNode(table, keys, updated, columns));
+    }
+
+    private Node columnsNode() {
+        Node node = new InsertColumnsNode();
+        for(DbAttribute column : columns) {
+            node.addChild(new ColumnNode(null, column.getName(), null, column));
+        }
+        return node;
+    }
+}
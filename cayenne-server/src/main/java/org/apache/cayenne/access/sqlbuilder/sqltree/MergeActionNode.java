@@ -0,0 +1,91 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.sqlbuilder.sqltree;
+
+import java.util.List;
+
+import org.apache.cayenne.access.sqlbuilder.QuotingAppendable;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+
+/**
+ * {@code ON (...) WHEN MATCHED THEN UPDATE ... WHEN NOT MATCHED THEN INSERT ...} part of the SQL standard MERGE
+ * statement, that follows the {@link MergeSourceNode}.
+ *
+ * @since 4.2
+ */
+public class MergeActionNode extends UpsertNode {
+
+    private final DbEntity table;
+    private final List<DbAttribute> inserted;
+
+    public MergeActionNode(DbEntity table, List<DbAttribute> keys, List<DbAttribute> updated, List<DbAttribute> inserted) {
+        super(keys, updated);
+        this.table = table;
+        this.inserted = inserted;
+    }
+
+    @Override
+    public QuotingAppendable append(QuotingAppendable buffer) {
+        buffer.append(" ON (");
+        for(int i = 0; i < keys.size(); i++) {
+            if(i > 0) {
+                buffer.append(" AND ");
+            }
+            String column = keys.get(i).getName();
+            appendTable(buffer);
+            buffer.append('.').appendQuoted(column)
+                    .append(" = ").append(MergeSourceNode.SOURCE_ALIAS).append('.').appendQuoted(column);
+        }
+        buffer.append(')');
+
+        if(!updated.isEmpty()) {
+            buffer.append(" WHEN MATCHED THEN UPDATE SET ");
+            for(int i = 0; i < updated.size(); i++) {
+                if(i > 0) {
+                    buffer.append(", ");
+                }
+                String column = updated.get(i).getName();
+                buffer.appendQuoted(column)
+                        .append(" = ").append(MergeSourceNode.SOURCE_ALIAS).append('.').appendQuoted(column);
+            }
+        }
+
+        buffer.append(" WHEN NOT MATCHED THEN INSERT (");
+        appendColumns(buffer, inserted, null);
+        buffer.append(") VALUES (");
+        appendColumns(buffer, inserted, MergeSourceNode.SOURCE_ALIAS);
+        return buffer.append(')');
+    }
+
+    private void appendTable(QuotingAppendable buffer) {
+        if(table.getCatalog() != null) {
+            buffer.appendQuoted(table.getCatalog()).append('.');
+        }
+        if(table.getSchema() != null) {
+            buffer.appendQuoted(table.getSchema()).append('.');
+        }
+        buffer.appendQuoted(table.getName());
+    }
+
+    @Override
+    public Node copy() {
+        return new MergeActionNode(table, keys, updated, inserted);
+    }
+}
@@ -0,0 +1,50 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.sqlbuilder.sqltree;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.cayenne.access.sqlbuilder.QuotingAppendable;
+import org.apache.cayenne.map.DbAttribute;
+
+/**
+ * {@code KEY (...)} clause of the {@code MERGE INTO T (...) KEY (...) VALUES (...)} statement. All the inserted
+ * columns except the key are updated by this statement.
+ *
+ * @since 4.2
+ */
+public class MergeKeyNode extends UpsertNode {
+
+    public MergeKeyNode(List<DbAttribute> keys) {
+        super(keys, Collections.emptyList());
+    }
+
+    @Override
+    public QuotingAppendable append(QuotingAppendable buffer) {
+        buffer.append(" KEY(");
+        appendColumns(buffer, keys, null);
+        return buffer.append(')');
+    }
+
+    @Override
+    public Node copy() {
+        return new MergeKeyNode(keys);
+    }
+}
@@ -0,0 +1,57 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.sqlbuilder.sqltree;
+
+import java.util.List;
+
+import org.apache.cayenne.access.sqlbuilder.QuotingAppendable;
+import org.apache.cayenne.map.DbAttribute;
+
+/**
+ * {@code USING (VALUES (...)) AS S (...)} source of the MERGE statement. Children of this node are rows of values.
+ *
+ * @since 4.2
+ */
+public class MergeSourceNode extends Node {
+
+    public static final String SOURCE_ALIAS = "S";
+
+    private final List<DbAttribute> columns;
+
+    public MergeSourceNode(List<DbAttribute> columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public QuotingAppendable append(QuotingAppendable buffer) {
+        return buffer.append(" USING (");
+    }
+
+    @Override
+    public void appendChildrenEnd(QuotingAppendable buffer) {
+        buffer.append(") AS ").append(SOURCE_ALIAS).append('(');
+        UpsertNode.appendColumns(buffer, columns, null);
+        buffer.append(')');
+    }
+
+    @Override
+    public Node copy() {
+        return new MergeSourceNode(columns);
+    }
+}
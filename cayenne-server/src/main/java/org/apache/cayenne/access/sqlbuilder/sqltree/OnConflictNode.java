@@ -0,0 +1,62 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.sqlbuilder.sqltree;
+
+import java.util.List;
+
+import org.apache.cayenne.access.sqlbuilder.QuotingAppendable;
+import org.apache.cayenne.map.DbAttribute;
+
+/**
+ * {@code ON CONFLICT (KEY) DO UPDATE SET A = EXCLUDED.A} clause that follows the INSERT statement.
+ *
+ * @since 4.2
+ */
+public class OnConflictNode extends UpsertNode {
+
+    public OnConflictNode(List<DbAttribute> keys, List<DbAttribute> updated) {
+        super(keys, updated);
+    }
+
+    @Override
+    public QuotingAppendable append(QuotingAppendable buffer) {
+        buffer.append(" ON CONFLICT(");
+        appendColumns(buffer, keys, null);
+        buffer.append(") DO UPDATE SET ");
+        if(updated.isEmpty()) {
+            // noop update instead of "DO NOTHING", so that the generated keys are reported for the existing row
+            String column = keys.get(0).getName();
+            return buffer.appendQuoted(column).append(" = excluded.").appendQuoted(column);
+        }
+
+        for(int i = 0; i < updated.size(); i++) {
+            if(i > 0) {
+                buffer.append(", ");
+            }
+            String column = updated.get(i).getName();
+            buffer.appendQuoted(column).append(" = excluded.").appendQuoted(column);
+        }
+        return buffer;
+    }
+
+    @Override
+    public Node copy() {
+        return new OnConflictNode(keys, updated);
+    }
+}
@@ -0,0 +1,74 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.sqlbuilder.sqltree;
+
+import java.util.List;
+
+import org.apache.cayenne.access.sqlbuilder.QuotingAppendable;
+import org.apache.cayenne.map.DbAttribute;
+
+/**
+ * {@code ON DUPLICATE KEY UPDATE A = VALUES(A)} clause that follows the INSERT statement.
+ *
+ * @since 4.2
+ */
+public class OnDuplicateKeyNode extends UpsertNode {
+
+    private final DbAttribute generatedKey;
+
+    /**
+     * @param generatedKey DB generated PK column, that is set with LAST_INSERT_ID() for the updated row, so that
+     *                     the generated keys reported by the driver include the PK of this row. Can be null.
+     */
+    public OnDuplicateKeyNode(List<DbAttribute> keys, List<DbAttribute> updated, DbAttribute generatedKey) {
+        super(keys, updated);
+        this.generatedKey = generatedKey;
+    }
+
+    @Override
+    public QuotingAppendable append(QuotingAppendable buffer) {
+        buffer.append(" ON DUPLICATE KEY UPDATE ");
+        if(generatedKey != null) {
+            String column = generatedKey.getName();
+            buffer.appendQuoted(column).append(" = LAST_INSERT_ID(").appendQuoted(column).append(')');
+            if(updated.isEmpty()) {
+                return buffer;
+            }
+            buffer.append(", ");
+        } else if(updated.isEmpty()) {
+            // noop update, as there is no "DO NOTHING" form of this syntax
+            String column = keys.get(0).getName();
+            return buffer.appendQuoted(column).append(" = ").appendQuoted(column);
+        }
+
+        for(int i = 0; i < updated.size(); i++) {
+            if(i > 0) {
+                buffer.append(", ");
+            }
+            String column = updated.get(i).getName();
+            buffer.appendQuoted(column).append(" = VALUES(").appendQuoted(column).append(')');
+        }
+        return buffer;
+    }
+
+    @Override
+    public Node copy() {
+        return new OnDuplicateKeyNode(keys, updated, generatedKey);
+    }
+}
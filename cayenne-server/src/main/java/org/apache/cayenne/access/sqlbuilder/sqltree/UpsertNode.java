@@ -0,0 +1,60 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.sqlbuilder.sqltree;
+
+import java.util.List;
+
+import org.apache.cayenne.access.sqlbuilder.QuotingAppendable;
+import org.apache.cayenne.map.DbAttribute;
+
+/**
+ * Base class of the nodes that render the "insert or update" part of an upsert statement.
+ *
+ * @since 4.2
+ */
+public abstract class UpsertNode extends Node {
+
+    protected final List<DbAttribute> keys;
+    protected final List<DbAttribute> updated;
+
+    protected UpsertNode(List<DbAttribute> keys, List<DbAttribute> updated) {
+        this.keys = keys;
+        this.updated = updated;
+    }
+
+    public List<DbAttribute> getKeys() {
+        return keys;
+    }
+
+    public List<DbAttribute> getUpdated() {
+        return updated;
+    }
+
+    protected static void appendColumns(QuotingAppendable buffer, List<DbAttribute> attributes, String prefix) {
+        for(int i = 0; i < attributes.size(); i++) {
+            if(i > 0) {
+                buffer.append(", ");
+            }
+            if(prefix != null) {
+                buffer.append(prefix).append('.');
+            }
+            buffer.appendQuoted(attributes.get(i).getName());
+        }
+    }
+}
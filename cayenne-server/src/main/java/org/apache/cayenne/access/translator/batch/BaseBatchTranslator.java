@@ -58,6 +58,9 @@ public abstract class BaseBatchTranslator<T extends BatchQuery> {
      * @return SQL string
      */
     protected String doTranslate(NodeBuilder nodeBuilder) {
+        // bindings are collected anew on each translation
+        context.getBindings().clear();
+
         Node node = nodeBuilder.build();
         // convert to database flavour
         node = context.getAdapter().getSqlTreeProcessor().process(node);
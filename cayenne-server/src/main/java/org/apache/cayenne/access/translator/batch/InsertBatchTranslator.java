@@ -19,6 +19,9 @@
 
 package org.apache.cayenne.access.translator.batch;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.cayenne.access.sqlbuilder.InsertBuilder;
 import org.apache.cayenne.access.sqlbuilder.SQLBuilder;
 import org.apache.cayenne.access.translator.DbAttributeBinding;
@@ -39,6 +42,16 @@ public class InsertBatchTranslator extends BaseBatchTranslator<InsertBatchQuery>
 
     @Override
     public String getSql() {
+        return getSql(1);
+    }
+
+    /**
+     * Returns SQL of a multi-row INSERT statement with the given number of rows of values.
+     * Bindings of such statement should be updated via {@link #updateBindings(List)}.
+     *
+     * @param rowCount number of rows of values in the statement
+     */
+    public String getSql(int rowCount) {
         InsertBatchQuery query = context.getQuery();
         InsertBuilder insertBuilder = SQLBuilder.insert(context.getRootDbEntity());
 
@@ -47,11 +60,19 @@ public class InsertBatchTranslator extends BaseBatchTranslator<InsertBatchQuery>
             if(excludeInBatch(attribute)) {
                 continue;
             }
-            insertBuilder
-                    .column(SQLBuilder.column(attribute.getName()).attribute(attribute))
-                    // We can use here any non-null value, to create attribute binding,
-                    // actual value and ExtendedType will be set at updateBindings() call.
-                    .value(SQLBuilder.value(1).attribute(attribute));
+            insertBuilder.column(SQLBuilder.column(attribute.getName()).attribute(attribute));
+        }
+
+        for(int row = 0; row < rowCount; row++) {
+            insertBuilder.row();
+            for(DbAttribute attribute : query.getDbAttributes()) {
+                if(excludeInBatch(attribute)) {
+                    continue;
+                }
+                // We can use here any non-null value, to create attribute binding,
+                // actual value and ExtendedType will be set at updateBindings() call.
+                insertBuilder.value(SQLBuilder.value(1).attribute(attribute));
+            }
         }
 
         return doTranslate(insertBuilder);
@@ -59,20 +80,30 @@ public class InsertBatchTranslator extends BaseBatchTranslator<InsertBatchQuery>
 
     @Override
     public DbAttributeBinding[] updateBindings(BatchQueryRow row) {
+        return updateBindings(Collections.singletonList(row));
+    }
+
+    /**
+     * Updates bindings of a multi-row INSERT statement created by {@link #getSql(int)} with
+     * the values from the given rows.
+     */
+    public DbAttributeBinding[] updateBindings(List<BatchQueryRow> rows) {
         InsertBatchQuery query = context.getQuery();
-        int i=0;
         int j=0;
-        for(DbAttribute attribute : query.getDbAttributes()) {
-            if(excludeInBatch(attribute)) {
-                i++;
-                continue;
-            }
+        for(BatchQueryRow row : rows) {
+            int i=0;
+            for(DbAttribute attribute : query.getDbAttributes()) {
+                if(excludeInBatch(attribute)) {
+                    i++;
+                    continue;
+                }
 
-            Object value = row.getValue(i++);
-            ExtendedType<?> extendedType = value != null
-                    ? context.getAdapter().getExtendedTypes().getRegisteredType(value.getClass())
-                    : context.getAdapter().getExtendedTypes().getDefaultType();
-            bindings[j].include(++j, value, extendedType);
+                Object value = row.getValue(i++);
+                ExtendedType<?> extendedType = value != null
+                        ? context.getAdapter().getExtendedTypes().getRegisteredType(value.getClass())
+                        : context.getAdapter().getExtendedTypes().getDefaultType();
+                bindings[j].include(++j, value, extendedType);
+            }
         }
         return bindings;
     }
@@ -0,0 +1,115 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.access.sqlbuilder.NodeBuilder;
+import org.apache.cayenne.access.sqlbuilder.SQLBuilder;
+import org.apache.cayenne.access.sqlbuilder.UpsertBuilder;
+import org.apache.cayenne.access.sqlbuilder.sqltree.CastNode;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.dba.JdbcAdapter;
+import org.apache.cayenne.dba.UpsertSyntax;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.query.UpsertBatchQuery;
+
+/**
+ * Translator of the {@link UpsertBatchQuery}. Generates "insert or update" statement using the
+ * {@link UpsertSyntax} of the adapter. Values are bound in the same order as for the regular INSERT statement,
+ * so single and multi-row modes of the {@link InsertBatchTranslator} are supported.
+ *
+ * @since 4.2
+ */
+public class UpsertBatchTranslator extends InsertBatchTranslator {
+
+    public UpsertBatchTranslator(UpsertBatchQuery query, DbAdapter adapter) {
+        super(query, adapter);
+    }
+
+    @Override
+    public String getSql(int rowCount) {
+        UpsertSyntax syntax = context.getAdapter().getUpsertSyntax();
+        if(syntax == null) {
+            throw new CayenneRuntimeException("Upsert is not supported by %s",
+                    context.getAdapter().getClass().getSimpleName());
+        }
+
+        List<DbAttribute> inserted = insertedAttributes();
+        List<DbAttribute> keys = keyAttributes();
+        UpsertBuilder upsertBuilder = SQLBuilder.upsert(context.getRootDbEntity(), syntax);
+        for(DbAttribute attribute : inserted) {
+            upsertBuilder.column(attribute);
+            if(keys.contains(attribute)) {
+                upsertBuilder.key(attribute);
+            } else if(!attribute.isPrimaryKey()) {
+                // key and PK columns are never updated
+                upsertBuilder.update(attribute);
+            }
+        }
+
+        for(DbAttribute attribute : context.getQuery().getDbAttributes()) {
+            if(attribute.isPrimaryKey() && excludeInBatch(attribute)) {
+                upsertBuilder.generatedKey(attribute);
+            }
+        }
+
+        for(int row = 0; row < rowCount; row++) {
+            upsertBuilder.row();
+            for(DbAttribute attribute : inserted) {
+                // We can use here any non-null value, to create attribute binding,
+                // actual value and ExtendedType will be set at updateBindings() call.
+                upsertBuilder.value(valueNode(syntax, attribute));
+            }
+        }
+
+        return doTranslate(upsertBuilder);
+    }
+
+    protected NodeBuilder valueNode(UpsertSyntax syntax, DbAttribute attribute) {
+        NodeBuilder value = SQLBuilder.value(1).attribute(attribute);
+        if(syntax != UpsertSyntax.MERGE) {
+            return value;
+        }
+
+        // parameters of the table value constructor have no type known to DB, so set it explicitly
+        String type = JdbcAdapter.getType(context.getAdapter(), attribute)
+                + JdbcAdapter.sizeAndPrecision(context.getAdapter(), attribute);
+        return () -> new CastNode(type).addChild(value.build());
+    }
+
+    protected List<DbAttribute> keyAttributes() {
+        return ((UpsertBatchQuery) context.getQuery()).getKeyAttributes();
+    }
+
+    /**
+     * Returns attributes that are present in the INSERT part of the statement, in the order of its bindings.
+     */
+    protected List<DbAttribute> insertedAttributes() {
+        List<DbAttribute> attributes = new ArrayList<>();
+        for(DbAttribute attribute : context.getQuery().getDbAttributes()) {
+            if(!excludeInBatch(attribute)) {
+                attributes.add(attribute);
+            }
+        }
+        return attributes;
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.cayenne.query.BatchQuery;
 import org.apache.cayenne.query.DeleteBatchQuery;
 import org.apache.cayenne.query.InsertBatchQuery;
 import org.apache.cayenne.query.UpdateBatchQuery;
+import org.apache.cayenne.query.UpsertBatchQuery;
 
 /**
  * Default implementation of {@link BatchTranslatorFactory}.
@@ -38,7 +39,9 @@ public class DefaultBatchTranslatorFactory implements BatchTranslatorFactory {
 
     @Override
     public BatchTranslator translator(BatchQuery query, DbAdapter adapter, String trimFunction) {
-        if (query instanceof InsertBatchQuery) {
+        if (query instanceof UpsertBatchQuery) {
+            throw new CayenneRuntimeException("Upsert is not supported by the legacy batch translators: %s", query);
+        } else if (query instanceof InsertBatchQuery) {
             return insertTranslator((InsertBatchQuery) query, adapter);
         } else if (query instanceof UpdateBatchQuery) {
             return updateTranslator((UpdateBatchQuery) query, adapter, trimFunction);
@@ -0,0 +1,257 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.translator.bulk;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.access.sqlbuilder.ExpressionNodeBuilder;
+import org.apache.cayenne.access.sqlbuilder.NodeBuilder;
+import org.apache.cayenne.access.sqlbuilder.SQLBuilder;
+import org.apache.cayenne.access.sqlbuilder.SQLGenerationVisitor;
+import org.apache.cayenne.access.sqlbuilder.UpdateBuilder;
+import org.apache.cayenne.access.sqlbuilder.sqltree.ColumnNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.EmptyNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.Node;
+import org.apache.cayenne.access.sqlbuilder.sqltree.NodeType;
+import org.apache.cayenne.access.sqlbuilder.sqltree.OpExpressionNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.SelectNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.SimpleNodeTreeVisitor;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.access.translator.select.DefaultQuotingAppendable;
+import org.apache.cayenne.access.translator.select.DefaultSelectTranslator;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.exp.parser.ASTDbPath;
+import org.apache.cayenne.exp.parser.ASTObjPath;
+import org.apache.cayenne.exp.property.Property;
+import org.apache.cayenne.exp.property.PropertyFactory;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.map.ObjAttribute;
+import org.apache.cayenne.map.ObjEntity;
+import org.apache.cayenne.query.BulkQuery;
+import org.apache.cayenne.query.ColumnSelect;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.query.ObjectUpdate;
+import org.apache.cayenne.query.QueryMetadata;
+
+import static org.apache.cayenne.access.sqlbuilder.SQLBuilder.aliased;
+import static org.apache.cayenne.access.sqlbuilder.SQLBuilder.all;
+import static org.apache.cayenne.access.sqlbuilder.SQLBuilder.column;
+import static org.apache.cayenne.access.sqlbuilder.SQLBuilder.exists;
+import static org.apache.cayenne.access.sqlbuilder.SQLBuilder.node;
+import static org.apache.cayenne.access.sqlbuilder.SQLBuilder.select;
+import static org.apache.cayenne.access.sqlbuilder.SQLBuilder.table;
+import static org.apache.cayenne.access.sqlbuilder.SQLBuilder.value;
+
+/**
+ * Translator of the {@link ObjectUpdate} and {@link org.apache.cayenne.query.ObjectDelete} queries.
+ * <p>
+ * Qualifier of the query is translated by the select translator. If it doesn't require any joins it is used
+ * directly in the WHERE clause of the statement, otherwise rows are matched by the primary key
+ * using a subquery over a derived table:
+ * {@code UPDATE T SET ... WHERE ID IN (SELECT x.ID FROM (SELECT DISTINCT t0.ID FROM T t0 JOIN ... WHERE ...) x)}.
+ * Rows of the entities with a compound primary key are matched with a correlated {@code EXISTS} subquery.
+ *
+ * @since 4.2
+ */
+public class BulkQueryTranslator {
+
+    private static final String DERIVED_TABLE_ALIAS = "x";
+
+    private final BulkQuery<?> query;
+    private final DbAdapter adapter;
+    private final EntityResolver resolver;
+    private final ObjEntity objEntity;
+    private final DbEntity dbEntity;
+    private final BulkTranslatorContext context;
+
+    protected DbAttributeBinding[] bindings;
+
+    public BulkQueryTranslator(BulkQuery<?> query, DbAdapter adapter, EntityResolver resolver) {
+        this.query = query;
+        this.adapter = adapter;
+        this.resolver = resolver;
+
+        QueryMetadata metadata = query.getMetaData(resolver);
+        this.objEntity = metadata.getObjEntity();
+        this.dbEntity = metadata.getDbEntity();
+        if (objEntity == null || dbEntity == null) {
+            throw new CayenneRuntimeException("Can't resolve root entity of the query %s", query);
+        }
+
+        this.context = new BulkTranslatorContext(dbEntity, adapter);
+    }
+
+    public String getSql() {
+        NodeBuilder qualifier = translateQualifier();
+
+        NodeBuilder statement;
+        if (query instanceof ObjectUpdate) {
+            Map<Property<?>, Object> values = ((ObjectUpdate<?>) query).getValues();
+            if (values.isEmpty()) {
+                throw new CayenneRuntimeException("No values to set in the query %s", query);
+            }
+
+            UpdateBuilder updateBuilder = SQLBuilder.update(dbEntity);
+            for (Map.Entry<Property<?>, Object> entry : values.entrySet()) {
+                DbAttribute attribute = toDbAttribute(entry.getKey());
+                updateBuilder.set(column(attribute.getName()).attribute(attribute)
+                        .eq(value(entry.getValue()).attribute(attribute)));
+            }
+            statement = updateBuilder.where(qualifier);
+        } else {
+            statement = SQLBuilder.delete(dbEntity).where(qualifier);
+        }
+
+        return doTranslate(statement);
+    }
+
+    public DbAttributeBinding[] getBindings() {
+        return bindings;
+    }
+
+    protected String doTranslate(NodeBuilder nodeBuilder) {
+        context.getBindings().clear();
+
+        Node node = nodeBuilder.build();
+        // convert to database flavour
+        node = adapter.getSqlTreeProcessor().process(node);
+        // generate SQL
+        SQLGenerationVisitor visitor = new SQLGenerationVisitor(new DefaultQuotingAppendable(context));
+        node.visit(visitor);
+
+        bindings = context.getBindings().toArray(new DbAttributeBinding[0]);
+        return visitor.getSQLString();
+    }
+
+    protected NodeBuilder translateQualifier() {
+        Collection<DbAttribute> pks = dbEntity.getPrimaryKeys();
+        Property<?>[] pkColumns = new Property<?>[pks.size()];
+        int i = 0;
+        for (DbAttribute pk : pks) {
+            pkColumns[i++] = PropertyFactory.createBase(ExpressionFactory.dbPathExp(pk.getName()), Object.class);
+        }
+
+        ObjectSelect<Object> select = ObjectSelect.query(Object.class, objEntity.getName());
+        Expression where = query.getWhere();
+        if (where != null) {
+            select.where(where);
+        }
+        // DISTINCT also prevents MySQL from merging the derived table into the outer statement
+        ColumnSelect<Object[]> pkSelect = select.columns(pkColumns).distinct();
+
+        DefaultSelectTranslator translator = new DefaultSelectTranslator(pkSelect, adapter, resolver);
+        Node selectNode = translator.getSqlTree();
+        Node qualifierNode = translator.getQualifierNode();
+        if (qualifierNode == null) {
+            return null;
+        }
+
+        // single table qualifier can be used as is, only table aliases should be removed
+        if (!translator.hasJoins() && !hasSubqueries(qualifierNode)) {
+            return node(removeTableAliases(qualifierNode));
+        }
+
+        return matchByPrimaryKey(selectNode, pks);
+    }
+
+    /**
+     * Builds a condition matching the rows of the root table by the primary key values fetched with a select.
+     * Select is wrapped into a derived table, as some databases (e.g. MySQL) don't allow a subquery to read
+     * from the table being modified, unless its result is materialized first.
+     */
+    protected NodeBuilder matchByPrimaryKey(Node selectNode, Collection<DbAttribute> pks) {
+        NodeBuilder derivedTable = aliased(node(selectNode), DERIVED_TABLE_ALIAS);
+
+        if (pks.size() == 1) {
+            DbAttribute pk = pks.iterator().next();
+            Node in = new OpExpressionNode("IN");
+            in.addChild(column(pk.getName()).attribute(pk).build());
+            in.addChild(select(table(DERIVED_TABLE_ALIAS).column(pk)).from(derivedTable).build());
+            return node(in);
+        }
+
+        // row value constructors are not supported by all databases, so compound keys are matched column by column
+        ExpressionNodeBuilder match = null;
+        for (DbAttribute pk : pks) {
+            ExpressionNodeBuilder eq = table(DERIVED_TABLE_ALIAS).column(pk).eq(table(dbEntity).column(pk));
+            match = match == null ? eq : match.and(eq);
+        }
+        return exists(select(all()).from(derivedTable).where(match));
+    }
+
+    protected DbAttribute toDbAttribute(Property<?> property) {
+        Expression expression = property.getExpression();
+        if (expression instanceof ASTObjPath) {
+            ObjAttribute attribute = objEntity.getAttribute(((ASTObjPath) expression).getPath());
+            if (attribute != null && !attribute.isFlattened()) {
+                return attribute.getDbAttribute();
+            }
+        } else if (expression instanceof ASTDbPath) {
+            DbAttribute attribute = dbEntity.getAttribute(((ASTDbPath) expression).getPath());
+            if (attribute != null) {
+                return attribute;
+            }
+        }
+
+        throw new CayenneRuntimeException("Property '%s' is not an attribute of the entity '%s' and can't be updated",
+                expression, objEntity.getName());
+    }
+
+    private static boolean hasSubqueries(Node node) {
+        boolean[] result = new boolean[1];
+        node.visit(new SimpleNodeTreeVisitor() {
+            @Override
+            public boolean onChildNodeStart(Node parent, Node child, int index, boolean hasMore) {
+                if (child instanceof SelectNode) {
+                    result[0] = true;
+                    return false;
+                }
+                return true;
+            }
+        });
+        return result[0];
+    }
+
+    private static Node removeTableAliases(Node node) {
+        // wrap into a holder node, so the root itself could be replaced
+        Node holder = new EmptyNode();
+        holder.addChild(node);
+        holder.visit(new SimpleNodeTreeVisitor() {
+            @Override
+            public boolean onChildNodeStart(Node parent, Node child, int index, boolean hasMore) {
+                if (child.getType() == NodeType.COLUMN && ((ColumnNode) child).getTable() != null) {
+                    ColumnNode column = (ColumnNode) child;
+                    parent.replaceChild(index, new ColumnNode(null, column.getColumn(), column.getAlias(), column.getAttribute()));
+                }
+                return true;
+            }
+        });
+
+        Node result = holder.getChild(0);
+        result.setParent(null);
+        return result;
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Objects;
 
 import org.apache.cayenne.access.jdbc.ColumnDescriptor;
+import org.apache.cayenne.access.sqlbuilder.sqltree.Node;
 import org.apache.cayenne.access.translator.DbAttributeBinding;
 import org.apache.cayenne.dba.DbAdapter;
 import org.apache.cayenne.map.EntityResolver;
@@ -105,6 +106,28 @@ public class DefaultSelectTranslator implements SelectTranslator {
         return context.getFinalSQL();
     }
 
+    /**
+     * Translates the query into the SQL tree without generating the SQL string,
+     * so the result could be embedded into another statement, e.g. into a bulk UPDATE or DELETE.
+     *
+     * @since 4.2
+     */
+    public Node getSqlTree() {
+        context.setSkipSQLGeneration(true);
+        translate();
+        return context.getSelectBuilder().build();
+    }
+
+    /**
+     * Returns the translated WHERE clause of the query (including entity qualifiers) or null
+     * if the query has no qualifier. Available only after the query is translated.
+     *
+     * @since 4.2
+     */
+    public Node getQualifierNode() {
+        return context.getQualifierNode();
+    }
+
     @Override
     public DbAttributeBinding[] getBindings() {
         return context.getBindings().toArray(new DbAttributeBinding[0]);
@@ -0,0 +1,250 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cayenne.di.BeforeScopeEnd;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.QueryMetadata;
+import org.apache.cayenne.util.JfrUtil;
+import org.apache.cayenne.util.Util;
+
+/**
+ * A {@link QueryCache} decorator that collects per-group statistics: hits, misses, time of the queries that fill the
+ * missing entries, and group invalidations. Entry counts and evictions are reported for the {@link MapQueryCache}
+ * delegate only. If JDK Flight Recorder is available, cache loads and invalidations are also reported as JFR events
+ * in the "Cayenne/Query Cache" category, together with the periodic statistics of all the groups. Installed with
+ * {@link org.apache.cayenne.configuration.server.ServerModule#useQueryCacheStatistics(org.apache.cayenne.di.Binder)}.
+ *
+ * @since 4.2
+ */
+public class InstrumentedQueryCache implements QueryCache {
+
+    protected final QueryCache delegate;
+    private final ConcurrentMap<String, GroupCounters> groups;
+    private final JfrQueryCacheEvents jfrEvents;
+
+    public InstrumentedQueryCache(@Inject QueryCache delegate) {
+        this.delegate = delegate;
+        this.groups = new ConcurrentHashMap<>();
+        this.jfrEvents = JfrUtil.isAvailable() ? new JfrQueryCacheEvents(this) : null;
+    }
+
+    public QueryCache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public List get(QueryMetadata metadata) {
+        List result = delegate.get(metadata);
+        if (metadata.getCacheKey() != null) {
+            GroupCounters counters = counters(groupName(metadata));
+            if (result != null) {
+                counters.hits.increment();
+            } else {
+                counters.misses.increment();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public List get(QueryMetadata metadata, QueryCacheEntryFactory factory) {
+        if (metadata.getCacheKey() == null) {
+            return delegate.get(metadata, factory);
+        }
+
+        String group = groupName(metadata);
+        GroupCounters counters = counters(group);
+        TimedFactory timedFactory = new TimedFactory(group, counters, factory);
+        try {
+            return delegate.get(metadata, timedFactory);
+        } finally {
+            // threads that waited for another thread loading the same entry are counted as hits
+            if (timedFactory.called) {
+                counters.misses.increment();
+            } else {
+                counters.hits.increment();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void put(QueryMetadata metadata, List results) {
+        delegate.put(metadata, results);
+    }
+
+    @Override
+    public void remove(String key) {
+        delegate.remove(key);
+    }
+
+    @Override
+    public void removeGroup(String groupKey) {
+        invalidated(groupKey);
+        delegate.removeGroup(groupKey);
+    }
+
+    @Override
+    public void removeGroup(String groupKey, Class<?> keyType, Class<?> valueType) {
+        invalidated(groupKey);
+        delegate.removeGroup(groupKey, keyType, valueType);
+    }
+
+    @Deprecated
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    private void invalidated(String groupKey) {
+        if (groupKey != null) {
+            counters(groupKey).invalidations.increment();
+            if (jfrEvents != null) {
+                jfrEvents.invalidated(groupKey);
+            }
+        }
+    }
+
+    /**
+     * Returns statistics of all the groups accessed through this cache, sorted by the group name.
+     */
+    public List<QueryCacheGroupStats> getStats() {
+        List<QueryCacheGroupStats> stats = new ArrayList<>(groups.size());
+        for (String group : groups.keySet()) {
+            stats.add(getStats(group));
+        }
+
+        stats.sort(Comparator.comparing(QueryCacheGroupStats::getGroup));
+        return stats;
+    }
+
+    /**
+     * Returns statistics of a single cache group. Queries without an explicit cache group are counted in the
+     * {@link MapQueryCache#DEFAULT_CACHE_NAME} group.
+     */
+    public QueryCacheGroupStats getStats(String group) {
+        GroupCounters counters = groups.get(group);
+
+        long evictions = -1;
+        int entries = -1;
+        if (delegate instanceof MapQueryCache) {
+            MapQueryCache mapCache = (MapQueryCache) delegate;
+            evictions = mapCache.getGroupEvictions(group);
+            entries = mapCache.getGroupSize(group);
+        }
+
+        if (counters == null) {
+            return new QueryCacheGroupStats(group, 0, 0, 0, 0, 0, 0, evictions, entries);
+        }
+
+        return new QueryCacheGroupStats(
+                group,
+                counters.hits.sum(),
+                counters.misses.sum(),
+                counters.loads.sum(),
+                counters.loadFailures.sum(),
+                counters.loadTime.sum(),
+                counters.invalidations.sum(),
+                evictions,
+                entries);
+    }
+
+    /**
+     * Stops reporting of the periodic JFR statistics events, and passes the scope end event to the delegate. Called
+     * when the DI container is shut down.
+     */
+    @BeforeScopeEnd
+    public void shutdown() {
+        if (jfrEvents != null) {
+            jfrEvents.shutdown();
+        }
+
+        Util.invokeBeforeScopeEnd(delegate);
+    }
+
+    private GroupCounters counters(String group) {
+        GroupCounters counters = groups.get(group);
+        return counters != null ? counters : groups.computeIfAbsent(group, g -> new GroupCounters());
+    }
+
+    private static String groupName(QueryMetadata metadata) {
+        String group = metadata.getCacheGroup();
+        return group != null ? group : MapQueryCache.DEFAULT_CACHE_NAME;
+    }
+
+    static final class GroupCounters {
+
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder loads = new LongAdder();
+        final LongAdder loadFailures = new LongAdder();
+        final LongAdder loadTime = new LongAdder();
+        final LongAdder invalidations = new LongAdder();
+    }
+
+    private final class TimedFactory implements QueryCacheEntryFactory {
+
+        private final String group;
+        private final GroupCounters counters;
+        private final QueryCacheEntryFactory factory;
+        boolean called;
+
+        TimedFactory(String group, GroupCounters counters, QueryCacheEntryFactory factory) {
+            this.group = group;
+            this.counters = counters;
+            this.factory = factory;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public List createObject() {
+            called = true;
+
+            Object event = jfrEvents != null ? jfrEvents.loadStarted() : null;
+            long t0 = System.nanoTime();
+            boolean success = false;
+            try {
+                List result = factory.createObject();
+                success = true;
+                return result;
+            } finally {
+                counters.loads.increment();
+                counters.loadTime.add(System.nanoTime() - t0);
+                if (!success) {
+                    counters.loadFailures.increment();
+                }
+
+                if (event != null) {
+                    jfrEvents.loadFinished(event, group, success);
+                }
+            }
+        }
+    }
+}
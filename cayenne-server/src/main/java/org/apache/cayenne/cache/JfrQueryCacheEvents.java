@@ -0,0 +1,86 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Producer of the query cache JFR events. Must only be loaded if JFR is available.
+ *
+ * @since 4.2
+ */
+class JfrQueryCacheEvents {
+
+    private final Runnable statisticsHook;
+
+    JfrQueryCacheEvents(InstrumentedQueryCache cache) {
+        this.statisticsHook = () -> {
+            for (QueryCacheGroupStats stats : cache.getStats()) {
+                QueryCacheStatisticsEvent event = new QueryCacheStatisticsEvent();
+                event.group = stats.getGroup();
+                event.hits = stats.getHits();
+                event.misses = stats.getMisses();
+                event.loads = stats.getLoads();
+                event.loadTime = stats.getLoadTimeNanos();
+                event.invalidations = stats.getInvalidations();
+                event.evictions = stats.getEvictions();
+                event.entries = stats.getEntries();
+                event.commit();
+            }
+        };
+
+        FlightRecorder.addPeriodicEvent(QueryCacheStatisticsEvent.class, statisticsHook);
+    }
+
+    /**
+     * Returns a started load event, or null if the event is disabled.
+     */
+    Object loadStarted() {
+        QueryCacheLoadEvent event = new QueryCacheLoadEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+
+        event.begin();
+        return event;
+    }
+
+    void loadFinished(Object startedEvent, String group, boolean success) {
+        QueryCacheLoadEvent event = (QueryCacheLoadEvent) startedEvent;
+        event.end();
+        if (event.shouldCommit()) {
+            event.group = group;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    void invalidated(String group) {
+        QueryCacheInvalidationEvent event = new QueryCacheInvalidationEvent();
+        if (event.isEnabled()) {
+            event.group = group;
+            event.commit();
+        }
+    }
+
+    void shutdown() {
+        FlightRecorder.removePeriodicEvent(statisticsHook);
+    }
+}
@@ -18,18 +18,29 @@
  ****************************************************************/
 package org.apache.cayenne.cache;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.query.QueryMetadata;
-import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 
 /**
- * A default implementation of the {@link QueryCache} interface that stores data in a
- * non-expiring LRUMap.
+ * A default implementation of the {@link QueryCache} interface that stores data in
+ * LRU maps, one per cache group. Each group is sized and optionally expired according to
+ * its {@link QueryCacheGroupPolicy}. Missing entries requested via {@link #get(QueryMetadata, QueryCacheEntryFactory)}
+ * are loaded by a single thread, while the other threads requesting the same entry wait for its result.
  * 
  * @since 3.0
  */
@@ -37,19 +48,100 @@ public class MapQueryCache implements QueryCache, Serializable {
 
     public static final int DEFAULT_CACHE_SIZE = 1000;
 
-    static final String DEFAULT_CACHE_NAME = "cayenne.default.cache";
+    /**
+     * The name of the group storing the results of the queries without an explicit cache group.
+     *
+     * @since 4.2 the constant is public, so that a group policy can be configured for it
+     */
+    public static final String DEFAULT_CACHE_NAME = "cayenne.default.cache";
+
+    /**
+     * Default time in milliseconds after which a removed group stops serving stale entries, unless the group policy
+     * defines a time to live.
+     *
+     * @since 4.2
+     */
+    public static final long DEFAULT_STALE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
 
     protected final Map<String, Map<String, List<?>>> cacheGroups;
 
-    private int maxSize;
+    // groups removed from the cache, that are still used to serve stale entries while they are refreshed
+    final Map<String, StaleGroup> staleGroups;
+
+    // eviction counters survive removal of the groups
+    private final Map<String, LongAdder> evictions;
+
+    private QueryCacheGroupPolicy defaultPolicy;
+    private Map<String, QueryCacheGroupPolicy> groupPolicies;
+    private boolean staleWhileRevalidate;
+    private long staleTimeoutMs;
+
+    // entries that are being loaded by the factory, keyed by the group name and the entry key
+    private transient ConcurrentMap<LoadKey, Load> loading;
 
     public MapQueryCache() {
         this(DEFAULT_CACHE_SIZE);
     }
 
     public MapQueryCache(int maxSize) {
+        this(QueryCacheGroupPolicy.maxEntries(maxSize), Collections.emptyMap());
+    }
+
+    /**
+     * Creates a cache with a policy for each of the named groups. Groups without an explicit policy use the default
+     * one.
+     *
+     * @since 4.2
+     */
+    public MapQueryCache(QueryCacheGroupPolicy defaultPolicy, Map<String, QueryCacheGroupPolicy> groupPolicies) {
         this.cacheGroups = new ConcurrentHashMap<>();
-        this.maxSize = maxSize;
+        this.staleGroups = new ConcurrentHashMap<>();
+        this.evictions = new ConcurrentHashMap<>();
+        this.defaultPolicy = defaultPolicy;
+        this.groupPolicies = new HashMap<>(groupPolicies);
+        this.staleTimeoutMs = DEFAULT_STALE_TIMEOUT_MS;
+        this.loading = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @since 4.2
+     */
+    public boolean isStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * Enables serving of stale entries of the removed groups by {@link #get(QueryMetadata, QueryCacheEntryFactory)}
+     * while the entry is being reloaded by another thread. Stale entries are only returned instead of waiting for the
+     * loading thread, the first thread requesting an entry of the removed group still reloads it. False by default.
+     * <p>
+     * Stale entries are dropped once reloaded, and the whole removed group is dropped after the time to live of its
+     * policy, or after the {@link #setStaleTimeout(long) stale timeout} if the policy doesn't expire entries by age.
+     *
+     * @since 4.2
+     */
+    public void setStaleWhileRevalidate(boolean staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        if (!staleWhileRevalidate) {
+            staleGroups.clear();
+        }
+    }
+
+    /**
+     * @since 4.2
+     */
+    public long getStaleTimeout() {
+        return staleTimeoutMs;
+    }
+
+    /**
+     * Sets the time in milliseconds after which a removed group stops serving stale entries, for the groups whose
+     * policy doesn't define a time to live. Default is {@link #DEFAULT_STALE_TIMEOUT_MS}.
+     *
+     * @since 4.2
+     */
+    public void setStaleTimeout(long staleTimeoutMs) {
+        this.staleTimeoutMs = staleTimeoutMs;
     }
 
     public List get(QueryMetadata metadata) {
@@ -57,32 +149,87 @@ public class MapQueryCache implements QueryCache, Serializable {
         if (key == null) {
             return null;
         }
-        Map<String, List<?>> map = createIfAbsent(metadata);
-        synchronized (map) {
-            return map.get(key);
-        }
+        return createIfAbsent(metadata).get(key);
     }
 
     /**
      * Returns a non-null cached value. If it is not present in the cache, it is obtained
-     * by calling {@link QueryCacheEntryFactory#createObject()} without blocking the cache. As
-     * a result there is a potential of multiple threads to be updating cache in parallel -
-     * this wouldn't lead to corruption of the cache, but can be suboptimal.
+     * by calling {@link QueryCacheEntryFactory#createObject()}. Only one thread calls the factory
+     * for a given entry, and the other threads requesting the same entry at the same time wait
+     * for its result instead of running the same query in parallel. If the factory throws,
+     * the exception is rethrown to all the waiting threads.
      */
     @SuppressWarnings("rawtypes")
     public List get(QueryMetadata metadata, QueryCacheEntryFactory factory) {
         List result = get(metadata);
-        if (result == null) {
-            List newObject = factory.createObject();
-            if (newObject == null) {
-                throw new CayenneRuntimeException("Null on cache rebuilding: %s", metadata.getCacheKey());
+        if (result != null) {
+            return result;
+        }
+
+        String key = metadata.getCacheKey();
+        if (key == null) {
+            return createObject(metadata, factory);
+        }
+
+        LoadKey loadKey = new LoadKey(cacheName(metadata), key);
+        Load load = new Load();
+        Load existing = loading.putIfAbsent(loadKey, load);
+        if (existing != null) {
+
+            // the factory may recursively request the same entry, waiting for itself would never end
+            if (existing.thread == Thread.currentThread()) {
+                return createObject(metadata, factory);
             }
 
-            result = newObject;
-            put(metadata, result);
+            if (staleWhileRevalidate) {
+                List<?> stale = getStale(loadKey);
+                if (stale != null) {
+                    return stale;
+                }
+            }
+
+            return existing.await();
+        }
+
+        try {
+            // the entry could have been loaded by another thread after our first check
+            result = get(metadata);
+            if (result == null) {
+                result = createObject(metadata, factory);
+                put(metadata, result);
+            }
+
+            load.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(loadKey, load);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private List createObject(QueryMetadata metadata, QueryCacheEntryFactory factory) {
+        List newObject = factory.createObject();
+        if (newObject == null) {
+            throw new CayenneRuntimeException("Null on cache rebuilding: %s", metadata.getCacheKey());
+        }
+        return newObject;
+    }
+
+    private List<?> getStale(LoadKey loadKey) {
+        StaleGroup stale = staleGroups.get(loadKey.group);
+        if (stale == null) {
+            return null;
+        }
+
+        if (stale.isExpired(System.currentTimeMillis())) {
+            staleGroups.remove(loadKey.group, stale);
+            return null;
         }
 
-        return result;
+        return stale.entries.get(loadKey.key);
     }
 
     public void put(QueryMetadata metadata, List results) {
@@ -91,9 +238,19 @@ public class MapQueryCache implements QueryCache, Serializable {
             return;
         }
 
-        Map<String, List<?>> map = createIfAbsent(metadata);
-        synchronized (map) {
-            map.put(key, results);
+        String cacheName = cacheName(metadata);
+        createIfAbsent(cacheName).put(key, results);
+
+        if (staleWhileRevalidate) {
+            StaleGroup stale = staleGroups.get(cacheName);
+            if (stale != null) {
+                stale.entries.remove(key);
+
+                // all the stale entries are reloaded
+                if (stale.entries.isEmpty()) {
+                    staleGroups.remove(cacheName, stale);
+                }
+            }
         }
     }
 
@@ -103,36 +260,75 @@ public class MapQueryCache implements QueryCache, Serializable {
         }
 
         for(Map<String, List<?>> map : cacheGroups.values()) {
-            synchronized (map) {
-                map.remove(key);
-            }
+            map.remove(key);
+        }
+
+        for(StaleGroup stale : staleGroups.values()) {
+            stale.entries.remove(key);
         }
     }
 
     public void removeGroup(String groupKey) {
         if (groupKey != null) {
-            cacheGroups.remove(groupKey);
+            Map<String, List<?>> removed = cacheGroups.remove(groupKey);
+            if (staleWhileRevalidate && removed != null) {
+                long now = System.currentTimeMillis();
+
+                // drop the groups that are no longer requested, so that they don't accumulate till the cache is cleared
+                staleGroups.values().removeIf(stale -> stale.isExpired(now));
+
+                if (!removed.isEmpty()) {
+                    staleGroups.put(groupKey, new StaleGroup(removed, now + staleTimeout(groupKey)));
+                } else {
+                    staleGroups.remove(groupKey);
+                }
+            }
         }
     }
 
+    private long staleTimeout(String groupKey) {
+        long ttlNanos = getGroupPolicy(groupKey).getTimeToLiveNanos();
+        return ttlNanos > 0 ? TimeUnit.NANOSECONDS.toMillis(ttlNanos) : staleTimeoutMs;
+    }
+
     public void removeGroup(String groupKey, Class<?> keyType, Class<?> valueType) {
         removeGroup(groupKey);
     }
 
     public void clear() {
         cacheGroups.clear();
+        staleGroups.clear();
     }
 
     public int size() {
         int size = 0;
         for(Map<String, List<?>> map : cacheGroups.values()) {
-            synchronized (map) {
-                size += map.size();
-            }
+            size += map.size();
         }
         return size;
     }
 
+    /**
+     * Returns the number of entries in a cache group.
+     *
+     * @since 4.2
+     */
+    public int getGroupSize(String groupKey) {
+        Map<String, List<?>> map = getCache(groupKey);
+        return map != null ? map.size() : 0;
+    }
+
+    /**
+     * Returns the number of entries removed from a cache group because of its size limit or expiration. Entries
+     * removed explicitly or by the group removal are not counted.
+     *
+     * @since 4.2
+     */
+    public long getGroupEvictions(String groupKey) {
+        LongAdder groupEvictions = evictions.get(groupKey);
+        return groupEvictions != null ? groupEvictions.sum() : 0;
+    }
+
     protected Map<String, List<?>> createIfAbsent(QueryMetadata metadata) {
         return createIfAbsent(cacheName(metadata));
     }
@@ -146,18 +342,28 @@ public class MapQueryCache implements QueryCache, Serializable {
         return cache;
     }
 
-    @SuppressWarnings("unchecked")
     protected synchronized Map<String, List<?>> createCache(String cacheName) {
         Map<String, List<?>> map = getCache(cacheName);
         if(map != null) {
             return map;
         }
 
-        map = new ConcurrentLinkedHashMap.Builder<String, List<?>>().maximumWeightedCapacity(maxSize).build();
+        LongAdder groupEvictions = evictions.computeIfAbsent(cacheName, n -> new LongAdder());
+        map = new QueryCacheGroup(getGroupPolicy(cacheName), groupEvictions);
         cacheGroups.put(cacheName, map);
         return map;
     }
 
+    /**
+     * Returns the policy of a cache group, that is either configured explicitly for this group, or the default one.
+     *
+     * @since 4.2
+     */
+    protected QueryCacheGroupPolicy getGroupPolicy(String cacheName) {
+        QueryCacheGroupPolicy policy = groupPolicies.get(cacheName);
+        return policy != null ? policy : defaultPolicy;
+    }
+
     protected Map<String, List<?>> getCache(String name) {
         return cacheGroups.get(name);
     }
@@ -172,4 +378,80 @@ public class MapQueryCache implements QueryCache, Serializable {
         // no explicit cache group
         return DEFAULT_CACHE_NAME;
     }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.loading = new ConcurrentHashMap<>();
+    }
+
+    static final class StaleGroup implements Serializable {
+
+        private static final long serialVersionUID = -6244705128306159813L;
+
+        final Map<String, List<?>> entries;
+        final long expiresAt;
+
+        StaleGroup(Map<String, List<?>> entries, long expiresAt) {
+            this.entries = entries;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private static final class LoadKey {
+
+        final String group;
+        final String key;
+
+        LoadKey(String group, String key) {
+            this.group = group;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LoadKey)) {
+                return false;
+            }
+            LoadKey loadKey = (LoadKey) o;
+            return group.equals(loadKey.group) && key.equals(loadKey.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(group, key);
+        }
+    }
+
+    /**
+     * Result of the entry loading, that is awaited by the threads requesting the entry during the load.
+     */
+    private static final class Load extends CompletableFuture<List<?>> {
+
+        final Thread thread = Thread.currentThread();
+
+        List<?> await() {
+            try {
+                return get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CayenneRuntimeException("Interrupted while waiting for the cache entry", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new CayenneRuntimeException("Error loading the cache entry", cause);
+            }
+        }
+    }
 }
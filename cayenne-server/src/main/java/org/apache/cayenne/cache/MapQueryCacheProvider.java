@@ -18,6 +18,9 @@
  ****************************************************************/
 package org.apache.cayenne.cache;
 
+import java.util.Collections;
+import java.util.Map;
+
 import org.apache.cayenne.ConfigurationException;
 import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.RuntimeProperties;
@@ -30,9 +33,20 @@ import org.apache.cayenne.di.Provider;
 public class MapQueryCacheProvider implements Provider<QueryCache> {
 
     protected RuntimeProperties properties;
+    protected Map<String, QueryCacheGroupPolicy> groupPolicies;
 
     public MapQueryCacheProvider(@Inject RuntimeProperties properties) {
+        this(properties, Collections.emptyMap());
+    }
+
+    /**
+     * @since 4.2
+     */
+    public MapQueryCacheProvider(
+            @Inject RuntimeProperties properties,
+            @Inject(Constants.QUERY_CACHE_GROUP_POLICIES_MAP) Map<String, QueryCacheGroupPolicy> groupPolicies) {
         this.properties = properties;
+        this.groupPolicies = groupPolicies;
     }
 
     public QueryCache get() throws ConfigurationException {
@@ -40,6 +54,13 @@ public class MapQueryCacheProvider implements Provider<QueryCache> {
         int size = properties.getInt(
                 Constants.QUERY_CACHE_SIZE_PROPERTY,
                 MapQueryCache.DEFAULT_CACHE_SIZE);
-        return new MapQueryCache(size);
+        MapQueryCache cache = new MapQueryCache(QueryCacheGroupPolicy.maxEntries(size), groupPolicies);
+        cache.setStaleWhileRevalidate(properties.getBoolean(
+                Constants.QUERY_CACHE_STALE_WHILE_REVALIDATE_PROPERTY,
+                false));
+        cache.setStaleTimeout(properties.getLong(
+                Constants.QUERY_CACHE_STALE_TIMEOUT_PROPERTY,
+                MapQueryCache.DEFAULT_STALE_TIMEOUT_MS));
+        return cache;
     }
 }
@@ -0,0 +1,355 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import org.apache.cayenne.util.concurrentlinkedhashmap.EvictionListener;
+import org.apache.cayenne.util.concurrentlinkedhashmap.Weigher;
+
+/**
+ * A single cache group of the {@link MapQueryCache}, that stores the entries in an LRU map sized according to the
+ * {@link QueryCacheGroupPolicy}. Expiring entries are tracked in a hashed timer wheel, so expired entries are removed
+ * by processing the wheel buckets whose time has passed instead of scanning the whole group. The wheel is advanced by
+ * the threads accessing the group, and an expired entry is never returned even if its bucket is not processed yet.
+ *
+ * @since 4.2
+ */
+class QueryCacheGroup extends AbstractMap<String, List<?>> implements Serializable {
+
+    private static final long serialVersionUID = 4315206772470911735L;
+
+    static final int WHEEL_BUCKETS = 64;
+    static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final QueryCacheGroupPolicy policy;
+    private final ConcurrentLinkedHashMap<String, Entry> entries;
+
+    // counts entries removed because of the size limit or expiration
+    private final LongAdder evictions;
+
+    // timer wheel, only used for the expiring groups
+    private final long tickNanos;
+    private transient ReentrantLock wheelLock;
+    private transient List<ArrayDeque<Entry>> wheel;
+    private transient volatile long currentTick;
+
+    QueryCacheGroup(QueryCacheGroupPolicy policy) {
+        this(policy, new LongAdder());
+    }
+
+    QueryCacheGroup(QueryCacheGroupPolicy policy, LongAdder evictions) {
+        this.policy = policy;
+        this.evictions = evictions;
+
+        ConcurrentLinkedHashMap.Builder<String, Entry> builder = new ConcurrentLinkedHashMap.Builder<String, Entry>()
+                .maximumWeightedCapacity(policy.getMaxSize())
+                .listener(new EvictionCounter(evictions));
+        if (policy.isWeighedByResultSize()) {
+            builder.weigher(ResultSizeWeigher.INSTANCE);
+        }
+        this.entries = builder.build();
+
+        this.tickNanos = policy.isExpiring() ? tickNanos(policy) : 0;
+        initWheel();
+    }
+
+    private static long tickNanos(QueryCacheGroupPolicy policy) {
+        long ttl = policy.getTimeToLiveNanos();
+        long tti = policy.getTimeToIdleNanos();
+        long span = ttl > 0 && tti > 0 ? Math.min(ttl, tti) : Math.max(ttl, tti);
+
+        // the whole wheel roughly covers the shortest expiration time
+        return Math.max(span / WHEEL_BUCKETS, MIN_TICK_NANOS);
+    }
+
+    private void initWheel() {
+        if (tickNanos > 0) {
+            this.wheelLock = new ReentrantLock();
+            this.wheel = new ArrayList<>(WHEEL_BUCKETS);
+            for (int i = 0; i < WHEEL_BUCKETS; i++) {
+                wheel.add(new ArrayDeque<>());
+            }
+            this.currentTick = Math.floorDiv(System.nanoTime(), tickNanos);
+        }
+    }
+
+    QueryCacheGroupPolicy getPolicy() {
+        return policy;
+    }
+
+    long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public List<?> get(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (wheel != null) {
+            long now = System.nanoTime();
+            advance(now);
+
+            if (entry.deadline(policy) - now <= 0) {
+                expire(entry);
+                return null;
+            }
+
+            if (policy.getTimeToIdleNanos() > 0) {
+                entry.accessed = now;
+            }
+        }
+
+        return entry.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public List<?> put(String key, List<?> value) {
+        Entry entry = new Entry(key, value, wheel != null ? System.nanoTime() : 0L);
+        Entry old = entries.put(key, entry);
+
+        if (wheel != null) {
+            wheelLock.lock();
+            try {
+                schedule(entry);
+            } finally {
+                wheelLock.unlock();
+            }
+            advance(entry.created);
+        }
+
+        return unwrap(old);
+    }
+
+    @Override
+    public List<?> remove(Object key) {
+        return unwrap(entries.remove(key));
+    }
+
+    private static List<?> unwrap(Entry entry) {
+        if (entry == null) {
+            return null;
+        }
+
+        entry.dead = true;
+        return entry.value;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+
+        if (wheel != null) {
+            wheelLock.lock();
+            try {
+                for (ArrayDeque<Entry> bucket : wheel) {
+                    bucket.clear();
+                }
+            } finally {
+                wheelLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<?>>> entrySet() {
+        return new AbstractSet<Map.Entry<String, List<?>>>() {
+
+            @Override
+            public Iterator<Map.Entry<String, List<?>>> iterator() {
+                Iterator<Entry> it = entries.values().iterator();
+                return new Iterator<Map.Entry<String, List<?>>>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<String, List<?>> next() {
+                        Entry entry = it.next();
+                        return new SimpleImmutableEntry<>(entry.key, entry.value);
+                    }
+
+                    @Override
+                    public void remove() {
+                        it.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+    }
+
+    // must be called under the wheel lock
+    private void schedule(Entry entry) {
+        long tick = Math.floorDiv(entry.deadline(policy), tickNanos);
+        wheel.get((int) Math.floorMod(tick, (long) WHEEL_BUCKETS)).add(entry);
+    }
+
+    /**
+     * Processes wheel buckets of the ticks passed since the last call, removing expired entries and rescheduling the
+     * entries that are not expired yet, either because they were accessed recently, or because their deadline is
+     * further than one wheel turn. Does nothing if another thread is advancing the wheel.
+     */
+    void advance(long now) {
+        long tick = Math.floorDiv(now, tickNanos);
+        if (tick <= currentTick || !wheelLock.tryLock()) {
+            return;
+        }
+
+        try {
+            long passed = Math.min(tick - currentTick, WHEEL_BUCKETS);
+            for (long t = tick - passed + 1; t <= tick; t++) {
+                int index = (int) Math.floorMod(t, (long) WHEEL_BUCKETS);
+                ArrayDeque<Entry> bucket = wheel.set(index, new ArrayDeque<>());
+
+                for (Entry entry : bucket) {
+                    if (entry.dead) {
+                        continue;
+                    }
+
+                    if (entry.deadline(policy) - now <= 0) {
+                        expire(entry);
+                    } else {
+                        schedule(entry);
+                    }
+                }
+            }
+
+            currentTick = tick;
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private void expire(Entry entry) {
+        if (entries.remove(entry.key, entry)) {
+            entry.dead = true;
+            evictions.increment();
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initWheel();
+
+        if (wheel != null) {
+            // time is not comparable between JVMs, so deserialized entries start their lifetime anew
+            long now = System.nanoTime();
+            for (Entry entry : entries.values()) {
+                entry.created = now;
+                entry.accessed = now;
+                schedule(entry);
+            }
+        }
+    }
+
+    static final class Entry implements Serializable {
+
+        private static final long serialVersionUID = -5938196823150927415L;
+
+        final String key;
+        final List<?> value;
+        long created;
+        volatile long accessed;
+
+        // set when the entry is removed from the map, so that the wheel can drop it
+        transient volatile boolean dead;
+
+        Entry(String key, List<?> value, long created) {
+            this.key = key;
+            this.value = value;
+            this.created = created;
+            this.accessed = created;
+        }
+
+        long deadline(QueryCacheGroupPolicy policy) {
+            long ttl = policy.getTimeToLiveNanos();
+            long tti = policy.getTimeToIdleNanos();
+
+            if (ttl > 0 && tti > 0) {
+                long byTtl = created + ttl;
+                long byTti = accessed + tti;
+                return byTtl - byTti < 0 ? byTtl : byTti;
+            }
+
+            return ttl > 0 ? created + ttl : accessed + tti;
+        }
+    }
+
+    enum ResultSizeWeigher implements Weigher<Entry> {
+
+        INSTANCE;
+
+        @Override
+        public int weightOf(Entry entry) {
+            return entry.value != null ? Math.max(1, entry.value.size()) : 1;
+        }
+    }
+
+    static final class EvictionCounter implements EvictionListener<String, Entry>, Serializable {
+
+        private static final long serialVersionUID = 2247839510643725068L;
+
+        private final LongAdder evictions;
+
+        EvictionCounter(LongAdder evictions) {
+            this.evictions = evictions;
+        }
+
+        @Override
+        public void onEviction(String key, Entry entry) {
+            entry.dead = true;
+            evictions.increment();
+        }
+    }
+}
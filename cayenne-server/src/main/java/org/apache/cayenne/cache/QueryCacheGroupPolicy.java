@@ -0,0 +1,142 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of a single cache group of the {@link MapQueryCache}: maximum size, optional weighing of the entries
+ * by the size of the cached result, and optional expiration of the entries. Policies are contributed per group name
+ * via {@link org.apache.cayenne.configuration.server.ServerModule#contributeQueryCacheGroupPolicies(
+ * org.apache.cayenne.di.Binder)}.
+ *
+ * @since 4.2
+ */
+public class QueryCacheGroupPolicy implements Serializable {
+
+    private static final long serialVersionUID = -1867520391247406351L;
+
+    private final int maxSize;
+    private final boolean weighedByResultSize;
+    private final long timeToLiveNanos;
+    private final long timeToIdleNanos;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a policy of a group limited by the number of entries, that never expire.
+     */
+    public static QueryCacheGroupPolicy maxEntries(int maxEntries) {
+        return builder().maxEntries(maxEntries).build();
+    }
+
+    protected QueryCacheGroupPolicy(int maxSize, boolean weighedByResultSize, long timeToLiveNanos,
+                                    long timeToIdleNanos) {
+        this.maxSize = maxSize;
+        this.weighedByResultSize = weighedByResultSize;
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.timeToIdleNanos = timeToIdleNanos;
+    }
+
+    /**
+     * Returns the maximum number of entries in the group, or the maximum total weight of the entries if the group is
+     * {@link #isWeighedByResultSize() weighed by result size}.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns whether the weight of each entry is the number of elements in the cached result list, instead of one.
+     */
+    public boolean isWeighedByResultSize() {
+        return weighedByResultSize;
+    }
+
+    /**
+     * Returns the time since the entry creation after which it expires, or zero if it doesn't expire.
+     */
+    public long getTimeToLiveNanos() {
+        return timeToLiveNanos;
+    }
+
+    /**
+     * Returns the time since the last access of the entry after which it expires, or zero if it doesn't expire.
+     */
+    public long getTimeToIdleNanos() {
+        return timeToIdleNanos;
+    }
+
+    public boolean isExpiring() {
+        return timeToLiveNanos > 0 || timeToIdleNanos > 0;
+    }
+
+    public static class Builder {
+
+        private int maxSize = MapQueryCache.DEFAULT_CACHE_SIZE;
+        private boolean weighedByResultSize;
+        private long timeToLiveNanos;
+        private long timeToIdleNanos;
+
+        protected Builder() {
+        }
+
+        public Builder maxEntries(int maxEntries) {
+            this.maxSize = maxEntries;
+            this.weighedByResultSize = false;
+            return this;
+        }
+
+        /**
+         * Limits the group by the total weight of the entries, where the weight of each entry is the number of
+         * elements in the cached result list, with a minimum of one.
+         */
+        public Builder maxWeight(int maxWeight) {
+            this.maxSize = maxWeight;
+            this.weighedByResultSize = true;
+            return this;
+        }
+
+        public Builder timeToLive(long duration, TimeUnit unit) {
+            this.timeToLiveNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public Builder timeToIdle(long duration, TimeUnit unit) {
+            this.timeToIdleNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public QueryCacheGroupPolicy build() {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("Max size can't be negative: " + maxSize);
+            }
+
+            if (timeToLiveNanos < 0 || timeToIdleNanos < 0) {
+                throw new IllegalArgumentException("Expiration time can't be negative");
+            }
+
+            return new QueryCacheGroupPolicy(maxSize, weighedByResultSize, timeToLiveNanos, timeToIdleNanos);
+        }
+    }
+}
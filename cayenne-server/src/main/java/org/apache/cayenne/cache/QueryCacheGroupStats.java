@@ -0,0 +1,118 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache;
+
+/**
+ * Immutable snapshot of the statistics of a single query cache group, collected by the {@link InstrumentedQueryCache}.
+ *
+ * @since 4.2
+ */
+public class QueryCacheGroupStats {
+
+    private final String group;
+    private final long hits;
+    private final long misses;
+    private final long loads;
+    private final long loadFailures;
+    private final long loadTimeNanos;
+    private final long invalidations;
+    private final long evictions;
+    private final int entries;
+
+    public QueryCacheGroupStats(String group, long hits, long misses, long loads, long loadFailures,
+                                long loadTimeNanos, long invalidations, long evictions, int entries) {
+        this.group = group;
+        this.hits = hits;
+        this.misses = misses;
+        this.loads = loads;
+        this.loadFailures = loadFailures;
+        this.loadTimeNanos = loadTimeNanos;
+        this.invalidations = invalidations;
+        this.evictions = evictions;
+        this.entries = entries;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests > 0 ? (double) hits / requests : 0;
+    }
+
+    /**
+     * Returns the number of the query executions done to fill the missing cache entries.
+     */
+    public long getLoads() {
+        return loads;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures;
+    }
+
+    /**
+     * Returns the total time spent running the queries to fill the missing cache entries.
+     */
+    public long getLoadTimeNanos() {
+        return loadTimeNanos;
+    }
+
+    public long getAverageLoadTimeNanos() {
+        return loads > 0 ? loadTimeNanos / loads : 0;
+    }
+
+    /**
+     * Returns the number of the explicit removals of the group, e.g. by the cache invalidation on commit.
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Returns the number of the entries removed because of the group size limit or expiration, or -1 if the cache
+     * implementation doesn't report it.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the current number of entries in the group, or -1 if the cache implementation doesn't report it.
+     */
+    public int getEntries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCacheGroupStats{group='" + group + "', hits=" + hits + ", misses=" + misses + ", loads=" + loads
+                + ", invalidations=" + invalidations + ", evictions=" + evictions + ", entries=" + entries + '}';
+    }
+}
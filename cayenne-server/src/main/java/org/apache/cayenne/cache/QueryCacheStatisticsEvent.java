@@ -0,0 +1,67 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * @since 4.2
+ */
+@Name("org.apache.cayenne.QueryCacheStatistics")
+@Label("Query Cache Statistics")
+@Category({"Cayenne", "Query Cache"})
+@Description("Statistics of a query cache group")
+@Period("60 s")
+class QueryCacheStatisticsEvent extends Event {
+
+    @Label("Cache Group")
+    String group;
+
+    @Label("Hits")
+    long hits;
+
+    @Label("Misses")
+    long misses;
+
+    @Label("Loads")
+    long loads;
+
+    @Label("Load Time")
+    @Description("Total time of the queries executed to fill the missing entries")
+    @Timespan(Timespan.NANOSECONDS)
+    long loadTime;
+
+    @Label("Invalidations")
+    long invalidations;
+
+    @Label("Evictions")
+    @Description("Entries removed because of the size limit or expiration, or -1 if not reported by the cache")
+    long evictions;
+
+    @Label("Entries")
+    @Description("Current number of the entries, or -1 if not reported by the cache")
+    int entries;
+}
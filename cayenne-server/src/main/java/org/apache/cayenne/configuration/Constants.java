@@ -103,6 +103,15 @@ public interface Constants {
      */
     String SERVER_ROP_EVENT_BRIDGE_PROPERTIES_MAP = "cayenne.server.rop_event_bridge_properties";
 
+    /**
+     * A DI container key for the Map&lt;String, QueryCacheGroupPolicy&gt; storing policies of the
+     * {@link org.apache.cayenne.cache.MapQueryCache} groups, keyed by the cache group name.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#contributeQueryCacheGroupPolicies(Binder)
+     * @since 4.2
+     */
+    String QUERY_CACHE_GROUP_POLICIES_MAP = "cayenne.querycache.group_policies";
+
     // Runtime properties
 
     String JDBC_DRIVER_PROPERTY = "cayenne.jdbc.driver";
@@ -128,6 +137,23 @@ public interface Constants {
      */
     String JDBC_MAX_QUEUE_WAIT_TIME = "cayenne.jdbc.max_wait";
 
+    /**
+     * Defines a time in milliseconds that a connection can be checked out of the pool before it is reported as a
+     * possible leak. The report includes the stack trace of the code that checked out the connection. A value of
+     * zero (default) disables leak detection.
+     *
+     * @since 4.2
+     */
+    String JDBC_LEAK_DETECTION_THRESHOLD = "cayenne.jdbc.leak_detection_threshold";
+
+    /**
+     * Defines a max number of prepared statements cached by each pooled connection. Statements are keyed by SQL and
+     * statement options and are reused across connection checkouts. A value of zero (default) disables the cache.
+     *
+     * @since 4.2
+     */
+    String JDBC_STATEMENT_CACHE_SIZE = "cayenne.jdbc.statement_cache_size";
+
     /**
      * @since 4.0
      */
@@ -141,6 +167,24 @@ public interface Constants {
      */
     String QUERY_CACHE_SIZE_PROPERTY = "cayenne.querycache.size";
 
+    /**
+     * A boolean property that enables serving of the stale entries of the removed cache groups by the
+     * {@link org.apache.cayenne.cache.MapQueryCache}, while the entries are reloaded by another thread. False by
+     * default.
+     *
+     * @since 4.2
+     */
+    String QUERY_CACHE_STALE_WHILE_REVALIDATE_PROPERTY = "cayenne.querycache.stale_while_revalidate";
+
+    /**
+     * A long property defining the time in milliseconds after which a removed cache group stops serving stale entries,
+     * if its policy doesn't define a time to live. Default is
+     * {@link org.apache.cayenne.cache.MapQueryCache#DEFAULT_STALE_TIMEOUT_MS}.
+     *
+     * @since 4.2
+     */
+    String QUERY_CACHE_STALE_TIMEOUT_PROPERTY = "cayenne.querycache.stale_timeout";
+
     /**
      * An optional name of the runtime DataDomain. If not specified (which is
      * normally the case), the name is inferred from the configuration name.
@@ -211,6 +255,49 @@ public interface Constants {
      */
     String QUERY_EXECUTION_TIME_LOGGING_THRESHOLD_PROPERTY = "cayenne.server.query_execution_time_logging_threshold";
 
+    /**
+     * Defines a maximum number of rows sent to the database in a single JDBC batch or a single multi-row INSERT
+     * statement. Larger batch queries are split into chunks of this size. A value less than or equal to zero (the
+     * default) means that JDBC batches are not split, and multi-row INSERTs are only limited by the number of
+     * statement parameters.
+     *
+     * @since 4.2
+     */
+    String SERVER_MAX_BATCH_SIZE_PROPERTY = "cayenne.server.max_batch_size";
+
+    /**
+     * A boolean property that enables translation of batch inserts to multi-row "INSERT ... VALUES (...), (...)"
+     * statements, for the adapters that support them. False by default.
+     *
+     * @since 4.2
+     */
+    String SERVER_MULTI_ROW_INSERT_PROPERTY = "cayenne.server.multi_row_insert";
+
+    /**
+     * A boolean property that enables parallel execution of commit queries for domains with multiple DataNodes.
+     * Queries of each node are still executed in order on a single connection, and the commit or rollback of all
+     * the nodes is coordinated by the enclosing transaction. False by default.
+     *
+     * @since 4.2
+     */
+    String SERVER_PARALLEL_NODE_FLUSH_PROPERTY = "cayenne.server.parallel_node_flush";
+
+    /**
+     * A boolean property that enables background refill of the primary key caches of the {@link
+     * org.apache.cayenne.dba.JdbcPkGenerator} and its subclasses. False by default.
+     *
+     * @since 4.2
+     */
+    String SERVER_PK_PREFETCH_PROPERTY = "cayenne.server.pk_prefetch";
+
+    /**
+     * A boolean property that enables collection of per-statement execution statistics in the {@link
+     * org.apache.cayenne.log.QueryStatsRegistry}. False by default.
+     *
+     * @since 4.2
+     */
+    String SERVER_QUERY_STATS_PROPERTY = "cayenne.server.query_stats";
+
     /**
      * Snapshot cache max size
      *
@@ -219,4 +306,21 @@ public interface Constants {
      */
     String SNAPSHOT_CACHE_SIZE_PROPERTY = "cayenne.DataRowStore.snapshot.size";
 
+    /**
+     * Snapshot expiration time in seconds. Only used by {@link org.apache.cayenne.access.ShardedDataRowStore}, that
+     * also supports per-entity values, with entity name appended to the property name, e.g.
+     * "cayenne.DataRowStore.snapshot.expiration.Artist". Zero (default) means that snapshots do not expire.
+     *
+     * @since 4.2
+     */
+    String SNAPSHOT_EXPIRATION_PROPERTY = "cayenne.DataRowStore.snapshot.expiration";
+
+    /**
+     * Max number of independently locked stripes per entity in {@link org.apache.cayenne.access.ShardedDataRowStore}.
+     * Default is 16.
+     *
+     * @since 4.2
+     */
+    String SNAPSHOT_CACHE_STRIPES_PROPERTY = "cayenne.DataRowStore.snapshot.stripes";
+
 }
@@ -22,6 +22,7 @@ import org.apache.cayenne.access.DataRowStore;
 import org.apache.cayenne.access.NoSyncObjectStore;
 import org.apache.cayenne.access.ObjectMapRetainStrategy;
 import org.apache.cayenne.access.ObjectStore;
+import org.apache.cayenne.access.ReadOnlyObjectStore;
 import org.apache.cayenne.di.Inject;
 
 /**
@@ -45,4 +46,15 @@ public class DefaultObjectStoreFactory implements ObjectStoreFactory {
         return sync ? new ObjectStore(dataRowCache, retainStrategy.createObjectMap()) 
                 : new NoSyncObjectStore(dataRowCache, retainStrategy.createObjectMap());
     }
+
+    /**
+     * Creates a read-only ObjectStore backed by a concurrent map that keeps the objects
+     * according to the configured {@link ObjectMapRetainStrategy}.
+     *
+     * @since 4.2
+     */
+    @Override
+    public ObjectStore createReadOnlyObjectStore(DataRowStore dataRowCache) {
+        return new ReadOnlyObjectStore(dataRowCache, retainStrategy.createConcurrentObjectMap());
+    }
 }
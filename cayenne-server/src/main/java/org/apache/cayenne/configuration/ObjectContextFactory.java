@@ -38,4 +38,22 @@ public interface ObjectContextFactory {
      * nested context creation.
      */
     ObjectContext createContext(DataChannel parent);
+
+    /**
+     * Creates a read-only ObjectContext attached to a default DataChannel. Such context
+     * can be shared between threads, but objects registered in it can't be created,
+     * modified or deleted.
+     * <p>
+     * This is an optional operation. It is supported by the default server factory,
+     * while the default implementation of this method throws an
+     * UnsupportedOperationException, as a regular context returned by
+     * {@link #createContext()} can't be safely shared between threads.
+     *
+     * @throws UnsupportedOperationException if read-only contexts are not supported by
+     *                                       this factory.
+     * @since 4.2
+     */
+    default ObjectContext createReadOnlyContext() {
+        throw new UnsupportedOperationException("Read-only contexts are not supported by " + getClass().getName());
+    }
 }
@@ -20,6 +20,8 @@ package org.apache.cayenne.configuration;
 
 import org.apache.cayenne.access.DataRowStore;
 import org.apache.cayenne.access.ObjectStore;
+import org.apache.cayenne.access.ReadOnlyObjectStore;
+import org.apache.cayenne.util.ConcurrentWeakValueMap;
 
 /**
  * A factory for creating {@link ObjectStore}s.
@@ -33,4 +35,17 @@ public interface ObjectStoreFactory {
      */
     ObjectStore createObjectStore(DataRowStore dataRowCache);
 
+    /**
+     * Creates an {@link ObjectStore} for a read-only context, that can be shared between
+     * threads. Objects registered in such store can't be modified, and lookups don't
+     * acquire the store lock. The default implementation keeps the objects in a concurrent
+     * map with weak references, same as the default
+     * {@link org.apache.cayenne.access.ObjectMapRetainStrategy}.
+     *
+     * @since 4.2
+     */
+    default ObjectStore createReadOnlyObjectStore(DataRowStore dataRowCache) {
+        return new ReadOnlyObjectStore(dataRowCache, new ConcurrentWeakValueMap<>());
+    }
+
 }
@@ -61,6 +61,23 @@ public class DataContextFactory implements ObjectContextFactory {
         return createdFromDataDomain(dataDomain);
     }
 
+    /**
+     * @since 4.2
+     */
+    @Override
+    public ObjectContext createReadOnlyContext() {
+        DataRowStore snapshotCache = (dataDomain.isSharedCacheEnabled())
+                ? dataDomain.getSharedSnapshotCache()
+                : dataRowStoreFactory.createDataRowStore(dataDomain.getName());
+
+        DataContext context = newInstance(
+                dataDomain, objectStoreFactory.createReadOnlyObjectStore(snapshotCache));
+        context.setValidatingObjectsOnCommit(dataDomain.isValidatingObjectsOnCommit());
+        context.setQueryCache(new NestedQueryCache(queryCache));
+        context.setTransactionFactory(transactionFactory);
+        return context;
+    }
+
     @Override
     public ObjectContext createContext(DataChannel parent) {
 
@@ -24,10 +24,13 @@ import org.apache.cayenne.access.jdbc.SQLTemplateProcessor;
 import org.apache.cayenne.access.jdbc.reader.RowReaderFactory;
 import org.apache.cayenne.access.translator.batch.BatchTranslatorFactory;
 import org.apache.cayenne.access.translator.select.SelectTranslatorFactory;
+import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.DataNodeDescriptor;
+import org.apache.cayenne.configuration.RuntimeProperties;
 import org.apache.cayenne.di.AdhocObjectFactory;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.log.JdbcInstrumentation;
 
 import javax.sql.DataSource;
 
@@ -39,6 +42,9 @@ public class DefaultDataNodeFactory implements DataNodeFactory {
     @Inject
     protected JdbcEventLogger jdbcEventLogger;
 
+    @Inject
+    protected JdbcInstrumentation jdbcInstrumentation;
+
     @Inject
     protected RowReaderFactory rowReaderFactory;
 
@@ -63,16 +69,22 @@ public class DefaultDataNodeFactory implements DataNodeFactory {
     @Inject
     protected SQLTemplateProcessor sqlTemplateProcessor;
 
+    @Inject
+    protected RuntimeProperties runtimeProperties;
+
     @Override
     public DataNode createDataNode(DataNodeDescriptor nodeDescriptor) throws Exception {
 
         DataNode dataNode = new DataNode(nodeDescriptor.getName());
 
         dataNode.setJdbcEventLogger(jdbcEventLogger);
+        dataNode.setJdbcInstrumentation(jdbcInstrumentation);
         dataNode.setRowReaderFactory(rowReaderFactory);
         dataNode.setBatchTranslatorFactory(batchTranslatorFactory);
         dataNode.setSelectTranslatorFactory(selectTranslatorFactory);
         dataNode.setSqlTemplateProcessor(sqlTemplateProcessor);
+        dataNode.setMaxBatchSize(runtimeProperties.getInt(Constants.SERVER_MAX_BATCH_SIZE_PROPERTY, 0));
+        dataNode.setMultiRowInsert(runtimeProperties.getBoolean(Constants.SERVER_MULTI_ROW_INSERT_PROPERTY, false));
 
         DataSource dataSource = dataSourceFactory.getDataSource(nodeDescriptor);
 
@@ -23,17 +23,23 @@ import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.DataSource;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.DataNodeDescriptor;
+import org.apache.cayenne.configuration.RuntimeProperties;
 import org.apache.cayenne.dba.AutoAdapter;
 import org.apache.cayenne.dba.DbAdapter;
 import org.apache.cayenne.dba.JdbcAdapter;
+import org.apache.cayenne.dba.JdbcPkGenerator;
 import org.apache.cayenne.dba.PkGenerator;
 import org.apache.cayenne.di.AdhocObjectFactory;
+import org.apache.cayenne.di.BeforeScopeEnd;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.di.Injector;
 import org.apache.cayenne.log.JdbcEventLogger;
@@ -58,8 +64,16 @@ public class DefaultDbAdapterFactory implements DbAdapterFactory {
 	@Inject
 	protected PkGeneratorFactoryProvider pkGeneratorProvider;
 
+	/**
+	 * @since 4.2
+	 */
+	@Inject
+	protected RuntimeProperties runtimeProperties;
+
 	protected List<DbAdapterDetector> detectors;
 
+	private volatile ExecutorService pkPrefetchExecutor;
+
 	public DefaultDbAdapterFactory(@Inject(Constants.SERVER_ADAPTER_DETECTORS_LIST) List<DbAdapterDetector> detectors) {
 		if (detectors == null) {
 			throw new NullPointerException("Null detectors list");
@@ -140,8 +154,55 @@ public class DefaultDbAdapterFactory implements DbAdapterFactory {
 		PkGenerator pkGenerator = pkGeneratorProvider.get(Objects.requireNonNull(dbAdapter));
 		if(pkGenerator != null) {
 			pkGenerator.setAdapter(dbAdapter);
+			if(pkGenerator instanceof JdbcPkGenerator
+					&& runtimeProperties.getBoolean(Constants.SERVER_PK_PREFETCH_PROPERTY, false)) {
+				((JdbcPkGenerator) pkGenerator).setPkPrefetchExecutor(getPkPrefetchExecutor());
+				((JdbcPkGenerator) pkGenerator).setPkPrefetch(true);
+			}
 			dbAdapter.setPkGenerator(pkGenerator);
 		}
 		return dbAdapter;
 	}
+
+	/**
+	 * @since 4.2
+	 */
+	protected ExecutorService getPkPrefetchExecutor() {
+		if(pkPrefetchExecutor == null) {
+			synchronized (this) {
+				if(pkPrefetchExecutor == null) {
+					pkPrefetchExecutor = createPkPrefetchExecutor();
+				}
+			}
+		}
+		return pkPrefetchExecutor;
+	}
+
+	/**
+	 * Creates an executor used by PK generators to refill their key caches in background.
+	 *
+	 * @since 4.2
+	 */
+	protected ExecutorService createPkPrefetchExecutor() {
+		AtomicInteger counter = new AtomicInteger();
+		return Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "cayenne-pk-prefetch-" + counter.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Stops the PK prefetch executor. Running refills are not interrupted, as it may break their connections, but no
+	 * new refills are accepted.
+	 *
+	 * @since 4.2
+	 */
+	@BeforeScopeEnd
+	public void shutdown() {
+		ExecutorService executor = pkPrefetchExecutor;
+		if(executor != null) {
+			executor.shutdown();
+		}
+	}
 }
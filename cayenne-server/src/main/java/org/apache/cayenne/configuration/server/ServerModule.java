@@ -34,6 +34,8 @@ import org.apache.cayenne.access.dbsync.DefaultSchemaUpdateStrategyFactory;
 import org.apache.cayenne.access.dbsync.SchemaUpdateStrategyFactory;
 import org.apache.cayenne.access.flush.DataDomainFlushActionFactory;
 import org.apache.cayenne.access.flush.DefaultDataDomainFlushActionFactory;
+import org.apache.cayenne.access.flush.FlushInstrumentation;
+import org.apache.cayenne.access.flush.JfrFlushInstrumentation;
 import org.apache.cayenne.access.flush.operation.DbRowOpSorter;
 import org.apache.cayenne.access.flush.operation.DefaultDbRowOpSorter;
 import org.apache.cayenne.access.jdbc.SQLTemplateProcessor;
@@ -77,8 +79,10 @@ import org.apache.cayenne.access.types.ValueObjectTypeRegistry;
 import org.apache.cayenne.access.types.VoidType;
 import org.apache.cayenne.access.types.WktType;
 import org.apache.cayenne.ashwood.AshwoodEntitySorter;
+import org.apache.cayenne.cache.InstrumentedQueryCache;
 import org.apache.cayenne.cache.MapQueryCacheProvider;
 import org.apache.cayenne.cache.QueryCache;
+import org.apache.cayenne.cache.QueryCacheGroupPolicy;
 import org.apache.cayenne.configuration.ConfigurationNameMapper;
 import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.DataChannelDescriptorLoader;
@@ -150,7 +154,10 @@ import org.apache.cayenne.event.EventBridge;
 import org.apache.cayenne.event.EventManager;
 import org.apache.cayenne.event.EventManagerProvider;
 import org.apache.cayenne.event.NoopEventBridgeProvider;
+import org.apache.cayenne.log.DefaultJdbcInstrumentation;
 import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.log.JdbcInstrumentation;
+import org.apache.cayenne.log.QueryStatsRegistry;
 import org.apache.cayenne.log.Slf4jJdbcEventLogger;
 import org.apache.cayenne.map.EntitySorter;
 import org.apache.cayenne.reflect.generic.ValueComparisonStrategyFactory;
@@ -198,6 +205,17 @@ public class ServerModule implements Module {
         contributeProperties(binder).put(Constants.SNAPSHOT_CACHE_SIZE_PROPERTY, Integer.toString(size));
     }
 
+    /**
+     * Decorates the {@link QueryCache} with {@link InstrumentedQueryCache}, that collects per-group statistics
+     * available via {@link ServerRuntime#getQueryCacheStats()}.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @since 4.2
+     */
+    public static void useQueryCacheStatistics(Binder binder) {
+        binder.decorate(QueryCache.class).before(InstrumentedQueryCache.class);
+    }
+
     /**
      * Provides access to a DI collection builder for String locations that allows downstream modules to
      * "contribute" their own Cayenne project locations.
@@ -295,6 +313,20 @@ public class ServerModule implements Module {
         return binder.bindMap(String.class, Constants.PROPERTIES_MAP);
     }
 
+    /**
+     * Provides access to a DI map builder for {@link QueryCacheGroupPolicy}'s of the default {@link QueryCache},
+     * keyed by the cache group name. Queries without an explicit cache group are stored in the
+     * {@link org.apache.cayenne.cache.MapQueryCache#DEFAULT_CACHE_NAME} group. Groups without a policy are limited
+     * by the "cayenne.querycache.size" property and never expire.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @return MapBuilder for cache group policies.
+     * @since 4.2
+     */
+    public static MapBuilder<QueryCacheGroupPolicy> contributeQueryCacheGroupPolicies(Binder binder) {
+        return binder.bindMap(QueryCacheGroupPolicy.class, Constants.QUERY_CACHE_GROUP_POLICIES_MAP);
+    }
+
     /**
      * Provides access to a DI collection builder for {@link ExtendedTypeFactory}'s that allows downstream modules to
      * "contribute" their own factories.
@@ -359,6 +391,8 @@ public class ServerModule implements Module {
                 .put(Constants.SERVER_CONTEXTS_SYNC_PROPERTY, String.valueOf(false));
 
         binder.bind(JdbcEventLogger.class).to(Slf4jJdbcEventLogger.class);
+        binder.bind(JdbcInstrumentation.class).to(DefaultJdbcInstrumentation.class);
+        binder.bind(QueryStatsRegistry.class).to(QueryStatsRegistry.class);
         binder.bind(ClassLoaderManager.class).to(DefaultClassLoaderManager.class);
         binder.bind(AdhocObjectFactory.class).to(DefaultAdhocObjectFactory.class);
 
@@ -457,6 +491,7 @@ public class ServerModule implements Module {
 
         binder.bind(EventManager.class).toProvider(EventManagerProvider.class);
 
+        contributeQueryCacheGroupPolicies(binder);
         binder.bind(QueryCache.class).toProvider(MapQueryCacheProvider.class);
 
         binder.bind(EventBridge.class).toProvider(NoopEventBridgeProvider.class);
@@ -525,5 +560,6 @@ public class ServerModule implements Module {
 
         binder.bind(DataDomainFlushActionFactory.class).to(DefaultDataDomainFlushActionFactory.class);
         binder.bind(DbRowOpSorter.class).to(DefaultDbRowOpSorter.class);
+        binder.bind(FlushInstrumentation.class).to(JfrFlushInstrumentation.class);
     }
 }
@@ -18,10 +18,16 @@
  ****************************************************************/
 package org.apache.cayenne.configuration.server;
 
+import org.apache.cayenne.ObjectContext;
 import org.apache.cayenne.access.DataDomain;
 import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.cache.InstrumentedQueryCache;
+import org.apache.cayenne.cache.QueryCache;
+import org.apache.cayenne.cache.QueryCacheGroupStats;
 import org.apache.cayenne.configuration.CayenneRuntime;
+import org.apache.cayenne.configuration.ObjectContextFactory;
 import org.apache.cayenne.di.Module;
+import org.apache.cayenne.log.QueryStatsRegistry;
 import org.apache.cayenne.tx.TransactionDescriptor;
 import org.apache.cayenne.tx.TransactionListener;
 import org.apache.cayenne.tx.TransactionManager;
@@ -29,6 +35,8 @@ import org.apache.cayenne.tx.TransactionalOperation;
 
 import javax.sql.DataSource;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Object representing Cayenne stack. Serves as an entry point to Cayenne for user applications and a factory of ObjectContexts.
@@ -143,6 +151,19 @@ public class ServerRuntime extends CayenneRuntime {
         return tm.performInTransaction(op, callback, descriptor);
     }
 
+    /**
+     * Returns a new read-only ObjectContext attached to the main DataDomain. Such context
+     * is intended to be shared between threads, e.g. to hold reference data. Objects can
+     * be fetched into it, but can't be created, modified or deleted.
+     *
+     * @throws UnsupportedOperationException if the configured {@link ObjectContextFactory}
+     *                                       doesn't support read-only contexts.
+     * @since 4.2
+     */
+    public ObjectContext newReadOnlyContext() {
+        return injector.getInstance(ObjectContextFactory.class).createReadOnlyContext();
+    }
+
     /**
      * Returns the main runtime DataDomain. Note that by default the returned
      * DataDomain is the same as the main DataChannel returned by
@@ -154,6 +175,29 @@ public class ServerRuntime extends CayenneRuntime {
         return injector.getInstance(DataDomain.class);
     }
 
+    /**
+     * Returns the registry of the statement execution statistics of this runtime. Statistics are only collected if
+     * "cayenne.server.query_stats" property is set to true.
+     *
+     * @since 4.2
+     */
+    public QueryStatsRegistry getQueryStats() {
+        return injector.getInstance(QueryStatsRegistry.class);
+    }
+
+    /**
+     * Returns statistics of the query cache groups of this runtime, or an empty list if statistics are not enabled
+     * with {@link ServerModule#useQueryCacheStatistics(org.apache.cayenne.di.Binder)}.
+     *
+     * @since 4.2
+     */
+    public List<QueryCacheGroupStats> getQueryCacheStats() {
+        QueryCache cache = injector.getInstance(QueryCache.class);
+        return cache instanceof InstrumentedQueryCache
+                ? ((InstrumentedQueryCache) cache).getStats()
+                : Collections.emptyList();
+    }
+
     /**
      * Returns a default DataSource for this runtime. If no default DataSource
      * exists, an exception is thrown.
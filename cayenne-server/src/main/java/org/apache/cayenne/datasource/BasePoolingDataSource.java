@@ -0,0 +1,445 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A superclass of pooling DataSources that keeps track of pooled connections, creates, validates and retires them.
+ * Subclasses implement a strategy for storing idle connections and checking them out of the pool. Pool events are
+ * reported to {@link PoolingDataSourceMetrics}, and connections held longer than the leak detection threshold are
+ * reported as possible leaks.
+ *
+ * @since 4.2
+ */
+public abstract class BasePoolingDataSource implements PoolingDataSource, PoolingDataSourceStatus {
+
+	// An old hack that fixes Sybase problems with autocommit. Used idea from
+	// Jonas org.objectweb.jonas.jdbc_xa.ConnectionImpl
+	// (http://www.objectweb.org/jonas/).
+	//
+	// If problem is not the one that can be fixed by this patch, original
+	// exception is rethrown. If exception occurs when fixing the problem, new
+	// exception is thrown.
+	//
+	static void sybaseAutoCommitPatch(Connection c, SQLException e, boolean autoCommit) throws SQLException {
+
+		String s = e.getMessage().toLowerCase();
+		if (s.contains("set chained command not allowed")) {
+
+			// TODO: doing 'commit' here is extremely dangerous... we need to
+			// get a hold of Sybase instance and verify whether this issue is
+			// still there, and fix it differently (and perhaps generically) by
+			// calling 'rollback' on connections (can we do it when getting
+			// connection from the pool? returning it to the pool?)
+
+			c.commit();
+			c.setAutoCommit(autoCommit); // Shouldn't fail now.
+		} else {
+			throw e;
+		}
+	}
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BasePoolingDataSource.class);
+
+	private DataSource nonPoolingDataSource;
+	private long maxQueueWaitTime;
+
+	private Map<PoolAwareConnection, Object> pool;
+	private Semaphore poolCap;
+	private AtomicInteger pendingRequests;
+
+	private PoolingDataSourceMetrics metrics;
+	private ConnectionLeakDetector leakDetector;
+
+	private int maxIdleConnections;
+	private int minConnections;
+	private int maxConnections;
+	private String validationQuery;
+	private int statementCacheSize;
+
+	static int maxIdleConnections(int min, int max) {
+		return min == max ? min : min + (int) Math.ceil((max - min) / 2d);
+	}
+
+	protected BasePoolingDataSource(DataSource nonPoolingDataSource, PoolingDataSourceParameters parameters) {
+
+		int minConnections = parameters.getMinConnections();
+		int maxConnections = parameters.getMaxConnections();
+
+		// sanity check
+		if (minConnections < 0) {
+			throw new IllegalArgumentException("Negative min connections: " + minConnections);
+		}
+
+		if (maxConnections < 0) {
+			throw new IllegalArgumentException("Negative max connections: " + maxConnections);
+		}
+
+		if (minConnections > maxConnections) {
+			throw new IllegalArgumentException("Min connections (" + minConnections
+					+ ") is greater than max connections (" + maxConnections + ")");
+		}
+
+		this.nonPoolingDataSource = nonPoolingDataSource;
+		this.maxQueueWaitTime = parameters.getMaxQueueWaitTime();
+		this.validationQuery = parameters.getValidationQuery();
+		this.statementCacheSize = parameters.getStatementCacheSize();
+		this.minConnections = minConnections;
+		this.maxConnections = maxConnections;
+		this.pool = new ConcurrentHashMap<PoolAwareConnection, Object>((int) (maxConnections / 0.75));
+		this.poolCap = new Semaphore(maxConnections);
+		this.maxIdleConnections = maxIdleConnections(minConnections, maxConnections);
+		this.pendingRequests = new AtomicInteger();
+
+		this.metrics = parameters.getMetrics() != null
+				? parameters.getMetrics()
+				: NoopPoolingDataSourceMetrics.INSTANCE;
+		this.leakDetector = parameters.getLeakDetectionThreshold() > 0
+				? new ConnectionLeakDetector(parameters.getLeakDetectionThreshold(), metrics)
+				: null;
+
+		metrics.bind(this);
+	}
+
+	/**
+	 * Grows the pool to min connections. Must be called by subclass constructors once their idle connection
+	 * storage is initialized.
+	 */
+	void growToMinConnections() {
+		try {
+			for (int i = 0; i < minConnections; i++) {
+				PoolAwareConnection c = createUnchecked();
+				reclaim(c);
+			}
+		} catch (BadValidationQueryException e) {
+			throw new CayenneRuntimeException("Bad validation query: " + validationQuery, e);
+		} catch (SQLException e) {
+			LOGGER.info("Error creating new connection when starting connection pool, ignoring", e);
+		}
+	}
+
+	int poolSize() {
+		return pool.size();
+	}
+
+	int canExpandSize() {
+		return poolCap.availablePermits();
+	}
+
+	boolean isPooled(PoolAwareConnection connection) {
+		return pool.containsKey(connection);
+	}
+
+	/**
+	 * Returns the number of connections currently available for checkout.
+	 */
+	abstract int availableSize();
+
+	/**
+	 * Performs periodic maintenance of the pool, such as its expansion or contraction. Called from the
+	 * {@link PoolingDataSourceManager} thread.
+	 */
+	abstract void managePool();
+
+	/**
+	 * Returns connection back to the pool if possible. The connection must be
+	 * an unchecked connection.
+	 */
+	abstract void reclaim(PoolAwareConnection connection);
+
+	/**
+	 * Takes a connection out of the pool, creating a new one or waiting for one to be returned if needed. Returns
+	 * null if a connection could not be obtained within {@link #getMaxQueueWaitTime()}.
+	 */
+	abstract PoolAwareConnection checkout() throws SQLException;
+
+	@Override
+	public Connection getConnection() throws SQLException {
+
+		long start = System.nanoTime();
+
+		PoolAwareConnection c;
+		pendingRequests.incrementAndGet();
+		try {
+			c = checkout();
+		} finally {
+			pendingRequests.decrementAndGet();
+		}
+
+		long waitNanos = System.nanoTime() - start;
+		if (c == null) {
+			metrics.connectionUnavailable(waitNanos);
+			throw connectionUnavailable();
+		}
+
+		metrics.connectionCheckedOut(waitNanos);
+		c.setCheckedOutAt(System.currentTimeMillis());
+		if (leakDetector != null) {
+			leakDetector.track(c);
+		}
+
+		return resetState(c);
+	}
+
+	/**
+	 * Called when the caller closes a checked out connection.
+	 */
+	void checkin(PoolAwareConnection connection) {
+
+		// closing the same connection again must not put it to the pool twice
+		if (!connection.markCheckedIn()) {
+			return;
+		}
+
+		if (leakDetector != null) {
+			leakDetector.untrack(connection);
+		}
+
+		reclaim(connection);
+	}
+
+	/**
+	 * Validates a pooled connection, reporting validation failures to the metrics.
+	 */
+	boolean validate(PoolAwareConnection connection) {
+		if (connection.validate()) {
+			return true;
+		}
+
+		metrics.validationFailed();
+		return false;
+	}
+
+	@Override
+	public void close() {
+
+		// expecting surrounding environment to block new requests for
+		// connections before calling this method. Still previously unchecked
+		// connections may be returned. I.e. "pool" will not grow during
+		// shutdown, which is the only thing that we need
+
+		for (PoolAwareConnection c : pool.keySet()) {
+			retire(c);
+		}
+
+		pool = Collections.emptyMap();
+
+		if (leakDetector != null) {
+			leakDetector.shutdown();
+		}
+	}
+
+	/**
+	 * Closes the connection and removes it from the pool. The connection must
+	 * be an unchecked connection.
+	 */
+	void retire(PoolAwareConnection connection) {
+
+		if (leakDetector != null) {
+			leakDetector.untrack(connection);
+		}
+
+		// release the permit only once, even if the connection is retired repeatedly
+		if (pool.remove(connection) != null) {
+			poolCap.release();
+			metrics.connectionRetired(System.currentTimeMillis() - connection.getCreatedAt());
+		}
+
+		connection.clearStatementCache();
+
+		try {
+			connection.getConnection().close();
+		} catch (SQLException e) {
+			// ignore?
+		}
+	}
+
+	PoolAwareConnection createUnchecked() throws SQLException {
+
+		if (!poolCap.tryAcquire()) {
+			return null;
+		}
+
+		PoolAwareConnection c;
+		try {
+			c = createWrapped();
+		} catch (SQLException e) {
+			poolCap.release();
+			throw e;
+		}
+
+		pool.put(c, 1);
+		metrics.connectionCreated();
+
+		// even though we got a fresh connection, let's still validate it...
+		// This will provide consistent behavior between cached and uncached
+		// connections in respect to invalid validation queries
+		if (!validate(c)) {
+			throw new BadValidationQueryException(
+					"Can't validate a fresh connection. Likely validation query is wrong: " + validationQuery);
+		}
+
+		return c;
+	}
+
+	PoolAwareConnection createWrapped() throws SQLException {
+		StatementCache statementCache = statementCacheSize > 0
+				? new StatementCache(statementCacheSize, metrics)
+				: null;
+		return new PoolAwareConnection(this, createUnwrapped(), validationQuery, statementCache);
+	}
+
+	/**
+	 * Creates a new connection.
+	 */
+	Connection createUnwrapped() throws SQLException {
+		return nonPoolingDataSource.getConnection();
+	}
+
+	/**
+	 * Updates connection state to a default state.
+	 */
+	Connection resetState(Connection c) throws SQLException {
+
+		// isolation level is restored by the transaction that changed it,
+		// so only the auto-commit mode needs to be reset here
+
+		if (!c.getAutoCommit()) {
+
+			try {
+				c.setAutoCommit(true);
+			} catch (SQLException e) {
+				sybaseAutoCommitPatch(c, e, true);
+			}
+		}
+
+		c.clearWarnings();
+		return c;
+	}
+
+	UnmanagedPoolingDataSource.ConnectionUnavailableException connectionUnavailable() {
+		return new UnmanagedPoolingDataSource.ConnectionUnavailableException("Can't obtain connection. Request to pool timed out. Total pool size: "
+				+ poolSize() + ", can expand by: " + canExpandSize());
+	}
+
+	@Override
+	public Connection getConnection(String userName, String password) throws SQLException {
+		throw new UnsupportedOperationException(
+				"Connections for a specific user are not supported by the pooled DataSource");
+	}
+
+	@Override
+	public int getLoginTimeout() throws java.sql.SQLException {
+		return nonPoolingDataSource.getLoginTimeout();
+	}
+
+	@Override
+	public void setLoginTimeout(int seconds) throws java.sql.SQLException {
+		nonPoolingDataSource.setLoginTimeout(seconds);
+	}
+
+	@Override
+	public PrintWriter getLogWriter() throws java.sql.SQLException {
+		return nonPoolingDataSource.getLogWriter();
+	}
+
+	@Override
+	public void setLogWriter(PrintWriter out) throws java.sql.SQLException {
+		nonPoolingDataSource.setLogWriter(out);
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return getClass().equals(iface) ? true : nonPoolingDataSource.isWrapperFor(iface);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		return getClass().equals(iface) ? (T) this : nonPoolingDataSource.unwrap(iface);
+	}
+
+	@Override
+	public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		return nonPoolingDataSource.getParentLogger();
+	}
+
+	@Override
+	public int getActiveConnections() {
+		return Math.max(0, poolSize() - availableSize());
+	}
+
+	@Override
+	public int getIdleConnections() {
+		return availableSize();
+	}
+
+	@Override
+	public int getTotalConnections() {
+		return poolSize();
+	}
+
+	@Override
+	public int getPendingRequests() {
+		return pendingRequests.get();
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public PoolingDataSourceMetrics getMetrics() {
+		return metrics;
+	}
+
+	String getValidationQuery() {
+		return validationQuery;
+	}
+
+	long getMaxQueueWaitTime() {
+		return maxQueueWaitTime;
+	}
+
+	int getMaxIdleConnections() {
+		return maxIdleConnections;
+	}
+
+	int getMinConnections() {
+		return minConnections;
+	}
+
+	@Override
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+}
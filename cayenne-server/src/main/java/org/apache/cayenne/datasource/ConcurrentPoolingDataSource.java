@@ -0,0 +1,162 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pooling {@link DataSource} optimized for a high number of concurrent threads. Unlike
+ * {@link UnmanagedPoolingDataSource}, it doesn't pass connections through a shared queue. Instead idle connections
+ * are stored in a lock-free {@link ConnectionBag} that prefers a connection last used by the calling thread, and
+ * hands off returned connections directly to waiting threads. Connections are not validated on checkout, instead
+ * idle connections are validated in the background each time the pool is managed by
+ * {@link PoolingDataSourceManager}.
+ *
+ * @since 4.2
+ */
+public class ConcurrentPoolingDataSource extends BasePoolingDataSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentPoolingDataSource.class);
+
+	private ConnectionBag bag;
+
+	public ConcurrentPoolingDataSource(DataSource nonPoolingDataSource, PoolingDataSourceParameters parameters) {
+		super(nonPoolingDataSource, parameters);
+		this.bag = new ConnectionBag();
+
+		// grow pool to min connections
+		growToMinConnections();
+	}
+
+	@Override
+	int availableSize() {
+		return bag.idleSize();
+	}
+
+	int waitingThreads() {
+		return bag.waitingThreads();
+	}
+
+	@Override
+	public void close() {
+		super.close();
+		bag.clear();
+	}
+
+	@Override
+	void managePool() {
+		validateIdle();
+
+		// do not grow or shrink abruptly ... open or close 1 connection on
+		// each call
+
+		int available = bag.idleSize();
+		if (available < getMinConnections()) {
+
+			try {
+				PoolAwareConnection c = createUnchecked();
+				if (c != null) {
+					reclaim(c);
+				}
+			} catch (SQLException e) {
+				LOGGER.info("Error creating new connection when managing connection pool, ignoring", e);
+			}
+
+		} else if (available > getMaxIdleConnections()) {
+
+			for (PoolAwareConnection c : bag.idleConnections()) {
+				if (bag.reserve(c)) {
+					retire(c);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Validates idle connections, retiring those that failed validation. Each connection is reserved while
+	 * validated, so it is never handed to a caller in the middle of the validation query.
+	 */
+	void validateIdle() {
+
+		if (getValidationQuery() == null) {
+			return;
+		}
+
+		for (PoolAwareConnection c : bag.idleConnections()) {
+			if (bag.reserve(c)) {
+				if (validate(c)) {
+					bag.unreserve(c);
+				} else {
+					LOGGER.info("Idle connection failed validation, retiring it");
+					retire(c);
+				}
+			}
+		}
+	}
+
+	@Override
+	void reclaim(PoolAwareConnection connection) {
+
+		if (!bag.requite(connection) && isPooled(connection)) {
+			// a freshly created connection that is not in the bag yet
+			bag.add(connection, false);
+		}
+	}
+
+	@Override
+	void retire(PoolAwareConnection connection) {
+		bag.remove(connection);
+		super.retire(connection);
+	}
+
+	@Override
+	PoolAwareConnection checkout() throws SQLException {
+
+		// strategy for getting a connection -
+		// 1. quick peek for idle connections, starting with the one used last by the current thread
+		// 2. create new one
+		// 3. wait for a user to return connection
+
+		PoolAwareConnection c = bag.borrow();
+		if (c != null) {
+			return c;
+		}
+
+		c = createUnchecked();
+		if (c != null) {
+			bag.add(c, true);
+			return c;
+		}
+
+		try {
+			return bag.borrow(getMaxQueueWaitTime(), TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			// preserve the interrupt for the caller, that will get a "connection unavailable" exception
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+}
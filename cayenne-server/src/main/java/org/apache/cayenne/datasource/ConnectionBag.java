@@ -0,0 +1,248 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free storage of pooled connections used by {@link ConcurrentPoolingDataSource}. Connections never leave
+ * the bag when checked out, instead their state is switched atomically. A thread returning a connection hands it
+ * off directly to a waiting thread if there is one. Each thread remembers the last connection it used and tries to
+ * reuse it first, which avoids scanning the shared list in a common case of a thread doing sequential work.
+ *
+ * @since 4.2
+ */
+class ConnectionBag {
+
+	static final int STATE_NOT_IN_USE = 0;
+	static final int STATE_IN_USE = 1;
+	static final int STATE_REMOVED = -1;
+	static final int STATE_RESERVED = -2;
+
+	private static final long MAX_HANDOFF_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+	static class Entry {
+
+		final PoolAwareConnection connection;
+		final AtomicInteger state;
+
+		Entry(PoolAwareConnection connection, int state) {
+			this.connection = connection;
+			this.state = new AtomicInteger(state);
+		}
+
+		boolean compareAndSet(int expected, int newState) {
+			return state.compareAndSet(expected, newState);
+		}
+	}
+
+	private final CopyOnWriteArrayList<Entry> shared;
+	private final Map<PoolAwareConnection, Entry> entries;
+	private final ThreadLocal<WeakReference<Entry>> lastUsed;
+	private final SynchronousQueue<Entry> handoffQueue;
+	private final AtomicInteger waiters;
+
+	ConnectionBag() {
+		this.shared = new CopyOnWriteArrayList<>();
+		this.entries = new ConcurrentHashMap<>();
+		this.lastUsed = new ThreadLocal<>();
+		this.handoffQueue = new SynchronousQueue<>(true);
+		this.waiters = new AtomicInteger();
+	}
+
+	/**
+	 * Adds a new connection to the bag. A connection added as "in use" is considered checked out by the calling
+	 * thread.
+	 */
+	void add(PoolAwareConnection connection, boolean inUse) {
+		Entry entry = new Entry(connection, inUse ? STATE_IN_USE : STATE_NOT_IN_USE);
+		entries.put(connection, entry);
+		shared.add(entry);
+
+		if (!inUse) {
+			handoff(entry);
+		}
+	}
+
+	/**
+	 * Checks out an idle connection without waiting. Returns null if no idle connections are available.
+	 */
+	PoolAwareConnection borrow() {
+
+		// 1. try the last connection used by this thread
+		WeakReference<Entry> ref = lastUsed.get();
+		if (ref != null) {
+			Entry entry = ref.get();
+			if (entry != null && entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+				return entry.connection;
+			}
+		}
+
+		// 2. scan the shared list
+		for (Entry entry : shared) {
+			if (entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+				return entry.connection;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Checks out an idle connection, waiting for up to the specified time for another thread to return one.
+	 * Returns null if the wait timed out.
+	 */
+	PoolAwareConnection borrow(long timeout, TimeUnit unit) throws InterruptedException {
+
+		waiters.incrementAndGet();
+		try {
+
+			// rescan after registering as a waiter, as a connection may have been returned without a handoff
+			PoolAwareConnection connection = borrow();
+			if (connection != null) {
+				return connection;
+			}
+
+			long remaining = unit.toNanos(timeout);
+			while (remaining > 0) {
+				long start = System.nanoTime();
+
+				// poll in short slices, rescanning the shared list in between, as a connection returned while this
+				// thread was not polling the queue yet would not be handed off
+				Entry entry = handoffQueue.poll(Math.min(remaining, MAX_HANDOFF_WAIT_NANOS), TimeUnit.NANOSECONDS);
+				if (entry != null && entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+					return entry.connection;
+				}
+
+				connection = borrow();
+				if (connection != null) {
+					return connection;
+				}
+
+				remaining -= System.nanoTime() - start;
+			}
+
+			return null;
+		} finally {
+			waiters.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns a checked out connection to the bag, remembering it as the last connection used by the calling
+	 * thread. Returns false if the connection is not in the bag, e.g. was removed while checked out.
+	 */
+	boolean requite(PoolAwareConnection connection) {
+		Entry entry = entries.get(connection);
+		if (entry == null || !entry.compareAndSet(STATE_IN_USE, STATE_NOT_IN_USE)) {
+			return false;
+		}
+
+		lastUsed.set(new WeakReference<>(entry));
+		handoff(entry);
+		return true;
+	}
+
+	/**
+	 * Marks an idle connection as reserved, so that it can't be checked out, e.g. while it is being validated or
+	 * retired. Returns false if the connection is no longer idle.
+	 */
+	boolean reserve(PoolAwareConnection connection) {
+		Entry entry = entries.get(connection);
+		return entry != null && entry.compareAndSet(STATE_NOT_IN_USE, STATE_RESERVED);
+	}
+
+	/**
+	 * Makes a previously reserved connection available for checkout again.
+	 */
+	void unreserve(PoolAwareConnection connection) {
+		Entry entry = entries.get(connection);
+		if (entry != null && entry.compareAndSet(STATE_RESERVED, STATE_NOT_IN_USE)) {
+			handoff(entry);
+		}
+	}
+
+	/**
+	 * Removes the connection from the bag regardless of its state.
+	 */
+	void remove(PoolAwareConnection connection) {
+		Entry entry = entries.remove(connection);
+		if (entry != null) {
+			entry.state.set(STATE_REMOVED);
+			shared.remove(entry);
+		}
+	}
+
+	/**
+	 * Returns all idle connections. The result is a snapshot, connections may be checked out by the time the
+	 * caller sees them.
+	 */
+	List<PoolAwareConnection> idleConnections() {
+		List<PoolAwareConnection> idle = new ArrayList<>();
+		for (Entry entry : shared) {
+			if (entry.state.get() == STATE_NOT_IN_USE) {
+				idle.add(entry.connection);
+			}
+		}
+		return idle;
+	}
+
+	int idleSize() {
+		int size = 0;
+		for (Entry entry : shared) {
+			if (entry.state.get() == STATE_NOT_IN_USE) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	int size() {
+		return shared.size();
+	}
+
+	int waitingThreads() {
+		return waiters.get();
+	}
+
+	void clear() {
+		for (Entry entry : shared) {
+			entry.state.set(STATE_REMOVED);
+		}
+		shared.clear();
+		entries.clear();
+	}
+
+	private void handoff(Entry entry) {
+
+		// a single attempt is sufficient... a waiter that is not polling the queue at the moment will find the
+		// connection in the shared list
+		if (waiters.get() > 0) {
+			handoffQueue.offer(entry);
+		}
+	}
+}
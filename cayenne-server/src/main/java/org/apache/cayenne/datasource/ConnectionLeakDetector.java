@@ -0,0 +1,99 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports connections that were checked out from the pool and not returned within a configured threshold. When a
+ * connection is checked out, the detector records the stack trace of the caller and schedules a check. If the
+ * connection is still held when the check runs, the recorded stack trace is logged, pointing to the code that
+ * leaked the connection.
+ *
+ * @since 4.2
+ */
+class ConnectionLeakDetector {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionLeakDetector.class);
+
+	/**
+	 * A Throwable that is never thrown and is only used to record the stack trace of a checkout.
+	 */
+	static class CheckoutStackTrace extends Exception {
+
+		private static final long serialVersionUID = 3566407880197924740L;
+
+		CheckoutStackTrace(String message) {
+			super(message);
+		}
+	}
+
+	private final long thresholdMillis;
+	private final PoolingDataSourceMetrics metrics;
+	private final ScheduledThreadPoolExecutor executor;
+
+	ConnectionLeakDetector(long thresholdMillis, PoolingDataSourceMetrics metrics) {
+		this.thresholdMillis = thresholdMillis;
+		this.metrics = metrics;
+		this.executor = new ScheduledThreadPoolExecutor(1, r -> {
+			Thread t = new Thread(r, "ConnectionLeakDetector-" + hashCode());
+			t.setDaemon(true);
+			return t;
+		});
+
+		// do not hold references to returned connections until their check time
+		executor.setRemoveOnCancelPolicy(true);
+	}
+
+	long getThresholdMillis() {
+		return thresholdMillis;
+	}
+
+	void track(PoolAwareConnection connection) {
+		long checkedOutAt = connection.getCheckedOutAt();
+		CheckoutStackTrace trace = new CheckoutStackTrace("Connection checked out by thread '"
+				+ Thread.currentThread().getName() + "'");
+
+		ScheduledFuture<?> check = executor.schedule(() -> {
+			long held = System.currentTimeMillis() - checkedOutAt;
+			metrics.connectionLeakDetected(held);
+			LOGGER.warn("Connection was held for {} ms, which exceeds leak detection threshold of {} ms. Possible "
+					+ "connection leak, see the stack trace of the checkout.", held, thresholdMillis, trace);
+		}, thresholdMillis, TimeUnit.MILLISECONDS);
+
+		connection.setLeakCheck(check);
+	}
+
+	void untrack(PoolAwareConnection connection) {
+		ScheduledFuture<?> check = connection.setLeakCheck(null);
+		if (check != null && !check.cancel(false) && check.isDone()) {
+			LOGGER.info("Previously reported connection was returned to the pool after {} ms",
+					System.currentTimeMillis() - connection.getCheckedOutAt());
+		}
+	}
+
+	void shutdown() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,173 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cayenne.util.TimeHistogram;
+
+/**
+ * A {@link PoolingDataSourceMetrics} that accumulates pool metrics in memory, making them available to the
+ * application via getters.
+ *
+ * @since 4.2
+ */
+public class InMemoryPoolingDataSourceMetrics implements PoolingDataSourceMetrics {
+
+	private volatile PoolingDataSourceStatus status;
+
+	private final LongAdder connectionsCreated;
+	private final LongAdder connectionsRetired;
+	private final LongAdder connectionsUnavailable;
+	private final LongAdder validationFailures;
+	private final LongAdder leaksDetected;
+	private final LongAdder statementCacheHits;
+	private final LongAdder statementCacheMisses;
+	private final LongAdder statementsEvicted;
+
+	private final TimeHistogram checkoutWaitTime;
+	private final TimeHistogram connectionAge;
+
+	public InMemoryPoolingDataSourceMetrics() {
+		this.connectionsCreated = new LongAdder();
+		this.connectionsRetired = new LongAdder();
+		this.connectionsUnavailable = new LongAdder();
+		this.validationFailures = new LongAdder();
+		this.leaksDetected = new LongAdder();
+		this.statementCacheHits = new LongAdder();
+		this.statementCacheMisses = new LongAdder();
+		this.statementsEvicted = new LongAdder();
+
+		// wait time buckets from 1 microsecond to 100 seconds; age buckets from 1 second to ~ 11 days
+		this.checkoutWaitTime = new TimeHistogram(TimeUnit.MICROSECONDS, 100_000_000L);
+		this.connectionAge = new TimeHistogram(TimeUnit.SECONDS, 1_000_000L);
+	}
+
+	@Override
+	public void bind(PoolingDataSourceStatus status) {
+		this.status = status;
+	}
+
+	@Override
+	public void connectionCreated() {
+		connectionsCreated.increment();
+	}
+
+	@Override
+	public void connectionRetired(long ageMillis) {
+		connectionsRetired.increment();
+		connectionAge.record(ageMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void connectionCheckedOut(long waitNanos) {
+		checkoutWaitTime.record(waitNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void connectionUnavailable(long waitNanos) {
+		connectionsUnavailable.increment();
+		checkoutWaitTime.record(waitNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void validationFailed() {
+		validationFailures.increment();
+	}
+
+	@Override
+	public void connectionLeakDetected(long heldMillis) {
+		leaksDetected.increment();
+	}
+
+	@Override
+	public void statementCacheHit() {
+		statementCacheHits.increment();
+	}
+
+	@Override
+	public void statementCacheMiss() {
+		statementCacheMisses.increment();
+	}
+
+	@Override
+	public void statementEvicted() {
+		statementsEvicted.increment();
+	}
+
+	/**
+	 * Returns the live state of the pool, or null if the metrics object is not bound to a pool yet.
+	 */
+	public PoolingDataSourceStatus getStatus() {
+		return status;
+	}
+
+	public long getConnectionsCreated() {
+		return connectionsCreated.sum();
+	}
+
+	public long getConnectionsRetired() {
+		return connectionsRetired.sum();
+	}
+
+	/**
+	 * Returns the number of connection requests that timed out.
+	 */
+	public long getConnectionsUnavailable() {
+		return connectionsUnavailable.sum();
+	}
+
+	public long getValidationFailures() {
+		return validationFailures.sum();
+	}
+
+	public long getLeaksDetected() {
+		return leaksDetected.sum();
+	}
+
+	public long getStatementCacheHits() {
+		return statementCacheHits.sum();
+	}
+
+	public long getStatementCacheMisses() {
+		return statementCacheMisses.sum();
+	}
+
+	/**
+	 * Returns the number of statements closed to keep statement caches of the connections within the size limit.
+	 */
+	public long getStatementsEvicted() {
+		return statementsEvicted.sum();
+	}
+
+	/**
+	 * Returns a histogram of the time callers waited for a connection, in microseconds. Includes timed out requests.
+	 */
+	public TimeHistogram getCheckoutWaitTime() {
+		return checkoutWaitTime;
+	}
+
+	/**
+	 * Returns a histogram of the age of retired connections, in seconds.
+	 */
+	public TimeHistogram getConnectionAge() {
+		return connectionAge;
+	}
+}
@@ -29,7 +29,7 @@ import javax.sql.DataSource;
 import org.apache.cayenne.di.ScopeEventListener;
 
 /**
- * A wrapper for {@link UnmanagedPoolingDataSource} that automatically manages
+ * A wrapper for {@link BasePoolingDataSource} that automatically manages
  * the underlying connection pool size.
  * 
  * @since 4.0
@@ -39,12 +39,12 @@ public class ManagedPoolingDataSource implements PoolingDataSource, ScopeEventLi
 	private PoolingDataSourceManager dataSourceManager;
 	private DataSource dataSource;
 
-	public ManagedPoolingDataSource(UnmanagedPoolingDataSource dataSource) {
+	public ManagedPoolingDataSource(BasePoolingDataSource dataSource) {
 		// wake every 2 minutes...
 		this(dataSource, 120000);
 	}
 
-	public ManagedPoolingDataSource(UnmanagedPoolingDataSource dataSource, long managerWakeTime) {
+	public ManagedPoolingDataSource(BasePoolingDataSource dataSource, long managerWakeTime) {
 		this.dataSource = dataSource;
 		this.dataSourceManager = new PoolingDataSourceManager(dataSource, managerWakeTime);
 
@@ -55,6 +55,15 @@ public class ManagedPoolingDataSource implements PoolingDataSource, ScopeEventLi
 		return dataSourceManager;
 	}
 
+	/**
+	 * Returns a live view of the underlying connection pool state.
+	 *
+	 * @since 4.2
+	 */
+	public PoolingDataSourceStatus getStatus() {
+		return dataSourceManager.getDataSource();
+	}
+
 	int poolSize() {
 		return dataSourceManager.getDataSource().poolSize();
 	}
@@ -0,0 +1,69 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+/**
+ * A {@link PoolingDataSourceMetrics} that ignores all events. Used by default.
+ *
+ * @since 4.2
+ */
+public class NoopPoolingDataSourceMetrics implements PoolingDataSourceMetrics {
+
+	public static final PoolingDataSourceMetrics INSTANCE = new NoopPoolingDataSourceMetrics();
+
+	@Override
+	public void bind(PoolingDataSourceStatus status) {
+	}
+
+	@Override
+	public void connectionCreated() {
+	}
+
+	@Override
+	public void connectionRetired(long ageMillis) {
+	}
+
+	@Override
+	public void connectionCheckedOut(long waitNanos) {
+	}
+
+	@Override
+	public void connectionUnavailable(long waitNanos) {
+	}
+
+	@Override
+	public void validationFailed() {
+	}
+
+	@Override
+	public void connectionLeakDetected(long heldMillis) {
+	}
+
+	@Override
+	public void statementCacheHit() {
+	}
+
+	@Override
+	public void statementCacheMiss() {
+	}
+
+	@Override
+	public void statementEvicted() {
+	}
+}
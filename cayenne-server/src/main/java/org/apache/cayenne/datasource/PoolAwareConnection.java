@@ -37,30 +37,81 @@ import java.sql.Struct;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A {@link Connection} wrapper that interacts with the
- * {@link UnmanagedPoolingDataSource}, allowing to recycle connections and track
+ * {@link BasePoolingDataSource}, allowing to recycle connections and track
  * failures.
  * 
  * @since 4.0
  */
 public class PoolAwareConnection implements Connection {
 
-	private UnmanagedPoolingDataSource parent;
+	private BasePoolingDataSource parent;
 	private Connection connection;
 	private String validationQuery;
 
-	public PoolAwareConnection(UnmanagedPoolingDataSource parent, Connection connection, String validationQuery) {
+	private long createdAt;
+	private volatile long checkedOutAt;
+	private volatile ScheduledFuture<?> leakCheck;
+	private final AtomicBoolean checkedOut = new AtomicBoolean();
+	private StatementCache statementCache;
+
+	public PoolAwareConnection(BasePoolingDataSource parent, Connection connection, String validationQuery) {
+		this(parent, connection, validationQuery, null);
+	}
+
+	/**
+	 * Creates a connection that reuses prepared statements from the provided cache. If the cache is null, statements
+	 * are not cached.
+	 *
+	 * @since 4.2
+	 */
+	PoolAwareConnection(BasePoolingDataSource parent, Connection connection, String validationQuery,
+			StatementCache statementCache) {
 		this.parent = parent;
 		this.connection = connection;
 		this.validationQuery = validationQuery;
+		this.statementCache = statementCache;
+		this.createdAt = System.currentTimeMillis();
 	}
 
 	Connection getConnection() {
 		return connection;
 	}
 
+	long getCreatedAt() {
+		return createdAt;
+	}
+
+	long getCheckedOutAt() {
+		return checkedOutAt;
+	}
+
+	void setCheckedOutAt(long checkedOutAt) {
+		this.checkedOutAt = checkedOutAt;
+		this.checkedOut.set(true);
+	}
+
+	/**
+	 * Marks a checked out connection as returned to the pool. Returns false if the connection was already returned,
+	 * e.g. when it is closed repeatedly.
+	 */
+	boolean markCheckedIn() {
+		return checkedOut.compareAndSet(true, false);
+	}
+
+	/**
+	 * Sets a pending leak check for this connection, returning the previous one.
+	 */
+	ScheduledFuture<?> setLeakCheck(ScheduledFuture<?> leakCheck) {
+		ScheduledFuture<?> previous = this.leakCheck;
+		this.leakCheck = leakCheck;
+		return previous;
+	}
+
 	boolean validate() {
 
 		if (validationQuery == null) {
@@ -85,8 +136,23 @@ public class PoolAwareConnection implements Connection {
 		return true;
 	}
 
+	StatementCache getStatementCache() {
+		return statementCache;
+	}
+
+	/**
+	 * Closes all cached statements. Called before the underlying connection is closed or replaced.
+	 */
+	void clearStatementCache() {
+		if (statementCache != null) {
+			statementCache.clear();
+		}
+	}
+
 	void recover(SQLException reconnectCause) throws SQLException {
 
+		clearStatementCache();
+
 		try {
 			connection.close();
 		} catch (SQLException e) {
@@ -98,6 +164,7 @@ public class PoolAwareConnection implements Connection {
 		// change when resetting connection and need to be restored...
 		try {
 			connection = parent.createUnwrapped();
+			createdAt = System.currentTimeMillis();
 		} catch (SQLException e) {
 			parent.retire(this);
 			throw reconnectCause;
@@ -116,7 +183,7 @@ public class PoolAwareConnection implements Connection {
 
 	@Override
 	public void close() throws SQLException {
-		parent.reclaim(this);
+		parent.checkin(this);
 	}
 
 	@Override
@@ -253,24 +320,51 @@ public class PoolAwareConnection implements Connection {
 
 	@Override
 	public PreparedStatement prepareStatement(String sql) throws SQLException {
+
+		StatementCache.Key key = null;
+		if (statementCache != null) {
+			key = new StatementCache.Key(sql, Statement.NO_GENERATED_KEYS, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			PreparedStatement cached = statementCache.checkout(key);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
+		PreparedStatement statement;
 		try {
-			return connection.prepareStatement(sql);
+			statement = connection.prepareStatement(sql);
 		} catch (SQLException sqlEx) {
 			recover(sqlEx);
-			return connection.prepareStatement(sql);
+			statement = connection.prepareStatement(sql);
 		}
+
+		return key != null ? statementCache.wrap(key, statement) : statement;
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
 			throws SQLException {
+
+		StatementCache.Key key = null;
+		if (statementCache != null) {
+			key = new StatementCache.Key(sql, Statement.NO_GENERATED_KEYS, resultSetType, resultSetConcurrency);
+			PreparedStatement cached = statementCache.checkout(key);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
+		PreparedStatement statement;
 		try {
-			return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+			statement = connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
 		} catch (SQLException sqlEx) {
 
 			recover(sqlEx);
-			return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+			statement = connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
 		}
+
+		return key != null ? statementCache.wrap(key, statement) : statement;
 	}
 
 	@Override
@@ -290,7 +384,7 @@ public class PoolAwareConnection implements Connection {
 		} catch (SQLException sqlEx) {
 
 			try {
-				UnmanagedPoolingDataSource.sybaseAutoCommitPatch(connection, sqlEx, autoCommit);
+				BasePoolingDataSource.sybaseAutoCommitPatch(connection, sqlEx, autoCommit);
 			} catch (SQLException patchEx) {
 				parent.retire(this);
 				throw sqlEx;
@@ -405,13 +499,26 @@ public class PoolAwareConnection implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
 
+		StatementCache.Key key = null;
+		if (statementCache != null) {
+			key = new StatementCache.Key(sql, autoGeneratedKeys, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			PreparedStatement cached = statementCache.checkout(key);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
+		PreparedStatement statement;
 		try {
-			return connection.prepareStatement(sql, autoGeneratedKeys);
+			statement = connection.prepareStatement(sql, autoGeneratedKeys);
 		} catch (SQLException e) {
 
 			recover(e);
-			return connection.prepareStatement(sql, autoGeneratedKeys);
+			statement = connection.prepareStatement(sql, autoGeneratedKeys);
 		}
+
+		return key != null ? statementCache.wrap(key, statement) : statement;
 	}
 
 	@Override
@@ -33,6 +33,7 @@ public class PoolingDataSourceBuilder {
 
 	private DataSourceBuilder nonPoolingBuilder;
 	private PoolingDataSourceParameters poolParameters;
+	private PoolingDataSourceEngine engine;
 
 	public PoolingDataSourceBuilder(DataSourceBuilder nonPoolingBuilder) {
 		this.nonPoolingBuilder = nonPoolingBuilder;
@@ -41,6 +42,8 @@ public class PoolingDataSourceBuilder {
 		poolParameters.setMinConnections(1);
 		poolParameters.setMaxConnections(1);
 		poolParameters.setMaxQueueWaitTime(UnmanagedPoolingDataSource.MAX_QUEUE_WAIT_DEFAULT);
+		poolParameters.setMetrics(NoopPoolingDataSourceMetrics.INSTANCE);
+		this.engine = PoolingDataSourceEngine.BLOCKING_QUEUE;
 	}
 
 	public PoolingDataSourceBuilder minConnections(int minConnections) {
@@ -63,6 +66,51 @@ public class PoolingDataSourceBuilder {
 		return this;
 	}
 
+	/**
+	 * Selects the connection pool implementation. {@link PoolingDataSourceEngine#BLOCKING_QUEUE} is used by
+	 * default.
+	 *
+	 * @since 4.2
+	 */
+	public PoolingDataSourceBuilder engine(PoolingDataSourceEngine engine) {
+		this.engine = engine;
+		return this;
+	}
+
+	/**
+	 * Installs a collector of connection pool metrics. By default metrics are not collected.
+	 *
+	 * @since 4.2
+	 */
+	public PoolingDataSourceBuilder metrics(PoolingDataSourceMetrics metrics) {
+		poolParameters.setMetrics(metrics != null ? metrics : NoopPoolingDataSourceMetrics.INSTANCE);
+		return this;
+	}
+
+	/**
+	 * Enables detection of leaked connections. If a connection is not returned to the pool within the specified
+	 * number of milliseconds after checkout, a warning is logged with the stack trace of the code that checked it
+	 * out. Zero or negative value (default) disables leak detection.
+	 *
+	 * @since 4.2
+	 */
+	public PoolingDataSourceBuilder leakDetectionThreshold(long leakDetectionThreshold) {
+		poolParameters.setLeakDetectionThreshold(leakDetectionThreshold);
+		return this;
+	}
+
+	/**
+	 * Enables caching of prepared statements. Each pooled connection keeps up to the specified number of recently
+	 * used statements open, keyed by SQL and statement options, and reuses them instead of preparing the same SQL
+	 * again. Zero or negative value (default) disables statement caching.
+	 *
+	 * @since 4.2
+	 */
+	public PoolingDataSourceBuilder statementCacheSize(int statementCacheSize) {
+		poolParameters.setStatementCacheSize(statementCacheSize);
+		return this;
+	}
+
 	/**
 	 * Builds a pooling DataSource that needs to be explicitly closed by the
 	 * caller when no longer in use.
@@ -88,11 +136,17 @@ public class PoolingDataSourceBuilder {
 		return buildManaged(buildPooling(nonPooling));
 	}
 
-	private UnmanagedPoolingDataSource buildPooling(DataSource nonPoolingDataSource) {
-		return new UnmanagedPoolingDataSource(nonPoolingDataSource, poolParameters);
+	private BasePoolingDataSource buildPooling(DataSource nonPoolingDataSource) {
+		switch (engine) {
+			case CONCURRENT:
+				return new ConcurrentPoolingDataSource(nonPoolingDataSource, poolParameters);
+			case BLOCKING_QUEUE:
+			default:
+				return new UnmanagedPoolingDataSource(nonPoolingDataSource, poolParameters);
+		}
 	}
 
-	private PoolingDataSource buildManaged(UnmanagedPoolingDataSource dataSource) {
+	private PoolingDataSource buildManaged(BasePoolingDataSource dataSource) {
 		return new ManagedPoolingDataSource(dataSource);
 	}
 
@@ -0,0 +1,40 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+/**
+ * Defines an implementation of the connection pool created by {@link PoolingDataSourceBuilder}.
+ *
+ * @since 4.2
+ */
+public enum PoolingDataSourceEngine {
+
+	/**
+	 * A pool based on a blocking queue of idle connections that are validated on checkout. Implemented by
+	 * {@link UnmanagedPoolingDataSource}. This is the default.
+	 */
+	BLOCKING_QUEUE,
+
+	/**
+	 * A lock-free pool with per-thread connection affinity, direct handoff of returned connections to waiting
+	 * threads and background validation of idle connections. Implemented by {@link ConcurrentPoolingDataSource}.
+	 * Scales better with a large number of threads contending for connections.
+	 */
+	CONCURRENT
+}
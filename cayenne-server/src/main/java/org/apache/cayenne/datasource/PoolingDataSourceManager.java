@@ -19,7 +19,7 @@
 package org.apache.cayenne.datasource;
 
 /**
- * A thread that manages the state of a {@link UnmanagedPoolingDataSource} instance,
+ * A thread that manages the state of a {@link BasePoolingDataSource} instance,
  * performing periodic expansion/contraction of pooled connections, and
  * orchestrating shutdown.
  * 
@@ -28,10 +28,10 @@ package org.apache.cayenne.datasource;
 class PoolingDataSourceManager extends Thread {
 
 	private volatile boolean shouldStop;
-	private UnmanagedPoolingDataSource dataSource;
+	private BasePoolingDataSource dataSource;
 	private long managerWakeTime;
 
-	PoolingDataSourceManager(UnmanagedPoolingDataSource dataSource, long managerWakeTime) {
+	PoolingDataSourceManager(BasePoolingDataSource dataSource, long managerWakeTime) {
 		setName("PoolingDataSourceManager-" + dataSource.hashCode());
 		setDaemon(true);
 
@@ -46,7 +46,7 @@ class PoolingDataSourceManager extends Thread {
 		interrupt();
 	}
 
-	UnmanagedPoolingDataSource getDataSource() {
+	BasePoolingDataSource getDataSource() {
 		return dataSource;
 	}
 
@@ -0,0 +1,90 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+/**
+ * A service provider interface for collecting connection pool metrics. A pool reports events as they happen, and
+ * provides access to its live state via {@link #bind(PoolingDataSourceStatus)}. Implementations may export the
+ * data to a monitoring system. Methods are called from the threads using the pool, so they must be thread-safe
+ * and fast. Use {@link PoolingDataSourceBuilder#metrics(PoolingDataSourceMetrics)} to install a custom
+ * implementation.
+ *
+ * @see InMemoryPoolingDataSourceMetrics
+ * @since 4.2
+ */
+public interface PoolingDataSourceMetrics {
+
+	/**
+	 * Called once when the pool is created, providing access to its active, idle and pending connection counts.
+	 */
+	void bind(PoolingDataSourceStatus status);
+
+	/**
+	 * Called when a new connection is opened by the pool.
+	 */
+	void connectionCreated();
+
+	/**
+	 * Called when a connection is closed and removed from the pool.
+	 *
+	 * @param ageMillis time in milliseconds since the connection was opened
+	 */
+	void connectionRetired(long ageMillis);
+
+	/**
+	 * Called when a caller obtains a connection from the pool.
+	 *
+	 * @param waitNanos time in nanoseconds the caller waited for the connection
+	 */
+	void connectionCheckedOut(long waitNanos);
+
+	/**
+	 * Called when a caller gives up waiting for a connection.
+	 *
+	 * @param waitNanos time in nanoseconds the caller waited before timing out
+	 */
+	void connectionUnavailable(long waitNanos);
+
+	/**
+	 * Called when a pooled connection fails validation.
+	 */
+	void validationFailed();
+
+	/**
+	 * Called when a connection is held by a caller longer than the leak detection threshold.
+	 *
+	 * @param heldMillis time in milliseconds since the connection was checked out
+	 */
+	void connectionLeakDetected(long heldMillis);
+
+	/**
+	 * Called when a prepared statement is found in the statement cache of a connection.
+	 */
+	void statementCacheHit();
+
+	/**
+	 * Called when a prepared statement is not found in the statement cache of a connection and has to be created.
+	 */
+	void statementCacheMiss();
+
+	/**
+	 * Called when the least recently used statement is closed, as the statement cache of a connection is full.
+	 */
+	void statementEvicted();
+}
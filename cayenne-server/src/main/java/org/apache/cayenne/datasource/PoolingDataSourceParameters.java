@@ -29,6 +29,9 @@ public class PoolingDataSourceParameters {
 	private int minConnections;
 	private int maxConnections;
 	private long maxQueueWaitTime;
+	private long leakDetectionThreshold;
+	private int statementCacheSize;
+	private PoolingDataSourceMetrics metrics;
 
 	public int getMinConnections() {
 		return minConnections;
@@ -61,4 +64,52 @@ public class PoolingDataSourceParameters {
 	public void setValidationQuery(String validationQuery) {
 		this.validationQuery = validationQuery;
 	}
+
+	/**
+	 * @since 4.2
+	 */
+	public long getLeakDetectionThreshold() {
+		return leakDetectionThreshold;
+	}
+
+	/**
+	 * Sets a time in milliseconds that a connection can be held by a caller before it is reported as a possible
+	 * leak. Zero or negative value disables leak detection.
+	 *
+	 * @since 4.2
+	 */
+	public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+		this.leakDetectionThreshold = leakDetectionThreshold;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * Sets a max number of idle prepared statements cached per connection. Zero or negative value disables
+	 * statement caching.
+	 *
+	 * @since 4.2
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public PoolingDataSourceMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public void setMetrics(PoolingDataSourceMetrics metrics) {
+		this.metrics = metrics;
+	}
 }
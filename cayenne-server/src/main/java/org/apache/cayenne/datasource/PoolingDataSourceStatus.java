@@ -0,0 +1,53 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+/**
+ * Provides a live view of the connection pool state. Values are not synchronized with each other and may change
+ * between calls.
+ *
+ * @since 4.2
+ */
+public interface PoolingDataSourceStatus {
+
+	/**
+	 * Returns the number of pooled connections currently checked out by the callers.
+	 */
+	int getActiveConnections();
+
+	/**
+	 * Returns the number of pooled connections available for checkout.
+	 */
+	int getIdleConnections();
+
+	/**
+	 * Returns the total number of open connections in the pool.
+	 */
+	int getTotalConnections();
+
+	/**
+	 * Returns the number of threads currently requesting a connection.
+	 */
+	int getPendingRequests();
+
+	/**
+	 * Returns the maximum number of connections the pool can grow to.
+	 */
+	int getMaxConnections();
+}
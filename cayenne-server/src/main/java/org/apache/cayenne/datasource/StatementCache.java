@@ -0,0 +1,233 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.datasource;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An LRU cache of idle prepared statements of a single {@link PoolAwareConnection}. Statements are handed out to
+ * callers wrapped in {@link CachedPreparedStatement}, and are returned to the cache instead of being closed when the
+ * caller closes the wrapper. Only idle statements are stored in the cache, so a statement is never shared between
+ * callers, even if the same SQL is executed concurrently on the connection.
+ *
+ * @since 4.2
+ */
+class StatementCache {
+
+	private final int maxSize;
+	private final PoolingDataSourceMetrics metrics;
+	private final LinkedHashMap<Key, Entry> idle;
+
+	// incremented when the underlying connection is replaced, so that statements of the old connection are discarded
+	private int generation;
+
+	StatementCache(int maxSize, PoolingDataSourceMetrics metrics) {
+		this.maxSize = maxSize;
+		this.metrics = metrics;
+
+		// access order for LRU eviction
+		this.idle = new LinkedHashMap<>((int) (maxSize / 0.75) + 1, 0.75f, true);
+	}
+
+	/**
+	 * Returns a wrapper of an idle cached statement for the key, or null if there is no such statement.
+	 */
+	synchronized PreparedStatement checkout(Key key) {
+		Entry entry = idle.remove(key);
+		if (entry == null) {
+			metrics.statementCacheMiss();
+			return null;
+		}
+
+		metrics.statementCacheHit();
+		return new CachedPreparedStatement(this, entry);
+	}
+
+	/**
+	 * Wraps a newly created statement, so that it is returned to the cache when closed. If the statement settings
+	 * can't be read, it is returned as is and is not cached.
+	 */
+	PreparedStatement wrap(Key key, PreparedStatement statement) {
+		int currentGeneration;
+		synchronized (this) {
+			currentGeneration = generation;
+		}
+
+		Entry entry;
+		try {
+			entry = new Entry(key, statement, currentGeneration);
+		} catch (SQLException e) {
+			return statement;
+		}
+		return new CachedPreparedStatement(this, entry);
+	}
+
+	/**
+	 * Called when a caller closes the statement. Returns it to the cache if it can be reused, or closes it otherwise.
+	 */
+	void checkin(Entry entry, boolean reusable) throws SQLException {
+		if (reusable) {
+			try {
+				entry.reset();
+			} catch (SQLException e) {
+				reusable = false;
+			}
+		}
+
+		List<Entry> toClose = new ArrayList<>(2);
+		synchronized (this) {
+			if (!reusable || entry.generation != generation || idle.containsKey(entry.key)) {
+				toClose.add(entry);
+			} else {
+				idle.put(entry.key, entry);
+
+				if (idle.size() > maxSize) {
+					Iterator<Entry> it = idle.values().iterator();
+					toClose.add(it.next());
+					it.remove();
+					metrics.statementEvicted();
+				}
+			}
+		}
+
+		for (Entry e : toClose) {
+			e.statement.close();
+		}
+	}
+
+	/**
+	 * Closes all idle statements, and discards statements that are currently in use once they are closed. Called
+	 * when the underlying connection is replaced or closed.
+	 */
+	void clear() {
+		List<Entry> toClose;
+		synchronized (this) {
+			generation++;
+			toClose = new ArrayList<>(idle.values());
+			idle.clear();
+		}
+
+		for (Entry e : toClose) {
+			try {
+				e.statement.close();
+			} catch (SQLException ex) {
+				// ignore, the connection is likely broken
+			}
+		}
+	}
+
+	synchronized int size() {
+		return idle.size();
+	}
+
+	/**
+	 * Cache key of a statement, that includes everything that was passed to the "prepareStatement" method.
+	 */
+	static final class Key {
+
+		final String sql;
+		final int autoGeneratedKeys;
+		final int resultSetType;
+		final int resultSetConcurrency;
+
+		Key(String sql, int autoGeneratedKeys, int resultSetType, int resultSetConcurrency) {
+			this.sql = sql;
+			this.autoGeneratedKeys = autoGeneratedKeys;
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return autoGeneratedKeys == key.autoGeneratedKeys
+					&& resultSetType == key.resultSetType
+					&& resultSetConcurrency == key.resultSetConcurrency
+					&& sql.equals(key.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(sql, autoGeneratedKeys, resultSetType, resultSetConcurrency);
+		}
+	}
+
+	/**
+	 * A cached statement together with its initial settings, that are restored before the statement is reused.
+	 */
+	static final class Entry {
+
+		final Key key;
+		final PreparedStatement statement;
+		final int generation;
+
+		private final int maxRows;
+		private final int fetchSize;
+		private final int fetchDirection;
+		private final int queryTimeout;
+
+		// set by the wrapper when any of the settings above is changed
+		boolean settingsChanged;
+
+		// set by the wrapper when statement batch is used
+		boolean batchUsed;
+
+		Entry(Key key, PreparedStatement statement, int generation) throws SQLException {
+			this.key = key;
+			this.statement = statement;
+			this.generation = generation;
+			this.maxRows = statement.getMaxRows();
+			this.fetchSize = statement.getFetchSize();
+			this.fetchDirection = statement.getFetchDirection();
+			this.queryTimeout = statement.getQueryTimeout();
+		}
+
+		void reset() throws SQLException {
+			statement.clearParameters();
+			statement.clearWarnings();
+
+			if (batchUsed) {
+				// in case batch was not executed because of an error
+				statement.clearBatch();
+				batchUsed = false;
+			}
+
+			if (settingsChanged) {
+				statement.setMaxRows(maxRows);
+				statement.setFetchSize(fetchSize);
+				statement.setFetchDirection(fetchDirection);
+				statement.setQueryTimeout(queryTimeout);
+				settingsChanged = false;
+			}
+		}
+	}
+}
@@ -158,6 +158,22 @@ public class AutoAdapter implements DbAdapter {
 		return getAdapter().supportsBatchUpdates();
 	}
 
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public boolean supportsMultiRowInsert() {
+		return getAdapter().supportsMultiRowInsert();
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public UpsertSyntax getUpsertSyntax() {
+		return getAdapter().getUpsertSyntax();
+	}
+
 	@Override
 	public boolean typeSupportsLength(int type) {
 		return getAdapter().typeSupportsLength(type);
@@ -119,6 +119,27 @@ public interface DbAdapter {
 	 */
 	boolean supportsBatchUpdates();
 
+	/**
+	 * Returns true if the target database supports INSERT statements with multiple rows
+	 * of values, i.e. "INSERT INTO T (A, B) VALUES (?, ?), (?, ?)", and returns generated
+	 * keys for all inserted rows of such statement.
+	 *
+	 * @since 4.2
+	 */
+	default boolean supportsMultiRowInsert() {
+		return false;
+	}
+
+	/**
+	 * Returns the syntax of "insert or update" statements supported by the target database,
+	 * or null if such statements are not supported.
+	 *
+	 * @since 4.2
+	 */
+	default UpsertSyntax getUpsertSyntax() {
+		return null;
+	}
+
 	boolean typeSupportsLength(int type);
 
 	/**
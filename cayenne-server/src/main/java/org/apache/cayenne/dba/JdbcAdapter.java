@@ -73,6 +73,16 @@ public class JdbcAdapter implements DbAdapter {
     protected boolean supportsBatchUpdates;
     protected boolean supportsUniqueConstraints;
     protected boolean supportsGeneratedKeys;
+
+    /**
+     * @since 4.2
+     */
+    protected boolean supportsMultiRowInsert;
+
+    /**
+     * @since 4.2
+     */
+    protected UpsertSyntax upsertSyntax;
     protected EJBQLTranslatorFactory ejbqlTranslatorFactory;
 
     protected ResourceLocator resourceLocator;
@@ -595,6 +605,36 @@ public class JdbcAdapter implements DbAdapter {
         this.supportsGeneratedKeys = flag;
     }
 
+    /**
+     * @since 4.2
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return supportsMultiRowInsert;
+    }
+
+    /**
+     * @since 4.2
+     */
+    public void setSupportsMultiRowInsert(boolean flag) {
+        this.supportsMultiRowInsert = flag;
+    }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public UpsertSyntax getUpsertSyntax() {
+        return upsertSyntax;
+    }
+
+    /**
+     * @since 4.2
+     */
+    public void setUpsertSyntax(UpsertSyntax upsertSyntax) {
+        this.upsertSyntax = upsertSyntax;
+    }
+
     /**
      * Returns a translator factory for EJBQL to SQL translation. The factory is
      * normally initialized in constructor by calling
@@ -31,6 +31,8 @@ import org.apache.cayenne.map.DbKeyGenerator;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.SQLTemplate;
 import org.apache.cayenne.util.IDUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -44,6 +46,13 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Default primary key generator implementation. Uses a lookup table named
@@ -51,14 +60,47 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class JdbcPkGenerator implements PkGenerator {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcPkGenerator.class);
+
     public static final int DEFAULT_PK_CACHE_SIZE = 20;
     static final long DEFAULT_PK_START_VALUE = 200;
 
+    /**
+     * Default max number of key ranges fetched by a single background refill.
+     *
+     * @since 4.2
+     */
+    public static final int DEFAULT_PK_PREFETCH_MAX_RANGES = 16;
+
+    // if refills happen more often than this, the number of ranges per refill is doubled,
+    // if less often than 4 times this, it is halved
+    static final long PREFETCH_TARGET_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     protected JdbcAdapter adapter;
     protected ConcurrentMap<String, Queue<Long>> pkCache = new ConcurrentHashMap<>();
     protected int pkCacheSize = DEFAULT_PK_CACHE_SIZE;
     protected long pkStartValue = DEFAULT_PK_START_VALUE;
 
+    /**
+     * @since 4.2
+     */
+    protected volatile boolean pkPrefetch;
+
+    /**
+     * @since 4.2
+     */
+    protected int pkPrefetchMaxRanges = DEFAULT_PK_PREFETCH_MAX_RANGES;
+
+    /**
+     * @since 4.2
+     */
+    protected ConcurrentMap<String, PkPrefetchState> pkPrefetchStates = new ConcurrentHashMap<>();
+
+    /**
+     * @since 4.2
+     */
+    protected volatile ExecutorService pkPrefetchExecutor;
+
     /**
      * @since 4.1
      */
@@ -218,6 +260,8 @@ public class JdbcPkGenerator implements PkGenerator {
         // if no caching, always generate fresh
         if (cacheSize <= 1) {
             value = longPkFromDatabase(node, entity);
+        } else if (pkPrefetch && pkPrefetchExecutor != null) {
+            value = prefetchedPk(node, entity, cacheSize);
         } else {
             Queue<Long> pks = pkCache.get(entity.getName());
 
@@ -247,6 +291,72 @@ public class JdbcPkGenerator implements PkGenerator {
         }
     }
 
+    /**
+     * Returns a key from the entity cache that is refilled in background when it goes below the low-water mark.
+     * The number of key ranges fetched by a single refill grows and shrinks with the observed key consumption rate.
+     * The caller only goes to the database when the cache is exhausted before the refill completes.
+     *
+     * @since 4.2
+     */
+    protected Long prefetchedPk(DataNode node, DbEntity entity, long cacheSize) throws Exception {
+        PkPrefetchState state = pkPrefetchStates.get(entity.getName());
+        if (state == null) {
+            state = new PkPrefetchState();
+            PkPrefetchState previousState = pkPrefetchStates.putIfAbsent(entity.getName(), state);
+            if (previousState != null) {
+                state = previousState;
+            }
+        }
+
+        Long value = state.poll();
+        if (value == null) {
+            // refill didn't keep up, fetch a range in the caller transaction as the non-prefetching cache does
+            value = longPkFromDatabase(node, entity);
+            state.addRange(value + 1, cacheSize - 1);
+        }
+
+        if (state.available.get() <= state.lowWaterMark(cacheSize)) {
+            scheduleRefill(node, entity, cacheSize, state);
+        }
+
+        return value;
+    }
+
+    private void scheduleRefill(DataNode node, DbEntity entity, long cacheSize, PkPrefetchState state) {
+        // single refill per entity at a time
+        if (!state.refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        int ranges = state.nextRanges(pkPrefetchMaxRanges);
+        try {
+            state.refill = pkPrefetchExecutor.submit(() -> {
+                try {
+                    // no transaction is bound to the executor thread, so keys are generated on a separate connection,
+                    // and are not lost if the transaction of the caller is rolled back
+                    List<Long> starts = longPksFromDatabase(node, entity, ranges);
+
+                    // generator was reset while the keys were fetched, drop them together with the rest of the cache
+                    if (state.discarded) {
+                        return;
+                    }
+
+                    for (long start : starts) {
+                        state.addRange(start, cacheSize);
+                    }
+                } catch (Exception e) {
+                    if (!state.discarded) {
+                        LOGGER.warn("Error prefetching PK for entity '{}'", entity.getName(), e);
+                    }
+                } finally {
+                    state.refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            state.refilling.set(false);
+        }
+    }
+
     @Override
     public void setAdapter(DbAdapter adapter) {
         this.adapter = (JdbcAdapter) adapter;
@@ -278,6 +388,21 @@ public class JdbcPkGenerator implements PkGenerator {
         return observer.getId();
     }
 
+    /**
+     * Fetches a number of key ranges at once, returning the first key of each range. Used by the background PK
+     * prefetch. Default implementation calls {@link #longPkFromDatabase(DataNode, DbEntity)} for each range,
+     * subclasses may override it to fetch all the ranges in a single roundtrip.
+     *
+     * @since 4.2
+     */
+    protected List<Long> longPksFromDatabase(DataNode node, DbEntity entity, int count) throws Exception {
+        List<Long> starts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            starts.add(longPkFromDatabase(node, entity));
+        }
+        return starts;
+    }
+
     /**
      * Returns a size of the entity primary key cache. Default value is 20. If
      * cache size is set to a value less or equals than "one", no primary key
@@ -303,6 +428,63 @@ public class JdbcPkGenerator implements PkGenerator {
         this.pkCacheSize = (pkCacheSize < 1) ? 1 : pkCacheSize;
     }
 
+    /**
+     * Returns whether the entity primary key caches are refilled in background before they are exhausted.
+     *
+     * @since 4.2
+     */
+    public boolean isPkPrefetch() {
+        return pkPrefetch;
+    }
+
+    /**
+     * Enables or disables background refill of the entity primary key caches. When enabled, keys are generated
+     * outside of the caller transaction, and the number of cached keys grows with the key consumption rate, up to
+     * "pkPrefetchMaxRanges" ranges of "pkCacheSize" keys. Note that this may create bigger gaps in the primary key
+     * sequences in cases like application restarts. Disabled by default. Refill only happens if a
+     * "pkPrefetchExecutor" is set.
+     *
+     * @since 4.2
+     */
+    public void setPkPrefetch(boolean pkPrefetch) {
+        this.pkPrefetch = pkPrefetch;
+    }
+
+    /**
+     * @since 4.2
+     */
+    public int getPkPrefetchMaxRanges() {
+        return pkPrefetchMaxRanges;
+    }
+
+    /**
+     * Sets the max number of key ranges fetched by a single background refill. If the value is less than 1, it is
+     * set to "one".
+     *
+     * @since 4.2
+     */
+    public void setPkPrefetchMaxRanges(int pkPrefetchMaxRanges) {
+        this.pkPrefetchMaxRanges = (pkPrefetchMaxRanges < 1) ? 1 : pkPrefetchMaxRanges;
+    }
+
+    /**
+     * @since 4.2
+     */
+    public ExecutorService getPkPrefetchExecutor() {
+        return pkPrefetchExecutor;
+    }
+
+    /**
+     * Sets an executor that runs background refills of the entity primary key caches. The executor is owned by
+     * the caller, which is responsible for its shutdown. {@link org.apache.cayenne.configuration.server.DefaultDbAdapterFactory}
+     * sets an executor bound to the lifecycle of the Cayenne runtime.
+     *
+     * @since 4.2
+     */
+    public void setPkPrefetchExecutor(ExecutorService pkPrefetchExecutor) {
+        this.pkPrefetchExecutor = pkPrefetchExecutor;
+    }
+
     long getPkStartValue() {
         return pkStartValue;
     }
@@ -313,6 +495,81 @@ public class JdbcPkGenerator implements PkGenerator {
 
     public void reset() {
         pkCache.clear();
+
+        // cancel refills that haven't started yet and make the running ones discard their keys. Running refills are
+        // not interrupted, as interrupting a JDBC call may leave its connection in a broken state
+        for (PkPrefetchState state : pkPrefetchStates.values()) {
+            state.discarded = true;
+            Future<?> refill = state.refill;
+            if (refill != null) {
+                refill.cancel(false);
+            }
+        }
+        pkPrefetchStates.clear();
+    }
+
+    /**
+     * Prefetched keys of a single entity.
+     *
+     * @since 4.2
+     */
+    protected static class PkPrefetchState {
+
+        final Queue<Long> pks = new ConcurrentLinkedQueue<>();
+
+        // tracked separately, as the size of the queue is not a constant time operation
+        final AtomicLong available = new AtomicLong();
+        final AtomicBoolean refilling = new AtomicBoolean();
+        final AtomicInteger ranges = new AtomicInteger(1);
+
+        volatile long lastRefillNanos;
+        volatile Future<?> refill;
+
+        // set on reset, when the state is no longer used by the generator
+        volatile boolean discarded;
+
+        Long poll() {
+            Long value = pks.poll();
+            if (value != null) {
+                available.decrementAndGet();
+            }
+            return value;
+        }
+
+        void addRange(long start, long size) {
+            for (long i = start; i < start + size; i++) {
+                pks.add(i);
+            }
+            available.addAndGet(size);
+        }
+
+        long lowWaterMark(long cacheSize) {
+            // refill when half of the last refill is consumed
+            return Math.max(1, ranges.get() * cacheSize / 2);
+        }
+
+        /**
+         * Returns the number of ranges for the next refill, adjusted to the time since the last refill.
+         */
+        int nextRanges(int maxRanges) {
+            long now = System.nanoTime();
+            long last = lastRefillNanos;
+            lastRefillNanos = now;
+
+            int current = ranges.get();
+            int next = current;
+            if (last != 0) {
+                long elapsed = now - last;
+                if (elapsed < PREFETCH_TARGET_INTERVAL_NANOS) {
+                    next = Math.min(current * 2, maxRanges);
+                } else if (elapsed > 4 * PREFETCH_TARGET_INTERVAL_NANOS) {
+                    next = Math.max(current / 2, 1);
+                }
+            }
+
+            ranges.set(next);
+            return next;
+        }
     }
 
     /**
@@ -0,0 +1,51 @@
+/*****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.dba;
+
+/**
+ * Flavors of the "insert or update" statement supported by the databases.
+ *
+ * @see DbAdapter#getUpsertSyntax()
+ * @since 4.2
+ */
+public enum UpsertSyntax {
+
+    /**
+     * {@code INSERT INTO T (...) VALUES (...) ON CONFLICT (KEY) DO UPDATE SET A = EXCLUDED.A}, used by PostgreSQL
+     * and SQLite.
+     */
+    ON_CONFLICT,
+
+    /**
+     * {@code INSERT INTO T (...) VALUES (...) ON DUPLICATE KEY UPDATE A = VALUES(A)}, used by MySQL.
+     */
+    ON_DUPLICATE_KEY,
+
+    /**
+     * SQL standard {@code MERGE INTO T USING (VALUES (...)) AS S (...) ON (...) WHEN MATCHED THEN UPDATE ...
+     * WHEN NOT MATCHED THEN INSERT ...}, used by HSQLDB and DB2.
+     */
+    MERGE,
+
+    /**
+     * {@code MERGE INTO T (...) KEY (...) VALUES (...)}, used by H2.
+     */
+    MERGE_KEY
+}
@@ -52,6 +52,15 @@ public class DerbyPkGenerator extends OraclePkGenerator {
         return "VALUES (NEXT VALUE FOR " + pkGeneratingSequenceName + ")";
     }
 
+    /**
+     * @since 4.2
+     */
+    @Override
+    protected String selectNextValsQuery(String pkGeneratingSequenceName, int count) {
+        // no single statement syntax, values are selected one by one
+        return null;
+    }
+
     @Override
     protected String selectAllSequencesQuery() {
         return "SELECT SEQUENCENAME FROM SYS.SYSSEQUENCES";
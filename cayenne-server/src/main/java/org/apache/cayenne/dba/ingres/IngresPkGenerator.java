@@ -46,6 +46,15 @@ public class IngresPkGenerator extends OraclePkGenerator {
         return "SELECT " + sequenceName + ".nextval";
     }
 
+    /**
+     * @since 4.2
+     */
+    @Override
+    protected String selectNextValsQuery(String sequenceName, int count) {
+        // no single statement syntax, values are selected one by one
+        return null;
+    }
+
     @Override
     protected String selectAllSequencesQuery() {
         return "SELECT seq_name FROM iisequences WHERE seq_owner != 'DBA'";
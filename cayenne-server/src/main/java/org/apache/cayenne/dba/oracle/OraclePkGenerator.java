@@ -145,6 +145,16 @@ public class OraclePkGenerator extends JdbcPkGenerator {
         return "SELECT " + pkGeneratingSequenceName + ".nextval FROM DUAL";
     }
 
+    /**
+     * Returns a query that selects the given number of the next sequence values in a single roundtrip, or null if
+     * there is no such syntax, in which case values are selected one by one.
+     *
+     * @since 4.2
+     */
+    protected String selectNextValsQuery(String pkGeneratingSequenceName, int count) {
+        return "SELECT " + pkGeneratingSequenceName + ".nextval FROM DUAL CONNECT BY LEVEL <= " + count;
+    }
+
     protected String selectAllSequencesQuery() {
         return "SELECT LOWER(SEQUENCE_NAME) FROM ALL_SEQUENCES";
     }
@@ -162,18 +172,9 @@ public class OraclePkGenerator extends JdbcPkGenerator {
     @Override
     protected long longPkFromDatabase(DataNode node, DbEntity entity) throws Exception {
 
-        DbKeyGenerator pkGenerator = entity.getPrimaryKeyGenerator();
-        String pkGeneratingSequenceName;
-        if (pkGenerator != null && DbKeyGenerator.ORACLE_TYPE.equals(pkGenerator.getGeneratorType())
-                && pkGenerator.getGeneratorName() != null) {
-            pkGeneratingSequenceName = pkGenerator.getGeneratorName();
-        } else {
-            pkGeneratingSequenceName = sequenceName(entity);
-        }
-
         try (Connection con = node.getDataSource().getConnection()) {
             try (Statement st = con.createStatement()) {
-                String sql = selectNextValQuery(pkGeneratingSequenceName);
+                String sql = selectNextValQuery(pkGeneratingSequenceName(entity));
                 adapter.getJdbcEventLogger().log(sql);
 
                 try (ResultSet rs = st.executeQuery(sql)) {
@@ -186,6 +187,48 @@ public class OraclePkGenerator extends JdbcPkGenerator {
         }
     }
 
+    /**
+     * Selects a number of the next sequence values in a single query, if supported by the database. As the sequence
+     * is incremented by the key cache size, each value is a start of a separate key range.
+     *
+     * @since 4.2
+     */
+    @Override
+    protected List<Long> longPksFromDatabase(DataNode node, DbEntity entity, int count) throws Exception {
+        String sql = count > 1 ? selectNextValsQuery(pkGeneratingSequenceName(entity), count) : null;
+        if (sql == null) {
+            return super.longPksFromDatabase(node, entity, count);
+        }
+
+        try (Connection con = node.getDataSource().getConnection()) {
+            try (Statement st = con.createStatement()) {
+                adapter.getJdbcEventLogger().log(sql);
+
+                List<Long> starts = new ArrayList<>(count);
+                try (ResultSet rs = st.executeQuery(sql)) {
+                    while (rs.next()) {
+                        starts.add(rs.getLong(1));
+                    }
+                }
+
+                if (starts.isEmpty()) {
+                    throw new CayenneRuntimeException("Error generating pk for DbEntity %s", entity.getName());
+                }
+                return starts;
+            }
+        }
+    }
+
+    private String pkGeneratingSequenceName(DbEntity entity) {
+        DbKeyGenerator pkGenerator = entity.getPrimaryKeyGenerator();
+        if (pkGenerator != null && DbKeyGenerator.ORACLE_TYPE.equals(pkGenerator.getGeneratorType())
+                && pkGenerator.getGeneratorName() != null) {
+            return pkGenerator.getGeneratorName();
+        } else {
+            return sequenceName(entity);
+        }
+    }
+
     protected int pkCacheSize(DbEntity entity) {
         // use custom generator if possible
         DbKeyGenerator keyGenerator = entity.getPrimaryKeyGenerator();
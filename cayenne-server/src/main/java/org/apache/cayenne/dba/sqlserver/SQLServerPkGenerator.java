@@ -76,6 +76,15 @@ public class SQLServerPkGenerator extends OraclePkGenerator {
         return "SELECT NEXT VALUE FOR " + sequenceName;
     }
 
+    /**
+     * @since 4.2
+     */
+    @Override
+    protected String selectNextValsQuery(String sequenceName, int count) {
+        // no single statement syntax, values are selected one by one
+        return null;
+    }
+
     @Override
     public List<String> createAutoPkStatements(List<DbEntity> dbEntities) {
         List<String> list = new ArrayList<>(dbEntities.size());
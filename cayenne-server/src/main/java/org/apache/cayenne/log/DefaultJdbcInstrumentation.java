@@ -0,0 +1,77 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.log;
+
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.util.JfrUtil;
+
+/**
+ * Default {@link JdbcInstrumentation}, that reports JDBC operations as JDK Flight Recorder events in the
+ * "Cayenne/JDBC" category, and records statement statistics in the {@link QueryStatsRegistry}. JFR events are only
+ * produced if JFR is available in the runtime JVM, and statistics are only collected if the registry is enabled.
+ *
+ * @since 4.2
+ */
+public class DefaultJdbcInstrumentation implements JdbcInstrumentation {
+
+    private final QueryStatsRegistry statsRegistry;
+    private final JdbcInstrumentation jfr;
+
+    public DefaultJdbcInstrumentation(@Inject QueryStatsRegistry statsRegistry) {
+        this.statsRegistry = statsRegistry;
+        this.jfr = JfrUtil.isAvailable() ? new JfrJdbcInstrumentation() : NOOP;
+    }
+
+    @Override
+    public void connectionAcquired(DataNode node, long durationNanos) {
+        jfr.connectionAcquired(node, durationNanos);
+    }
+
+    @Override
+    public Object statementStarted(DataNode node, boolean batch) {
+        return jfr.statementStarted(node, batch);
+    }
+
+    @Override
+    public void statementExecuted(Object statement) {
+        jfr.statementExecuted(statement);
+    }
+
+    @Override
+    public void selectExecuted(DataNode node, Object statement, String sql, long executeNanos, long fetchNanos,
+                               int rows) {
+        jfr.selectExecuted(node, statement, sql, executeNanos, fetchNanos, rows);
+        statsRegistry.record(sql, executeNanos + fetchNanos, rows);
+    }
+
+    @Override
+    public void updateExecuted(DataNode node, Object statement, String sql, long durationNanos, int rows) {
+        jfr.updateExecuted(node, statement, sql, durationNanos, rows);
+        statsRegistry.record(sql, durationNanos, rows);
+    }
+
+    @Override
+    public void batchExecuted(DataNode node, Object statement, String sql, long durationNanos, int batchSize,
+                              int rows) {
+        jfr.batchExecuted(node, statement, sql, durationNanos, batchSize, rows);
+        statsRegistry.record(sql, durationNanos, rows);
+    }
+}
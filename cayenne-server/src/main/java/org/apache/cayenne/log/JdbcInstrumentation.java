@@ -0,0 +1,91 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.log;
+
+import org.apache.cayenne.access.DataNode;
+
+/**
+ * A service notified about JDBC operations of a {@link DataNode}, intended for low-overhead profiling. Unlike
+ * {@link JdbcEventLogger}, it receives execution times and row counts of the statements instead of the SQL
+ * parameters. Methods are called on the thread that runs the query, so implementations must be thread-safe and
+ * should return quickly.
+ *
+ * @since 4.2
+ */
+public interface JdbcInstrumentation {
+
+    JdbcInstrumentation NOOP = new JdbcInstrumentation() {};
+
+    /**
+     * Reports a connection obtained from the DataNode DataSource.
+     */
+    default void connectionAcquired(DataNode node, long durationNanos) {
+    }
+
+    /**
+     * Called right before a statement or a batch is executed. The returned object is passed back to
+     * {@link #statementExecuted(Object)} and to the method reporting the statement, allowing implementations to
+     * measure the execution itself, e.g. with JFR events spanning it. Default implementation returns null.
+     *
+     * @param batch whether a JDBC batch or a multi-row statement is executed
+     */
+    default Object statementStarted(DataNode node, boolean batch) {
+        return null;
+    }
+
+    /**
+     * Called right after a select statement is executed, before its result is read.
+     *
+     * @param statement an object returned from {@link #statementStarted(DataNode, boolean)}
+     */
+    default void statementExecuted(Object statement) {
+    }
+
+    /**
+     * Reports a select statement. Called after the result is read, or after the iterator of the result is closed
+     * for the iterated queries, in which case the fetch time includes the time of the result processing.
+     *
+     * @param statement an object returned from {@link #statementStarted(DataNode, boolean)}
+     * @param executeNanos time of the statement execution
+     * @param fetchNanos time of reading the result rows
+     * @param rows number of the fetched rows
+     */
+    default void selectExecuted(DataNode node, Object statement, String sql, long executeNanos, long fetchNanos, int rows) {
+    }
+
+    /**
+     * Reports a single update statement.
+     *
+     * @param statement an object returned from {@link #statementStarted(DataNode, boolean)}
+     * @param rows number of the updated rows as reported by the driver
+     */
+    default void updateExecuted(DataNode node, Object statement, String sql, long durationNanos, int rows) {
+    }
+
+    /**
+     * Reports a JDBC batch or a multi-row statement.
+     *
+     * @param statement an object returned from {@link #statementStarted(DataNode, boolean)}
+     * @param batchSize number of the rows in the batch
+     * @param rows total number of the updated rows, or a negative number if the driver didn't report it
+     */
+    default void batchExecuted(DataNode node, Object statement, String sql, long durationNanos, int batchSize, int rows) {
+    }
+}
@@ -0,0 +1,52 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.log;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * @since 4.2
+ */
+@Name("org.apache.cayenne.JdbcStatement")
+@Label("JDBC Statement")
+@Category({"Cayenne", "JDBC"})
+@Description("Select or update statement executed by a DataNode")
+class JdbcStatementEvent extends Event {
+
+    @Label("Data Node")
+    String dataNode;
+
+    @Label("SQL Fingerprint")
+    @Description("Statement SQL with literals replaced with parameters and repeated parameter lists collapsed")
+    String fingerprint;
+
+    @Label("Execution Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executionTime;
+
+    @Label("Update Count")
+    @Description("Number of the updated rows, or -1 for selects")
+    int updateCount;
+}
@@ -0,0 +1,166 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.log;
+
+import java.util.function.Supplier;
+
+import jdk.jfr.Event;
+
+import org.apache.cayenne.access.DataNode;
+
+/**
+ * Instrumentation producing JFR events. Must only be loaded if JFR is available. Statement, batch and fetch events
+ * span the corresponding JDBC operations, from {@link #statementStarted(DataNode, boolean)} to the reporting of the
+ * operation. Connection events are committed after the connection is obtained, so their own duration is zero, and
+ * the measured time is stored in the event fields. SQL fingerprint is only calculated if the event is enabled in the
+ * running recording.
+ *
+ * @since 4.2
+ */
+class JfrJdbcInstrumentation implements JdbcInstrumentation {
+
+    @Override
+    public void connectionAcquired(DataNode node, long durationNanos) {
+        JdbcConnectionEvent event = new JdbcConnectionEvent();
+        if (event.isEnabled()) {
+            event.dataNode = node.getName();
+            event.checkoutTime = durationNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object statementStarted(DataNode node, boolean batch) {
+        Event event = batch ? new JdbcBatchEvent() : new JdbcStatementEvent();
+        event.begin();
+        return new JfrStatement(event);
+    }
+
+    @Override
+    public void statementExecuted(Object statement) {
+        if (statement instanceof JfrStatement) {
+            ((JfrStatement) statement).executed();
+        }
+    }
+
+    @Override
+    public void selectExecuted(DataNode node, Object statement, String sql, long executeNanos, long fetchNanos,
+                               int rows) {
+        String fingerprint = null;
+
+        JdbcStatementEvent statementEvent = event(statement, JdbcStatementEvent.class, JdbcStatementEvent::new);
+        if (statementEvent.isEnabled()) {
+            fingerprint = QueryStatsRegistry.normalize(sql);
+            statementEvent.dataNode = node.getName();
+            statementEvent.fingerprint = fingerprint;
+            statementEvent.executionTime = executeNanos;
+            statementEvent.updateCount = -1;
+            statementEvent.commit();
+        }
+
+        JdbcFetchEvent fetchEvent = event(statement, JdbcFetchEvent.class, JdbcFetchEvent::new);
+        if (fetchEvent.isEnabled()) {
+            fetchEvent.end();
+            fetchEvent.dataNode = node.getName();
+            fetchEvent.fingerprint = fingerprint != null ? fingerprint : QueryStatsRegistry.normalize(sql);
+            fetchEvent.fetchTime = fetchNanos;
+            fetchEvent.rows = rows;
+            fetchEvent.commit();
+        }
+    }
+
+    @Override
+    public void updateExecuted(DataNode node, Object statement, String sql, long durationNanos, int rows) {
+        JdbcStatementEvent event = event(statement, JdbcStatementEvent.class, JdbcStatementEvent::new);
+        if (event.isEnabled()) {
+            event.end();
+            event.dataNode = node.getName();
+            event.fingerprint = QueryStatsRegistry.normalize(sql);
+            event.executionTime = durationNanos;
+            event.updateCount = rows;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void batchExecuted(DataNode node, Object statement, String sql, long durationNanos, int batchSize,
+                              int rows) {
+        JdbcBatchEvent event = event(statement, JdbcBatchEvent.class, JdbcBatchEvent::new);
+        if (event.isEnabled()) {
+            event.end();
+            event.dataNode = node.getName();
+            event.fingerprint = QueryStatsRegistry.normalize(sql);
+            event.executionTime = durationNanos;
+            event.batchSize = batchSize;
+            event.rowsAffected = rows;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns an event begun for the statement, or a new event with zero duration if there is none, e.g. if a single
+     * SQLTemplate execution produces multiple results.
+     */
+    private static <T extends Event> T event(Object statement, Class<T> type, Supplier<T> newEvent) {
+        if (statement instanceof JfrStatement) {
+            Event event = ((JfrStatement) statement).take(type);
+            if (event != null) {
+                return type.cast(event);
+            }
+        }
+
+        return newEvent.get();
+    }
+
+    /**
+     * Events of a single statement, begun before the statement execution. Each event is committed at most once.
+     */
+    static final class JfrStatement {
+
+        private Event executionEvent;
+        private JdbcFetchEvent fetchEvent;
+
+        JfrStatement(Event executionEvent) {
+            this.executionEvent = executionEvent;
+        }
+
+        void executed() {
+            if (executionEvent != null) {
+                executionEvent.end();
+            }
+
+            // result fetch starts once the statement is executed
+            fetchEvent = new JdbcFetchEvent();
+            fetchEvent.begin();
+        }
+
+        Event take(Class<? extends Event> type) {
+            Event event = null;
+            if (type.isInstance(executionEvent)) {
+                event = executionEvent;
+                executionEvent = null;
+            } else if (type.isInstance(fetchEvent)) {
+                event = fetchEvent;
+                fetchEvent = null;
+            }
+            return event;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.log;
+
+/**
+ * Immutable snapshot of the execution statistics of a single statement, collected by the
+ * {@link QueryStatsRegistry}.
+ *
+ * @since 4.2
+ */
+public class QueryStats {
+
+    private final String sql;
+    private final long count;
+    private final long totalTimeNanos;
+    private final long p50TimeNanos;
+    private final long p99TimeNanos;
+    private final long rows;
+
+    public QueryStats(String sql, long count, long totalTimeNanos, long p50TimeNanos, long p99TimeNanos, long rows) {
+        this.sql = sql;
+        this.count = count;
+        this.totalTimeNanos = totalTimeNanos;
+        this.p50TimeNanos = p50TimeNanos;
+        this.p99TimeNanos = p99TimeNanos;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns normalized SQL of the statement.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Returns the number of the statement executions.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalTimeNanos() {
+        return totalTimeNanos;
+    }
+
+    public long getAverageTimeNanos() {
+        return count > 0 ? totalTimeNanos / count : 0;
+    }
+
+    /**
+     * Returns the approximate median execution time.
+     */
+    public long getP50TimeNanos() {
+        return p50TimeNanos;
+    }
+
+    /**
+     * Returns the approximate 99th percentile of the execution time.
+     */
+    public long getP99TimeNanos() {
+        return p99TimeNanos;
+    }
+
+    /**
+     * Returns the total number of the fetched or updated rows.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public double getRowsPerCall() {
+        return count > 0 ? (double) rows / count : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryStats{sql='" + sql + "', count=" + count + ", p50=" + p50TimeNanos + "ns, p99="
+                + p99TimeNanos + "ns, rowsPerCall=" + getRowsPerCall() + '}';
+    }
+}
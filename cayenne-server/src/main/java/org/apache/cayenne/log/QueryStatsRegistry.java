@@ -0,0 +1,252 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.log;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.util.TimeHistogram;
+
+/**
+ * In-memory registry of the statement execution statistics, keyed by normalized SQL. For each distinct statement
+ * it keeps the number of calls, total execution time, latency percentiles and the number of rows. Statistics are
+ * only collected if the registry is enabled with {@link Constants#SERVER_QUERY_STATS_PROPERTY}. The number of the
+ * tracked statements is limited, and statements that don't fit in the registry are ignored.
+ *
+ * @since 4.2
+ */
+public class QueryStatsRegistry {
+
+    static final int MAX_STATEMENTS = 1000;
+
+    // latencies are tracked in microseconds up to an hour, with the percentile error within 12.5%
+    static final long MAX_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+    static final int LATENCY_SUB_BUCKETS = 8;
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern ROW_LIST = Pattern.compile("\\(\\?\\)(?:\\s*,\\s*\\(\\?\\))+");
+
+    private final boolean enabled;
+
+    // keyed by normalized SQL
+    private final ConcurrentMap<String, Entry> entries;
+
+    // the same entries keyed by the original SQL, to avoid normalizing SQL on each call
+    private final ConcurrentMap<String, Entry> entriesBySql;
+
+    public QueryStatsRegistry(@Inject RuntimeProperties properties) {
+        this(properties.getBoolean(Constants.SERVER_QUERY_STATS_PROPERTY, false));
+    }
+
+    public QueryStatsRegistry(boolean enabled) {
+        this.enabled = enabled;
+        this.entries = new ConcurrentHashMap<>();
+        this.entriesBySql = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns SQL with string and numeric literals replaced with "?", whitespace collapsed, and repeated parameter
+     * lists, e.g. in "IN (?, ?, ?)" or in multi-row VALUES, collapsed to a single element. Statements that only
+     * differ in literals or in the number of parameters have the same normalized SQL.
+     */
+    public static String normalize(String sql) {
+        int len = sql.length();
+        StringBuilder out = new StringBuilder(len);
+
+        int i = 0;
+        while (i < len) {
+            char c = sql.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                while (i < len && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0 && i < len) {
+                    out.append(' ');
+                }
+            } else if (c == '\'') {
+                // string literal, quotes inside are escaped by doubling them
+                i++;
+                while (i < len) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < len && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+            } else if (c == '"' || c == '`') {
+                // quoted identifier is copied as is
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? len : end + 1;
+                out.append(sql, i, end);
+                i = end;
+            } else if (Character.isDigit(c) && !endsWithIdentifier(out)) {
+                while (i < len && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+
+        String normalized = PARAMETER_LIST.matcher(out).replaceAll("?");
+        return ROW_LIST.matcher(normalized).replaceAll("(?)");
+    }
+
+    private static boolean endsWithIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+
+        char c = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a single execution of the statement. Does nothing if the registry is disabled.
+     *
+     * @param rows number of the fetched or updated rows, negative values are ignored
+     */
+    public void record(String sql, long durationNanos, int rows) {
+        if (!enabled) {
+            return;
+        }
+
+        Entry entry = entriesBySql.get(sql);
+        if (entry == null) {
+            entry = entry(sql);
+            if (entry == null) {
+                return;
+            }
+        }
+
+        entry.record(durationNanos, rows);
+    }
+
+    private Entry entry(String sql) {
+        String normalized = normalize(sql);
+        Entry entry = entries.get(normalized);
+        if (entry == null) {
+            if (entries.size() >= MAX_STATEMENTS) {
+                return null;
+            }
+
+            entry = entries.computeIfAbsent(normalized, Entry::new);
+        }
+
+        if (entriesBySql.size() < MAX_STATEMENTS) {
+            entriesBySql.putIfAbsent(sql, entry);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Returns statistics of all the tracked statements, sorted by the total execution time, longest first.
+     */
+    public List<QueryStats> getStats() {
+        List<QueryStats> stats = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            stats.add(entry.toStats());
+        }
+
+        stats.sort(Comparator.comparingLong(QueryStats::getTotalTimeNanos).reversed());
+        return stats;
+    }
+
+    /**
+     * Returns statistics of a statement, or null if the statement was never recorded. SQL is normalized before
+     * lookup, so it doesn't have to match the recorded SQL exactly.
+     */
+    public QueryStats getStats(String sql) {
+        Entry entry = entries.get(normalize(sql));
+        return entry != null ? entry.toStats() : null;
+    }
+
+    /**
+     * Removes statistics of all the statements.
+     */
+    public void clear() {
+        entriesBySql.clear();
+        entries.clear();
+    }
+
+    static class Entry {
+
+        final String sql;
+        final LongAdder count;
+        final LongAdder totalTime;
+        final LongAdder rows;
+        final TimeHistogram histogram;
+
+        Entry(String sql) {
+            this.sql = sql;
+            this.count = new LongAdder();
+            this.totalTime = new LongAdder();
+            this.rows = new LongAdder();
+            this.histogram = TimeHistogram.logLinear(TimeUnit.MICROSECONDS, MAX_LATENCY_MICROS, LATENCY_SUB_BUCKETS);
+        }
+
+        void record(long durationNanos, int rows) {
+            count.increment();
+            totalTime.add(durationNanos);
+            if (rows > 0) {
+                this.rows.add(rows);
+            }
+            histogram.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        long percentileNanos(double percentile) {
+            // a percentile can't be above the max, which also handles the unbounded last bucket
+            long bound = Math.min(histogram.getPercentileBound(percentile), histogram.getMax());
+            return TimeUnit.MICROSECONDS.toNanos(bound);
+        }
+
+        QueryStats toStats() {
+            return new QueryStats(
+                    sql,
+                    count.sum(),
+                    totalTime.sum(),
+                    percentileNanos(0.5),
+                    percentileNanos(0.99),
+                    rows.sum());
+        }
+    }
+}
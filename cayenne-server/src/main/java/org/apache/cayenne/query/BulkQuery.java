@@ -0,0 +1,188 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.map.ObjEntity;
+
+/**
+ * Base class for {@link ObjectUpdate} and {@link ObjectDelete}, the queries that modify all rows of an entity
+ * matching a qualifier with a single set-based SQL statement, without fetching the objects first.
+ * <p>
+ * As the rows are modified bypassing the object graph, no delete rules, validation or lifecycle callbacks are
+ * applied. Once the query is executed, all objects of the affected entities registered in the context and their
+ * cached snapshots are invalidated, so they are refreshed on the next access. Query cache is not affected, unless
+ * cache invalidation module is used, that removes cache groups of the modified entities.
+ *
+ * @since 4.2
+ */
+public abstract class BulkQuery<T> extends AbstractQuery {
+
+    private static final long serialVersionUID = 2985213398826934640L;
+
+    // root
+    protected Class<?> entityType;
+    protected String entityName;
+
+    // expected type of the entity objects, when the root is set by name
+    protected Class<?> resultType;
+
+    protected Expression where;
+
+    protected BaseQueryMetadata metaData = new BaseQueryMetadata();
+
+    protected BulkQuery() {
+    }
+
+    protected Object resolveRoot(EntityResolver resolver) {
+        if (entityType != null) {
+            return entityType;
+        }
+
+        if (entityName != null) {
+            ObjEntity entity = resolver.getObjEntity(entityName);
+            if (entity == null) {
+                throw new CayenneRuntimeException("Unrecognized ObjEntity name: %s", entityName);
+            }
+            if (resultType != null
+                    && !resultType.isAssignableFrom(resolver.getClassDescriptor(entityName).getObjectClass())) {
+                throw new CayenneRuntimeException("Objects of the entity '%s' are not of the expected type %s",
+                        entityName, resultType.getName());
+            }
+            return entity;
+        }
+
+        throw new CayenneRuntimeException("Undefined root entity of the query");
+    }
+
+    @Override
+    public QueryMetadata getMetaData(EntityResolver resolver) {
+        metaData.resolve(resolveRoot(resolver), resolver);
+        return metaData;
+    }
+
+    @Override
+    protected BaseQueryMetadata getBaseMetaData() {
+        return metaData;
+    }
+
+    @Override
+    public SQLAction createSQLAction(SQLActionVisitor visitor) {
+        return visitor.bulkAction(this);
+    }
+
+    public Class<?> getEntityType() {
+        return entityType;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * Returns the expected type of the entity objects, checked against the entity set by name.
+     */
+    public Class<?> getResultType() {
+        return resultType;
+    }
+
+    /**
+     * Returns a WHERE clause Expression of this query.
+     */
+    public Expression getWhere() {
+        return where;
+    }
+
+    /**
+     * AND's provided expressions to the existing WHERE clause expression.
+     */
+    protected void appendWhere(Collection<Expression> expressions) {
+        if (expressions == null || expressions.isEmpty()) {
+            return;
+        }
+
+        List<Expression> all = new ArrayList<>(expressions.size() + 1);
+        if (where != null) {
+            all.add(where);
+        }
+        all.addAll(expressions);
+        where = ExpressionFactory.and(all);
+    }
+
+    /**
+     * OR's provided expressions to the existing WHERE clause expression.
+     */
+    protected void appendOrWhere(Collection<Expression> expressions) {
+        if (expressions == null || expressions.isEmpty()) {
+            return;
+        }
+
+        List<Expression> all = new ArrayList<>(expressions.size() + 1);
+        if (where != null) {
+            all.add(where);
+        }
+        all.addAll(expressions);
+        where = ExpressionFactory.or(all);
+    }
+
+    /**
+     * Runs the query in the provided context, invalidates affected objects and returns the number of modified rows.
+     */
+    protected int execute(ObjectContext context) {
+        int[] counts = context.performGenericQuery(this).firstUpdateCount();
+        if (counts == null || counts.length != 1) {
+            throw new CayenneRuntimeException("Expected a single update result for query %s", this);
+        }
+
+        invalidateObjects(context);
+        return counts[0];
+    }
+
+    /**
+     * Invalidates objects and snapshots of all entities mapped to the same table as the root of this query.
+     */
+    protected void invalidateObjects(ObjectContext context) {
+        if (!(context instanceof DataContext)) {
+            return;
+        }
+
+        EntityResolver resolver = context.getEntityResolver();
+        DbEntity dbEntity = getMetaData(resolver).getDbEntity();
+
+        Collection<String> entityNames = new ArrayList<>();
+        for (ObjEntity entity : resolver.getObjEntities()) {
+            if (entity.getDbEntity() == dbEntity) {
+                entityNames.add(entity.getName());
+            }
+        }
+
+        ((DataContext) context).getObjectStore().invalidateEntities(entityNames);
+    }
+}
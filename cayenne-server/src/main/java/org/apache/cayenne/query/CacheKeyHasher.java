@@ -0,0 +1,117 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.query;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.cayenne.CayenneRuntimeException;
+
+/**
+ * Streaming SHA-256 digest of a query cache key. Parts of the key are appended the same way they would be appended
+ * to a {@link StringBuilder}, but instead of being stored, UTF-16 chars of the appended strings are fed into the
+ * digest right away, so the size of the resulting key doesn't depend on the size of the query (e.g. on the number of
+ * values in an "IN" list). A cryptographic digest is used, as different queries with the same key would share
+ * their cached results.
+ *
+ * @since 4.2
+ */
+final class CacheKeyHasher {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final MessageDigest digest;
+
+    // chars are collected in this buffer before they are passed to the digest
+    private final byte[] buffer;
+    private int position;
+
+    private boolean empty;
+
+    CacheKeyHasher() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is supported by every Java platform
+            throw new CayenneRuntimeException("SHA-256 digest is not available", e);
+        }
+        this.buffer = new byte[256];
+        this.empty = true;
+    }
+
+    CacheKeyHasher append(CharSequence chars) {
+        if (chars == null) {
+            return append("null");
+        }
+
+        int len = chars.length();
+        for (int i = 0; i < len; i++) {
+            putChar(chars.charAt(i));
+        }
+        return this;
+    }
+
+    CacheKeyHasher append(Object object) {
+        return append(String.valueOf(object));
+    }
+
+    CacheKeyHasher append(char c) {
+        putChar(c);
+        return this;
+    }
+
+    CacheKeyHasher append(int value) {
+        putChar((char) value);
+        putChar((char) (value >>> 16));
+        return this;
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Returns the digest of all the appended data as a string of 64 hex digits. Resets the state of the hasher.
+     */
+    @Override
+    public String toString() {
+        digest.update(buffer, 0, position);
+        position = 0;
+        empty = true;
+
+        byte[] hash = digest.digest();
+        char[] out = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            out[i * 2] = HEX_DIGITS[(hash[i] >>> 4) & 0xF];
+            out[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xF];
+        }
+        return new String(out);
+    }
+
+    private void putChar(char c) {
+        if (position == buffer.length) {
+            digest.update(buffer, 0, position);
+            position = 0;
+        }
+
+        buffer[position++] = (byte) (c >>> 8);
+        buffer[position++] = (byte) c;
+        empty = false;
+    }
+}
@@ -19,20 +19,28 @@
 
 package org.apache.cayenne.query;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.Persistent;
 import org.apache.cayenne.ResultBatchIterator;
 import org.apache.cayenne.ResultIterator;
 import org.apache.cayenne.ResultIteratorCallback;
+import org.apache.cayenne.ResultPublisher;
+import org.apache.cayenne.access.DataContext;
 import org.apache.cayenne.exp.Expression;
 import org.apache.cayenne.exp.property.Property;
 import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.map.EntityResolver;
 import org.apache.cayenne.map.ObjEntity;
+import org.apache.cayenne.util.ResultIteratorPublisher;
+import org.apache.cayenne.util.ResultIteratorSpliterator;
 
 /**
  * Base class for {@link ObjectSelect} and {@link ColumnSelect}
@@ -180,6 +188,86 @@ public abstract class FluentSelect<T> extends AbstractQuery implements Select<T>
         return context.batchIterator(this, size);
     }
 
+    /**
+     * Returns a lazily evaluated Stream of query results, that reads rows from an open JDBC cursor as they are
+     * requested by the stream. Use {@link ObjectSelect#statementFetchSize(int)} to control how many rows the driver
+     * fetches from the database at once. The cursor is closed when the stream is fully consumed. If the stream may
+     * be abandoned before that, e.g. with short-circuiting operations like "limit" or "findFirst", it must be closed
+     * explicitly, preferably using try-with-resources.
+     *
+     * @since 4.2
+     */
+    public Stream<T> stream(ObjectContext context) {
+        return ResultIteratorSpliterator.stream(iterator(context));
+    }
+
+    /**
+     * Returns a lazily evaluated Stream of query results, same as {@link #stream(ObjectContext)}, but also unregisters
+     * fetched persistent objects from the context in chunks of a given size, so that memory use stays flat
+     * regardless of the number of rows. A chunk is unregistered once the stream has consumed all its objects, before
+     * reading the next row. Unregistered objects become TRANSIENT, so the stream consumer must not keep references
+     * to them for later use. Objects resolved via prefetches are not unregistered.
+     *
+     * @param context   a {@link DataContext} to run the query in
+     * @param chunkSize a number of consumed objects to unregister at once
+     * @since 4.2
+     */
+    public Stream<T> stream(ObjectContext context, int chunkSize) {
+        if (!(context instanceof DataContext)) {
+            throw new IllegalArgumentException("Unregistering streamed objects is only supported for DataContext");
+        }
+
+        DataContext dataContext = (DataContext) context;
+        return ResultIteratorSpliterator.stream(iterator(context), chunkSize, chunk -> unregister(dataContext, chunk));
+    }
+
+    /**
+     * Returns a publisher of query results that runs the query and reads the rows on a default executor, that uses
+     * virtual threads if the JDK supports them. The query is executed once per subscription, and the rows are only
+     * read from the database as the subscriber requests them.
+     *
+     * @see #publisher(ObjectContext, Executor)
+     * @since 4.2
+     */
+    public ResultPublisher<T> publisher(ObjectContext context) {
+        return publisher(context, ResultIteratorPublisher.defaultExecutor());
+    }
+
+    /**
+     * Returns a publisher of query results that runs the query and reads the rows on the provided executor. The query
+     * is executed once per subscription, and the rows are only read from the database as the subscriber requests
+     * them. Up to {@link ObjectSelect#statementFetchSize(int)} rows (or 100 rows if the fetch size is not set) are
+     * emitted in a single executor task. The context must not be used by other threads while the results are being
+     * emitted.
+     *
+     * @since 4.2
+     */
+    public ResultPublisher<T> publisher(ObjectContext context, Executor executor) {
+        return new ResultIteratorPublisher<>(() -> iterator(context), executor, getStatementFetchSize());
+    }
+
+    private static void unregister(DataContext context, List<?> chunk) {
+        List<Persistent> objects = new ArrayList<>(chunk.size());
+
+        for (Object row : chunk) {
+            if (row instanceof Object[]) {
+                for (Object value : (Object[]) row) {
+                    appendRegistered(context, objects, value);
+                }
+            } else {
+                appendRegistered(context, objects, row);
+            }
+        }
+
+        context.unregisterObjects(objects);
+    }
+
+    private static void appendRegistered(DataContext context, List<Persistent> objects, Object value) {
+        if (value instanceof Persistent && ((Persistent) value).getObjectContext() == context) {
+            objects.add((Persistent) value);
+        }
+    }
+
     @Override
     public SQLAction createSQLAction(SQLActionVisitor visitor) {
         return visitor.objectSelectAction(this);
@@ -0,0 +1,178 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.query;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+
+/**
+ * A query that deletes all rows of an entity matching a qualifier with a single DELETE statement, without fetching
+ * and deleting the objects one by one. Qualifier may navigate relationships, matching rows are located via
+ * a subquery in this case. Note that delete rules of the entity relationships are not applied.
+ * <pre>
+ * int deleted = ObjectDelete.query(Painting.class)
+ *         .where(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).eq("Unknown"))
+ *         .delete(context);
+ * </pre>
+ *
+ * @see ObjectUpdate
+ * @since 4.2
+ */
+public class ObjectDelete<T> extends BulkQuery<T> {
+
+    private static final long serialVersionUID = 5226193467239461642L;
+
+    /**
+     * Creates an ObjectDelete that deletes objects of a given persistent class.
+     */
+    public static <T> ObjectDelete<T> query(Class<T> entityType) {
+        return new ObjectDelete<T>().entityType(entityType);
+    }
+
+    /**
+     * Creates an ObjectDelete that deletes objects of a given persistent class matching provided expression.
+     */
+    public static <T> ObjectDelete<T> query(Class<T> entityType, Expression expression) {
+        return new ObjectDelete<T>().entityType(entityType).where(expression);
+    }
+
+    /**
+     * Creates an ObjectDelete that deletes objects of an {@link org.apache.cayenne.map.ObjEntity} determined from
+     * provided "entityName". This form is most often used for generic entities that don't map to a distinct class.
+     * Objects of the entity must be instances of the "resultType", e.g. {@link org.apache.cayenne.DataObject}.
+     */
+    public static <T> ObjectDelete<T> query(Class<T> resultType, String entityName) {
+        return new ObjectDelete<T>().entityName(entityName).resultType(resultType);
+    }
+
+    protected ObjectDelete() {
+    }
+
+    /**
+     * Sets the type of the entity to delete.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> entityType(Class<?> entityType) {
+        this.entityType = entityType;
+        this.entityName = null;
+        this.resultType = null;
+        return this;
+    }
+
+    /**
+     * Sets the {@link org.apache.cayenne.map.ObjEntity} name to delete.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> entityName(String entityName) {
+        this.entityType = null;
+        this.entityName = entityName;
+        return this;
+    }
+
+    /**
+     * Sets the expected type of the objects of the entity set by name. Query execution fails if the entity objects
+     * are not of this type.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> resultType(Class<?> resultType) {
+        this.resultType = resultType;
+        return this;
+    }
+
+    /**
+     * Appends a qualifier expression of this query. An equivalent to {@link #and(Expression...)} that can be used
+     * a syntactic sugar.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> where(Expression expression) {
+        return and(expression);
+    }
+
+    /**
+     * Appends a qualifier expression of this query, using provided expression String and an array of position
+     * parameters. This is an equivalent to calling "and".
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> where(String expressionString, Object... parameters) {
+        return and(ExpressionFactory.exp(expressionString, parameters));
+    }
+
+    /**
+     * AND's provided expressions to the existing WHERE clause expression.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> and(Expression... expressions) {
+        if (expressions != null) {
+            appendWhere(Arrays.asList(expressions));
+        }
+        return this;
+    }
+
+    /**
+     * AND's provided expressions to the existing WHERE clause expression.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> and(Collection<Expression> expressions) {
+        appendWhere(expressions);
+        return this;
+    }
+
+    /**
+     * OR's provided expressions to the existing WHERE clause expression.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> or(Expression... expressions) {
+        if (expressions != null) {
+            appendOrWhere(Arrays.asList(expressions));
+        }
+        return this;
+    }
+
+    /**
+     * OR's provided expressions to the existing WHERE clause expression.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> or(Collection<Expression> expressions) {
+        appendOrWhere(expressions);
+        return this;
+    }
+
+    /**
+     * Executes the query in the provided context, invalidating all objects of the deleted entity registered in it.
+     *
+     * @return the number of deleted rows
+     */
+    public int delete(ObjectContext context) {
+        return execute(context);
+    }
+}
@@ -0,0 +1,204 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.query;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.exp.property.Property;
+
+/**
+ * A query that updates all rows of an entity matching a qualifier with a single UPDATE statement, without fetching
+ * and modifying the objects one by one. Qualifier may navigate relationships, matching rows are located via
+ * a subquery in this case.
+ * <pre>
+ * int updated = ObjectUpdate.query(Artist.class)
+ *         .set(Artist.ARTIST_NAME, "Unknown")
+ *         .where(Artist.PAINTING_ARRAY.dot(Painting.PAINTING_TITLE).like("Untitled%"))
+ *         .update(context);
+ * </pre>
+ *
+ * @see ObjectDelete
+ * @since 4.2
+ */
+public class ObjectUpdate<T> extends BulkQuery<T> {
+
+    private static final long serialVersionUID = -3190727212584375287L;
+
+    protected Map<Property<?>, Object> values;
+
+    /**
+     * Creates an ObjectUpdate that updates objects of a given persistent class.
+     */
+    public static <T> ObjectUpdate<T> query(Class<T> entityType) {
+        return new ObjectUpdate<T>().entityType(entityType);
+    }
+
+    /**
+     * Creates an ObjectUpdate that updates objects of a given persistent class matching provided expression.
+     */
+    public static <T> ObjectUpdate<T> query(Class<T> entityType, Expression expression) {
+        return new ObjectUpdate<T>().entityType(entityType).where(expression);
+    }
+
+    /**
+     * Creates an ObjectUpdate that updates objects of an {@link org.apache.cayenne.map.ObjEntity} determined from
+     * provided "entityName". This form is most often used for generic entities that don't map to a distinct class.
+     * Objects of the entity must be instances of the "resultType", e.g. {@link org.apache.cayenne.DataObject}.
+     */
+    public static <T> ObjectUpdate<T> query(Class<T> resultType, String entityName) {
+        return new ObjectUpdate<T>().entityName(entityName).resultType(resultType);
+    }
+
+    protected ObjectUpdate() {
+        this.values = new LinkedHashMap<>();
+    }
+
+    /**
+     * Sets the type of the entity to update.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> entityType(Class<?> entityType) {
+        this.entityType = entityType;
+        this.entityName = null;
+        this.resultType = null;
+        return this;
+    }
+
+    /**
+     * Sets the {@link org.apache.cayenne.map.ObjEntity} name to update.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> entityName(String entityName) {
+        this.entityType = null;
+        this.entityName = entityName;
+        return this;
+    }
+
+    /**
+     * Sets the expected type of the objects of the entity set by name. Query execution fails if the entity objects
+     * are not of this type.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> resultType(Class<?> resultType) {
+        this.resultType = resultType;
+        return this;
+    }
+
+    /**
+     * Sets a new value of an attribute of the root entity. Value may be null.
+     *
+     * @return this object
+     */
+    public <E> ObjectUpdate<T> set(Property<E> property, E value) {
+        values.put(Objects.requireNonNull(property), value);
+        return this;
+    }
+
+    /**
+     * Appends a qualifier expression of this query. An equivalent to {@link #and(Expression...)} that can be used
+     * a syntactic sugar.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> where(Expression expression) {
+        return and(expression);
+    }
+
+    /**
+     * Appends a qualifier expression of this query, using provided expression String and an array of position
+     * parameters. This is an equivalent to calling "and".
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> where(String expressionString, Object... parameters) {
+        return and(ExpressionFactory.exp(expressionString, parameters));
+    }
+
+    /**
+     * AND's provided expressions to the existing WHERE clause expression.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> and(Expression... expressions) {
+        if (expressions != null) {
+            appendWhere(Arrays.asList(expressions));
+        }
+        return this;
+    }
+
+    /**
+     * AND's provided expressions to the existing WHERE clause expression.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> and(Collection<Expression> expressions) {
+        appendWhere(expressions);
+        return this;
+    }
+
+    /**
+     * OR's provided expressions to the existing WHERE clause expression.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> or(Expression... expressions) {
+        if (expressions != null) {
+            appendOrWhere(Arrays.asList(expressions));
+        }
+        return this;
+    }
+
+    /**
+     * OR's provided expressions to the existing WHERE clause expression.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> or(Collection<Expression> expressions) {
+        appendOrWhere(expressions);
+        return this;
+    }
+
+    /**
+     * Returns new attribute values of this query in the order they were set.
+     */
+    public Map<Property<?>, Object> getValues() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Executes the query in the provided context, invalidating all objects of the updated entity registered in it.
+     *
+     * @return the number of updated rows
+     */
+    public int update(ObjectContext context) {
+        return execute(context);
+    }
+}
@@ -62,4 +62,10 @@ public interface SQLActionVisitor {
      * Creates an action to execute EJBQL query.
      */
     SQLAction ejbqlAction(EJBQLQuery query);
+
+    /**
+     * Creates an action to execute a bulk update or delete query.
+     * @since 4.2
+     */
+    SQLAction bulkAction(BulkQuery<?> query);
 }
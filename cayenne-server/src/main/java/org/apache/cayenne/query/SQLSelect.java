@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 import org.apache.cayenne.CayenneRuntimeException;
@@ -32,8 +33,10 @@ import org.apache.cayenne.ObjectContext;
 import org.apache.cayenne.ResultBatchIterator;
 import org.apache.cayenne.ResultIterator;
 import org.apache.cayenne.ResultIteratorCallback;
+import org.apache.cayenne.ResultPublisher;
 import org.apache.cayenne.map.DataMap;
 import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.util.ResultIteratorPublisher;
 
 /**
  * A selecting query based on raw SQL and featuring fluent API.
@@ -303,6 +306,30 @@ public class SQLSelect<T> extends IndirectQuery implements Select<T> {
 		return context.batchIterator(this, size);
 	}
 
+	/**
+	 * Returns a publisher of query results that runs the query and reads the rows on a default executor, that uses
+	 * virtual threads if the JDK supports them. The query is executed once per subscription, and the rows are only
+	 * read from the database as the subscriber requests them.
+	 *
+	 * @see #publisher(ObjectContext, Executor)
+	 * @since 4.2
+	 */
+	public ResultPublisher<T> publisher(ObjectContext context) {
+		return publisher(context, ResultIteratorPublisher.defaultExecutor());
+	}
+
+	/**
+	 * Returns a publisher of query results that runs the query and reads the rows on the provided executor. The query
+	 * is executed once per subscription, and the rows are only read from the database as the subscriber requests
+	 * them. Up to {@link #statementFetchSize(int)} rows (or 100 rows if the fetch size is not set) are emitted in a
+	 * single executor task. The context must not be used by other threads while the results are being emitted.
+	 *
+	 * @since 4.2
+	 */
+	public ResultPublisher<T> publisher(ObjectContext context, Executor executor) {
+		return new ResultIteratorPublisher<>(() -> iterator(context), executor, statementFetchSize);
+	}
+
 	public boolean isFetchingDataRows() {
 		return isFetchingDataRows;
 	}
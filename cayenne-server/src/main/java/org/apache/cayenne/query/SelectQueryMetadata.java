@@ -81,17 +81,19 @@ class SelectQueryMetadata extends BaseQueryMetadata {
 
 		// create a unique key based on entity or columns, qualifier, ordering, fetch offset and limit
 
-		StringBuilder key = new StringBuilder();
-		// handler to create string out of expressions, created lazily
-		TraversalHandler traversalHandler = null;
-
+		// only the root name is kept as is, the rest is hashed, so that the key is short no matter how big the query is
+		String root = "";
 		ObjEntity entity = getObjEntity();
 		if (entity != null) {
-			key.append(entity.getName());
+			root = entity.getName();
 		} else if (dbEntity != null) {
-			key.append("db:").append(dbEntity.getName());
+			root = "db:" + dbEntity.getName();
 		}
 
+		CacheKeyHasher key = new CacheKeyHasher();
+		// handler to hash expressions, created lazily
+		TraversalHandler traversalHandler = null;
+
 		if(query.getColumns() != null && !query.getColumns().isEmpty()) {
 			traversalHandler = new ToCacheKeyTraversalHandler(resolver.getValueObjectTypeRegistry(), key);
 			for(Property<?> property : query.getColumns()) {
@@ -144,7 +146,7 @@ class SelectQueryMetadata extends BaseQueryMetadata {
 			query.getPrefetchTree().traverse(new ToCacheKeyPrefetchProcessor(key));
 		}
 
-		return key.toString();
+		return key.isEmpty() ? root : root + ':' + key;
 	}
 
 	private void resolveAutoAliases(SelectQuery<?> query) {
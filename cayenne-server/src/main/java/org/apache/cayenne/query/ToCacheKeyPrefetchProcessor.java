@@ -25,9 +25,9 @@ package org.apache.cayenne.query;
  */
 class ToCacheKeyPrefetchProcessor implements PrefetchProcessor {
 
-    private final StringBuilder out;
+    private final CacheKeyHasher out;
 
-    ToCacheKeyPrefetchProcessor(StringBuilder out) {
+    ToCacheKeyPrefetchProcessor(CacheKeyHasher out) {
         this.out = out;
     }
 
@@ -29,7 +29,7 @@ import org.apache.cayenne.exp.parser.ASTFunctionCall;
 import org.apache.cayenne.exp.parser.ASTScalar;
 
 /**
- * Expression traverse handler to create cache key string out of Expression.
+ * Expression traverse handler to add Expression to the query cache key.
  * {@link Expression#appendAsString(Appendable)} where previously used for that,
  * but it can't handle custom value objects properly (see CAY-2210).
  *
@@ -39,9 +39,9 @@ import org.apache.cayenne.exp.parser.ASTScalar;
 class ToCacheKeyTraversalHandler implements TraversalHandler {
 
     private ValueObjectTypeRegistry registry;
-    private StringBuilder out;
+    private CacheKeyHasher out;
 
-    ToCacheKeyTraversalHandler(ValueObjectTypeRegistry registry, StringBuilder out) {
+    ToCacheKeyTraversalHandler(ValueObjectTypeRegistry registry, CacheKeyHasher out) {
         this.registry = registry;
         this.out = out;
     }
@@ -0,0 +1,54 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.query;
+
+import java.util.List;
+
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+
+/**
+ * Batched "insert or update" query. Rows are inserted, or, if a row with the same values of the key attributes
+ * already exists, that row is updated with the values of all other attributes.
+ *
+ * @since 4.2
+ */
+public class UpsertBatchQuery extends InsertBatchQuery {
+
+    private static final long serialVersionUID = 169344359253008682L;
+
+    protected List<DbAttribute> keyAttributes;
+
+    /**
+     * Creates new UpsertBatchQuery for a given DbEntity, key attributes used to match existing rows
+     * and estimated capacity.
+     */
+    public UpsertBatchQuery(DbEntity entity, List<DbAttribute> keyAttributes, int batchCapacity) {
+        super(entity, batchCapacity);
+        this.keyAttributes = keyAttributes;
+    }
+
+    /**
+     * Returns attributes used to match existing rows, either the primary key or a unique key of the entity.
+     */
+    public List<DbAttribute> getKeyAttributes() {
+        return keyAttributes;
+    }
+}
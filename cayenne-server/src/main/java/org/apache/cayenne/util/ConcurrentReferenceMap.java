@@ -0,0 +1,272 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe counterpart of {@link ReferenceMap}. Values are wrapped into references and stored in a
+ * {@link ConcurrentHashMap}, so lookups never lock and the map can be shared between threads without external
+ * synchronization. Entries with values cleared by GC are purged on modification. Null keys and values are not
+ * allowed, {@link #get(Object)} returns null for a null key.
+ *
+ * @since 4.2
+ */
+abstract class ConcurrentReferenceMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 4317862912838215043L;
+
+    protected transient ConcurrentHashMap<K, Reference<V>> map;
+
+    protected transient ReferenceQueue<V> referenceQueue;
+
+    protected transient Set<Entry<K, V>> entrySet;
+
+    public ConcurrentReferenceMap() {
+        map = new ConcurrentHashMap<>();
+        referenceQueue = new ReferenceQueue<>();
+    }
+
+    @Override
+    public int size() {
+        checkReferenceQueue();
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        checkReferenceQueue();
+        return map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        if(key == null) {
+            return null;
+        }
+        Reference<V> ref = map.get(key);
+        if(ref == null) {
+            return null;
+        }
+        return ref.get();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if(value == null) {
+            throw new NullPointerException("ConcurrentReferenceMap can't contain null values");
+        }
+        checkReferenceQueue();
+        Reference<V> oldValue = map.put(key, newReference(key, value));
+        if(oldValue == null) {
+            return null;
+        }
+        return oldValue.get();
+    }
+
+    @Override
+    public V remove(Object key) {
+        if(key == null) {
+            return null;
+        }
+        checkReferenceQueue();
+        Reference<V> oldValue = map.remove(key);
+        if(oldValue == null) {
+            return null;
+        }
+        return oldValue.get();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        //noinspection StatementWithEmptyBody
+        while(referenceQueue.poll() != null) {
+            // just purge this queue
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        checkReferenceQueue();
+        // lazily create entry set view
+        Set<Entry<K, V>> es = entrySet;
+        if(es == null) {
+            entrySet = es = new ReferenceEntrySet();
+        }
+        return es;
+    }
+
+    /**
+     * Cleanup all references collected by GC so far. Each reference knows its key, so this takes no map scan. An
+     * entry is only removed if it still holds the cleared reference, so concurrent puts of the same key are kept.
+     */
+    protected void checkReferenceQueue() {
+        Reference<? extends V> reference;
+        while((reference = referenceQueue.poll()) != null) {
+            map.remove(((KeyReference<?>) reference).getKey(), reference);
+        }
+    }
+
+    /**
+     * This method should be implemented by concrete implementations of this abstract class. Returned reference must
+     * implement {@link KeyReference} and be registered with the {@link #referenceQueue}.
+     *
+     * @param key   the key of the value
+     * @param value to be wrapped into reference
+     * @return new reference to the value
+     */
+    abstract Reference<V> newReference(K key, V value);
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        Map<K, V> replacementMap = new HashMap<>(map.size());
+        for(Entry<K, V> entry : entrySet()) {
+            replacementMap.put(entry.getKey(), entry.getValue());
+        }
+        out.writeObject(replacementMap);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        @SuppressWarnings("unchecked")
+        Map<K, V> replacement = (Map<K, V>) in.readObject();
+        map = new ConcurrentHashMap<>(replacement.size());
+        referenceQueue = new ReferenceQueue<>();
+        putAll(replacement);
+    }
+
+    /**
+     * A reference that knows the key it is stored under.
+     */
+    interface KeyReference<K> {
+
+        K getKey();
+    }
+
+    /**
+     * View over {@link #map} entry set
+     */
+    class ReferenceEntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new ReferenceEntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+    }
+
+    /**
+     * Iterator used by entrySet. It skips references cleared by GC, and is weakly consistent, same as the iterators
+     * of {@link ConcurrentHashMap}.
+     */
+    class ReferenceEntryIterator implements Iterator<Entry<K, V>> {
+
+        Iterator<Entry<K, Reference<V>>> internalIterator;
+
+        Entry<K, V> next;
+
+        K lastReturnedKey;
+
+        ReferenceEntryIterator() {
+            internalIterator = map.entrySet().iterator();
+            tryAdvance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> result = next;
+            lastReturnedKey = result.getKey();
+            tryAdvance();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            if(lastReturnedKey == null) {
+                throw new IllegalStateException();
+            }
+            // internal iterator is already ahead of the returned entry, so remove by key
+            map.remove(lastReturnedKey);
+            lastReturnedKey = null;
+        }
+
+        private void tryAdvance() {
+            next = null;
+
+            while(internalIterator.hasNext()) {
+                Entry<K, Reference<V>> nextRefEntry = internalIterator.next();
+                V value = nextRefEntry.getValue().get();
+                if(value != null) {
+                    next = new ReferenceEntry(nextRefEntry.getKey(), value);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Entry that writes value updates through to the map
+     */
+    class ReferenceEntry extends SimpleEntry<K, V> {
+
+        private static final long serialVersionUID = 2270437404542848452L;
+
+        ReferenceEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
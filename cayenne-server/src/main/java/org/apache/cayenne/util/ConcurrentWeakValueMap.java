@@ -0,0 +1,61 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Thread-safe map that stores values wrapped into {@link WeakReference}
+ *
+ * @see WeakValueMap
+ * @see ConcurrentSoftValueMap
+ *
+ * @since 4.2
+ */
+public class ConcurrentWeakValueMap<K, V> extends ConcurrentReferenceMap<K, V> {
+
+    private static final long serialVersionUID = -2718233517730640927L;
+
+    public ConcurrentWeakValueMap() {
+        super();
+    }
+
+    @Override
+    Reference<V> newReference(K key, V value) {
+        return new WeakValueReference<>(key, value, referenceQueue);
+    }
+
+    static class WeakValueReference<K, V> extends WeakReference<V> implements KeyReference<K> {
+
+        private final K key;
+
+        WeakValueReference(K key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.util;
+
+/**
+ * Helper to check if JDK Flight Recorder API is available at runtime. JFR API is present in Java 11+ and in OpenJDK
+ * 8u262+, so classes that use it directly must only be loaded after the check.
+ *
+ * @since 4.2
+ */
+public final class JfrUtil {
+
+    private static final boolean AVAILABLE = checkAvailable();
+
+    private JfrUtil() {
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    private static boolean checkAvailable() {
+        try {
+            Class<?> flightRecorder = Class.forName("jdk.jfr.FlightRecorder");
+            return (Boolean) flightRecorder.getMethod("isAvailable").invoke(null);
+        } catch (Throwable th) {
+            return false;
+        }
+    }
+}
@@ -143,6 +143,21 @@ abstract class ReferenceMap<K, V, R extends Reference<V>> extends AbstractMap<K,
         return ref.get();
     }
 
+    /**
+     * Returns a value for the key, same as {@link #get(Object)}, but without purging the entries cleared by GC. Unlike
+     * other methods of this map, it doesn't modify its internal state, so it is safe to call concurrently with other
+     * read-only operations.
+     *
+     * @since 4.2
+     */
+    public V peek(Object key) {
+        R ref = map.get(key);
+        if(ref == null) {
+            return null;
+        }
+        return ref.get();
+    }
+
     @Override
     public V put(K key, V value) {
         if(value == null) {
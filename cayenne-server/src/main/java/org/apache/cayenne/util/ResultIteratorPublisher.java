@@ -0,0 +1,228 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.cayenne.ResultIterator;
+import org.apache.cayenne.ResultPublisher;
+
+/**
+ * A {@link ResultPublisher} that reads rows from a {@link ResultIterator} on a separate executor, so that the thread
+ * subscribing to the results is never blocked on JDBC. Rows are only read from the database when there is an
+ * unfulfilled subscriber demand, and no more than "chunkSize" rows are emitted by a single executor task, so that a
+ * subscriber requesting an unbounded number of rows doesn't monopolize an executor thread.
+ * <p>
+ * Unless an explicit executor is provided, the rows are read on virtual threads if the JDK supports them, and on a
+ * shared pool of daemon threads otherwise.
+ *
+ * @since 4.2
+ */
+public class ResultIteratorPublisher<T> implements ResultPublisher<T> {
+
+    static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private final Supplier<ResultIterator<T>> iteratorFactory;
+    private final Executor executor;
+    private final int chunkSize;
+
+    /**
+     * Returns an executor used by publishers that were not given an explicit executor.
+     */
+    public static Executor defaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * @param iteratorFactory a function that executes the query and opens a ResultIterator. It is invoked on the
+     *                        executor thread once per subscription.
+     * @param executor        an executor to read rows on.
+     * @param chunkSize       max number of rows emitted per executor task. If not positive, a default of 100 is used.
+     */
+    public ResultIteratorPublisher(Supplier<ResultIterator<T>> iteratorFactory, Executor executor, int chunkSize) {
+        this.iteratorFactory = Objects.requireNonNull(iteratorFactory);
+        this.executor = Objects.requireNonNull(executor);
+        this.chunkSize = chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        IteratorSubscription subscription = new IteratorSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class IteratorSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+
+        // number of requested, but not yet emitted rows; Long.MAX_VALUE means unbounded demand
+        private final AtomicLong requested;
+
+        // guards against concurrent drain loops; a non-zero value means a drain is scheduled or running
+        private final AtomicInteger wip;
+
+        private volatile boolean cancelled;
+        private volatile Throwable badRequest;
+
+        // these are only accessed from the drain loop
+        private ResultIterator<T> iterator;
+        private boolean done;
+
+        IteratorSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.requested = new AtomicLong();
+            this.wip = new AtomicInteger();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("Non-positive number of rows requested: " + n);
+            } else {
+                requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+            }
+
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            int emitted = 0;
+
+            for (; ; ) {
+
+                if (done) {
+                    return;
+                }
+
+                if (cancelled) {
+                    terminate(null, false);
+                    return;
+                }
+
+                if (badRequest != null) {
+                    terminate(badRequest, false);
+                    return;
+                }
+
+                try {
+                    if (iterator == null) {
+                        iterator = iteratorFactory.get();
+                    }
+
+                    long r = requested.get();
+                    while (r > 0 && !cancelled) {
+
+                        if (!iterator.hasNextRow()) {
+                            terminate(null, true);
+                            return;
+                        }
+
+                        subscriber.onNext(iterator.nextRow());
+                        r = r == Long.MAX_VALUE ? r : requested.decrementAndGet();
+
+                        // yield the executor thread and continue in a new task, leaving "wip" incremented
+                        if (++emitted >= chunkSize && r > 0) {
+                            executor.execute(this::drain);
+                            return;
+                        }
+                    }
+                } catch (Throwable th) {
+                    terminate(th, false);
+                    return;
+                }
+
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        // closes the cursor and sends a terminal signal to the subscriber, unless it has cancelled the subscription
+        private void terminate(Throwable error, boolean complete) {
+            done = true;
+
+            if (iterator != null) {
+                try {
+                    iterator.close();
+                } catch (RuntimeException e) {
+                    if (error == null) {
+                        error = e;
+                    }
+                } finally {
+                    iterator = null;
+                }
+            }
+
+            if (cancelled) {
+                return;
+            }
+
+            if (error != null) {
+                subscriber.onError(error);
+            } else if (complete) {
+                subscriber.onComplete();
+            }
+        }
+    }
+
+    private static final class DefaultExecutorHolder {
+
+        static final Executor EXECUTOR = createExecutor();
+
+        private static Executor createExecutor() {
+
+            // Java 8 compatible way to use virtual threads on JDK 21+
+            try {
+                return (ExecutorService) MethodHandles.publicLookup()
+                        .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                                MethodType.methodType(ExecutorService.class))
+                        .invoke();
+            } catch (Throwable th) {
+                AtomicInteger counter = new AtomicInteger();
+                return Executors.newCachedThreadPool(r -> {
+                    Thread t = new Thread(r, "cayenne-result-publisher-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.cayenne.ResultIterator;
+
+/**
+ * A Spliterator over an open {@link ResultIterator}, used to expose query results as a lazily evaluated
+ * {@link Stream}. Rows are read from the underlying cursor one at a time, as the stream requests them. The
+ * ResultIterator is closed as soon as the last row is consumed, when reading a row fails, or when the stream is
+ * closed explicitly. Optionally, consumed rows may be passed to a listener in chunks of a given size, e.g. to
+ * release them from the context.
+ *
+ * @since 4.2
+ */
+public class ResultIteratorSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+    private final ResultIterator<T> iterator;
+    private final int chunkSize;
+    private final Consumer<List<T>> chunkListener;
+
+    private List<T> chunk;
+    private boolean closed;
+
+    /**
+     * Creates a sequential Stream over the ResultIterator.
+     */
+    public static <T> Stream<T> stream(ResultIterator<T> iterator) {
+        return stream(new ResultIteratorSpliterator<>(iterator, 0, null));
+    }
+
+    /**
+     * Creates a sequential Stream over the ResultIterator, that passes consumed rows to the listener in chunks of a
+     * given size. The listener is called before the first row of the next chunk is read, and once again with the
+     * remaining rows when the stream is exhausted or closed.
+     */
+    public static <T> Stream<T> stream(ResultIterator<T> iterator, int chunkSize, Consumer<List<T>> chunkListener) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+
+        return stream(new ResultIteratorSpliterator<>(iterator, chunkSize, chunkListener));
+    }
+
+    private static <T> Stream<T> stream(ResultIteratorSpliterator<T> spliterator) {
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    protected ResultIteratorSpliterator(ResultIterator<T> iterator, int chunkSize, Consumer<List<T>> chunkListener) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.iterator = iterator;
+        this.chunkSize = chunkSize;
+        this.chunkListener = chunkListener;
+
+        if (chunkListener != null) {
+            this.chunk = new ArrayList<>(chunkSize);
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+
+        if (closed) {
+            return false;
+        }
+
+        T row;
+        try {
+            if (chunk != null && chunk.size() >= chunkSize) {
+                flushChunk();
+            }
+
+            if (!iterator.hasNextRow()) {
+                close();
+                return false;
+            }
+
+            row = iterator.nextRow();
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+
+        if (chunk != null) {
+            chunk.add(row);
+        }
+
+        action.accept(row);
+        return true;
+    }
+
+    private void flushChunk() {
+        if (!chunk.isEmpty()) {
+            List<T> consumed = chunk;
+            this.chunk = new ArrayList<>(chunkSize);
+            chunkListener.accept(consumed);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+
+            try {
+                if (chunk != null) {
+                    flushChunk();
+                }
+            } finally {
+                iterator.close();
+            }
+        }
+    }
+}
@@ -18,10 +18,13 @@
  ****************************************************************/
 package org.apache.cayenne.util;
 
+import java.util.concurrent.locks.Lock;
+
 import org.apache.cayenne.ObjectContext;
 import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.PersistenceState;
 import org.apache.cayenne.Persistent;
+import org.apache.cayenne.access.ObjectStore;
 import org.apache.cayenne.graph.GraphManager;
 import org.apache.cayenne.reflect.ClassDescriptor;
 
@@ -58,38 +61,58 @@ public class ShallowMergeOperation {
 
         // have to synchronize almost the entire method to prevent multiple threads from
         // messing up dataobjects per CAY-845.
-        synchronized (graphManager) {
-            T object = (T) graphManager.getNode(id);
-
-            // merge into an existing object
-            if (object == null) {
-                object = (T) descriptor.createObject();
-                object.setObjectContext(context);
-                object.setObjectId(id);
-
-                if (peerState == PersistenceState.HOLLOW) {
-                    object.setPersistenceState(PersistenceState.HOLLOW);
-                }
-                else {
-                    object.setPersistenceState(PersistenceState.COMMITTED);
-                }
-
-                graphManager.registerNode(id, object);
+        if (graphManager instanceof ObjectStore) {
+            Lock lock = ((ObjectStore) graphManager).getLock();
+            lock.lock();
+            try {
+                return merge(peerInParentContext, peerState, id, descriptor, graphManager);
+            } finally {
+                lock.unlock();
             }
+        }
+
+        synchronized (graphManager) {
+            return merge(peerInParentContext, peerState, id, descriptor, graphManager);
+        }
+    }
+
+    private <T extends Persistent> T merge(
+            T peerInParentContext,
+            int peerState,
+            ObjectId id,
+            ClassDescriptor descriptor,
+            GraphManager graphManager) {
 
-            // TODO: Andrus, 1/24/2006 implement smart merge for modified objects...
-            if (peerState != PersistenceState.HOLLOW
-                    && object.getPersistenceState() != PersistenceState.MODIFIED
-                    && object.getPersistenceState() != PersistenceState.DELETED) {
+        T object = (T) graphManager.getNode(id);
 
-                descriptor.shallowMerge(peerInParentContext, object);
+        // merge into an existing object
+        if (object == null) {
+            object = (T) descriptor.createObject();
+            object.setObjectContext(context);
+            object.setObjectId(id);
 
-                if (object.getPersistenceState() == PersistenceState.HOLLOW) {
-                    object.setPersistenceState(PersistenceState.COMMITTED);
-                }
+            if (peerState == PersistenceState.HOLLOW) {
+                object.setPersistenceState(PersistenceState.HOLLOW);
+            }
+            else {
+                object.setPersistenceState(PersistenceState.COMMITTED);
             }
 
-            return object;
+            graphManager.registerNode(id, object);
         }
+
+        // TODO: Andrus, 1/24/2006 implement smart merge for modified objects...
+        if (peerState != PersistenceState.HOLLOW
+                && object.getPersistenceState() != PersistenceState.MODIFIED
+                && object.getPersistenceState() != PersistenceState.DELETED) {
+
+            descriptor.shallowMerge(peerInParentContext, object);
+
+            if (object.getPersistenceState() == PersistenceState.HOLLOW) {
+                object.setPersistenceState(PersistenceState.COMMITTED);
+            }
+        }
+
+        return object;
     }
 }
@@ -0,0 +1,176 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations with fixed buckets. Each bucket counts values that are less than or equal to its
+ * upper bound and greater than the bound of the previous bucket. The last bucket is unbounded. Used by the connection
+ * pool metrics and by the statement execution statistics.
+ *
+ * @since 4.2
+ */
+public class TimeHistogram {
+
+	private final TimeUnit unit;
+	private final long[] bounds;
+	private final LongAdder[] buckets;
+	private final LongAdder count;
+	private final LongAdder sum;
+	private final LongAccumulator max;
+
+	/**
+	 * Creates a histogram with bucket bounds of 1, 10, 100, etc. up to the specified maximum, in a given time unit.
+	 */
+	public TimeHistogram(TimeUnit unit, long maxBound) {
+		this(unit, decimalBounds(maxBound));
+	}
+
+	/**
+	 * Creates a histogram with the specified bucket bounds, in a given time unit. The bounds must be in ascending
+	 * order.
+	 */
+	public TimeHistogram(TimeUnit unit, long[] bounds) {
+		this.unit = unit;
+		this.bounds = bounds.clone();
+		this.buckets = new LongAdder[bounds.length + 1];
+
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new LongAdder();
+		}
+
+		this.count = new LongAdder();
+		this.sum = new LongAdder();
+		this.max = new LongAccumulator(Long::max, 0);
+	}
+
+	/**
+	 * Creates a histogram with the specified number of linear buckets per power of two, up to the specified maximum.
+	 * Percentile bounds reported by such histogram are at most 1/subBuckets above the actual values. E.g. with 8
+	 * sub-buckets, the error is within 12.5%.
+	 */
+	public static TimeHistogram logLinear(TimeUnit unit, long maxBound, int subBuckets) {
+		long[] bounds = new long[64 * subBuckets];
+		int size = 0;
+		for (long bound = 1; ; bound += Math.max(1, Long.highestOneBit(bound) / subBuckets)) {
+			bounds[size++] = bound;
+			if (bound >= maxBound) {
+				break;
+			}
+		}
+
+		return new TimeHistogram(unit, Arrays.copyOf(bounds, size));
+	}
+
+	private static long[] decimalBounds(long maxBound) {
+		int size = 1;
+		for (long b = 1; b < maxBound; b *= 10) {
+			size++;
+		}
+
+		long[] bounds = new long[size];
+		long bound = 1;
+		for (int i = 0; i < size; i++) {
+			bounds[i] = bound;
+			bound *= 10;
+		}
+		return bounds;
+	}
+
+	public void record(long value, TimeUnit valueUnit) {
+		long converted = unit.convert(value, valueUnit);
+
+		// index of the first bound that is greater than or equal to the value
+		int i = Arrays.binarySearch(bounds, converted);
+		if (i < 0) {
+			i = -i - 1;
+		}
+
+		buckets[i].increment();
+		count.increment();
+		sum.add(converted);
+		max.accumulate(converted);
+	}
+
+	public TimeUnit getUnit() {
+		return unit;
+	}
+
+	/**
+	 * Returns upper bounds of all buckets except for the last unbounded one.
+	 */
+	public long[] getBounds() {
+		return bounds.clone();
+	}
+
+	/**
+	 * Returns the number of values in each bucket. The array is one element longer than the array of bounds, with
+	 * the last element containing the number of values above the highest bound.
+	 */
+	public long[] getCounts() {
+		long[] counts = new long[buckets.length];
+		for (int i = 0; i < buckets.length; i++) {
+			counts[i] = buckets[i].sum();
+		}
+		return counts;
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long c = count.sum();
+		return c > 0 ? sum.sum() / (double) c : 0;
+	}
+
+	/**
+	 * Returns an upper bound of the bucket containing the given percentile of values, or {@link Long#MAX_VALUE} if
+	 * it is in the last unbounded bucket.
+	 *
+	 * @param percentile a value between 0 and 1
+	 */
+	public long getPercentileBound(double percentile) {
+		long[] counts = getCounts();
+
+		long total = 0;
+		for (long c : counts) {
+			total += c;
+		}
+
+		long threshold = (long) Math.ceil(total * percentile);
+		long seen = 0;
+		for (int i = 0; i < bounds.length; i++) {
+			seen += counts[i];
+			if (seen >= threshold) {
+				return bounds[i];
+			}
+		}
+
+		return Long.MAX_VALUE;
+	}
+}
@@ -23,7 +23,9 @@ import org.apache.cayenne.Cayenne;
 import org.apache.cayenne.ConfigurationException;
 import org.apache.cayenne.PersistenceState;
 import org.apache.cayenne.Persistent;
+import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.di.AdhocObjectFactory;
+import org.apache.cayenne.di.BeforeScopeEnd;
 import org.apache.cayenne.di.spi.DefaultAdhocObjectFactory;
 import org.apache.cayenne.di.spi.DefaultClassLoaderManager;
 import org.apache.cayenne.graph.ArcId;
@@ -51,7 +53,9 @@ import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.net.URI;
@@ -609,6 +613,27 @@ public class Util {
 		return Pattern.compile(preprocessed, flag);
 	}
 
+	/**
+	 * Invokes public methods of the object annotated with {@link BeforeScopeEnd}. DI scope events are only delivered
+	 * to the outermost decorator of a service, so decorators call this method to pass the event to the decorated
+	 * object.
+	 *
+	 * @since 4.2
+	 */
+	public static void invokeBeforeScopeEnd(Object object) {
+		for (Method method : object.getClass().getMethods()) {
+			if (method.isAnnotationPresent(BeforeScopeEnd.class)) {
+				try {
+					method.invoke(object);
+				} catch (InvocationTargetException e) {
+					throw new CayenneRuntimeException("Error invoking %s", e.getCause(), method.getName());
+				} catch (IllegalAccessException e) {
+					throw new CayenneRuntimeException("Error invoking %s", e, method.getName());
+				}
+			}
+		}
+	}
+
 	/**
 	 * Returns true if a Member is accessible via reflection under normal Java
 	 * access controls.
@@ -37,7 +37,7 @@ package org.apache.cayenne.util.concurrentlinkedhashmap;
  * A class that can determine the weight of a value. The total weight threshold is used to
  * determine when an eviction is required.
  */
-interface Weigher<V> {
+public interface Weigher<V> {
 
     /**
      * Measures an object's weight to determine how many units of capacity that the value
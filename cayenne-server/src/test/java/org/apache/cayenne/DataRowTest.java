@@ -19,9 +19,19 @@
 
 package org.apache.cayenne;
 
+import org.apache.cayenne.util.Util;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class DataRowTest {
 
@@ -35,4 +45,169 @@ public class DataRowTest {
         assertFalse(s3.getVersion() == s1.getVersion());
     }
 
+    @Test
+    public void testMapContract() {
+        DataRow row = new DataRow(2);
+        assertTrue(row.isEmpty());
+
+        assertNull(row.put("a", 1));
+        assertNull(row.put("b", null));
+        assertEquals(1, row.put("a", 2));
+        assertEquals(2, row.size());
+
+        assertEquals(2, row.get("a"));
+        assertNull(row.get("b"));
+        assertTrue(row.containsKey("b"));
+        assertFalse(row.containsKey("c"));
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("a", 2);
+        expected.put("b", null);
+        assertEquals(expected, row);
+        assertEquals(row, expected);
+        assertEquals(expected.hashCode(), row.hashCode());
+
+        assertNull(row.remove("b"));
+        assertFalse(row.containsKey("b"));
+        assertEquals(1, row.size());
+
+        row.clear();
+        assertTrue(row.isEmpty());
+        assertNull(row.get("a"));
+    }
+
+    @Test
+    public void testGrow() {
+        DataRow row = new DataRow(1);
+        for (int i = 0; i < 100; i++) {
+            row.put("k" + i, i);
+        }
+
+        assertEquals(100, row.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, row.get("k" + i));
+        }
+    }
+
+    @Test
+    public void testSharedLayout() {
+        DataRowLayout layout = DataRowLayout.of("a", "b", "a");
+        assertEquals(2, layout.size());
+
+        DataRow r1 = new DataRow(layout);
+        DataRow r2 = new DataRow(layout);
+        assertTrue(r1.isEmpty());
+
+        r1.put("a", 1);
+        r2.put("b", 2);
+        assertSame(layout, r1.getLayout());
+        assertSame(layout, r2.getLayout());
+
+        // key not in the layout must switch the row to a private copy
+        r1.put("c", 3);
+        assertNotSame(layout, r1.getLayout());
+        assertEquals(2, layout.size());
+        assertEquals(-1, layout.indexOf("c"));
+
+        assertEquals(2, r1.size());
+        assertEquals(1, r1.get("a"));
+        assertEquals(3, r1.get("c"));
+        assertFalse(r2.containsKey("c"));
+    }
+
+    @Test
+    public void testLayoutAndValues() {
+        DataRowLayout layout = DataRowLayout.of("a", "b");
+        DataRow row = new DataRow(layout, new Object[]{1, null});
+
+        assertEquals(2, row.size());
+        assertEquals(1, row.get("a"));
+        assertTrue(row.containsKey("b"));
+        assertSame(layout, row.getLayout());
+
+        row.put("c", 3);
+        assertEquals(3, row.size());
+        assertEquals(2, layout.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLayoutAndValues_SizeMismatch() {
+        new DataRow(DataRowLayout.of("a", "b"), new Object[]{1});
+    }
+
+    @Test
+    public void testCopy() {
+        DataRow r1 = new DataRow(2);
+        r1.put("a", 1);
+
+        DataRow r2 = new DataRow(r1);
+        assertSame(r1.getLayout(), r2.getLayout());
+
+        r2.put("a", 2);
+        r1.put("b", 3);
+        r2.put("c", 4);
+
+        assertEquals(1, r1.get("a"));
+        assertEquals(3, r1.get("b"));
+        assertFalse(r1.containsKey("c"));
+        assertEquals(2, r2.get("a"));
+        assertEquals(4, r2.get("c"));
+        assertFalse(r2.containsKey("b"));
+    }
+
+    @Test
+    public void testEntryIterator() {
+        DataRow row = new DataRow(DataRowLayout.of("a", "b", "c"));
+        row.put("a", 1);
+        row.put("c", 3);
+
+        Iterator<Map.Entry<String, Object>> it = row.entrySet().iterator();
+        Map.Entry<String, Object> e = it.next();
+        assertEquals("a", e.getKey());
+        assertEquals(1, e.setValue(10));
+        assertEquals(10, row.get("a"));
+
+        e = it.next();
+        assertEquals("c", e.getKey());
+        it.remove();
+        assertFalse(it.hasNext());
+
+        assertEquals(1, row.size());
+        assertEquals(1, row.keySet().size());
+        assertTrue(row.keySet().contains("a"));
+    }
+
+    @Test
+    public void testDiff() {
+        DataRow r1 = new DataRow(DataRowLayout.of("a", "b"));
+        r1.put("a", 1);
+        r1.put("b", 2);
+
+        DataRow r2 = new DataRow(r1);
+        r2.put("b", 3);
+
+        DataRow diff = r1.createDiff(r2);
+        assertEquals(1, diff.size());
+        assertEquals(3, diff.get("b"));
+
+        assertEquals(r2, r1.applyDiff(diff));
+        assertNull(r1.createDiff(new DataRow(r1)));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        DataRow row = new DataRow(DataRowLayout.of("a", "b", "c"));
+        row.put("a", 1);
+        row.put("b", null);
+        row.setEntityName("E");
+        row.setReplacesVersion(5);
+
+        DataRow clone = Util.cloneViaSerialization(row);
+        assertEquals(row, clone);
+        assertTrue(clone.containsKey("b"));
+        assertFalse(clone.containsKey("c"));
+        assertEquals("E", clone.getEntityName());
+        assertEquals(row.getVersion(), clone.getVersion());
+        assertEquals(5, clone.getReplacesVersion());
+    }
 }
@@ -0,0 +1,184 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import org.apache.cayenne.Cayenne;
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.dba.UpsertSyntax;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.testdo.testmap.Painting;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class DataContextUpsertIT extends ServerCase {
+
+    @Inject
+    private DataContext context;
+
+    @Inject
+    private DataContext context2;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    private TableHelper tArtist;
+
+    @Before
+    public void createArtistsDataSet() throws Exception {
+        assumeTrue(context.getParentDataDomain().getDefaultNode().getAdapter().getUpsertSyntax() != null);
+
+        tArtist = new TableHelper(dbHelper, "ARTIST");
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+        tArtist.insert(1, "artist1");
+        tArtist.insert(2, "artist2");
+    }
+
+    @Test
+    public void testUpsert() throws Exception {
+        // existing rows are updated, a missing one is inserted
+        for (int i = 1; i <= 3; i++) {
+            Artist artist = context.newObject(Artist.class);
+            artist.getObjectId().getReplacementIdMap().put(Artist.ARTIST_ID_PK_COLUMN, (long) i);
+            artist.setArtistName("upserted" + i);
+            context.registerUpsert(artist);
+        }
+        context.commitChanges();
+
+        assertEquals(3, tArtist.getRowCount());
+        assertEquals(3L, ObjectSelect.query(Artist.class, Artist.ARTIST_NAME.like("upserted%")).selectCount(context2));
+        assertEquals("upserted1", Cayenne.objectForPK(context2, Artist.class, 1L).getArtistName());
+    }
+
+    @Test
+    public void testUpsert_MixedWithInsert() throws Exception {
+        Artist inserted = context.newObject(Artist.class);
+        inserted.setArtistName("inserted");
+
+        Artist upserted = context.newObject(Artist.class);
+        upserted.getObjectId().getReplacementIdMap().put(Artist.ARTIST_ID_PK_COLUMN, 2L);
+        upserted.setArtistName("upserted");
+        context.registerUpsert(upserted);
+
+        context.commitChanges();
+
+        assertEquals(3, tArtist.getRowCount());
+        assertEquals(PersistenceState.COMMITTED, upserted.getPersistenceState());
+        assertEquals("upserted", Cayenne.objectForPK(context2, Artist.class, 2L).getArtistName());
+    }
+
+    @Test
+    public void testUpsert_NonPkKey_ExistingRow() throws Exception {
+        assumeNonUniqueKeySupported();
+
+        Artist artist = context.newObject(Artist.class);
+        artist.setArtistName("artist1");
+        artist.setDateOfBirth(new GregorianCalendar(1980, Calendar.JANUARY, 1).getTime());
+        context.registerUpsert(artist, "ARTIST_NAME");
+
+        Painting painting = context.newObject(Painting.class);
+        painting.setPaintingTitle("p1");
+        painting.setToArtist(artist);
+
+        context.commitChanges();
+
+        assertEquals(2, tArtist.getRowCount());
+        assertEquals(PersistenceState.COMMITTED, artist.getPersistenceState());
+        assertEquals(1L, Cayenne.longPKForObject(artist));
+        assertEquals(1L, Cayenne.longPKForObject(
+                ObjectSelect.query(Painting.class).selectOne(context2).getToArtist()));
+
+        // the object must stay bound to the existing row
+        Date dateOfBirth = new GregorianCalendar(1990, Calendar.JANUARY, 1).getTime();
+        artist.setDateOfBirth(dateOfBirth);
+        context.commitChanges();
+
+        assertEquals(2, tArtist.getRowCount());
+        Artist fetched = Cayenne.objectForPK(context2, Artist.class, 1L);
+        assertEquals(dateOfBirth.getTime(), fetched.getDateOfBirth().getTime());
+    }
+
+    @Test
+    public void testUpsert_NonPkKey_NewRow() throws Exception {
+        assumeNonUniqueKeySupported();
+
+        Artist artist = context.newObject(Artist.class);
+        artist.setArtistName("artist3");
+        context.registerUpsert(artist, "ARTIST_NAME");
+        context.commitChanges();
+
+        assertEquals(3, tArtist.getRowCount());
+        long pk = Cayenne.longPKForObject(artist);
+        assertEquals("artist3", Cayenne.objectForPK(context2, Artist.class, pk).getArtistName().trim());
+    }
+
+    @Test
+    public void testUpsert_NonPkKey_Batch() throws Exception {
+        assumeNonUniqueKeySupported();
+
+        // existing rows of the whole batch are resolved together
+        Artist[] artists = new Artist[3];
+        for (int i = 0; i < artists.length; i++) {
+            artists[i] = context.newObject(Artist.class);
+            artists[i].setArtistName("artist" + (i + 1));
+            context.registerUpsert(artists[i], "ARTIST_NAME");
+        }
+        context.commitChanges();
+
+        assertEquals(3, tArtist.getRowCount());
+        assertEquals(1L, Cayenne.longPKForObject(artists[0]));
+        assertEquals(2L, Cayenne.longPKForObject(artists[1]));
+        assertEquals("artist3", Cayenne.objectForPK(context2, Artist.class, Cayenne.longPKForObject(artists[2]))
+                .getArtistName().trim());
+    }
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testRegisterUpsert_Committed() throws Exception {
+        Artist artist = Cayenne.objectForPK(context, Artist.class, 1L);
+        context.registerUpsert(artist);
+    }
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testRegisterUpsert_UnknownColumn() throws Exception {
+        Artist artist = context.newObject(Artist.class);
+        context.registerUpsert(artist, "NO_SUCH_COLUMN");
+    }
+
+    private void assumeNonUniqueKeySupported() {
+        // there is no unique constraint on ARTIST_NAME in the test schema, so only MERGE statements could match by it
+        UpsertSyntax syntax = context.getParentDataDomain().getDefaultNode().getAdapter().getUpsertSyntax();
+        assumeTrue(syntax == UpsertSyntax.MERGE || syntax == UpsertSyntax.MERGE_KEY);
+    }
+}
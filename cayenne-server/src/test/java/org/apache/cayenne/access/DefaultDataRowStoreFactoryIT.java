@@ -54,6 +54,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @UseServerRuntime(CayenneProjects.MULTI_TIER_PROJECT)
 public class DefaultDataRowStoreFactoryIT extends ServerCase {
@@ -94,6 +95,28 @@ public class DefaultDataRowStoreFactoryIT extends ServerCase {
         assertNull(dataStore.getEventBridge());
     }
 
+    @Test
+    public void testGetShardedDataRowStore() {
+        final EventManager EVENT_MANAGER = new DefaultEventManager();
+
+        Module testModule = binder -> {
+            binder.bind(EventManager.class).toInstance(EVENT_MANAGER);
+            binder.bind(RuntimeProperties.class).to(DefaultRuntimeProperties.class);
+            binder.bind(EventBridge.class).toProvider(NoopEventBridgeProvider.class);
+            binder.bind(DataRowStoreFactory.class).to(ShardedDataRowStoreFactory.class);
+            ServerModule.setSnapshotCacheSize(binder, 500);
+        };
+
+        Injector injector = DIBootstrap.createInjector(testModule);
+        DataRowStore dataStore = injector.getInstance(DataRowStoreFactory.class)
+                .createDataRowStore("test");
+
+        assertTrue(dataStore instanceof ShardedDataRowStore);
+        assertEquals(500, dataStore.maximumSize());
+        assertEquals(500, ((ShardedDataRowStore) dataStore).maximumSize("Artist"));
+        assertNull(dataStore.getEventBridge());
+    }
+
     @Test
     public void testGetDataRowStoreWithBridge() {
         final DataDomain DOMAIN = new DataDomain("test");
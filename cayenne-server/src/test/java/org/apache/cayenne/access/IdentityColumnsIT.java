@@ -19,7 +19,10 @@
 
 package org.apache.cayenne.access;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.cayenne.Cayenne;
 import org.apache.cayenne.ObjectContext;
@@ -99,6 +102,33 @@ public class IdentityColumnsIT extends ServerCase {
         assertEquals(id, ((Persistent) results.get(0)).getObjectId());
     }
 
+    @Test
+    public void testMultiRowInsert() throws Exception {
+        node.setMultiRowInsert(true);
+        node.setMaxBatchSize(2);
+        try {
+            List<GeneratedColumnTestEntity> objects = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                GeneratedColumnTestEntity idObject = context.newObject(GeneratedColumnTestEntity.class);
+                idObject.setName("n_" + i);
+                objects.add(idObject);
+            }
+
+            context.commitChanges();
+
+            Set<Object> ids = new HashSet<>();
+            for (GeneratedColumnTestEntity idObject : objects) {
+                assertFalse(idObject.getObjectId().isTemporary());
+                ids.add(Cayenne.pkForObject(idObject));
+            }
+            assertEquals(5, ids.size());
+            assertEquals(5, ObjectSelect.query(GeneratedColumnTestEntity.class).selectCount(context));
+        } finally {
+            node.setMultiRowInsert(false);
+            node.setMaxBatchSize(0);
+        }
+    }
+
     @Test
     public void testNewObject() throws Exception {
 
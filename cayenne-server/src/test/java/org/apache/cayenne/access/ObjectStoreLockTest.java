@@ -0,0 +1,138 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.PersistentObject;
+import org.apache.cayenne.util.WeakValueMap;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ObjectStoreLockTest {
+
+    @Test
+    public void testOptimisticRead() {
+        ObjectStoreLock lock = new ObjectStoreLock();
+
+        long stamp = lock.tryOptimisticRead();
+        assertNotEquals(0L, stamp);
+        assertTrue(lock.validate(stamp));
+
+        lock.lock();
+        try {
+            assertFalse(lock.validate(stamp));
+            assertEquals(0L, lock.tryOptimisticRead());
+        } finally {
+            lock.unlock();
+        }
+
+        assertFalse(lock.validate(stamp));
+        assertNotEquals(0L, lock.tryOptimisticRead());
+    }
+
+    @Test
+    public void testReentrant() {
+        ObjectStoreLock lock = new ObjectStoreLock();
+
+        lock.lock();
+        lock.lock();
+        assertTrue(lock.tryLock());
+        lock.unlock();
+        lock.unlock();
+
+        // still held after inner unlocks
+        assertTrue(lock.isHeldByCurrentThread());
+        assertEquals(0L, lock.tryOptimisticRead());
+
+        lock.unlock();
+        assertFalse(lock.isHeldByCurrentThread());
+        assertNotEquals(0L, lock.tryOptimisticRead());
+    }
+
+    @Test(expected = IllegalMonitorStateException.class)
+    public void testUnlockNotHeld() {
+        new ObjectStoreLock().unlock();
+    }
+
+    @Test
+    public void testMutualExclusion() throws Exception {
+        ObjectStoreLock lock = new ObjectStoreLock();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread t = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        t.start();
+
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        assertFalse(lock.tryLock());
+        assertEquals(0L, lock.tryOptimisticRead());
+
+        release.countDown();
+        assertTrue(lock.tryLock(5, TimeUnit.SECONDS));
+        lock.unlock();
+        t.join();
+    }
+
+    @Test
+    public void testGetNode_Concurrent() throws Exception {
+        ObjectStore store = new ObjectStore(null, new WeakValueMap<>());
+        Persistent[] objects = new Persistent[100];
+        for (int i = 0; i < objects.length; i++) {
+            objects[i] = new PersistentObject() {};
+            objects[i].setObjectId(ObjectId.of("E", "ID", i));
+            store.registerNode(objects[i].getObjectId(), objects[i]);
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (!done.get()) {
+                Persistent o = objects[i++ % objects.length];
+                store.registerNode(o.getObjectId(), o);
+            }
+        });
+        writer.start();
+
+        try {
+            for (int j = 0; j < 100_000; j++) {
+                Persistent o = objects[j % objects.length];
+                assertSame(o, store.getNode(o.getObjectId()));
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.util.ConcurrentWeakValueMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReadOnlyObjectStoreTest {
+
+    private ReadOnlyObjectStore objectStore;
+
+    @Before
+    public void before() {
+        DataRowStore sharedCache = mock(DataRowStore.class);
+        this.objectStore = new ReadOnlyObjectStore(sharedCache, new ConcurrentHashMap<>());
+    }
+
+    @Test
+    public void testReadOnly() {
+        assertTrue(objectStore.isReadOnly());
+        assertFalse(new ObjectStore(null, new ConcurrentHashMap<>()).isReadOnly());
+    }
+
+    @Test
+    public void testRegisterNode() {
+
+        ObjectId id = ObjectId.of("E1", "ID", 500);
+        Persistent object = mock(Persistent.class);
+        when(object.getPersistenceState()).thenReturn(PersistenceState.COMMITTED);
+
+        objectStore.registerNode(id, object);
+        assertSame(object, objectStore.getNode(id));
+        assertNull(objectStore.getNode(ObjectId.of("E1", "ID", 501)));
+    }
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testRegisterNode_New() {
+
+        ObjectId id = ObjectId.of("E1");
+        Persistent object = mock(Persistent.class);
+        when(object.getPersistenceState()).thenReturn(PersistenceState.NEW);
+
+        objectStore.registerNode(id, object);
+    }
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testNodePropertyChanged() {
+
+        ObjectId id = ObjectId.of("E1", "ID", 500);
+        Persistent object = mock(Persistent.class);
+        when(object.getPersistenceState()).thenReturn(PersistenceState.COMMITTED);
+
+        objectStore.registerNode(id, object);
+        objectStore.nodePropertyChanged(id, "name", "a", "b");
+    }
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testNodeRemoved() {
+
+        ObjectId id = ObjectId.of("E1", "ID", 500);
+        Persistent object = mock(Persistent.class);
+        when(object.getPersistenceState()).thenReturn(PersistenceState.COMMITTED);
+
+        objectStore.registerNode(id, object);
+        objectStore.nodeRemoved(id);
+    }
+
+    @Test
+    public void testGetNode_NullId() {
+        assertNull(objectStore.getNode(null));
+    }
+
+    @Test
+    public void testObjectsUnregistered_NullId() {
+
+        ObjectId id = ObjectId.of("E1", "ID", 500);
+        Persistent object = mock(Persistent.class);
+        when(object.getObjectId()).thenReturn(id);
+        when(object.getPersistenceState()).thenReturn(PersistenceState.COMMITTED);
+        objectStore.registerNode(id, object);
+
+        // no ObjectId
+        Persistent transientObject = mock(Persistent.class);
+
+        objectStore.objectsUnregistered(Arrays.asList(object, transientObject));
+        assertNull(objectStore.getNode(id));
+        verify(transientObject).setPersistenceState(PersistenceState.TRANSIENT);
+    }
+
+    @Test
+    public void testRegisterNode_ConcurrentWeakValueMap() {
+
+        ReadOnlyObjectStore weakStore = new ReadOnlyObjectStore(mock(DataRowStore.class), new ConcurrentWeakValueMap<>());
+
+        ObjectId id = ObjectId.of("E1", "ID", 500);
+        Persistent object = mock(Persistent.class);
+        when(object.getPersistenceState()).thenReturn(PersistenceState.COMMITTED);
+
+        weakStore.registerNode(id, object);
+        assertSame(object, weakStore.getNode(id));
+        assertNull(weakStore.getNode(null));
+    }
+}
@@ -0,0 +1,185 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.DefaultRuntimeProperties;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ShardedDataRowStoreTest {
+
+    private ShardedDataRowStore cache;
+
+    @After
+    public void cleanDataStore() {
+        if (cache != null) {
+            cache.shutdown();
+            cache = null;
+        }
+    }
+
+    private ShardedDataRowStore createStore(Map<String, String> props) {
+        return new ShardedDataRowStore("cacheXYZ", new DefaultRuntimeProperties(props), null);
+    }
+
+    private void putSnapshot(ObjectId id) {
+        DataRow row = new DataRow(1);
+        row.put("ID", id.getIdSnapshot().get("ID"));
+
+        cache.processSnapshotChanges(
+                this,
+                Collections.singletonMap(id, row),
+                Collections.<ObjectId>emptyList(),
+                Collections.<ObjectId>emptyList(),
+                Collections.<ObjectId>emptyList());
+    }
+
+    @Test
+    public void testMaximumSize() {
+        Map<String, String> props = new HashMap<>();
+        props.put(Constants.SNAPSHOT_CACHE_SIZE_PROPERTY, "100");
+        props.put(Constants.SNAPSHOT_CACHE_SIZE_PROPERTY + ".Painting", "5000");
+
+        cache = createStore(props);
+        assertEquals(100, cache.maximumSize());
+        assertEquals(100, cache.maximumSize("Artist"));
+        assertEquals(5000, cache.maximumSize("Painting"));
+    }
+
+    @Test
+    public void testEntitiesDoNotEvictEachOther() {
+        Map<String, String> props = new HashMap<>();
+        props.put(Constants.SNAPSHOT_CACHE_SIZE_PROPERTY, "10");
+        props.put(Constants.SNAPSHOT_CACHE_SIZE_PROPERTY + ".Painting", "200");
+
+        cache = createStore(props);
+
+        for (int i = 0; i < 5; i++) {
+            putSnapshot(ObjectId.of("Artist", "ID", i));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            putSnapshot(ObjectId.of("Painting", "ID", i));
+        }
+
+        assertEquals(5, cache.size("Artist"));
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(cache.getCachedSnapshot(ObjectId.of("Artist", "ID", i)));
+        }
+
+        // eviction happens in batches, so the size may go slightly over capacity
+        int paintings = cache.size("Painting");
+        assertTrue("Unexpected size: " + paintings, paintings >= 200 && paintings <= 200 * 17 / 16 + 16);
+        assertEquals(5 + paintings, cache.size());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        Map<String, String> props = new HashMap<>();
+        props.put(Constants.SNAPSHOT_CACHE_SIZE_PROPERTY, "16");
+        props.put(Constants.SNAPSHOT_CACHE_STRIPES_PROPERTY, "1");
+
+        cache = createStore(props);
+
+        ObjectId hot = ObjectId.of("Artist", "ID", -1);
+        putSnapshot(hot);
+
+        for (int i = 0; i < 100; i++) {
+            putSnapshot(ObjectId.of("Artist", "ID", i));
+            assertNotNull(cache.getCachedSnapshot(hot));
+        }
+
+        assertTrue(cache.size() <= 17);
+        assertNotNull(cache.getCachedSnapshot(hot));
+        assertNotNull(cache.getCachedSnapshot(ObjectId.of("Artist", "ID", 99)));
+        assertNull(cache.getCachedSnapshot(ObjectId.of("Artist", "ID", 0)));
+    }
+
+    @Test
+    public void testExpiration() throws InterruptedException {
+        Map<String, String> props = new HashMap<>();
+        props.put(Constants.SNAPSHOT_EXPIRATION_PROPERTY + ".Artist", "1");
+
+        cache = createStore(props);
+
+        ObjectId artist = ObjectId.of("Artist", "ID", 1);
+        ObjectId painting = ObjectId.of("Painting", "ID", 1);
+        putSnapshot(artist);
+        putSnapshot(painting);
+
+        assertNotNull(cache.getCachedSnapshot(artist));
+        assertNotNull(cache.getCachedSnapshot(painting));
+
+        Thread.sleep(1100);
+
+        assertNull(cache.getCachedSnapshot(artist));
+        assertNotNull(cache.getCachedSnapshot(painting));
+    }
+
+    @Test
+    public void testForgetSnapshot() {
+        cache = createStore(Collections.<String, String>emptyMap());
+
+        ObjectId artist = ObjectId.of("Artist", "ID", 1);
+        putSnapshot(artist);
+        assertEquals(1, cache.size());
+
+        cache.forgetSnapshot(artist);
+        assertNull(cache.getCachedSnapshot(artist));
+        assertEquals(0, cache.size());
+
+        putSnapshot(artist);
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCachedSnapshotIds() {
+        cache = createStore(Collections.<String, String>emptyMap());
+
+        ObjectId artist1 = ObjectId.of("Artist", "ID", 1);
+        ObjectId artist2 = ObjectId.of("Artist", "ID", 2);
+        ObjectId painting = ObjectId.of("Painting", "ID", 1);
+        putSnapshot(artist1);
+        putSnapshot(artist2);
+        putSnapshot(painting);
+
+        Collection<ObjectId> ids = cache.cachedSnapshotIds(Collections.singletonList("Artist"));
+        assertEquals(new HashSet<>(Arrays.asList(artist1, artist2)), new HashSet<>(ids));
+
+        assertEquals(3, cache.cachedSnapshotIds(Arrays.asList("Artist", "Painting")).size());
+        assertTrue(cache.cachedSnapshotIds(Collections.singletonList("Gallery")).isEmpty());
+    }
+}
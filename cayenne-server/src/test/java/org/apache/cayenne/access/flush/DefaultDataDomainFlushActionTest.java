@@ -22,17 +22,27 @@ package org.apache.cayenne.access.flush;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.PersistenceState;
 import org.apache.cayenne.Persistent;
+import org.apache.cayenne.access.DataDomain;
+import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.flush.DefaultDataDomainFlushAction;
 import org.apache.cayenne.access.flush.operation.BaseDbRowOp;
 import org.apache.cayenne.access.flush.operation.DbRowOp;
+import org.apache.cayenne.access.flush.operation.DbRowOpType;
 import org.apache.cayenne.access.flush.operation.DeleteDbRowOp;
 import org.apache.cayenne.access.flush.operation.InsertDbRowOp;
 import org.apache.cayenne.access.flush.operation.UpdateDbRowOp;
+import org.apache.cayenne.log.JdbcEventLogger;
 import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.query.DeleteBatchQuery;
@@ -139,6 +149,98 @@ public class DefaultDataDomainFlushActionTest {
         assertEquals(1, delete2.getRows().size());
     }
 
+    @Test
+    public void executeQueriesInParallel() {
+        DataNode node1 = mock(DataNode.class);
+        DataNode node2 = mock(DataNode.class);
+        DataNode node3 = mock(DataNode.class);
+        Map<DataNode, List<Query>> queriesByNode = new LinkedHashMap<>();
+        queriesByNode.put(node1, Collections.singletonList(mock(Query.class)));
+        queriesByNode.put(node2, Collections.singletonList(mock(Query.class)));
+        queriesByNode.put(node3, Collections.singletonList(mock(Query.class)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            DefaultDataDomainFlushAction action = new DefaultDataDomainFlushAction(
+                    mock(DataDomain.class), null, mock(JdbcEventLogger.class), executor);
+            action.executeQueriesInParallel(queriesByNode);
+        } finally {
+            executor.shutdown();
+        }
+
+        queriesByNode.forEach((node, queries) -> verify(node).performQueries(same(queries), any()));
+    }
+
+    @Test
+    public void executeQueriesInParallel_Failure() {
+        DataNode node1 = mock(DataNode.class);
+        DataNode node2 = mock(DataNode.class);
+        CayenneRuntimeException failure = new CayenneRuntimeException("test");
+        doThrow(failure).when(node2).performQueries(any(), any());
+
+        Map<DataNode, List<Query>> queriesByNode = new LinkedHashMap<>();
+        queriesByNode.put(node1, Collections.singletonList(mock(Query.class)));
+        queriesByNode.put(node2, Collections.singletonList(mock(Query.class)));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            DefaultDataDomainFlushAction action = new DefaultDataDomainFlushAction(
+                    mock(DataDomain.class), null, mock(JdbcEventLogger.class), executor);
+            action.executeQueriesInParallel(queriesByNode);
+            fail("Exception expected");
+        } catch (CayenneRuntimeException e) {
+            assertSame(failure, e);
+        } finally {
+            executor.shutdown();
+        }
+
+        verify(node1).performQueries(any(), any());
+    }
+
+    @Test
+    public void reportOperations() {
+        ObjectId id1 = ObjectId.of("test",  "id", 1);
+        ObjectId id2 = ObjectId.of("test",  "id", 2);
+        ObjectId id3 = ObjectId.of("test2", "id", 3);
+        ObjectId id4 = ObjectId.of("test",  "id", 4);
+
+        DbEntity test = mockEntity("test");
+        DbEntity test2 = mockEntity("test2");
+
+        List<DbRowOp> ops = new ArrayList<>();
+        ops.add(new InsertDbRowOp(mockObject(id1), test,  id1));
+        ops.add(new InsertDbRowOp(mockObject(id2), test,  id2));
+        ops.add(new InsertDbRowOp(mockObject(id3), test2, id3));
+        ops.add(new DeleteDbRowOp(mockObject(id4), test,  id4));
+
+        FlushListener listener = mock(FlushListener.class);
+        DefaultDataDomainFlushAction action = new DefaultDataDomainFlushAction(
+                mock(DataDomain.class), null, mock(JdbcEventLogger.class), null, listener);
+        action.reportOperations(ops);
+
+        verify(listener).operationsSorted(DbRowOpType.INSERT, test, 2);
+        verify(listener).operationsSorted(DbRowOpType.DELETE, test, 1);
+        verify(listener).operationsSorted(DbRowOpType.INSERT, test2, 1);
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void observerReportsQueries() {
+        FlushListener listener = mock(FlushListener.class);
+        FlushObserver observer = new FlushObserver(mock(JdbcEventLogger.class), listener);
+        Query query = mock(Query.class);
+
+        observer.nextBatchCount(query, new int[]{1, 1, 1});
+        verify(listener).queryExecuted(query, 3, 3);
+
+        // driver didn't report affected rows
+        observer.nextBatchCount(query, new int[]{-2, -2});
+        verify(listener).queryExecuted(query, 2, -1);
+
+        observer.nextCount(query, 1);
+        verify(listener).queryExecuted(query, 1, 1);
+    }
+
     private Persistent mockObject(ObjectId id) {
         Persistent persistent = mock(Persistent.class);
         when(persistent.getObjectId()).thenReturn(id);
@@ -52,6 +52,7 @@ import static org.mockito.Mockito.*;
 public class DefaultDbRowOpSorterTest {
 
     private EntitySorter entitySorter;
+    private DataDomain dataDomain;
     private DbRowOpSorter sorter;
 
     @Before
@@ -64,7 +65,7 @@ public class DefaultDbRowOpSorterTest {
         when(entitySorter.isReflexive(argThat(ent -> ent.getName().equals("reflexive"))))
                 .thenReturn(true);
 
-        DataDomain dataDomain = mock(DataDomain.class);
+        dataDomain = mock(DataDomain.class);
         when(dataDomain.getEntitySorter()).thenReturn(entitySorter);
         when(dataDomain.getEntityResolver()).thenReturn(entityResolver);
 
@@ -196,6 +197,62 @@ public class DefaultDbRowOpSorterTest {
                 .sortObjectsForEntity(isNull(), any(List.class), eq(false));
     }
 
+    @Test
+    public void sortPlanIsCached() {
+        ObjectId id1 = ObjectId.of("test2", "id", 1);
+        ObjectId id2 = ObjectId.of("test1", "id", 2);
+        ObjectId id3 = ObjectId.of("test2", "id", 3);
+        ObjectId id4 = ObjectId.of("test1", "id", 4);
+
+        DbEntity test1 = mockEntity("test1");
+        DbEntity test2 = mockEntity("test2");
+        DbRowOp op1 = new InsertDbRowOp(mockObject(id1), test2, id1);
+        DbRowOp op2 = new InsertDbRowOp(mockObject(id2), test1, id2);
+        DbRowOp op3 = new InsertDbRowOp(mockObject(id3), test2, id3);
+        DbRowOp op4 = new InsertDbRowOp(mockObject(id4), test1, id4);
+
+        assertEquals(Arrays.asList(op2, op1), sorter.sort(Arrays.asList(op1, op2)));
+        // same set of entities, different rows
+        assertEquals(Arrays.asList(op4, op2, op3, op1), sorter.sort(Arrays.asList(op3, op4, op2, op1)));
+
+        // entity order is only calculated once
+        verify(entitySorter, times(1)).getDbEntityComparator();
+    }
+
+    @Test
+    public void sortPlanIsRecalculatedForReloadedEntities() {
+        ObjectId id1 = ObjectId.of("test2", "id", 1);
+        ObjectId id2 = ObjectId.of("test1", "id", 2);
+
+        DbRowOp op1 = new InsertDbRowOp(mockObject(id1), mockEntity("test2"), id1);
+        DbRowOp op2 = new InsertDbRowOp(mockObject(id2), mockEntity("test1"), id2);
+        assertEquals(Arrays.asList(op2, op1), sorter.sort(Arrays.asList(op1, op2)));
+
+        // same entity names, new DbEntity objects
+        DbRowOp op3 = new InsertDbRowOp(mockObject(id1), mockEntity("test2"), id1);
+        DbRowOp op4 = new InsertDbRowOp(mockObject(id2), mockEntity("test1"), id2);
+        assertEquals(Arrays.asList(op4, op3), sorter.sort(Arrays.asList(op3, op4)));
+
+        verify(entitySorter, times(2)).getDbEntityComparator();
+    }
+
+    @Test
+    public void sortPlanIsDroppedOnEntityResolverChange() {
+        ObjectId id1 = ObjectId.of("test2", "id", 1);
+        ObjectId id2 = ObjectId.of("test1", "id", 2);
+
+        DbRowOp op1 = new InsertDbRowOp(mockObject(id1), mockEntity("test2"), id1);
+        DbRowOp op2 = new InsertDbRowOp(mockObject(id2), mockEntity("test1"), id2);
+        assertEquals(Arrays.asList(op2, op1), sorter.sort(Arrays.asList(op1, op2)));
+
+        // new mapping with the reverse entity order
+        when(dataDomain.getEntityResolver()).thenReturn(mock(EntityResolver.class));
+        when(entitySorter.getDbEntityComparator())
+                .thenReturn(Comparator.comparing(DbEntity::getName).reversed());
+
+        assertEquals(Arrays.asList(op1, op2), sorter.sort(Arrays.asList(op2, op1)));
+    }
+
     private Persistent mockObject(ObjectId id) {
         Persistent persistent = mock(Persistent.class);
         when(persistent.getObjectId()).thenReturn(id);
@@ -21,6 +21,7 @@ package org.apache.cayenne.access.jdbc;
 
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.jdbc.reader.RowReaderFactory;
+import org.apache.cayenne.access.translator.batch.InsertBatchTranslator;
 import org.apache.cayenne.configuration.server.ServerRuntime;
 import org.apache.cayenne.dba.JdbcAdapter;
 import org.apache.cayenne.di.AdhocObjectFactory;
@@ -33,7 +34,10 @@ import org.apache.cayenne.unit.di.server.ServerCase;
 import org.apache.cayenne.unit.di.server.UseServerRuntime;
 import org.junit.Test;
 
+import java.util.Collections;
+
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 @UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
@@ -77,6 +81,35 @@ public class BatchActionIT extends ServerCase {
         assertFalse(new BatchAction(batch2, node, false).hasGeneratedKeys());
     }
 
+    @Test
+    public void testCanRunAsMultiRowInsert() throws Exception {
+        EntityResolver resolver = runtime.getChannel().getEntityResolver();
+
+        JdbcAdapter adapter = buildAdapter(false);
+
+        DataNode node = new DataNode();
+        node.setAdapter(adapter);
+        node.setEntityResolver(resolver);
+        node.setRowReaderFactory(mock(RowReaderFactory.class));
+
+        InsertBatchQuery batch = new InsertBatchQuery(resolver.getObjEntity(Artist.class).getDbEntity(), 5);
+        batch.add(Collections.singletonMap("ARTIST_NAME", "a1"));
+        batch.add(Collections.singletonMap("ARTIST_NAME", "a2"));
+        InsertBatchTranslator translator = new InsertBatchTranslator(batch, adapter);
+
+        // disabled both in the node and in the adapter
+        assertFalse(new BatchAction(batch, node, false).canRunAsMultiRowInsert(translator));
+
+        node.setMultiRowInsert(true);
+        assertFalse(new BatchAction(batch, node, false).canRunAsMultiRowInsert(translator));
+
+        adapter.setSupportsMultiRowInsert(true);
+        assertTrue(new BatchAction(batch, node, false).canRunAsMultiRowInsert(translator));
+
+        node.setMultiRowInsert(false);
+        assertFalse(new BatchAction(batch, node, false).canRunAsMultiRowInsert(translator));
+    }
+
     JdbcAdapter buildAdapter(boolean supportGeneratedKeys) {
         JdbcAdapter adapter = objectFactory.newInstance(JdbcAdapter.class, JdbcAdapter.class.getName());
         adapter.setSupportsGeneratedKeys(supportGeneratedKeys);
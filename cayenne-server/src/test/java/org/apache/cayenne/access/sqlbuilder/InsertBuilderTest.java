@@ -103,4 +103,22 @@ public class InsertBuilderTest extends BaseSqlBuilderTest  {
         assertSQL("INSERT INTO test( col1, col2, col3) VALUES( 1, 'test', NULL)", node);
     }
 
+    @Test
+    public void testInsertMultiRow() {
+        InsertBuilder builder = new InsertBuilder("test");
+        builder
+                .column(column("col1"))
+                .column(column("col2"))
+                .row()
+                .value(value(1))
+                .value(value("a"))
+                .row()
+                .value(value(2))
+                .value(value("b"));
+        Node node = builder.build();
+
+        assertThat(node, instanceOf(InsertNode.class));
+        assertSQL("INSERT INTO test( col1, col2) VALUES( 1, 'a'),( 2, 'b')", node);
+    }
+
 }
\ No newline at end of file
@@ -79,6 +79,26 @@ public class InsertBatchTranslatorIT extends ServerCase {
                 generatedSql);
     }
 
+    @Test
+    public void testCreateMultiRowSqlString() {
+        DbEntity entity = runtime.getDataDomain().getEntityResolver()
+                .getObjEntity(SimpleLockingTestEntity.class)
+                .getDbEntity();
+
+        DbAdapter adapter = objectFactory.newInstance(DbAdapter.class, JdbcAdapter.class.getName());
+        InsertBatchQuery insertQuery = new InsertBatchQuery(entity, 2);
+        InsertBatchTranslator builder = new InsertBatchTranslator(insertQuery, adapter);
+        String generatedSql = builder.getSql(3);
+        assertEquals("INSERT INTO " + entity.getName() + "( DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "VALUES( ?, ?, ?, ?, ?),( ?, ?, ?, ?, ?),( ?, ?, ?, ?, ?)",
+                generatedSql);
+        assertEquals(15, builder.getBindings().length);
+
+        // translating again should reset the bindings
+        builder.getSql(1);
+        assertEquals(5, builder.getBindings().length);
+    }
+
     @Test
     public void testCreateSqlStringWithIdentifiersQuote() {
         DbEntity entity = runtime.getDataDomain().getEntityResolver().getObjEntity(SimpleLockingTestEntity.class)
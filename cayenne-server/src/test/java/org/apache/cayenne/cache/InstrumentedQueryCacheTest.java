@@ -0,0 +1,158 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache;
+
+import org.apache.cayenne.di.BeforeScopeEnd;
+import org.apache.cayenne.query.MockQueryMetadata;
+import org.apache.cayenne.query.QueryMetadata;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class InstrumentedQueryCacheTest {
+
+    @Test
+    public void testGet_HitsAndMisses() {
+        InstrumentedQueryCache cache = new InstrumentedQueryCache(new MapQueryCache(5));
+        List<Object> loaded = Collections.singletonList("loaded");
+
+        assertNull(cache.get(metadata("k1", "g1")));
+        assertSame(loaded, cache.get(metadata("k1", "g1"), () -> loaded));
+        assertSame(loaded, cache.get(metadata("k1", "g1"), () -> {
+            throw new AssertionError("Entry must be cached");
+        }));
+        assertSame(loaded, cache.get(metadata("k1", "g1")));
+
+        QueryCacheGroupStats stats = cache.getStats("g1");
+        assertEquals("g1", stats.getGroup());
+        assertEquals(2, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getLoads());
+        assertEquals(0, stats.getLoadFailures());
+        assertEquals(1, stats.getEntries());
+        assertEquals(0, stats.getEvictions());
+        assertEquals(0.5, stats.getHitRatio(), 0.0001);
+    }
+
+    @Test
+    public void testGet_LoadFailure() {
+        InstrumentedQueryCache cache = new InstrumentedQueryCache(new MapQueryCache(5));
+
+        try {
+            cache.get(metadata("k1", "g1"), () -> {
+                throw new IllegalStateException("Test failure");
+            });
+            fail("Load failure expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        QueryCacheGroupStats stats = cache.getStats("g1");
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getLoads());
+        assertEquals(1, stats.getLoadFailures());
+        assertEquals(0, stats.getEntries());
+    }
+
+    @Test
+    public void testRemoveGroup() {
+        InstrumentedQueryCache cache = new InstrumentedQueryCache(new MapQueryCache(5));
+        cache.put(metadata("k1", "g1"), Collections.singletonList("a"));
+        cache.put(metadata("k2", "g2"), Collections.singletonList("b"));
+
+        cache.removeGroup("g1");
+        cache.removeGroup("g1");
+
+        assertEquals(2, cache.getStats("g1").getInvalidations());
+        assertEquals(0, cache.getStats("g1").getEntries());
+        assertEquals(0, cache.getStats("g2").getInvalidations());
+        assertEquals(1, cache.getStats("g2").getEntries());
+    }
+
+    @Test
+    public void testGetStats_Evictions() {
+        InstrumentedQueryCache cache = new InstrumentedQueryCache(new MapQueryCache(2));
+        for (int i = 0; i < 5; i++) {
+            cache.get(metadata("k" + i, null), () -> Collections.singletonList("x"));
+        }
+
+        List<QueryCacheGroupStats> all = cache.getStats();
+        assertEquals(1, all.size());
+
+        QueryCacheGroupStats stats = all.get(0);
+        assertEquals(MapQueryCache.DEFAULT_CACHE_NAME, stats.getGroup());
+        assertEquals(5, stats.getLoads());
+        assertEquals(2, stats.getEntries());
+        assertEquals(3, stats.getEvictions());
+        assertTrue(stats.getLoadTimeNanos() >= 0);
+    }
+
+    @Test
+    public void testGetStats_UnknownDelegate() {
+        InstrumentedQueryCache cache = new InstrumentedQueryCache(new MockQueryCache());
+        cache.get(metadata("k1", "g1"));
+
+        QueryCacheGroupStats stats = cache.getStats("g1");
+        assertEquals(1, stats.getMisses());
+        assertEquals(-1, stats.getEntries());
+        assertEquals(-1, stats.getEvictions());
+    }
+
+    @Test
+    public void testShutdown_ForwardsToDelegate() {
+        ShutdownAwareQueryCache delegate = new ShutdownAwareQueryCache();
+        InstrumentedQueryCache cache = new InstrumentedQueryCache(delegate);
+
+        cache.shutdown();
+        assertTrue(delegate.shutdown);
+    }
+
+    private static QueryMetadata metadata(String key, String group) {
+        return new MockQueryMetadata() {
+
+            @Override
+            public String getCacheKey() {
+                return key;
+            }
+
+            @Override
+            public String getCacheGroup() {
+                return group;
+            }
+        };
+    }
+
+    public static class ShutdownAwareQueryCache extends MockQueryCache {
+
+        boolean shutdown;
+
+        @BeforeScopeEnd
+        public void shutdown() {
+            shutdown = true;
+        }
+    }
+}
@@ -19,13 +19,30 @@
 package org.apache.cayenne.cache;
 
 import org.apache.cayenne.query.MockQueryMetadata;
+import org.apache.cayenne.query.QueryMetadata;
 import org.apache.cayenne.util.Util;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class MapQueryCacheTest {
 
@@ -47,4 +64,219 @@ public class MapQueryCacheTest {
         assertNotNull(deserialized);
         assertEquals(1, deserialized.size());
     }
+
+    @Test
+    public void testGet_SingleLoader() throws Exception {
+        MapQueryCache cache = new MapQueryCache(5);
+        QueryMetadata metadata = metadata("key", "group");
+
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch finishLoading = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        List<Object> loaded = Collections.singletonList("loaded");
+
+        QueryCacheEntryFactory factory = () -> {
+            calls.incrementAndGet();
+            loaderStarted.countDown();
+            try {
+                finishLoading.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return loaded;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List> first = executor.submit(() -> cache.get(metadata, factory));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            Future<List> second = executor.submit(() -> cache.get(metadata, factory));
+
+            finishLoading.countDown();
+            assertSame(loaded, first.get(5, TimeUnit.SECONDS));
+            assertSame(loaded, second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertSame(loaded, cache.get(metadata));
+    }
+
+    @Test
+    public void testGet_LoaderFailure() {
+        MapQueryCache cache = new MapQueryCache(5);
+        QueryMetadata metadata = metadata("key", "group");
+
+        try {
+            cache.get(metadata, () -> {
+                throw new IllegalStateException("test");
+            });
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // failed load is not cached and doesn't block the next one
+        List<Object> loaded = Collections.singletonList("loaded");
+        assertSame(loaded, cache.get(metadata, () -> loaded));
+    }
+
+    @Test
+    public void testGet_StaleWhileRevalidate() throws Exception {
+        MapQueryCache cache = new MapQueryCache(5);
+        cache.setStaleWhileRevalidate(true);
+        QueryMetadata metadata = metadata("key", "group");
+
+        List<Object> stale = Collections.singletonList("stale");
+        cache.put(metadata, stale);
+        cache.removeGroup("group");
+
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch finishLoading = new CountDownLatch(1);
+        List<Object> loaded = Collections.singletonList("loaded");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List> loader = executor.submit(() -> cache.get(metadata, () -> {
+                loaderStarted.countDown();
+                try {
+                    finishLoading.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return loaded;
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            // stale entry is served while the loader is running
+            assertSame(stale, cache.get(metadata, () -> {
+                throw new AssertionError("Must not be called");
+            }));
+
+            finishLoading.countDown();
+            assertSame(loaded, loader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertSame(loaded, cache.get(metadata, () -> {
+            throw new AssertionError("Must not be called");
+        }));
+    }
+
+    @Test
+    public void testStaleWhileRevalidate_DropReloaded() {
+        MapQueryCache cache = new MapQueryCache(5);
+        cache.setStaleWhileRevalidate(true);
+        QueryMetadata m1 = metadata("k1", "group");
+        QueryMetadata m2 = metadata("k2", "group");
+
+        cache.put(m1, Collections.singletonList(1));
+        cache.put(m2, Collections.singletonList(2));
+        cache.removeGroup("group");
+        assertTrue(cache.staleGroups.containsKey("group"));
+
+        cache.put(m1, Collections.singletonList(1));
+        assertTrue(cache.staleGroups.containsKey("group"));
+
+        // all the entries are reloaded
+        cache.put(m2, Collections.singletonList(2));
+        assertFalse(cache.staleGroups.containsKey("group"));
+    }
+
+    @Test
+    public void testStaleWhileRevalidate_DropExpired() throws Exception {
+        MapQueryCache cache = new MapQueryCache(5);
+        cache.setStaleWhileRevalidate(true);
+        cache.setStaleTimeout(50);
+
+        cache.put(metadata("k1", "g1"), Collections.singletonList(1));
+        cache.removeGroup("g1");
+        assertTrue(cache.staleGroups.containsKey("g1"));
+
+        Thread.sleep(100);
+
+        // expired stale groups are dropped on the next group removal
+        cache.put(metadata("k2", "g2"), Collections.singletonList(2));
+        cache.removeGroup("g2");
+        assertFalse(cache.staleGroups.containsKey("g1"));
+        assertTrue(cache.staleGroups.containsKey("g2"));
+    }
+
+    @Test
+    public void testGroupPolicy_TimeToLive() throws Exception {
+        Map<String, QueryCacheGroupPolicy> policies = new HashMap<>();
+        policies.put("g1", QueryCacheGroupPolicy.builder().timeToLive(50, TimeUnit.MILLISECONDS).build());
+        MapQueryCache cache = new MapQueryCache(QueryCacheGroupPolicy.maxEntries(5), policies);
+
+        for (int i = 0; i < 5; i++) {
+            cache.put(metadata("k" + i, "g1"), Collections.singletonList(i));
+        }
+        cache.put(metadata("k", "g2"), Collections.singletonList("g2"));
+        assertNotNull(cache.get(metadata("k0", "g1")));
+
+        Thread.sleep(150);
+
+        // expired entry is not returned on read
+        assertNull(cache.get(metadata("k0", "g1")));
+
+        // the rest of the expired entries are removed by the timer wheel
+        assertEquals(1, cache.size());
+
+        // group without a policy never expires
+        assertNotNull(cache.get(metadata("k", "g2")));
+    }
+
+    @Test
+    public void testGroupPolicy_TimeToIdle() throws Exception {
+        Map<String, QueryCacheGroupPolicy> policies = new HashMap<>();
+        policies.put("g1", QueryCacheGroupPolicy.builder().timeToIdle(300, TimeUnit.MILLISECONDS).build());
+        MapQueryCache cache = new MapQueryCache(QueryCacheGroupPolicy.maxEntries(5), policies);
+
+        cache.put(metadata("k1", "g1"), Collections.singletonList(1));
+        cache.put(metadata("k2", "g1"), Collections.singletonList(2));
+
+        // access keeps the entry alive
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(100);
+            assertNotNull(cache.get(metadata("k1", "g1")));
+        }
+
+        assertNull(cache.get(metadata("k2", "g1")));
+    }
+
+    @Test
+    public void testGroupPolicy_MaxWeight() {
+        Map<String, QueryCacheGroupPolicy> policies = new HashMap<>();
+        policies.put("g1", QueryCacheGroupPolicy.builder().maxWeight(10).build());
+        MapQueryCache cache = new MapQueryCache(QueryCacheGroupPolicy.maxEntries(5), policies);
+
+        cache.put(metadata("k1", "g1"), Arrays.asList(1, 2, 3, 4, 5, 6));
+        cache.put(metadata("k2", "g1"), Arrays.asList(1, 2, 3, 4, 5, 6));
+
+        assertNull(cache.get(metadata("k1", "g1")));
+        assertNotNull(cache.get(metadata("k2", "g1")));
+
+        // the default group is limited by the number of entries
+        for (int i = 0; i < 10; i++) {
+            cache.put(metadata("k" + i, null), Arrays.asList(1, 2, 3, 4, 5, 6));
+        }
+        assertEquals(6, cache.size());
+    }
+
+    private static QueryMetadata metadata(String key, String group) {
+        return new MockQueryMetadata() {
+
+            @Override
+            public String getCacheKey() {
+                return key;
+            }
+
+            @Override
+            public String getCacheGroup() {
+                return group;
+            }
+        };
+    }
 }
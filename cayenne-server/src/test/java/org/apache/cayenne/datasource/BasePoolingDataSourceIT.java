@@ -21,6 +21,8 @@ package org.apache.cayenne.datasource;
 import java.sql.Driver;
 import java.sql.SQLException;
 
+import javax.sql.DataSource;
+
 import org.apache.cayenne.conn.DataSourceInfo;
 import org.apache.cayenne.di.AdhocObjectFactory;
 import org.apache.cayenne.di.Inject;
@@ -41,7 +43,7 @@ public class BasePoolingDataSourceIT extends ServerCase {
 	@Inject
 	private AdhocObjectFactory objectFactory;
 
-	protected UnmanagedPoolingDataSource dataSource;
+	protected BasePoolingDataSource dataSource;
 
 	@Before
 	public void before() throws SQLException {
@@ -51,7 +53,7 @@ public class BasePoolingDataSourceIT extends ServerCase {
 				dataSourceInfo.getUserName(), dataSourceInfo.getPassword());
 
 		PoolingDataSourceParameters poolParameters = createParameters();
-		this.dataSource = new UnmanagedPoolingDataSource(nonPooling, poolParameters);
+		this.dataSource = createDataSource(nonPooling, poolParameters);
 	}
 
 	@After
@@ -61,6 +63,10 @@ public class BasePoolingDataSourceIT extends ServerCase {
 		}
 	}
 
+	protected BasePoolingDataSource createDataSource(DataSource nonPooling, PoolingDataSourceParameters parameters) {
+		return new UnmanagedPoolingDataSource(nonPooling, parameters);
+	}
+
 	protected PoolingDataSourceParameters createParameters() {
 		PoolingDataSourceParameters poolParameters = new PoolingDataSourceParameters();
 		poolParameters.setMinConnections(2);
@@ -0,0 +1,209 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link ConcurrentPoolingDataSource} specific behavior. Behavior common for all pool engines is tested
+ * in {@link PoolingDataSourceIT}.
+ */
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class ConcurrentPoolingDataSourceIT extends BasePoolingDataSourceIT {
+
+	@Override
+	protected BasePoolingDataSource createDataSource(DataSource nonPooling, PoolingDataSourceParameters parameters) {
+		return new ConcurrentPoolingDataSource(nonPooling, parameters);
+	}
+
+	@Override
+	protected PoolingDataSourceParameters createParameters() {
+		PoolingDataSourceParameters params = super.createParameters();
+		params.setValidationQuery("SELECT count(1) FROM ARTIST");
+		return params;
+	}
+
+	private ConcurrentPoolingDataSource concurrentDataSource() {
+		return (ConcurrentPoolingDataSource) dataSource;
+	}
+
+	@Test
+	public void testGetConnection_ThreadAffinity() throws Exception {
+
+		Connection c1 = dataSource.getConnection();
+		Connection c2 = dataSource.getConnection();
+		assertNotSame(c1, c2);
+
+		c2.close();
+		c1.close();
+
+		// the last connection returned by this thread is preferred
+		Connection c3 = dataSource.getConnection();
+		try {
+			assertSame(c1, c3);
+		} finally {
+			c3.close();
+		}
+	}
+
+	@Test
+	public void testGetConnection_Handoff() throws Exception {
+
+		List<Connection> connections = new ArrayList<>();
+		for (int i = 0; i < dataSource.getMaxConnections(); i++) {
+			connections.add(dataSource.getConnection());
+		}
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final Connection[] received = new Connection[1];
+			executor.submit(() -> {
+				try {
+					received[0] = dataSource.getConnection();
+				} catch (SQLException e) {
+					throw new RuntimeException(e);
+				}
+			});
+
+			// wait for the second thread to start waiting
+			for (int i = 0; i < 100 && concurrentDataSource().waitingThreads() == 0; i++) {
+				Thread.sleep(10);
+			}
+			assertEquals(1, concurrentDataSource().waitingThreads());
+
+			connections.get(0).close();
+
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+			assertSame(connections.get(0), received[0]);
+
+			received[0].close();
+		} finally {
+			for (int i = 1; i < connections.size(); i++) {
+				connections.get(i).close();
+			}
+		}
+	}
+
+	@Test
+	public void testRetire_CheckedOut() throws Exception {
+
+		PoolAwareConnection c1 = (PoolAwareConnection) dataSource.getConnection();
+		assertEquals(2, dataSource.poolSize());
+
+		dataSource.retire(c1);
+		assertEquals(1, dataSource.poolSize());
+		assertEquals(2, dataSource.canExpandSize());
+
+		// returning a retired connection must not put it back to the pool
+		c1.close();
+		assertEquals(1, dataSource.poolSize());
+		assertEquals(1, dataSource.availableSize());
+		assertEquals(2, dataSource.canExpandSize());
+	}
+
+	@Test
+	public void testManagePool_ValidatesIdle() throws Exception {
+
+		PoolAwareConnection c1 = (PoolAwareConnection) dataSource.getConnection();
+		c1.close();
+
+		// break the idle connection behind the pool's back
+		c1.getConnection().close();
+
+		dataSource.managePool();
+
+		// the broken connection is gone, and a new one was created to maintain min connections
+		assertEquals(2, dataSource.poolSize());
+		assertEquals(2, dataSource.availableSize());
+
+		Connection c2 = dataSource.getConnection();
+		try {
+			assertNotSame(c1, c2);
+		} finally {
+			c2.close();
+		}
+	}
+
+	@Test
+	public void testGetConnection_TimeoutUnderContention() throws Exception {
+
+		List<Connection> connections = new ArrayList<>();
+		for (int i = 0; i < dataSource.getMaxConnections(); i++) {
+			connections.add(dataSource.getConnection());
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<Connection>> waiters = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				waiters.add(executor.submit(() -> dataSource.getConnection()));
+			}
+
+			for (int i = 0; i < 100 && concurrentDataSource().waitingThreads() < 2; i++) {
+				Thread.sleep(10);
+			}
+			assertEquals(2, concurrentDataSource().waitingThreads());
+
+			// only one of the waiting threads can get the returned connection, the other one must time out
+			connections.remove(0).close();
+
+			int received = 0;
+			int timedOut = 0;
+			for (Future<Connection> waiter : waiters) {
+				try {
+					connections.add(waiter.get(QUEUE_WAIT_TIME * 5, TimeUnit.MILLISECONDS));
+					received++;
+				} catch (ExecutionException e) {
+					assertTrue(e.getCause() instanceof UnmanagedPoolingDataSource.ConnectionUnavailableException);
+					timedOut++;
+				}
+			}
+
+			assertEquals(1, received);
+			assertEquals(1, timedOut);
+			assertEquals(0, concurrentDataSource().waitingThreads());
+			assertEquals(dataSource.getMaxConnections(), dataSource.poolSize());
+		} finally {
+			executor.shutdownNow();
+			for (Connection c : connections) {
+				c.close();
+			}
+		}
+	}
+}
@@ -18,9 +18,14 @@
  ****************************************************************/
 package org.apache.cayenne.datasource;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -94,4 +99,82 @@ public class PoolAwareConnectionTest {
 		}
 
 	}
+
+	@Test
+	public void testPrepareStatement_Cached() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		PreparedStatement st2 = mock(PreparedStatement.class);
+		when(connectionMock.prepareStatement("SELECT 1")).thenReturn(st1);
+		when(connectionMock.prepareStatement("SELECT 2")).thenReturn(st2);
+
+		InMemoryPoolingDataSourceMetrics metrics = new InMemoryPoolingDataSourceMetrics();
+		PoolAwareConnection paConnection = new PoolAwareConnection(parentMock, connectionMock, null,
+				new StatementCache(5, metrics));
+
+		PreparedStatement c1 = paConnection.prepareStatement("SELECT 1");
+		c1.close();
+		assertTrue(c1.isClosed());
+		verify(st1, never()).close();
+		verify(st1).clearParameters();
+
+		PreparedStatement c2 = paConnection.prepareStatement("SELECT 1");
+		assertNotSame(c1, c2);
+		assertFalse(c2.isClosed());
+		c2.executeQuery();
+		verify(st1).executeQuery();
+		verify(connectionMock, times(1)).prepareStatement("SELECT 1");
+
+		// same SQL is not shared by concurrently open statements
+		PreparedStatement c3 = paConnection.prepareStatement("SELECT 1");
+		verify(connectionMock, times(2)).prepareStatement("SELECT 1");
+		c2.close();
+		c3.close();
+
+		paConnection.prepareStatement("SELECT 2").close();
+
+		assertEquals(1, metrics.getStatementCacheHits());
+		assertEquals(3, metrics.getStatementCacheMisses());
+		assertEquals(2, paConnection.getStatementCache().size());
+	}
+
+	@Test
+	public void testPrepareStatement_CacheEviction() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		PreparedStatement st2 = mock(PreparedStatement.class);
+		when(connectionMock.prepareStatement("SELECT 1")).thenReturn(st1);
+		when(connectionMock.prepareStatement("SELECT 2")).thenReturn(st2);
+
+		InMemoryPoolingDataSourceMetrics metrics = new InMemoryPoolingDataSourceMetrics();
+		PoolAwareConnection paConnection = new PoolAwareConnection(parentMock, connectionMock, null,
+				new StatementCache(1, metrics));
+
+		paConnection.prepareStatement("SELECT 1").close();
+		paConnection.prepareStatement("SELECT 2").close();
+
+		verify(st1).close();
+		verify(st2, never()).close();
+		assertEquals(1, metrics.getStatementsEvicted());
+
+		paConnection.clearStatementCache();
+		verify(st2).close();
+		assertEquals(0, paConnection.getStatementCache().size());
+	}
+
+	@Test
+	public void testPrepareStatement_CacheResetsSettings() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		when(st1.getMaxRows()).thenReturn(0);
+		when(connectionMock.prepareStatement("SELECT 1")).thenReturn(st1);
+
+		PoolAwareConnection paConnection = new PoolAwareConnection(parentMock, connectionMock, null,
+				new StatementCache(5, NoopPoolingDataSourceMetrics.INSTANCE));
+
+		PreparedStatement c1 = paConnection.prepareStatement("SELECT 1");
+		c1.setMaxRows(10);
+		c1.close();
+
+		verify(st1).setMaxRows(10);
+		verify(st1).setMaxRows(0);
+		verify(st1, never()).close();
+	}
 }
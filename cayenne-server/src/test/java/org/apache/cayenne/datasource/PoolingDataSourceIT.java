@@ -22,12 +22,17 @@ package org.apache.cayenne.datasource;
 import org.apache.cayenne.unit.di.server.CayenneProjects;
 import org.apache.cayenne.unit.di.server.UseServerRuntime;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -36,9 +41,34 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
+@RunWith(Parameterized.class)
 @UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
 public class PoolingDataSourceIT extends BasePoolingDataSourceIT {
 
+	@Parameterized.Parameters(name = "{0}")
+	public static Collection<Object[]> engines() {
+		return Arrays.asList(new Object[][]{
+				{PoolingDataSourceEngine.BLOCKING_QUEUE},
+				{PoolingDataSourceEngine.CONCURRENT}
+		});
+	}
+
+	private final PoolingDataSourceEngine engine;
+
+	public PoolingDataSourceIT(PoolingDataSourceEngine engine) {
+		this.engine = engine;
+	}
+
+	@Override
+	protected BasePoolingDataSource createDataSource(DataSource nonPooling, PoolingDataSourceParameters parameters) {
+		switch (engine) {
+			case CONCURRENT:
+				return new ConcurrentPoolingDataSource(nonPooling, parameters);
+			default:
+				return new UnmanagedPoolingDataSource(nonPooling, parameters);
+		}
+	}
+
 	@Test(expected = UnsupportedOperationException.class)
 	public void testGetConnectionWithUserName() throws Exception {
 		dataSource.getConnection("user", "password");
@@ -149,6 +179,53 @@ public class PoolingDataSourceIT extends BasePoolingDataSourceIT {
 		assertEquals(3, dataSource.availableSize());
 	}
 
+	@Test
+	public void testClose_Twice() throws Exception {
+
+		Connection c1 = dataSource.getConnection();
+		c1.close();
+		c1.close();
+
+		assertEquals(2, dataSource.poolSize());
+		assertEquals(2, dataSource.availableSize());
+
+		// a connection closed twice must be checked out only once
+		Connection c2 = dataSource.getConnection();
+		Connection c3 = dataSource.getConnection();
+		try {
+			assertNotSame(c2, c3);
+		} finally {
+			c2.close();
+			c3.close();
+		}
+	}
+
+	@Test
+	public void testGetConnection_Interrupted() throws Exception {
+
+		List<Connection> connections = new ArrayList<>();
+		for (int i = 0; i < dataSource.getMaxConnections(); i++) {
+			connections.add(dataSource.getConnection());
+		}
+
+		try {
+			Thread.currentThread().interrupt();
+			try {
+				dataSource.getConnection();
+				fail("Interrupted thread obtained a connection from a full pool");
+			} catch (UnmanagedPoolingDataSource.ConnectionUnavailableException e) {
+				// expected
+			}
+
+			// the interrupt is preserved for the caller
+			assertTrue(Thread.interrupted());
+		} finally {
+			for (Connection c : connections) {
+				c.close();
+			}
+		}
+	}
+
 	@Test
 	public void testGetConnection_BeforeScopeEnd() throws Exception {
 
@@ -0,0 +1,124 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PoolingDataSourceMetricsIT extends BasePoolingDataSourceIT {
+
+	private static final long LEAK_DETECTION_THRESHOLD = 200L;
+
+	private InMemoryPoolingDataSourceMetrics metrics;
+
+	@Override
+	protected PoolingDataSourceParameters createParameters() {
+		this.metrics = new InMemoryPoolingDataSourceMetrics();
+
+		PoolingDataSourceParameters params = super.createParameters();
+		params.setMetrics(metrics);
+		params.setLeakDetectionThreshold(LEAK_DETECTION_THRESHOLD);
+		return params;
+	}
+
+	@Test
+	public void testStatus() throws SQLException {
+		assertSame(dataSource, metrics.getStatus());
+		assertEquals(2, metrics.getConnectionsCreated());
+
+		PoolingDataSourceStatus status = metrics.getStatus();
+		assertEquals(2, status.getTotalConnections());
+		assertEquals(2, status.getIdleConnections());
+		assertEquals(0, status.getActiveConnections());
+		assertEquals(0, status.getPendingRequests());
+		assertEquals(3, status.getMaxConnections());
+
+		try (Connection c1 = dataSource.getConnection()) {
+			assertEquals(1, status.getActiveConnections());
+			assertEquals(1, status.getIdleConnections());
+
+			try (Connection c2 = dataSource.getConnection(); Connection c3 = dataSource.getConnection()) {
+				assertEquals(3, status.getActiveConnections());
+				assertEquals(0, status.getIdleConnections());
+				assertEquals(3, metrics.getConnectionsCreated());
+			}
+		}
+
+		assertEquals(0, status.getActiveConnections());
+		assertEquals(3, status.getIdleConnections());
+		assertEquals(3, metrics.getCheckoutWaitTime().getCount());
+	}
+
+	@Test
+	public void testConnectionUnavailable() throws SQLException {
+		try (Connection c1 = dataSource.getConnection();
+			 Connection c2 = dataSource.getConnection();
+			 Connection c3 = dataSource.getConnection()) {
+
+			try {
+				dataSource.getConnection();
+				fail("Pool overflow not checked");
+			} catch (UnmanagedPoolingDataSource.ConnectionUnavailableException e) {
+				// expected
+			}
+		}
+
+		assertEquals(1, metrics.getConnectionsUnavailable());
+		assertEquals(4, metrics.getCheckoutWaitTime().getCount());
+		assertTrue(metrics.getCheckoutWaitTime().getMax() >= QUEUE_WAIT_TIME * 1000);
+	}
+
+	@Test
+	public void testConnectionRetired() throws SQLException {
+		PoolAwareConnection c = (PoolAwareConnection) dataSource.getConnection();
+		dataSource.retire(c);
+
+		// repeated retire must not be reported twice
+		dataSource.retire(c);
+
+		assertEquals(1, metrics.getConnectionsRetired());
+		assertEquals(1, metrics.getConnectionAge().getCount());
+	}
+
+	@Test
+	public void testLeakDetected() throws SQLException, InterruptedException {
+		try (Connection c = dataSource.getConnection()) {
+			Thread.sleep(LEAK_DETECTION_THRESHOLD * 3);
+		}
+
+		assertEquals(1, metrics.getLeaksDetected());
+	}
+
+	@Test
+	public void testNoLeak() throws SQLException, InterruptedException {
+		try (Connection c = dataSource.getConnection()) {
+			// returning connection right away
+		}
+
+		Thread.sleep(LEAK_DETECTION_THRESHOLD * 2);
+		assertEquals(0, metrics.getLeaksDetected());
+	}
+}
@@ -33,7 +33,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 @UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
@@ -48,6 +54,8 @@ public class JdbcPkGeneratorIT extends ServerCase {
     @Inject
     private SchemaBuilder schemaBuilder;
 
+    private ExecutorService prefetchExecutor;
+
     @Before
     public void setUp() throws Exception {
         schemaBuilder.dropPKSupport();
@@ -56,11 +64,21 @@ public class JdbcPkGeneratorIT extends ServerCase {
     @After
     public void tearDown() throws Exception {
 
+        // wait for a background refill to finish, so that it doesn't touch PK support tables recreated below
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdown();
+            assertTrue("PK prefetch didn't stop", prefetchExecutor.awaitTermination(10, TimeUnit.SECONDS));
+            prefetchExecutor = null;
+        }
+
         if (JdbcPkGenerator.class.isAssignableFrom(adapter.getPkGenerator().getClass())) {
             // reset PK gen properly before updating PKs in DB
             JdbcPkGenerator pkGenerator = (JdbcPkGenerator) adapter.getPkGenerator();
 
             pkGenerator.setPkStartValue(JdbcPkGenerator.DEFAULT_PK_START_VALUE);
+            pkGenerator.setPkPrefetch(false);
+            pkGenerator.setPkPrefetchExecutor(null);
+            pkGenerator.reset();
 
             schemaBuilder.dropPKSupport();
             schemaBuilder.createPKSupport();
@@ -92,4 +110,35 @@ public class JdbcPkGeneratorIT extends ServerCase {
         assertTrue(pk instanceof Long);
         assertTrue("PK is too small: " + pk, ((Long) pk).longValue() > Integer.MAX_VALUE);
     }
+
+    @Test
+    public void testPkPrefetch() throws Exception {
+
+        if (!JdbcPkGenerator.class.isAssignableFrom(adapter.getPkGenerator().getClass())) {
+            return;
+        }
+
+        DbEntity artistEntity = node.getEntityResolver().getObjEntity(Artist.class).getDbEntity();
+        DbAttribute pkAttribute = artistEntity.getAttribute(Artist.ARTIST_ID_PK_COLUMN);
+
+        JdbcPkGenerator pkGenerator = (JdbcPkGenerator) adapter.getPkGenerator();
+        if (!JdbcPkGenerator.class.equals(adapter.getPkGenerator().getClass()) &&
+                !DerbyPkGenerator.class.equals(adapter.getPkGenerator().getClass())) {
+            pkGenerator.dropAutoPk(node, Collections.singletonList(artistEntity));
+        }
+        pkGenerator.createAutoPk(node, Collections.singletonList(artistEntity));
+
+        prefetchExecutor = Executors.newSingleThreadExecutor();
+        pkGenerator.setPkPrefetchExecutor(prefetchExecutor);
+        pkGenerator.setPkPrefetch(true);
+        pkGenerator.reset();
+
+        // keys are unique regardless of whether they came from the caller or from the background refill
+        Set<Object> pks = new HashSet<>();
+        int count = pkGenerator.getPkCacheSize() * 10;
+        for (int i = 0; i < count; i++) {
+            pks.add(pkGenerator.generatePk(node, pkAttribute));
+        }
+        assertEquals(count, pks.size());
+    }
 }
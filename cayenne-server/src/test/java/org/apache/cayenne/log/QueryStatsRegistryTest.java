@@ -0,0 +1,78 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.log;
+
+import org.apache.cayenne.configuration.DefaultRuntimeProperties;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class QueryStatsRegistryTest {
+
+    @Test
+    public void normalize() {
+        assertEquals("SELECT t0.NAME FROM ARTIST t0 WHERE t0.ID IN (?) AND t0.NAME = ?",
+                QueryStatsRegistry.normalize("SELECT t0.NAME FROM  ARTIST t0\nWHERE t0.ID IN (1, 2, 3) AND t0.NAME = 'it''s' "));
+        assertEquals("SELECT \"T1\".\"C2\" FROM \"T1\" WHERE X > -? AND Y IN (?)",
+                QueryStatsRegistry.normalize("SELECT \"T1\".\"C2\" FROM \"T1\" WHERE X > -1.5 AND Y IN (?, ?, ?)"));
+        assertEquals("INSERT INTO ARTIST (ID, NAME) VALUES (?)",
+                QueryStatsRegistry.normalize("INSERT INTO ARTIST (ID, NAME) VALUES (?, ?), (?, ?), (?, ?)"));
+    }
+
+    @Test
+    public void record() {
+        QueryStatsRegistry registry = new QueryStatsRegistry(true);
+        for (int i = 1; i <= 100; i++) {
+            registry.record("SELECT NAME FROM ARTIST WHERE ID = " + i, i * 1000L, 2);
+        }
+        registry.record("DELETE FROM ARTIST", 1000L, 5);
+
+        List<QueryStats> stats = registry.getStats();
+        assertEquals(2, stats.size());
+
+        QueryStats select = stats.get(0);
+        assertEquals("SELECT NAME FROM ARTIST WHERE ID = ?", select.getSql());
+        assertEquals(100, select.getCount());
+        assertEquals(5_050_000L, select.getTotalTimeNanos());
+        assertEquals(2.0, select.getRowsPerCall(), 0.0001);
+
+        // percentiles are approximate
+        assertEquals(50_000, select.getP50TimeNanos(), 50_000 * 0.125);
+        assertEquals(99_000, select.getP99TimeNanos(), 99_000 * 0.125);
+
+        assertEquals(5, registry.getStats("DELETE FROM  ARTIST").getRows());
+
+        registry.clear();
+        assertTrue(registry.getStats().isEmpty());
+    }
+
+    @Test
+    public void recordDisabled() {
+        QueryStatsRegistry registry = new QueryStatsRegistry(new DefaultRuntimeProperties(Collections.emptyMap()));
+        assertFalse(registry.isEnabled());
+
+        registry.record("SELECT 1", 1000L, 1);
+        assertTrue(registry.getStats().isEmpty());
+        assertNull(registry.getStats("SELECT 1"));
+    }
+}
@@ -0,0 +1,94 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.query;
+
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.compound.CompoundFkTestEntity;
+import org.apache.cayenne.testdo.compound.CompoundPkTestEntity;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+@UseServerRuntime(CayenneProjects.COMPOUND_PROJECT)
+public class BulkQueryCompoundIT extends ServerCase {
+
+    @Inject
+    private DataContext context;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    private TableHelper tCompoundPk;
+    private TableHelper tCompoundFk;
+
+    @Before
+    public void createCompoundDataSet() throws Exception {
+        tCompoundPk = new TableHelper(dbHelper, "COMPOUND_PK_TEST");
+        tCompoundPk.setColumns("KEY1", "KEY2", "NAME");
+        tCompoundPk.insert("a1", "a2", "a");
+        tCompoundPk.insert("a1", "b2", "b");
+        tCompoundPk.insert("b1", "a2", "c");
+
+        tCompoundFk = new TableHelper(dbHelper, "COMPOUND_FK_TEST");
+        tCompoundFk.setColumns("PKEY", "F_KEY1", "F_KEY2", "NAME");
+        tCompoundFk.insert(1, "a1", "a2", "fa");
+        tCompoundFk.insert(2, "a1", "b2", "fb");
+    }
+
+    @Test
+    public void testUpdate_RelationshipQualifier() throws Exception {
+        int updated = ObjectUpdate.query(CompoundPkTestEntity.class)
+                .set(CompoundPkTestEntity.NAME, "updated")
+                .where(CompoundPkTestEntity.COMPOUND_FK_ARRAY.dot(CompoundFkTestEntity.NAME).eq("fb"))
+                .update(context);
+
+        assertEquals(1, updated);
+        assertEquals("updated", ObjectSelect.columnQuery(CompoundPkTestEntity.class, CompoundPkTestEntity.NAME)
+                .where(CompoundPkTestEntity.KEY1.eq("a1"))
+                .and(CompoundPkTestEntity.KEY2.eq("b2"))
+                .selectOne(context));
+    }
+
+    @Test
+    public void testDelete_OuterJoinQualifier() throws Exception {
+        int deleted = ObjectDelete.query(CompoundPkTestEntity.class)
+                .where(CompoundPkTestEntity.COMPOUND_FK_ARRAY.outer().isNull())
+                .delete(context);
+
+        assertEquals(1, deleted);
+        assertEquals(2, tCompoundPk.getRowCount());
+    }
+
+    @Test
+    public void testDelete_CompoundToOneQualifier() throws Exception {
+        int deleted = ObjectDelete.query(CompoundFkTestEntity.class)
+                .where(CompoundFkTestEntity.TO_COMPOUND_PK.dot(CompoundPkTestEntity.NAME).eq("a"))
+                .delete(context);
+
+        assertEquals(1, deleted);
+        assertEquals(1, tCompoundFk.getRowCount());
+    }
+}
@@ -0,0 +1,172 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.query;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.testdo.testmap.Painting;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class BulkQueryIT extends ServerCase {
+
+    @Inject
+    private DataContext context;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    private TableHelper tArtist;
+    private TableHelper tPainting;
+
+    @Before
+    public void createArtistsDataSet() throws Exception {
+        tArtist = new TableHelper(dbHelper, "ARTIST");
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+        for (int i = 1; i <= 10; i++) {
+            tArtist.insert(i, "artist" + i);
+        }
+
+        tPainting = new TableHelper(dbHelper, "PAINTING");
+        tPainting.setColumns("PAINTING_ID", "PAINTING_TITLE", "ARTIST_ID");
+        for (int i = 1; i <= 10; i++) {
+            tPainting.insert(i, "painting" + i, i % 2 + 1);
+        }
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        int updated = ObjectUpdate.query(Artist.class)
+                .set(Artist.ARTIST_NAME, "updated")
+                .where(Artist.ARTIST_NAME.in("artist1", "artist2", "artist3"))
+                .update(context);
+
+        assertEquals(3, updated);
+        assertEquals(3L, ObjectSelect.query(Artist.class, Artist.ARTIST_NAME.eq("updated")).selectCount(context));
+    }
+
+    @Test
+    public void testUpdate_NoQualifier() throws Exception {
+        int updated = ObjectUpdate.query(Artist.class)
+                .set(Artist.DATE_OF_BIRTH, null)
+                .set(Artist.ARTIST_NAME, "updated")
+                .update(context);
+
+        assertEquals(10, updated);
+        assertEquals(10L, ObjectSelect.query(Artist.class, Artist.ARTIST_NAME.eq("updated")).selectCount(context));
+    }
+
+    @Test
+    public void testUpdate_RelationshipQualifier() throws Exception {
+        int updated = ObjectUpdate.query(Artist.class)
+                .set(Artist.ARTIST_NAME, "updated")
+                .where(Artist.PAINTING_ARRAY.dot(Painting.PAINTING_TITLE).like("painting%"))
+                .update(context);
+
+        // paintings belong to artists 1 and 2 only
+        assertEquals(2, updated);
+        assertEquals(2L, ObjectSelect.query(Artist.class, Artist.ARTIST_NAME.eq("updated")).selectCount(context));
+    }
+
+    @Test
+    public void testUpdate_ToOneRelationshipQualifier() throws Exception {
+        int updated = ObjectUpdate.query(Painting.class)
+                .set(Painting.PAINTING_TITLE, "updated")
+                .where(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).eq("artist2"))
+                .update(context);
+
+        assertEquals(5, updated);
+        assertEquals(5L, ObjectSelect.query(Painting.class, Painting.PAINTING_TITLE.eq("updated")).selectCount(context));
+    }
+
+    @Test
+    public void testUpdate_EntityName() throws Exception {
+        int updated = ObjectUpdate.query(Artist.class, "Artist")
+                .set(Artist.ARTIST_NAME, "updated")
+                .where(Artist.ARTIST_NAME.eq("artist1"))
+                .update(context);
+
+        assertEquals(1, updated);
+    }
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testUpdate_EntityName_WrongResultType() {
+        ObjectUpdate.query(Painting.class, "Artist")
+                .set(Artist.ARTIST_NAME, "updated")
+                .update(context);
+    }
+
+    @Test
+    public void testUpdate_InvalidatesObjects() {
+        Artist artist = ObjectSelect.query(Artist.class, Artist.ARTIST_NAME.eq("artist5")).selectOne(context);
+        assertEquals(PersistenceState.COMMITTED, artist.getPersistenceState());
+
+        ObjectUpdate.query(Artist.class, Artist.ARTIST_NAME.eq("artist5"))
+                .set(Artist.ARTIST_NAME, "updated")
+                .update(context);
+
+        assertEquals(PersistenceState.HOLLOW, artist.getPersistenceState());
+        assertNull(context.getObjectStore().getDataRowCache().getCachedSnapshot(artist.getObjectId()));
+        assertEquals("updated", artist.getArtistName());
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+        int deleted = ObjectDelete.query(Painting.class)
+                .where(Painting.PAINTING_TITLE.in("painting1", "painting2"))
+                .delete(context);
+
+        assertEquals(2, deleted);
+        assertEquals(8, tPainting.getRowCount());
+    }
+
+    @Test
+    public void testDelete_RelationshipQualifier() throws Exception {
+        int deleted = ObjectDelete.query(Painting.class)
+                .where(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).eq("artist1"))
+                .delete(context);
+
+        assertEquals(5, deleted);
+        assertEquals(5, tPainting.getRowCount());
+    }
+
+    @Test
+    public void testDelete_OuterJoinQualifier() throws Exception {
+        // subquery reads the table rows are deleted from
+        int deleted = ObjectDelete.query(Artist.class)
+                .where(Artist.PAINTING_ARRAY.outer().isNull())
+                .delete(context);
+
+        // paintings belong to artists 1 and 2 only
+        assertEquals(8, deleted);
+        assertEquals(2, tArtist.getRowCount());
+    }
+}
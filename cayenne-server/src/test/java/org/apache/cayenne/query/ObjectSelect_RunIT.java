@@ -18,12 +18,19 @@
  ****************************************************************/
 package org.apache.cayenne.query;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.DataRow;
+import org.apache.cayenne.PersistenceState;
 import org.apache.cayenne.ResultBatchIterator;
 import org.apache.cayenne.ResultIterator;
+import org.apache.cayenne.ResultPublisher;
 import org.apache.cayenne.access.DataContext;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.test.jdbc.DBHelper;
@@ -121,6 +128,104 @@ public class ObjectSelect_RunIT extends ServerCase {
 		}
 	}
 
+	@Test
+	public void test_Stream() {
+		List<String> names = ObjectSelect.query(Artist.class)
+				.orderBy(Artist.ARTIST_ID_PK_PROPERTY.asc())
+				.stream(context)
+				.map(Artist::getArtistName)
+				.collect(Collectors.toList());
+
+		assertEquals(20, names.size());
+		assertEquals("artist1", names.get(0));
+		assertEquals("artist20", names.get(19));
+	}
+
+	@Test
+	public void test_Stream_ShortCircuit() {
+		try (Stream<Artist> stream = ObjectSelect.query(Artist.class).statementFetchSize(5).stream(context)) {
+			assertEquals(3, stream.limit(3).count());
+		}
+	}
+
+	@Test
+	public void test_Stream_Unregister() {
+		List<Artist> artists = ObjectSelect.query(Artist.class)
+				.stream(context, 5)
+				.collect(Collectors.toList());
+
+		assertEquals(20, artists.size());
+		for (Artist a : artists) {
+			assertEquals(PersistenceState.TRANSIENT, a.getPersistenceState());
+			assertNull(a.getObjectContext());
+		}
+		assertEquals(0, context.getGraphManager().registeredNodes().size());
+	}
+
+	@Test
+	public void test_Stream_Unregister_Partial() {
+		List<Artist> artists;
+		try (Stream<Artist> stream = ObjectSelect.query(Artist.class).stream(context, 5)) {
+			artists = stream.limit(7).collect(Collectors.toList());
+		}
+
+		assertEquals(7, artists.size());
+		for (Artist a : artists) {
+			assertEquals(PersistenceState.TRANSIENT, a.getPersistenceState());
+		}
+	}
+
+	@Test
+	public void test_Stream_Columns() {
+		List<Object[]> rows = ObjectSelect.columnQuery(Artist.class, Artist.ARTIST_NAME, Artist.PAINTING_ARRAY.outer().count())
+				.stream(context)
+				.collect(Collectors.toList());
+
+		assertEquals(20, rows.size());
+		assertThat(rows.get(0)[0], instanceOf(String.class));
+	}
+
+	@Test
+	public void test_Publisher() throws Exception {
+		CompletableFuture<List<String>> future = new CompletableFuture<>();
+
+		ObjectSelect.columnQuery(Artist.class, Artist.ARTIST_NAME)
+				.orderBy(Artist.ARTIST_ID_PK_PROPERTY.asc())
+				.statementFetchSize(3)
+				.publisher(context)
+				.subscribe(new ResultPublisher.Subscriber<String>() {
+
+					private final List<String> names = new ArrayList<>();
+					private ResultPublisher.Subscription subscription;
+
+					@Override
+					public void onSubscribe(ResultPublisher.Subscription subscription) {
+						this.subscription = subscription;
+						subscription.request(1);
+					}
+
+					@Override
+					public void onNext(String item) {
+						names.add(item);
+						subscription.request(1);
+					}
+
+					@Override
+					public void onError(Throwable throwable) {
+						future.completeExceptionally(throwable);
+					}
+
+					@Override
+					public void onComplete() {
+						future.complete(names);
+					}
+				});
+
+		List<String> names = future.get(10, TimeUnit.SECONDS);
+		assertEquals(20, names.size());
+		assertEquals("artist1", names.get(0));
+	}
+
 	@Test
 	public void test_SelectDataRows() {
 		List<DataRow> result = ObjectSelect.dataRowQuery(Artist.class).select(context);
@@ -44,7 +44,7 @@ import static org.mockito.Mockito.when;
 public class SelectQueryMetadataCacheKeyTest {
 
     private ValueObjectTypeRegistry registry;
-    private StringBuilder cacheKey;
+    private CacheKeyHasher cacheKey;
 
     @SuppressWarnings("unchecked")
     @Before
@@ -106,7 +106,11 @@ public class SelectQueryMetadataCacheKeyTest {
         ExpressionFactory.exp("field = 1.0").traverse(newHandler());
         String s1 = cacheKey.toString();
 
-        assertTrue(s1.contains("<value placeholder>"));
+        ExpressionFactory.exp("field = 2.0").traverse(newHandler());
+        String s2 = cacheKey.toString();
+
+        // both values are converted to the same placeholder
+        assertEquals(s1, s2);
     }
 
     /**
@@ -117,7 +121,39 @@ public class SelectQueryMetadataCacheKeyTest {
         ExpressionFactory.exp("field in (1.0,2.0,3.0)").traverse(newHandler());
         String s1 = cacheKey.toString();
 
-        assertTrue(s1.contains("<value placeholder>"));
+        ExpressionFactory.exp("field in (4.0,5.0,6.0)").traverse(newHandler());
+        String s2 = cacheKey.toString();
+
+        ExpressionFactory.exp("field in (4.0,5.0)").traverse(newHandler());
+        String s3 = cacheKey.toString();
+
+        // all values are converted to the same placeholder
+        assertEquals(s1, s2);
+        assertNotEquals(s2, s3);
+    }
+
+    /**
+     * Key size should not depend on the size of the expression.
+     */
+    @Test
+    public void cacheKeyWithLongList() {
+        Object[] values = new Object[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+
+        ExpressionFactory.inExp("field", values).traverse(newHandler());
+        String s1 = cacheKey.toString();
+
+        values[999] = 1000;
+        ExpressionFactory.inExp("field", values).traverse(newHandler());
+        String s2 = cacheKey.toString();
+
+        ExpressionFactory.exp("field = 1").traverse(newHandler());
+        String s3 = cacheKey.toString();
+
+        assertNotEquals(s1, s2);
+        assertEquals(s3.length(), s1.length());
     }
 
     @Test
@@ -165,6 +201,10 @@ public class SelectQueryMetadataCacheKeyTest {
         when(objectId2.toString()).thenReturn("objId2");
         when(persistent2.getObjectId()).thenReturn(objectId2);
 
+        // another object with the same id
+        Persistent persistent3 = mock(Persistent.class);
+        when(persistent3.getObjectId()).thenReturn(objectId1);
+
         ExpressionFactory.greaterOrEqualExp("testPath", persistent1).traverse(newHandler());
         String s1 = cacheKey.toString();
 
@@ -174,10 +214,12 @@ public class SelectQueryMetadataCacheKeyTest {
         ExpressionFactory.greaterOrEqualExp("testPath", persistent2).traverse(newHandler());
         String s3 = cacheKey.toString();
 
-        assertTrue(s1.contains("objId1"));
-        assertTrue(s3.contains("objId2"));
+        ExpressionFactory.greaterOrEqualExp("testPath", persistent3).traverse(newHandler());
+        String s4 = cacheKey.toString();
+
         assertEquals(s1, s2);
         assertNotEquals(s2, s3);
+        assertEquals(s1, s4);
     }
 
     @Test
@@ -215,7 +257,7 @@ public class SelectQueryMetadataCacheKeyTest {
     public void testPrefetchEmpty() {
         PrefetchTreeNode prefetchTreeNode = new PrefetchTreeNode();
         prefetchTreeNode.traverse(newPrefetchProcessor());
-        assertTrue(cacheKey.toString().isEmpty());
+        assertTrue(cacheKey.isEmpty());
     }
 
     @Test
@@ -232,7 +274,7 @@ public class SelectQueryMetadataCacheKeyTest {
         prefetchTreeNode.traverse(newPrefetchProcessor());
         String s2 = cacheKey.toString();
 
-        assertFalse(s1.isEmpty());
+        assertNotEquals(new CacheKeyHasher().toString(), s1);
         assertEquals(s1, s2);
     }
 
@@ -329,11 +371,11 @@ public class SelectQueryMetadataCacheKeyTest {
     }
 
     private TraversalHandler newHandler() {
-        return new ToCacheKeyTraversalHandler(registry, cacheKey = new StringBuilder());
+        return new ToCacheKeyTraversalHandler(registry, cacheKey = new CacheKeyHasher());
     }
 
     private PrefetchProcessor newPrefetchProcessor() {
-        return new ToCacheKeyPrefetchProcessor(cacheKey = new StringBuilder());
+        return new ToCacheKeyPrefetchProcessor(cacheKey = new CacheKeyHasher());
     }
 
     /* ************* Test types *************** */
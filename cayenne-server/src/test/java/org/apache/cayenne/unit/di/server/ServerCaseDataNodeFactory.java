@@ -29,12 +29,16 @@ import org.apache.cayenne.configuration.server.DataNodeFactory;
 import org.apache.cayenne.dba.DbAdapter;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.log.JdbcInstrumentation;
 
 public class ServerCaseDataNodeFactory implements DataNodeFactory {
 
 	@Inject
 	private JdbcEventLogger jdbcEventLogger;
 
+	@Inject
+	private JdbcInstrumentation jdbcInstrumentation;
+
 	@Inject
 	protected RowReaderFactory rowReaderFactory;
 
@@ -58,6 +62,7 @@ public class ServerCaseDataNodeFactory implements DataNodeFactory {
 		DataNode dataNode = new DataNode(nodeDescriptor.getName());
 
 		dataNode.setJdbcEventLogger(jdbcEventLogger);
+		dataNode.setJdbcInstrumentation(jdbcInstrumentation);
 		dataNode.setRowReaderFactory(rowReaderFactory);
 		dataNode.setBatchTranslatorFactory(batchTranslatorFactory);
 		dataNode.setSelectTranslatorFactory(selectTranslatorFactory);
@@ -0,0 +1,169 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.util;
+
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * As ConcurrentWeakValueMap and ConcurrentSoftValueMap share almost all code from their super class
+ * only one test is present for both of them.
+ */
+public class ConcurrentWeakValueMapTest {
+
+    @Test
+    public void testSimpleOperations() {
+        Map<String, Integer> map = new ConcurrentWeakValueMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("key_1"));
+        assertNull(map.get(null));
+        assertNull(map.remove(null));
+
+        map.put("key_1", 123);
+        map.put("key_2", 42);
+        assertEquals(Integer.valueOf(42), map.get("key_2"));
+        assertEquals(2, map.size());
+        assertTrue(map.containsKey("key_2"));
+        assertTrue(map.containsValue(42));
+
+        assertEquals(Integer.valueOf(42), map.put("key_2", 24));
+        assertEquals(Integer.valueOf(24), map.remove("key_2"));
+        assertEquals(1, map.size());
+        assertFalse(map.containsKey("key_2"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testEntrySetValue() {
+        Map<String, Integer> map = new ConcurrentWeakValueMap<>();
+        map.put("key_1", 123);
+        map.put("key_2", 42);
+
+        for(Map.Entry<String, Integer> entry : map.entrySet()) {
+            if("key_2".equals(entry.getKey())) {
+                assertEquals(Integer.valueOf(42), entry.setValue(24));
+                assertEquals(Integer.valueOf(24), entry.getValue());
+            }
+        }
+
+        assertEquals(Integer.valueOf(24), map.get("key_2"));
+    }
+
+    @Test
+    public void testModificationDuringIteration() {
+        Map<String, Integer> map = new ConcurrentWeakValueMap<>();
+        map.put("key_1", 123);
+        map.put("key_2", 42);
+        map.put("key_3", 543);
+
+        // unlike WeakValueMap, no ConcurrentModificationException is thrown
+        for(Map.Entry<String, Integer> entry : map.entrySet()) {
+            if("key_2".equals(entry.getKey())) {
+                map.remove("key_2");
+            }
+        }
+
+        map.entrySet().removeIf(e -> "key_3".equals(e.getKey()));
+
+        assertEquals(1, map.size());
+        assertEquals(Integer.valueOf(123), map.get("key_1"));
+    }
+
+    @Test
+    public void testClearedReferencesPurged() {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<>();
+        map.put("key_1", new Object());
+        map.put("key_2", new Object());
+
+        // simulate GC clearing the value
+        Reference<Object> ref = map.map.get("key_1");
+        ref.clear();
+        ref.enqueue();
+
+        assertNull(map.get("key_1"));
+        assertEquals(1, map.size());
+        assertEquals(1, map.entrySet().size());
+        assertFalse(map.containsKey("key_1"));
+    }
+
+    @Test
+    public void testClearedReference_KeyReused() {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<>();
+        map.put("key_1", new Object());
+
+        Reference<Object> ref = map.map.get("key_1");
+        ref.clear();
+        ref.enqueue();
+
+        // the key is registered again before the stale reference is purged
+        Object value = new Object();
+        map.map.put("key_1", map.newReference("key_1", value));
+
+        assertEquals(1, map.size());
+        assertSame(value, map.get("key_1"));
+    }
+
+    @Test
+    public void testSerializationSupport() throws Exception {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<>();
+
+        // hold references so gc won't clean them
+        Integer val1 = Integer.valueOf(543);
+
+        map.put("key_1", 123);
+        map.put("key_2", val1);
+
+        ConcurrentWeakValueMap<String, Object> clone = Util.cloneViaSerialization(map);
+
+        assertEquals(2, clone.size());
+        assertEquals(123, clone.get("key_1"));
+        assertEquals(543, clone.get("key_2"));
+
+        clone.put("key_3", 42);
+        assertEquals(3, clone.size());
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        Map<String, Integer> map1 = new ConcurrentWeakValueMap<>();
+        map1.put("key_1", 123);
+        map1.put("key_2", 42);
+
+        Map<String, Integer> map2 = new HashMap<>();
+        map2.put("key_1", 123);
+        map2.put("key_2", 42);
+
+        assertEquals(map1, map2);
+        assertEquals(map1.hashCode(), map2.hashCode());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testPutNullValue() {
+        Map<Object, Object> map = new ConcurrentWeakValueMap<>();
+        map.put("1", null);
+    }
+}
@@ -0,0 +1,219 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.ResultIterator;
+import org.apache.cayenne.ResultPublisher;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ResultIteratorPublisherTest {
+
+    private List<Runnable> tasks;
+    private Executor executor;
+
+    @Before
+    public void createExecutor() {
+        tasks = new ArrayList<>();
+        executor = tasks::add;
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    @Test
+    public void testRespectsDemand() {
+        TestIterator<Integer> iterator = new TestIterator<>(Arrays.asList(1, 2, 3, 4, 5));
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+
+        new ResultIteratorPublisher<>(() -> iterator, executor, 10).subscribe(subscriber);
+        assertNotNull(subscriber.subscription);
+        assertTrue(tasks.isEmpty());
+        assertFalse(iterator.opened);
+
+        subscriber.subscription.request(2);
+        runTasks();
+        assertEquals(Arrays.asList(1, 2), subscriber.items);
+        assertFalse(subscriber.completed);
+        assertFalse(iterator.closed);
+
+        subscriber.subscription.request(3);
+        runTasks();
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), subscriber.items);
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(1);
+        runTasks();
+        assertTrue(subscriber.completed);
+        assertTrue(iterator.closed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testUnboundedDemand_Chunks() {
+        TestIterator<Integer> iterator = new TestIterator<>(Arrays.asList(1, 2, 3, 4, 5));
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+
+        new ResultIteratorPublisher<>(() -> iterator, executor, 2).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        int taskCount = 0;
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+            taskCount++;
+        }
+
+        assertEquals(3, taskCount);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), subscriber.items);
+        assertTrue(subscriber.completed);
+        assertTrue(iterator.closed);
+    }
+
+    @Test
+    public void testCancel() {
+        TestIterator<Integer> iterator = new TestIterator<>(Arrays.asList(1, 2, 3));
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+
+        new ResultIteratorPublisher<>(() -> iterator, executor, 10).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        runTasks();
+
+        subscriber.subscription.cancel();
+        runTasks();
+        assertTrue(iterator.closed);
+
+        subscriber.subscription.request(1);
+        runTasks();
+        assertEquals(Arrays.asList(1), subscriber.items);
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        TestIterator<Integer> iterator = new TestIterator<>(Arrays.asList(1, 2, 3));
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+
+        new ResultIteratorPublisher<>(() -> iterator, executor, 10).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.request(0);
+        runTasks();
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertFalse(iterator.opened);
+    }
+
+    @Test
+    public void testQueryError() {
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+
+        new ResultIteratorPublisher<Integer>(() -> {
+            throw new CayenneRuntimeException("test");
+        }, executor, 10).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        runTasks();
+
+        assertTrue(subscriber.error instanceof CayenneRuntimeException);
+        assertFalse(subscriber.completed);
+    }
+
+    static class TestSubscriber<T> implements ResultPublisher.Subscriber<T> {
+
+        ResultPublisher.Subscription subscription;
+        List<T> items = new ArrayList<>();
+        boolean completed;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(ResultPublisher.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+    }
+
+    static class TestIterator<T> implements ResultIterator<T> {
+
+        private final Iterator<T> iterator;
+        boolean opened;
+        boolean closed;
+
+        TestIterator(List<T> rows) {
+            this.iterator = rows.iterator();
+        }
+
+        @Override
+        public List<T> allRows() {
+            List<T> rows = new ArrayList<>();
+            iterator.forEachRemaining(rows::add);
+            return rows;
+        }
+
+        @Override
+        public boolean hasNextRow() {
+            opened = true;
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T nextRow() {
+            return iterator.next();
+        }
+
+        @Override
+        public void skipRow() {
+            iterator.next();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return iterator;
+        }
+    }
+}
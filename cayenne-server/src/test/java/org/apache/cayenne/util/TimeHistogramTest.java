@@ -0,0 +1,87 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TimeHistogramTest {
+
+	@Test
+	public void testBounds() {
+		TimeHistogram histogram = new TimeHistogram(TimeUnit.MILLISECONDS, 1000);
+		assertArrayEquals(new long[]{1, 10, 100, 1000}, histogram.getBounds());
+		assertEquals(5, histogram.getCounts().length);
+	}
+
+	@Test
+	public void testRecord() {
+		TimeHistogram histogram = new TimeHistogram(TimeUnit.MILLISECONDS, 1000);
+
+		histogram.record(0, TimeUnit.MILLISECONDS);
+		histogram.record(1, TimeUnit.MILLISECONDS);
+		histogram.record(5_000_000, TimeUnit.NANOSECONDS);
+		histogram.record(50, TimeUnit.MILLISECONDS);
+		histogram.record(2, TimeUnit.SECONDS);
+
+		assertArrayEquals(new long[]{2, 1, 1, 0, 1}, histogram.getCounts());
+		assertEquals(5, histogram.getCount());
+		assertEquals(2000, histogram.getMax());
+		assertEquals((1 + 5 + 50 + 2000) / 5d, histogram.getMean(), 0.0001);
+	}
+
+	@Test
+	public void testGetPercentileBound() {
+		TimeHistogram histogram = new TimeHistogram(TimeUnit.MILLISECONDS, 1000);
+		assertEquals(1, histogram.getPercentileBound(0.5));
+
+		for (int i = 0; i < 90; i++) {
+			histogram.record(1, TimeUnit.MILLISECONDS);
+		}
+
+		for (int i = 0; i < 9; i++) {
+			histogram.record(70, TimeUnit.MILLISECONDS);
+		}
+
+		histogram.record(1, TimeUnit.HOURS);
+
+		assertEquals(1, histogram.getPercentileBound(0.5));
+		assertEquals(1, histogram.getPercentileBound(0.9));
+		assertEquals(100, histogram.getPercentileBound(0.99));
+		assertEquals(Long.MAX_VALUE, histogram.getPercentileBound(1.0));
+	}
+
+	@Test
+	public void testLogLinear() {
+		TimeHistogram histogram = TimeHistogram.logLinear(TimeUnit.MICROSECONDS, 100, 4);
+		assertArrayEquals(new long[]{1, 2, 3, 4, 5, 6, 7, 8, 10, 12, 14, 16, 20, 24, 28, 32, 40, 48, 56, 64, 80, 96, 112},
+				histogram.getBounds());
+
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i, TimeUnit.MICROSECONDS);
+		}
+
+		assertEquals(56, histogram.getPercentileBound(0.5));
+		assertEquals(112, histogram.getPercentileBound(0.99));
+	}
+}